@@ -0,0 +1,91 @@
+package org.opentripplanner.ext.fares.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ext.fares.model.FareAttribute;
+import org.opentripplanner.ext.fares.model.FareRuleSet;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class FareRuleIndexTest {
+
+  private static final FeedScopedId ROUTE_1 = id("R1");
+  private static final FeedScopedId ROUTE_2 = id("R2");
+
+  private static final FareRuleSet ANY_ROUTE = ruleSet("any", 3);
+  private static final FareRuleSet ONLY_ROUTE_1 = ruleSet("route-1", 2, ROUTE_1);
+  private static final FareRuleSet ROUTE_1_AND_2 = ruleSet("route-1-and-2", 1, ROUTE_1, ROUTE_2);
+  private static final FareRuleSet OTHER_FEED = new FareRuleSet(
+    FareAttribute.of(new FeedScopedId("other", "other")).setPrice(1).build()
+  );
+
+  private final FareRuleIndex subject = new FareRuleIndex(
+    List.of(ANY_ROUTE, ONLY_ROUTE_1, ROUTE_1_AND_2, OTHER_FEED)
+  );
+
+  @Test
+  void findRulesOfTheRoutesInRuleOrder() {
+    assertEquals(
+      List.of(
+        ANY_ROUTE.getFareAttribute(),
+        ONLY_ROUTE_1.getFareAttribute(),
+        ROUTE_1_AND_2.getFareAttribute()
+      ),
+      subject.findMatchingAttributes(rides(Set.of(ROUTE_1)))
+    );
+    assertEquals(
+      List.of(ANY_ROUTE.getFareAttribute(), ROUTE_1_AND_2.getFareAttribute()),
+      subject.findMatchingAttributes(rides(Set.of(ROUTE_1, ROUTE_2)))
+    );
+    assertEquals(
+      List.of(ANY_ROUTE.getFareAttribute()),
+      subject.findMatchingAttributes(rides(Set.of(id("R3"))))
+    );
+  }
+
+  @Test
+  void cacheMatchingAttributes() {
+    var rides = rides(Set.of(ROUTE_1));
+    assertSame(subject.findMatchingAttributes(rides), subject.findMatchingAttributes(rides));
+  }
+
+  @Test
+  void isIndexOf() {
+    var rules = new ArrayList<>(List.of(ANY_ROUTE));
+    var index = new FareRuleIndex(rules);
+    assertTrue(index.isIndexOf(rules));
+    assertFalse(index.isIndexOf(List.of(ANY_ROUTE)));
+
+    rules.add(ONLY_ROUTE_1);
+    assertFalse(index.isIndexOf(rules));
+  }
+
+  private static FareRuleIndex.RideSequence rides(Set<FeedScopedId> routes) {
+    return new FareRuleIndex.RideSequence(
+      "F",
+      "A",
+      "B",
+      Set.of("A", "B"),
+      routes,
+      Set.of(id("T1")),
+      routes.size() - 1,
+      0,
+      600
+    );
+  }
+
+  private static FareRuleSet ruleSet(String id, float price, FeedScopedId... routes) {
+    var ruleSet = new FareRuleSet(FareAttribute.of(id(id)).setPrice(price).build());
+    for (FeedScopedId route : routes) {
+      ruleSet.addRoute(route);
+    }
+    return ruleSet;
+  }
+}
@@ -0,0 +1,223 @@
+package org.opentripplanner.ext.legacygraphqlapi.dataloaders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.stopTime;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestContext;
+import org.opentripplanner.ext.legacygraphqlapi.dataloaders.LegacyGraphQLDataLoaders.StopTimesKey;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitModel;
+
+class LegacyGraphQLDataLoadersTest {
+
+  private static final FeedScopedId STOP_A = id("A");
+  private static final FeedScopedId STOP_B = id("B");
+  private static final FeedScopedId STOP_C = id("C");
+
+  private static final RegularStop QUAY_A = TransitModelForTest.stopForTest("QA", 60.0, 10.0);
+  private static final RegularStop QUAY_B = TransitModelForTest.stopForTest("QB", 60.1, 10.1);
+  private static final Route ROUTE_1 = TransitModelForTest.route("1").build();
+  private static final Route ROUTE_2 = TransitModelForTest.route("2").build();
+  private static final Trip TRIP_1 = TransitModelForTest.trip("T1").withRoute(ROUTE_1).build();
+  private static final Trip TRIP_2 = TransitModelForTest.trip("T2").withRoute(ROUTE_1).build();
+  private static final TripPattern PATTERN_1 = pattern("P1", ROUTE_1, TRIP_1, TRIP_2);
+  private static final TripPattern PATTERN_2 = pattern("P2", ROUTE_1, TRIP_2);
+  private static final TripPattern PATTERN_3 = pattern("P3", ROUTE_2);
+
+  private final CountingTransitService transitService = new CountingTransitService();
+  private final DataLoaderRegistry registry = LegacyGraphQLDataLoaders.createRegistry(
+    new LegacyGraphQLRequestContext(null, transitService, null, null, null, null, null, null),
+    Runnable::run
+  );
+
+  @Test
+  void loadStopTimesOncePerDistinctKey() {
+    DataLoader<StopTimesKey, List<StopTimesInPattern>> loader = registry.getDataLoader(
+      LegacyGraphQLDataLoaders.STOP_TIMES
+    );
+    var a = loader.load(stopTimesKey(QUAY_A));
+    var b = loader.load(stopTimesKey(QUAY_B));
+    var aAgain = loader.load(stopTimesKey(QUAY_A));
+    registry.dispatchAll();
+
+    assertEquals(List.of(QUAY_A, QUAY_B), transitService.requestedStops);
+    assertEquals(List.of(PATTERN_1, PATTERN_2), patterns(a.join()));
+    assertEquals(List.of(PATTERN_1), patterns(b.join()));
+    assertSame(a.join(), aAgain.join());
+    // All keys without a start time in the batch use the same time
+    assertEquals(1, Set.copyOf(transitService.requestedStartTimes).size());
+  }
+
+  @Test
+  void loadPatternsForStopOncePerStop() {
+    DataLoader<StopLocation, Collection<TripPattern>> loader = registry.getDataLoader(
+      LegacyGraphQLDataLoaders.PATTERNS_FOR_STOP
+    );
+    var b = loader.load(QUAY_B);
+    var a = loader.load(QUAY_A);
+    loader.load(QUAY_B);
+    registry.dispatchAll();
+
+    assertEquals(List.of(QUAY_B, QUAY_A), transitService.requestedStops);
+    assertEquals(List.of(PATTERN_1), b.join());
+    assertEquals(List.of(PATTERN_1, PATTERN_2), a.join());
+  }
+
+  @Test
+  void loadPatternsForRouteOncePerRoute() {
+    DataLoader<Route, Collection<TripPattern>> loader = registry.getDataLoader(
+      LegacyGraphQLDataLoaders.PATTERNS_FOR_ROUTE
+    );
+    var route1 = loader.load(ROUTE_1);
+    loader.load(ROUTE_1);
+    var route2 = loader.load(ROUTE_2);
+    registry.dispatchAll();
+
+    assertEquals(List.of(ROUTE_1, ROUTE_2), transitService.requestedRoutes);
+    assertEquals(List.of(PATTERN_1, PATTERN_2), route1.join());
+    assertEquals(List.of(PATTERN_3), route2.join());
+  }
+
+  @Test
+  void loadDistinctTripsForRoute() {
+    DataLoader<Route, Set<Trip>> loader = registry.getDataLoader(
+      LegacyGraphQLDataLoaders.TRIPS_FOR_ROUTE
+    );
+    var route1 = loader.load(ROUTE_1);
+    var route2 = loader.load(ROUTE_2);
+    loader.load(ROUTE_1);
+    registry.dispatchAll();
+
+    assertEquals(List.of(ROUTE_1, ROUTE_2), transitService.requestedRoutes);
+    assertEquals(Set.of(TRIP_1, TRIP_2), route1.join());
+    assertEquals(Set.of(), route2.join());
+  }
+
+  @Test
+  void stopOnRouteOrTripAlerts() {
+    var onRouteAtA = alert("1", new EntitySelector.StopAndRoute(STOP_A, id("R1")));
+    var onTripAtAAndB = TransitAlert
+      .of(id("2"))
+      .addEntity(new EntitySelector.StopAndTrip(STOP_A, id("T1")))
+      .addEntity(new EntitySelector.StopAndTrip(STOP_B, id("T1")))
+      .addEntity(new EntitySelector.StopAndRoute(STOP_B, id("R1")))
+      .build();
+    var onStopA = alert("3", new EntitySelector.Stop(STOP_A));
+    var onRouteAtC = alert("4", new EntitySelector.StopAndRoute(STOP_C, id("R2")));
+
+    var result = LegacyGraphQLDataLoaders.stopOnRouteOrTripAlerts(
+      List.of(onRouteAtA, onTripAtAAndB, onStopA, onRouteAtC),
+      List.of(STOP_B, STOP_A, id("D"))
+    );
+
+    assertEquals(
+      List.of(List.of(onTripAtAAndB), List.of(onRouteAtA, onTripAtAAndB), List.of()),
+      result
+    );
+  }
+
+  private static TransitAlert alert(String id, EntitySelector entity) {
+    return TransitAlert.of(id(id)).addEntity(entity).build();
+  }
+
+  private static StopTimesKey stopTimesKey(StopLocation stop) {
+    return new StopTimesKey(stop, 0, Duration.ofHours(1), 5, ArrivalDeparture.BOTH, false);
+  }
+
+  private static List<TripPattern> patterns(List<StopTimesInPattern> stopTimes) {
+    return stopTimes.stream().map(it -> it.pattern).toList();
+  }
+
+  private static TripPattern pattern(String id, Route route, Trip... trips) {
+    var pattern = TransitModelForTest
+      .tripPattern(id, route)
+      .withStopPattern(TransitModelForTest.stopPattern(QUAY_A, QUAY_B))
+      .build();
+    for (Trip trip : trips) {
+      var stopTimes = List.of(stopTime(trip, 0, QUAY_A), stopTime(trip, 1, QUAY_B));
+      pattern.add(new TripTimes(trip, stopTimes, new Deduplicator()));
+    }
+    return pattern;
+  }
+
+  /**
+   * Return the patterns above, and record each lookup.
+   */
+  private static class CountingTransitService extends DefaultTransitService {
+
+    private static final Map<StopLocation, List<TripPattern>> PATTERNS_BY_STOP = Map.of(
+      QUAY_A,
+      List.of(PATTERN_1, PATTERN_2),
+      QUAY_B,
+      List.of(PATTERN_1)
+    );
+    private static final Map<Route, List<TripPattern>> PATTERNS_BY_ROUTE = Map.of(
+      ROUTE_1,
+      List.of(PATTERN_1, PATTERN_2),
+      ROUTE_2,
+      List.of(PATTERN_3)
+    );
+
+    private final List<StopLocation> requestedStops = new ArrayList<>();
+    private final List<Instant> requestedStartTimes = new ArrayList<>();
+    private final List<Route> requestedRoutes = new ArrayList<>();
+
+    CountingTransitService() {
+      super(new TransitModel());
+    }
+
+    @Override
+    public List<StopTimesInPattern> stopTimesForStop(
+      StopLocation stop,
+      Instant startTime,
+      Duration timeRange,
+      int numberOfDepartures,
+      ArrivalDeparture arrivalDeparture,
+      boolean includeCancelledTrips
+    ) {
+      requestedStops.add(stop);
+      requestedStartTimes.add(startTime);
+      return PATTERNS_BY_STOP.get(stop).stream().map(StopTimesInPattern::new).toList();
+    }
+
+    @Override
+    public Collection<TripPattern> getPatternsForStop(
+      StopLocation stop,
+      boolean includeRealtimeUpdates
+    ) {
+      requestedStops.add(stop);
+      return PATTERNS_BY_STOP.get(stop);
+    }
+
+    @Override
+    public Collection<TripPattern> getPatternsForRoute(Route route) {
+      requestedRoutes.add(route);
+      return PATTERNS_BY_ROUTE.get(route);
+    }
+  }
+}
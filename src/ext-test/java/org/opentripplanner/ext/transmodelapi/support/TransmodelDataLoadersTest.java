@@ -0,0 +1,111 @@
+package org.opentripplanner.ext.transmodelapi.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.stopTime;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ext.transmodelapi.support.TransmodelDataLoaders.StopTimesKey;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitModel;
+
+class TransmodelDataLoadersTest {
+
+  private static final RegularStop QUAY_A = TransitModelForTest.stopForTest("QA", 60.0, 10.0);
+  private static final RegularStop QUAY_B = TransitModelForTest.stopForTest("QB", 60.1, 10.1);
+  private static final Instant START_TIME = Instant.parse("2023-03-01T12:00:00Z");
+  private static final Route ROUTE = TransitModelForTest.route("1").build();
+  private static final Trip TRIP_1 = TransitModelForTest.trip("T1").withRoute(ROUTE).build();
+  private static final Trip TRIP_2 = TransitModelForTest.trip("T2").withRoute(ROUTE).build();
+  private static final TripPattern PATTERN_1 = pattern("P1", TRIP_1, TRIP_2);
+  private static final TripPattern PATTERN_2 = pattern("P2", TRIP_2);
+
+  private final List<Object> requests = new ArrayList<>();
+  private final DataLoaderRegistry registry = TransmodelDataLoaders.createRegistry(
+    new DefaultTransitService(new TransitModel()) {
+      @Override
+      public List<StopTimesInPattern> stopTimesForStop(
+        StopLocation stop,
+        Instant startTime,
+        Duration timeRange,
+        int numberOfDepartures,
+        ArrivalDeparture arrivalDeparture,
+        boolean includeCancelledTrips
+      ) {
+        requests.add(stop);
+        requests.add(startTime);
+        return List.of(new StopTimesInPattern(PATTERN_1));
+      }
+
+      @Override
+      public Collection<TripPattern> getPatternsForRoute(Route route) {
+        requests.add(route);
+        return List.of(PATTERN_1, PATTERN_2);
+      }
+    }
+  );
+
+  @Test
+  void loadStopTimesOncePerDistinctKey() {
+    DataLoader<StopTimesKey, List<StopTimesInPattern>> loader = registry.getDataLoader(
+      TransmodelDataLoaders.STOP_TIMES
+    );
+    loader.load(stopTimesKey(QUAY_A, null));
+    loader.load(stopTimesKey(QUAY_B, START_TIME));
+    loader.load(stopTimesKey(QUAY_B, null));
+    loader.load(stopTimesKey(QUAY_A, null));
+    var stopTimes = loader.load(stopTimesKey(QUAY_B, START_TIME));
+    registry.dispatchAll();
+
+    assertEquals(6, requests.size());
+    assertEquals(List.of(QUAY_A, QUAY_B, START_TIME, QUAY_B), requests.subList(0, 4));
+    // All keys without a start time in the batch use the same time
+    assertEquals(requests.get(1), requests.get(5));
+    assertEquals(PATTERN_1, stopTimes.join().get(0).pattern);
+  }
+
+  @Test
+  void loadDistinctTripsForRouteInPatternOrder() {
+    DataLoader<Route, List<Trip>> loader = registry.getDataLoader(
+      TransmodelDataLoaders.TRIPS_FOR_ROUTE
+    );
+    var trips = loader.load(ROUTE);
+    loader.load(ROUTE);
+    registry.dispatchAll();
+
+    assertEquals(List.of(ROUTE), requests);
+    assertEquals(List.of(TRIP_1, TRIP_2), trips.join());
+  }
+
+  private static StopTimesKey stopTimesKey(StopLocation stop, Instant startTime) {
+    return new StopTimesKey(stop, startTime, Duration.ofHours(1), 5, ArrivalDeparture.BOTH, false);
+  }
+
+  private static TripPattern pattern(String id, Trip... trips) {
+    var pattern = TransitModelForTest
+      .tripPattern(id, ROUTE)
+      .withStopPattern(TransitModelForTest.stopPattern(QUAY_A, QUAY_B))
+      .build();
+    for (Trip trip : trips) {
+      var stopTimes = List.of(stopTime(trip, 0, QUAY_A), stopTime(trip, 1, QUAY_B));
+      pattern.add(new TripTimes(trip, stopTimes, new Deduplicator()));
+    }
+    return pattern;
+  }
+}
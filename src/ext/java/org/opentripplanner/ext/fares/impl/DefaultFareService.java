@@ -11,6 +11,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.opentripplanner.ext.fares.model.FareAttribute;
 import org.opentripplanner.ext.fares.model.FareRuleSet;
 import org.opentripplanner.ext.flex.FlexibleTransitLeg;
@@ -82,6 +83,12 @@ public class DefaultFareService implements FareService {
   /** For each fare type (regular, student, etc...) the collection of rules that apply. */
   protected Map<FareType, Collection<FareRuleSet>> fareRulesPerType;
 
+  /**
+   * The index of the rules of each fare type. It is created on first use, and is not serialized
+   * with the graph.
+   */
+  private transient volatile Map<FareType, FareRuleIndex> fareRuleIndexes;
+
   public DefaultFareService() {
     fareRulesPerType = new HashMap<>();
   }
@@ -249,37 +256,25 @@ public class DefaultFareService implements FareService {
     Duration tripTime = Duration.between(startTime, lastRideStartTime);
     Duration journeyTime = Duration.between(startTime, lastRideEndTime);
 
+    var rides = new FareRuleIndex.RideSequence(
+      feedId,
+      startZone,
+      endZone,
+      zones,
+      routes,
+      trips,
+      transfersUsed,
+      tripTime.getSeconds(),
+      journeyTime.getSeconds()
+    );
+
     // find the best fare that matches this set of rides
-    for (FareRuleSet ruleSet : fareRules) {
-      FareAttribute attribute = ruleSet.getFareAttribute();
-      // fares also don't really have an agency id, they will have the per-feed default id
-      // check only if the fare is not mapped to an agency
-      if (!attribute.getId().getFeedId().equals(feedId)) continue;
-
-      if (ruleSet.matches(startZone, endZone, zones, routes, trips)) {
-        // TODO Maybe move the code below in FareRuleSet::matches() ?
-        if (attribute.isTransfersSet() && attribute.getTransfers() < transfersUsed) {
-          continue;
-        }
-        // assume transfers are evaluated at boarding time,
-        // as trimet does
-        if (
-          attribute.isTransferDurationSet() &&
-          tripTime.getSeconds() > attribute.getTransferDuration()
-        ) {
-          continue;
-        }
-        if (
-          attribute.isJourneyDurationSet() &&
-          journeyTime.getSeconds() > attribute.getJourneyDuration()
-        ) {
-          continue;
-        }
-        float newFare = getFarePrice(attribute, fareType);
-        if (newFare < bestFare) {
-          bestAttribute = attribute;
-          bestFare = newFare;
-        }
+    var matchingAttributes = fareRuleIndex(fareType, fareRules).findMatchingAttributes(rides);
+    for (FareAttribute attribute : matchingAttributes) {
+      float newFare = getFarePrice(attribute, fareType);
+      if (newFare < bestFare) {
+        bestAttribute = attribute;
+        bestFare = newFare;
       }
     }
     LOG.debug("{} best for {}", bestAttribute, legs);
@@ -289,6 +284,23 @@ public class DefaultFareService implements FareService {
     return new FareAndId(bestFare, bestAttribute == null ? null : bestAttribute.getId());
   }
 
+  /**
+   * Get the index of the given fare rules, or create it if the rules are not indexed yet.
+   */
+  private FareRuleIndex fareRuleIndex(FareType fareType, Collection<FareRuleSet> fareRules) {
+    var indexes = fareRuleIndexes;
+    if (indexes == null) {
+      indexes = new ConcurrentHashMap<>();
+      fareRuleIndexes = indexes;
+    }
+    var index = indexes.get(fareType);
+    if (index == null || !index.isIndexOf(fareRules)) {
+      index = new FareRuleIndex(fareRules);
+      indexes.put(fareType, index);
+    }
+    return index;
+  }
+
   protected float getFarePrice(FareAttribute fare, FareType type) {
     switch (type) {
       case senior:
@@ -0,0 +1,193 @@
+package org.opentripplanner.ext.fares.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opentripplanner.ext.fares.model.FareAttribute;
+import org.opentripplanner.ext.fares.model.FareRuleSet;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * Index the fare rules of one fare type by feed and by route, so only the rules that can match a
+ * sequence of rides are tested. Rules restricted to a set of routes are only tested for rides on
+ * these routes.
+ * <p>
+ * The matching fare attributes only depend on the rides, not on the rest of the itinerary, so
+ * they are cached. Itineraries of the same search often share the same rides. The number of
+ * cached ride sequences is bounded.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+final class FareRuleIndex {
+
+  private static final int MAX_CACHED_RIDE_SEQUENCES = 10_000;
+
+  private final Collection<FareRuleSet> source;
+  private final int size;
+  private final Map<String, FeedRules> rulesByFeed = new HashMap<>();
+  private final Cache<RideSequence, List<FareAttribute>> matchingAttributes = CacheBuilder
+    .newBuilder()
+    .maximumSize(MAX_CACHED_RIDE_SEQUENCES)
+    .build();
+
+  FareRuleIndex(Collection<FareRuleSet> fareRules) {
+    this.source = fareRules;
+    this.size = fareRules.size();
+
+    Map<String, List<FareRuleSet>> byFeed = new HashMap<>();
+    for (FareRuleSet ruleSet : fareRules) {
+      byFeed
+        .computeIfAbsent(ruleSet.getFareAttribute().getId().getFeedId(), f -> new ArrayList<>())
+        .add(ruleSet);
+    }
+    byFeed.forEach((feedId, rules) -> rulesByFeed.put(feedId, new FeedRules(rules)));
+  }
+
+  /**
+   * Return true if this is the index of the given rules. The index is not updated if the rules
+   * are changed, so a changed collection of rules must be indexed again.
+   */
+  boolean isIndexOf(Collection<FareRuleSet> fareRules) {
+    return fareRules == source && fareRules.size() == size;
+  }
+
+  /**
+   * Find the fare attributes of all rules matching the sequence of rides, in the order of the
+   * rules.
+   */
+  List<FareAttribute> findMatchingAttributes(RideSequence rides) {
+    var result = matchingAttributes.getIfPresent(rides);
+    if (result == null) {
+      result = computeMatchingAttributes(rides);
+      matchingAttributes.put(rides, result);
+    }
+    return result;
+  }
+
+  private List<FareAttribute> computeMatchingAttributes(RideSequence rides) {
+    var feedRules = rulesByFeed.get(rides.feedId());
+    if (feedRules == null) {
+      return List.of();
+    }
+    List<FareAttribute> result = new ArrayList<>();
+    for (FareRuleSet ruleSet : feedRules.candidates(rides.routes())) {
+      if (
+        !ruleSet.matches(
+          rides.startZone(),
+          rides.endZone(),
+          rides.zones(),
+          rides.routes(),
+          rides.trips()
+        )
+      ) {
+        continue;
+      }
+      FareAttribute attribute = ruleSet.getFareAttribute();
+      if (attribute.isTransfersSet() && attribute.getTransfers() < rides.transfersUsed()) {
+        continue;
+      }
+      // assume transfers are evaluated at boarding time,
+      // as trimet does
+      if (
+        attribute.isTransferDurationSet() &&
+        rides.tripTimeSeconds() > attribute.getTransferDuration()
+      ) {
+        continue;
+      }
+      if (
+        attribute.isJourneyDurationSet() &&
+        rides.journeyTimeSeconds() > attribute.getJourneyDuration()
+      ) {
+        continue;
+      }
+      result.add(attribute);
+    }
+    return List.copyOf(result);
+  }
+
+  /**
+   * Everything about a sequence of rides in one feed that the fare rules match on.
+   */
+  record RideSequence(
+    String feedId,
+    String startZone,
+    String endZone,
+    Set<String> zones,
+    Set<FeedScopedId> routes,
+    Set<FeedScopedId> trips,
+    int transfersUsed,
+    long tripTimeSeconds,
+    long journeyTimeSeconds
+  ) {}
+
+  /**
+   * The rules of one feed. The rules are referenced by their position, so the candidates can be
+   * returned in the original order of the rules.
+   */
+  private static final class FeedRules {
+
+    private final FareRuleSet[] rules;
+    private final int[] withoutRoutes;
+    private final Map<FeedScopedId, int[]> byRoute;
+
+    private FeedRules(List<FareRuleSet> rules) {
+      this.rules = rules.toArray(FareRuleSet[]::new);
+
+      List<Integer> withoutRoutes = new ArrayList<>();
+      Map<FeedScopedId, List<Integer>> byRoute = new HashMap<>();
+      for (int i = 0; i < this.rules.length; ++i) {
+        var routes = this.rules[i].getRoutes();
+        if (routes.isEmpty()) {
+          withoutRoutes.add(i);
+        } else {
+          for (FeedScopedId route : routes) {
+            byRoute.computeIfAbsent(route, r -> new ArrayList<>()).add(i);
+          }
+        }
+      }
+      this.withoutRoutes = toArray(withoutRoutes);
+      this.byRoute = new HashMap<>();
+      byRoute.forEach((route, list) -> this.byRoute.put(route, toArray(list)));
+    }
+
+    /**
+     * A rule restricted to a set of routes only matches if all the rides are on these routes, so
+     * it is enough to look at the rules of one of the routes. Use the route with the fewest rules.
+     */
+    private List<FareRuleSet> candidates(Set<FeedScopedId> routes) {
+      if (routes.isEmpty()) {
+        return List.of(rules);
+      }
+      int[] withRoutes = null;
+      for (FeedScopedId route : routes) {
+        int[] rulesOfRoute = byRoute.getOrDefault(route, new int[0]);
+        if (withRoutes == null || rulesOfRoute.length < withRoutes.length) {
+          withRoutes = rulesOfRoute;
+        }
+      }
+      // Merge the two sorted lists of rule positions
+      List<FareRuleSet> result = new ArrayList<>(withoutRoutes.length + withRoutes.length);
+      int i = 0;
+      int j = 0;
+      while (i < withoutRoutes.length || j < withRoutes.length) {
+        boolean nextIsWithoutRoutes =
+          j == withRoutes.length || (i < withoutRoutes.length && withoutRoutes[i] < withRoutes[j]);
+        if (nextIsWithoutRoutes) {
+          result.add(rules[withoutRoutes[i++]]);
+        } else {
+          result.add(rules[withRoutes[j++]]);
+        }
+      }
+      return result;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+      return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+  }
+}
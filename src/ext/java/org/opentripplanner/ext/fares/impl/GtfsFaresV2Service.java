@@ -6,8 +6,10 @@ import static java.util.Objects.nonNull;
 import com.google.common.collect.Multimap;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -36,6 +38,9 @@ public final class GtfsFaresV2Service implements Serializable {
   private final Set<String> networksWithRules;
   private final Set<String> fromAreasWithRules;
   private final Set<String> toAreasWithRules;
+  private final Map<String, List<FareLegRule>> legRulesByFeed;
+  private final Map<String, List<FareTransferRule>> transferRulesByFeed;
+  private final Map<String, FareLegRule> legRulesByGroupId;
 
   public GtfsFaresV2Service(
     List<FareLegRule> legRules,
@@ -48,6 +53,15 @@ public final class GtfsFaresV2Service implements Serializable {
     this.fromAreasWithRules = findAreasWithRules(legRules, FareLegRule::fromAreaId);
     this.toAreasWithRules = findAreasWithRules(legRules, FareLegRule::toAreadId);
     this.stopAreas = stopAreas;
+    this.legRulesByFeed = legRules.stream().collect(Collectors.groupingBy(FareLegRule::feedId));
+    this.transferRulesByFeed =
+      fareTransferRules.stream().collect(Collectors.groupingBy(FareTransferRule::feedId));
+    this.legRulesByGroupId = new HashMap<>();
+    for (FareLegRule rule : legRules) {
+      if (rule.legGroupId() != null) {
+        legRulesByGroupId.putIfAbsent(rule.legGroupId(), rule);
+      }
+    }
   }
 
   public ProductResult getProducts(Itinerary itinerary) {
@@ -161,13 +175,14 @@ public final class GtfsFaresV2Service implements Serializable {
     ScheduledTransitLeg leg,
     Optional<ScheduledTransitLeg> nextLeg
   ) {
-    var legRules =
-      this.legRules.stream().filter(r -> legMatchesRule(leg, r)).collect(Collectors.toSet());
-
-    var transferRulesForLeg = transferRules
+    var feedId = leg.getAgency().getId().getFeedId();
+    var legRules = legRulesByFeed
+      .getOrDefault(feedId, List.of())
       .stream()
-      .filter(t -> t.feedId().equals(leg.getAgency().getId().getFeedId()))
-      .toList();
+      .filter(r -> legMatchesRule(leg, r))
+      .collect(Collectors.toSet());
+
+    var transferRulesForLeg = transferRulesByFeed.getOrDefault(feedId, List.of());
 
     var products = legRules
       .stream()
@@ -208,7 +223,7 @@ public final class GtfsFaresV2Service implements Serializable {
   }
 
   private Optional<FareLegRule> getFareLegRuleByGroupId(@Nonnull String groupId) {
-    return legRules.stream().filter(lr -> groupId.equals(lr.legGroupId())).findAny();
+    return Optional.ofNullable(legRulesByGroupId.get(groupId));
   }
 
   private boolean matchesArea(StopLocation stop, String areaId, Set<String> areasWithRules) {
@@ -10,6 +10,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -24,9 +25,11 @@ class IntrospectionTypeWiring {
       );
 
   private final TypeDefinitionRegistry typeRegistry;
+  private final Executor asyncExecutor;
 
-  public IntrospectionTypeWiring(TypeDefinitionRegistry typeRegistry) {
+  public IntrospectionTypeWiring(TypeDefinitionRegistry typeRegistry, Executor asyncExecutor) {
     this.typeRegistry = typeRegistry;
+    this.asyncExecutor = asyncExecutor;
   }
 
   <T> TypeRuntimeWiring build(Class<T> clazz) throws Exception {
@@ -85,7 +88,7 @@ class IntrospectionTypeWiring {
                           .anyMatch(directive -> directive.getName().equals("async"))
                       )
                   ) {
-                    return AsyncDataFetcher.async(dataFetcher);
+                    return AsyncDataFetcher.async(dataFetcher, asyncExecutor);
                   }
 
                   return dataFetcher;
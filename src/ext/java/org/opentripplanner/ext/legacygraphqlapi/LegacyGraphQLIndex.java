@@ -85,6 +85,8 @@ import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLplaceA
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLserviceTimeRangeImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLstepImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLstopAtDistanceImpl;
+import org.opentripplanner.ext.legacygraphqlapi.dataloaders.LegacyGraphQLBatchedDataFetchers;
+import org.opentripplanner.ext.legacygraphqlapi.dataloaders.LegacyGraphQLDataLoaders;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -93,8 +95,31 @@ class LegacyGraphQLIndex {
 
   static final Logger LOG = LoggerFactory.getLogger(LegacyGraphQLIndex.class);
 
+  /**
+   * Runs the async data fetchers, for example the routing in {@code plan}. The number of threads is
+   * bounded, so a burst of large queries can not start an unbounded number of threads. The tasks
+   * never wait for other tasks on this executor.
+   */
+  private static final ExecutorService fetcherExecutor = Executors.newFixedThreadPool(
+    Runtime.getRuntime().availableProcessors(),
+    new ThreadFactoryBuilder().setNameFormat("GraphQLFetcher-%d").setDaemon(true).build()
+  );
+
+  /**
+   * Runs the batches of the data loaders. The batches are short, so they should not be queued
+   * behind the long-running async fetchers on the {@link #fetcherExecutor}.
+   */
+  private static final ExecutorService dataLoaderExecutor = Executors.newFixedThreadPool(
+    Runtime.getRuntime().availableProcessors(),
+    new ThreadFactoryBuilder().setNameFormat("GraphQLDataLoader-%d").setDaemon(true).build()
+  );
+
   private static final GraphQLSchema indexSchema = buildSchema();
 
+  /**
+   * Runs the queries of a batch request. Each task blocks until its query is executed, so this
+   * must not be the {@link #fetcherExecutor}.
+   */
   static final ExecutorService threadPool = Executors.newCachedThreadPool(
     new ThreadFactoryBuilder().setNameFormat("GraphQLExecutor-%d").build()
   );
@@ -104,8 +129,11 @@ class LegacyGraphQLIndex {
       URL url = Resources.getResource("legacygraphqlapi/schema.graphqls");
       String sdl = Resources.toString(url, StandardCharsets.UTF_8);
       TypeDefinitionRegistry typeRegistry = new SchemaParser().parse(sdl);
-      IntrospectionTypeWiring typeWiring = new IntrospectionTypeWiring(typeRegistry);
-      RuntimeWiring runtimeWiring = RuntimeWiring
+      IntrospectionTypeWiring typeWiring = new IntrospectionTypeWiring(
+        typeRegistry,
+        fetcherExecutor
+      );
+      RuntimeWiring.Builder runtimeWiringBuilder = RuntimeWiring
         .newRuntimeWiring()
         .scalar(LegacyGraphQLScalars.durationScalar)
         .scalar(LegacyGraphQLScalars.polylineScalar)
@@ -170,8 +198,10 @@ class LegacyGraphQLIndex {
         .type(typeWiring.build(LegacyGraphQLMoneyImpl.class))
         .type(typeWiring.build(LegacyGraphQLCurrencyImpl.class))
         .type(typeWiring.build(LegacyGraphQLFareProductUseImpl.class))
-        .type(typeWiring.build(LegacyGraphQLFareProductImpl.class))
-        .build();
+        .type(typeWiring.build(LegacyGraphQLFareProductImpl.class));
+      // The batched data fetchers replace the data fetchers of the Impl classes above
+      LegacyGraphQLBatchedDataFetchers.typeWirings().forEach(runtimeWiringBuilder::type);
+      RuntimeWiring runtimeWiring = runtimeWiringBuilder.build();
       SchemaGenerator schemaGenerator = new SchemaGenerator();
       return schemaGenerator.makeExecutableSchema(typeRegistry, runtimeWiring);
     } catch (Exception e) {
@@ -212,6 +242,9 @@ class LegacyGraphQLIndex {
       .context(requestContext)
       .variables(variables)
       .locale(locale)
+      .dataLoaderRegistry(
+        LegacyGraphQLDataLoaders.createRegistry(requestContext, dataLoaderExecutor)
+      )
       .build();
     try {
       return graphQL.executeAsync(executionInput).get(timeoutMs, TimeUnit.MILLISECONDS);
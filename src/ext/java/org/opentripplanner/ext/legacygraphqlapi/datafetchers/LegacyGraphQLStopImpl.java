@@ -44,84 +44,100 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
 
   @Override
   public DataFetcher<Iterable<TransitAlert>> alerts() {
-    return environment -> {
-      TransitAlertService alertService = getTransitService(environment).getTransitAlertService();
-      var args = new LegacyGraphQLTypes.LegacyGraphQLStopAlertsArgs(environment.getArguments());
-      List<LegacyGraphQLTypes.LegacyGraphQLStopAlertType> types = args.getLegacyGraphQLTypes();
-      FeedScopedId id = getValue(environment, StopLocation::getId, AbstractTransitEntity::getId);
-      if (types != null) {
-        Collection<TransitAlert> alerts = new ArrayList<>();
-        if (types.contains(LegacyGraphQLStopAlertType.STOP)) {
-          alerts.addAll(alertService.getStopAlerts(id));
-        }
-        if (
-          types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES) ||
-          types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS)
-        ) {
-          alerts.addAll(
-            alertService
-              .getAllAlerts()
-              .stream()
-              .filter(alert ->
-                alert
-                  .entities()
-                  .stream()
-                  .anyMatch(entity ->
-                    (
-                      types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES) &&
-                      entity instanceof StopAndRoute stopAndRoute &&
-                      stopAndRoute.stopId().equals(id)
-                    ) ||
-                    (
-                      types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS) &&
-                      entity instanceof EntitySelector.StopAndTrip stopAndTrip &&
-                      stopAndTrip.stopId().equals(id)
-                    )
-                  )
-              )
-              .toList()
-          );
-        }
-        if (
-          types.contains(LegacyGraphQLStopAlertType.PATTERNS) ||
-          types.contains(LegacyGraphQLStopAlertType.TRIPS)
-        ) {
-          getPatterns(environment)
-            .forEach(pattern -> {
-              if (types.contains(LegacyGraphQLStopAlertType.PATTERNS)) {
-                alerts.addAll(
-                  alertService.getDirectionAndRouteAlerts(
-                    pattern.getDirection(),
-                    pattern.getRoute().getId()
+    return environment ->
+      getAlerts(
+        environment,
+        getTransitService(environment).getTransitAlertService().getAllAlerts()
+      );
+  }
+
+  /**
+   * Find the alerts of the requested types for the stop or station.
+   *
+   * @param stopOnRouteOrTripCandidates the alerts to search for the {@code STOP_ON_ROUTES} and
+   *                                    {@code STOP_ON_TRIPS} types. Finding these requires a
+   *                                    scan, so the batched data fetcher passes in only the alerts
+   *                                    already known to refer to this stop.
+   */
+  public Collection<TransitAlert> getAlerts(
+    DataFetchingEnvironment environment,
+    Collection<TransitAlert> stopOnRouteOrTripCandidates
+  ) {
+    TransitAlertService alertService = getTransitService(environment).getTransitAlertService();
+    var args = new LegacyGraphQLTypes.LegacyGraphQLStopAlertsArgs(environment.getArguments());
+    List<LegacyGraphQLTypes.LegacyGraphQLStopAlertType> types = args.getLegacyGraphQLTypes();
+    FeedScopedId id = getValue(environment, StopLocation::getId, AbstractTransitEntity::getId);
+    if (types != null) {
+      Collection<TransitAlert> alerts = new ArrayList<>();
+      if (types.contains(LegacyGraphQLStopAlertType.STOP)) {
+        alerts.addAll(alertService.getStopAlerts(id));
+      }
+      if (
+        types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES) ||
+        types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS)
+      ) {
+        alerts.addAll(
+          stopOnRouteOrTripCandidates
+            .stream()
+            .filter(alert ->
+              alert
+                .entities()
+                .stream()
+                .anyMatch(entity ->
+                  (
+                    types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES) &&
+                    entity instanceof StopAndRoute stopAndRoute &&
+                    stopAndRoute.stopId().equals(id)
+                  ) ||
+                  (
+                    types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS) &&
+                    entity instanceof EntitySelector.StopAndTrip stopAndTrip &&
+                    stopAndTrip.stopId().equals(id)
                   )
-                );
-              }
-              if (types.contains(LegacyGraphQLStopAlertType.TRIPS)) {
-                pattern
-                  .scheduledTripsAsStream()
-                  .forEach(trip -> alerts.addAll(alertService.getTripAlerts(trip.getId(), null)));
-              }
-            });
-        }
-        if (
-          types.contains(LegacyGraphQLStopAlertType.ROUTES) ||
-          types.contains(LegacyGraphQLStopAlertType.AGENCIES_OF_ROUTES)
-        ) {
-          getRoutes(environment)
-            .forEach(route -> {
-              if (types.contains(LegacyGraphQLStopAlertType.ROUTES)) {
-                alerts.addAll(alertService.getRouteAlerts(route.getId()));
-              }
-              if (types.contains(LegacyGraphQLStopAlertType.AGENCIES_OF_ROUTES)) {
-                alerts.addAll(alertService.getAgencyAlerts(route.getAgency().getId()));
-              }
-            });
-        }
-        return alerts.stream().distinct().collect(Collectors.toList());
-      } else {
-        return alertService.getStopAlerts(id);
+                )
+            )
+            .toList()
+        );
       }
-    };
+      if (
+        types.contains(LegacyGraphQLStopAlertType.PATTERNS) ||
+        types.contains(LegacyGraphQLStopAlertType.TRIPS)
+      ) {
+        getPatterns(environment)
+          .forEach(pattern -> {
+            if (types.contains(LegacyGraphQLStopAlertType.PATTERNS)) {
+              alerts.addAll(
+                alertService.getDirectionAndRouteAlerts(
+                  pattern.getDirection(),
+                  pattern.getRoute().getId()
+                )
+              );
+            }
+            if (types.contains(LegacyGraphQLStopAlertType.TRIPS)) {
+              pattern
+                .scheduledTripsAsStream()
+                .forEach(trip -> alerts.addAll(alertService.getTripAlerts(trip.getId(), null)));
+            }
+          });
+      }
+      if (
+        types.contains(LegacyGraphQLStopAlertType.ROUTES) ||
+        types.contains(LegacyGraphQLStopAlertType.AGENCIES_OF_ROUTES)
+      ) {
+        getRoutes(environment)
+          .forEach(route -> {
+            if (types.contains(LegacyGraphQLStopAlertType.ROUTES)) {
+              alerts.addAll(alertService.getRouteAlerts(route.getId()));
+            }
+            if (types.contains(LegacyGraphQLStopAlertType.AGENCIES_OF_ROUTES)) {
+              alerts.addAll(alertService.getAgencyAlerts(route.getAgency().getId()));
+            }
+          });
+      }
+      return alerts.stream().distinct().collect(Collectors.toList());
+    } else {
+      return alertService.getStopAlerts(id);
+    }
   }
 
   @Override
@@ -0,0 +1,156 @@
+package org.opentripplanner.ext.legacygraphqlapi.dataloaders;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.idl.TypeRuntimeWiring;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.dataloader.DataLoader;
+import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLStopImpl;
+import org.opentripplanner.ext.legacygraphqlapi.dataloaders.LegacyGraphQLDataLoaders.StopTimesKey;
+import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes;
+import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes.LegacyGraphQLStopAlertType;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.model.TripTimeOnDate;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.site.Station;
+import org.opentripplanner.transit.model.site.StopLocation;
+
+/**
+ * Data fetchers for the heavy nested fields, resolved with the {@link LegacyGraphQLDataLoaders}.
+ * They return the same values as the data fetchers in the corresponding Impl classes, which they
+ * replace in the schema wiring. The generated data fetcher interfaces do not allow a
+ * {@link CompletableFuture} as return type, so they can not be implemented in the Impl classes.
+ */
+public class LegacyGraphQLBatchedDataFetchers {
+
+  private LegacyGraphQLBatchedDataFetchers() {}
+
+  /**
+   * The wiring of the batched fields. It must be added to the runtime wiring after the wiring of
+   * the Impl classes, so it overrides their data fetchers for the same fields.
+   */
+  public static List<TypeRuntimeWiring> typeWirings() {
+    return List.of(
+      TypeRuntimeWiring
+        .newTypeWiring("Stop")
+        .dataFetcher("stoptimesWithoutPatterns", stopStoptimesWithoutPatterns())
+        .dataFetcher("patterns", stopPatterns())
+        .dataFetcher("alerts", stopAlerts())
+        .build(),
+      TypeRuntimeWiring
+        .newTypeWiring("Route")
+        .dataFetcher("patterns", load(LegacyGraphQLDataLoaders.PATTERNS_FOR_ROUTE))
+        .dataFetcher("trips", load(LegacyGraphQLDataLoaders.TRIPS_FOR_ROUTE))
+        .build(),
+      TypeRuntimeWiring
+        .newTypeWiring("Pattern")
+        .dataFetcher("vehiclePositions", load(LegacyGraphQLDataLoaders.VEHICLE_POSITIONS))
+        .build()
+    );
+  }
+
+  /**
+   * Load the value with the source object as key.
+   */
+  private static DataFetcher<CompletableFuture<Object>> load(String dataLoaderName) {
+    return environment -> {
+      DataLoader<Object, Object> loader = environment.getDataLoader(dataLoaderName);
+      return loader.load(environment.getSource());
+    };
+  }
+
+  private static DataFetcher<CompletableFuture<Collection<?>>> stopPatterns() {
+    return environment -> {
+      if (!(environment.getSource() instanceof StopLocation stop)) {
+        return CompletableFuture.completedFuture(null);
+      }
+      DataLoader<StopLocation, Collection<?>> loader = environment.getDataLoader(
+        LegacyGraphQLDataLoaders.PATTERNS_FOR_STOP
+      );
+      return loader.load(stop);
+    };
+  }
+
+  private static DataFetcher<CompletableFuture<List<TripTimeOnDate>>> stopStoptimesWithoutPatterns() {
+    return environment -> {
+      var args = new LegacyGraphQLTypes.LegacyGraphQLStopStoptimesForPatternsArgs(
+        environment.getArguments()
+      );
+      Object source = environment.getSource();
+      Collection<StopLocation> stops = source instanceof Station station
+        ? station.getChildStops()
+        : List.of((StopLocation) source);
+
+      List<StopTimesKey> keys = stops
+        .stream()
+        .map(stop ->
+          new StopTimesKey(
+            stop,
+            args.getLegacyGraphQLStartTime(),
+            Duration.ofSeconds(args.getLegacyGraphQLTimeRange()),
+            args.getLegacyGraphQLNumberOfDepartures(),
+            args.getLegacyGraphQLOmitNonPickups()
+              ? ArrivalDeparture.DEPARTURES
+              : ArrivalDeparture.BOTH,
+            !args.getLegacyGraphQLOmitCanceled()
+          )
+        )
+        .toList();
+
+      DataLoader<StopTimesKey, List<StopTimesInPattern>> loader = environment.getDataLoader(
+        LegacyGraphQLDataLoaders.STOP_TIMES
+      );
+      return loader
+        .loadMany(keys)
+        .thenApply(stopTimes ->
+          stopTimes
+            .stream()
+            .flatMap(List::stream)
+            .flatMap(stoptimesWithPattern -> stoptimesWithPattern.times.stream())
+            .sorted(
+              Comparator.comparing(t -> t.getServiceDayMidnight() + t.getRealtimeDeparture())
+            )
+            .limit(args.getLegacyGraphQLNumberOfDepartures())
+            .collect(Collectors.toList())
+        );
+    };
+  }
+
+  /**
+   * Only the alerts on the stop for specific routes and trips are loaded in batch, the other
+   * alert types are indexed lookups.
+   */
+  private static DataFetcher<CompletableFuture<Collection<TransitAlert>>> stopAlerts() {
+    var stopImpl = new LegacyGraphQLStopImpl();
+
+    return environment -> {
+      var args = new LegacyGraphQLTypes.LegacyGraphQLStopAlertsArgs(environment.getArguments());
+      var types = args.getLegacyGraphQLTypes();
+      if (
+        types == null ||
+        !(
+          types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES) ||
+          types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS)
+        )
+      ) {
+        return CompletableFuture.completedFuture(stopImpl.getAlerts(environment, List.of()));
+      }
+
+      Object source = environment.getSource();
+      FeedScopedId id = source instanceof Station station
+        ? station.getId()
+        : ((StopLocation) source).getId();
+
+      DataLoader<FeedScopedId, List<TransitAlert>> loader = environment.getDataLoader(
+        LegacyGraphQLDataLoaders.STOP_ON_ROUTE_OR_TRIP_ALERTS
+      );
+      return loader.load(id).thenApply(candidates -> stopImpl.getAlerts(environment, candidates));
+    };
+  }
+}
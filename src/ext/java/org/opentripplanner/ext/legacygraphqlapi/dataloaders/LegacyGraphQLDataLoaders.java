@@ -0,0 +1,182 @@
+package org.opentripplanner.ext.legacygraphqlapi.dataloaders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestContext;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * The data loaders used by the {@link LegacyGraphQLBatchedDataFetchers}. A new registry is
+ * created for each GraphQL execution, so the loaded values are cached for one query only.
+ * <p>
+ * GraphQL collects all keys requested on one level of the query before the loaders are
+ * dispatched. Each batch is then resolved as one task on the given executor, and identical keys,
+ * for example the same stop requested by a station and by itself, are only resolved once.
+ */
+public class LegacyGraphQLDataLoaders {
+
+  public static final String STOP_TIMES = "stopTimes";
+  public static final String PATTERNS_FOR_STOP = "patternsForStop";
+  public static final String PATTERNS_FOR_ROUTE = "patternsForRoute";
+  public static final String TRIPS_FOR_ROUTE = "tripsForRoute";
+  public static final String STOP_ON_ROUTE_OR_TRIP_ALERTS = "stopOnRouteOrTripAlerts";
+  public static final String VEHICLE_POSITIONS = "vehiclePositions";
+
+  private LegacyGraphQLDataLoaders() {}
+
+  public static DataLoaderRegistry createRegistry(
+    LegacyGraphQLRequestContext context,
+    Executor executor
+  ) {
+    TransitService transitService = context.transitService();
+
+    var registry = new DataLoaderRegistry();
+    registry.register(
+      STOP_TIMES,
+      newDataLoader(executor, (List<StopTimesKey> keys) -> stopTimes(transitService, keys))
+    );
+    registry.register(
+      PATTERNS_FOR_STOP,
+      newDataLoader(
+        executor,
+        mapEach((StopLocation stop) -> transitService.getPatternsForStop(stop, true))
+      )
+    );
+    registry.register(
+      PATTERNS_FOR_ROUTE,
+      newDataLoader(executor, mapEach((Route route) -> transitService.getPatternsForRoute(route)))
+    );
+    registry.register(
+      TRIPS_FOR_ROUTE,
+      newDataLoader(executor, mapEach((Route route) -> tripsForRoute(transitService, route)))
+    );
+    registry.register(
+      STOP_ON_ROUTE_OR_TRIP_ALERTS,
+      newDataLoader(
+        executor,
+        (List<FeedScopedId> keys) ->
+          stopOnRouteOrTripAlerts(transitService.getTransitAlertService().getAllAlerts(), keys)
+      )
+    );
+    registry.register(
+      VEHICLE_POSITIONS,
+      newDataLoader(
+        executor,
+        mapEach((TripPattern pattern) ->
+          context.vehiclePositionService().getVehiclePositions(pattern)
+        )
+      )
+    );
+    return registry;
+  }
+
+  /**
+   * Find the alerts with a stop-on-route or a stop-on-trip selector for each of the stops, with
+   * one scan over all alerts for the whole batch. The alerts are returned in the order of
+   * {@code allAlerts}.
+   */
+  static List<List<TransitAlert>> stopOnRouteOrTripAlerts(
+    Collection<TransitAlert> allAlerts,
+    List<FeedScopedId> stopIds
+  ) {
+    Set<FeedScopedId> requested = new HashSet<>(stopIds);
+    Map<FeedScopedId, List<TransitAlert>> alertsByStop = new HashMap<>();
+
+    for (TransitAlert alert : allAlerts) {
+      Set<FeedScopedId> stopsOfAlert = new HashSet<>();
+      for (EntitySelector entity : alert.entities()) {
+        if (entity instanceof EntitySelector.StopAndRoute stopAndRoute) {
+          stopsOfAlert.add(stopAndRoute.stopId());
+        } else if (entity instanceof EntitySelector.StopAndTrip stopAndTrip) {
+          stopsOfAlert.add(stopAndTrip.stopId());
+        }
+      }
+      for (FeedScopedId stopId : stopsOfAlert) {
+        if (requested.contains(stopId)) {
+          alertsByStop.computeIfAbsent(stopId, id -> new ArrayList<>()).add(alert);
+        }
+      }
+    }
+    return stopIds.stream().map(id -> alertsByStop.getOrDefault(id, List.of())).toList();
+  }
+
+  private static List<List<StopTimesInPattern>> stopTimes(
+    TransitService transitService,
+    List<StopTimesKey> keys
+  ) {
+    // Use the same time for all keys without a start time in the batch
+    Instant now = Instant.now();
+    return keys
+      .stream()
+      .map(key ->
+        transitService.stopTimesForStop(
+          key.stop(),
+          key.startTime() != 0 ? Instant.ofEpochSecond(key.startTime()) : now,
+          key.timeRange(),
+          key.numberOfDepartures(),
+          key.arrivalDeparture(),
+          key.includeCancelledTrips()
+        )
+      )
+      .toList();
+  }
+
+  private static Set<Trip> tripsForRoute(TransitService transitService, Route route) {
+    return transitService
+      .getPatternsForRoute(route)
+      .stream()
+      .flatMap(TripPattern::scheduledTripsAsStream)
+      .collect(Collectors.toSet());
+  }
+
+  private static <K, V> Function<List<K>, List<V>> mapEach(Function<K, V> loader) {
+    return keys -> keys.stream().map(loader).toList();
+  }
+
+  private static <K, V> DataLoader<K, V> newDataLoader(
+    Executor executor,
+    Function<List<K>, List<V>> batchLoader
+  ) {
+    BatchLoader<K, V> loader = keys ->
+      CompletableFuture.supplyAsync(() -> batchLoader.apply(keys), executor);
+    return DataLoaderFactory.newDataLoader(loader);
+  }
+
+  /**
+   * The arguments of a departure lookup for one stop.
+   *
+   * @param startTime the start time in epoch seconds, {@code 0} means now
+   */
+  public record StopTimesKey(
+    StopLocation stop,
+    long startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {}
+}
@@ -20,6 +20,7 @@ import java.util.concurrent.Executors;
 import org.opentripplanner.api.json.GraphQLResponseSerializer;
 import org.opentripplanner.ext.actuator.MicrometerGraphQLInstrumentation;
 import org.opentripplanner.ext.transmodelapi.support.OTPProcessingTimeoutGraphQLException;
+import org.opentripplanner.ext.transmodelapi.support.TransmodelDataLoaders;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.http.OtpHttpStatus;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
@@ -74,6 +75,9 @@ class TransmodelGraph {
       .context(transmodelRequestContext)
       .root(serverContext)
       .variables(variables)
+      .dataLoaderRegistry(
+        TransmodelDataLoaders.createRegistry(transmodelRequestContext.getTransitService())
+      )
       .build();
     return graphQL.execute(executionInput);
   }
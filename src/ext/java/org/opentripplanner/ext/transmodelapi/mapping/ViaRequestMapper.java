@@ -58,6 +58,7 @@ public class ViaRequestMapper {
         environment.getArgumentOrDefault("wheelchairAccessible", request.wheelchair())
       )
       .withLocale(GraphQLUtils.getLocale(environment))
+      .withMaxSegmentDuration(environment.getArgument("maxSegmentDuration"))
       .build();
   }
 }
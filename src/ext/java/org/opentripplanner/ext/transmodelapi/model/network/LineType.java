@@ -11,13 +11,17 @@ import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLOutputType;
 import graphql.schema.GraphQLTypeReference;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
+import org.dataloader.DataLoader;
 import org.opentripplanner.ext.transmodelapi.mapping.TransitIdMapper;
 import org.opentripplanner.ext.transmodelapi.model.EnumTypes;
 import org.opentripplanner.ext.transmodelapi.model.TransmodelTransportSubmode;
 import org.opentripplanner.ext.transmodelapi.support.GqlUtil;
+import org.opentripplanner.ext.transmodelapi.support.TransmodelDataLoaders;
 import org.opentripplanner.transit.model.network.Route;
 import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.Trip;
 
 public class LineType {
 
@@ -144,9 +148,12 @@ public class LineType {
           .newFieldDefinition()
           .name("journeyPatterns")
           .type(new GraphQLList(journeyPatternType))
-          .dataFetcher(environment ->
-            GqlUtil.getTransitService(environment).getPatternsForRoute(environment.getSource())
-          )
+          .dataFetcher(environment -> {
+            DataLoader<Route, Collection<TripPattern>> loader = environment.getDataLoader(
+              TransmodelDataLoaders.PATTERNS_FOR_ROUTE
+            );
+            return loader.load(environment.getSource());
+          })
           .build()
       )
       .field(
@@ -154,16 +161,21 @@ public class LineType {
           .newFieldDefinition()
           .name("quays")
           .type(new GraphQLNonNull(new GraphQLList(quayType)))
-          .dataFetcher(environment ->
-            GqlUtil
-              .getTransitService(environment)
-              .getPatternsForRoute(environment.getSource())
-              .stream()
-              .map(TripPattern::getStops)
-              .flatMap(Collection::stream)
-              .distinct()
-              .collect(Collectors.toList())
-          )
+          .dataFetcher(environment -> {
+            DataLoader<Route, Collection<TripPattern>> loader = environment.getDataLoader(
+              TransmodelDataLoaders.PATTERNS_FOR_ROUTE
+            );
+            return loader
+              .load(environment.getSource())
+              .thenApply(patterns ->
+                patterns
+                  .stream()
+                  .map(TripPattern::getStops)
+                  .flatMap(Collection::stream)
+                  .distinct()
+                  .collect(Collectors.toList())
+              );
+          })
           .build()
       )
       .field(
@@ -171,15 +183,12 @@ public class LineType {
           .newFieldDefinition()
           .name("serviceJourneys")
           .type(new GraphQLNonNull(new GraphQLList(serviceJourneyType)))
-          .dataFetcher(environment ->
-            GqlUtil
-              .getTransitService(environment)
-              .getPatternsForRoute(environment.getSource())
-              .stream()
-              .flatMap(TripPattern::scheduledTripsAsStream)
-              .distinct()
-              .collect(Collectors.toList())
-          )
+          .dataFetcher(environment -> {
+            DataLoader<Route, List<Trip>> loader = environment.getDataLoader(
+              TransmodelDataLoaders.TRIPS_FOR_ROUTE
+            );
+            return loader.load(environment.getSource());
+          })
           .build()
       )
       .field(
@@ -122,6 +122,21 @@ public class ViaTripQuery {
           )
           .type(new GraphQLList(new GraphQLNonNull(viaSegmentInputType)))
       )
+      .argument(
+        GraphQLArgument
+          .newArgument()
+          .name("maxSegmentDuration")
+          .description(
+            "Set an upper bound of the travel duration of each segment, to search all segments " +
+            "in parallel. The departure window of each segment is then derived from the " +
+            "`dateTime`, the `searchWindow` and the slack of the via locations, instead of the " +
+            "arrivals of the previous segment. Itineraries taking longer than this are not " +
+            "combined with the next segment. If not set, the segments are searched one after " +
+            "the other."
+          )
+          .type(gqlUtil.durationScalar)
+          .build()
+      )
       .argument(
         GraphQLArgument
           .newArgument()
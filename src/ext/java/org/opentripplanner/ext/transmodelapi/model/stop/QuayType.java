@@ -15,20 +15,26 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import org.dataloader.DataLoader;
 import org.opentripplanner.ext.transmodelapi.model.EnumTypes;
 import org.opentripplanner.ext.transmodelapi.model.plan.JourneyWhiteListed;
 import org.opentripplanner.ext.transmodelapi.model.scalars.GeoJSONCoordinatesScalar;
 import org.opentripplanner.ext.transmodelapi.support.GqlUtil;
+import org.opentripplanner.ext.transmodelapi.support.TransmodelDataLoaders;
+import org.opentripplanner.ext.transmodelapi.support.TransmodelDataLoaders.StopTimesKey;
 import org.opentripplanner.framework.graphql.GraphQLUtils;
 import org.opentripplanner.framework.i18n.I18NString;
+import org.opentripplanner.model.StopTimesInPattern;
 import org.opentripplanner.model.TripTimeOnDate;
 import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
 import org.opentripplanner.transit.model.basic.Accessibility;
 import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.AreaStop;
 import org.opentripplanner.transit.model.site.GroupStop;
 import org.opentripplanner.transit.model.site.RegularStop;
@@ -173,13 +179,18 @@ public class QuayType {
           .description("List of lines servicing this quay")
           .type(new GraphQLNonNull(new GraphQLList(new GraphQLNonNull(lineType))))
           .dataFetcher(environment -> {
-            return GqlUtil
-              .getTransitService(environment)
-              .getPatternsForStop(environment.getSource(), true)
-              .stream()
-              .map(pattern -> pattern.getRoute())
-              .distinct()
-              .collect(Collectors.toList());
+            DataLoader<StopLocation, Collection<TripPattern>> loader = environment.getDataLoader(
+              TransmodelDataLoaders.PATTERNS_FOR_STOP
+            );
+            return loader
+              .load(environment.getSource())
+              .thenApply(patterns ->
+                patterns
+                  .stream()
+                  .map(pattern -> pattern.getRoute())
+                  .distinct()
+                  .collect(Collectors.toList())
+              );
           })
           .build()
       )
@@ -191,9 +202,10 @@ public class QuayType {
           .description("List of journey patterns servicing this quay")
           .type(new GraphQLNonNull(new GraphQLList(journeyPatternType)))
           .dataFetcher(environment -> {
-            return GqlUtil
-              .getTransitService(environment)
-              .getPatternsForStop(environment.getSource(), true);
+            DataLoader<StopLocation, Collection<TripPattern>> loader = environment.getDataLoader(
+              TransmodelDataLoaders.PATTERNS_FOR_STOP
+            );
+            return loader.load(environment.getSource());
           })
           .build()
       )
@@ -312,26 +324,36 @@ public class QuayType {
 
             Instant startTime = environment.containsArgument("startTime")
               ? Instant.ofEpochMilli(environment.getArgument("startTime"))
-              : Instant.now();
+              : null;
 
-            return StopPlaceType
-              .getTripTimesForStop(
-                stop,
-                startTime,
-                timeRange,
-                arrivalDeparture,
-                includeCancelledTrips,
-                numberOfDepartures,
-                departuresPerLineAndDestinationDisplay,
-                whiteListed.authorityIds,
-                whiteListed.lineIds,
-                transitModes,
-                environment
+            DataLoader<StopTimesKey, List<StopTimesInPattern>> loader = environment.getDataLoader(
+              TransmodelDataLoaders.STOP_TIMES
+            );
+            return loader
+              .load(
+                new StopTimesKey(
+                  stop,
+                  startTime,
+                  timeRange,
+                  numberOfDepartures,
+                  arrivalDeparture,
+                  includeCancelledTrips
+                )
               )
-              .sorted(TripTimeOnDate.compareByDeparture())
-              .distinct()
-              .limit(numberOfDepartures)
-              .collect(Collectors.toList());
+              .thenApply(stopTimesInPatterns ->
+                StopPlaceType
+                  .getTripTimesForStop(
+                    stopTimesInPatterns,
+                    departuresPerLineAndDestinationDisplay,
+                    whiteListed.authorityIds,
+                    whiteListed.lineIds,
+                    transitModes
+                  )
+                  .sorted(TripTimeOnDate.compareByDeparture())
+                  .distinct()
+                  .limit(numberOfDepartures)
+                  .collect(Collectors.toList())
+              );
           })
           .build()
       )
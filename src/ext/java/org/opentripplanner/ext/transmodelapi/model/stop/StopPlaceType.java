@@ -26,6 +26,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.dataloader.DataLoader;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.ext.transmodelapi.mapping.TransitIdMapper;
@@ -33,6 +34,8 @@ import org.opentripplanner.ext.transmodelapi.model.EnumTypes;
 import org.opentripplanner.ext.transmodelapi.model.TransmodelTransportSubmode;
 import org.opentripplanner.ext.transmodelapi.model.plan.JourneyWhiteListed;
 import org.opentripplanner.ext.transmodelapi.support.GqlUtil;
+import org.opentripplanner.ext.transmodelapi.support.TransmodelDataLoaders;
+import org.opentripplanner.ext.transmodelapi.support.TransmodelDataLoaders.StopTimesKey;
 import org.opentripplanner.framework.graphql.GraphQLUtils;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.model.StopTimesInPattern;
@@ -357,35 +360,50 @@ public class StopPlaceType {
 
             Instant startTime = environment.containsArgument("startTime")
               ? Instant.ofEpochMilli(environment.getArgument("startTime"))
-              : Instant.now();
+              : null;
 
-            Stream<TripTimeOnDate> tripTimeOnDateStream = monoOrMultiModalStation
+            List<StopTimesKey> keys = monoOrMultiModalStation
               .getChildStops()
               .stream()
-              .flatMap(singleStop ->
-                getTripTimesForStop(
+              .map(singleStop ->
+                new StopTimesKey(
                   singleStop,
                   startTime,
                   timeRage,
-                  arrivalDeparture,
-                  includeCancelledTrips,
                   numberOfDepartures,
-                  departuresPerLineAndDestinationDisplay,
-                  whiteListed.authorityIds,
-                  whiteListed.lineIds,
-                  transitModes,
-                  environment
+                  arrivalDeparture,
+                  includeCancelledTrips
                 )
-              );
+              )
+              .toList();
 
-            return limitPerLineAndDestinationDisplay(
-              tripTimeOnDateStream,
-              departuresPerLineAndDestinationDisplay
-            )
-              .sorted(TripTimeOnDate.compareByDeparture())
-              .distinct()
-              .limit(numberOfDepartures)
-              .collect(Collectors.toList());
+            DataLoader<StopTimesKey, List<StopTimesInPattern>> loader = environment.getDataLoader(
+              TransmodelDataLoaders.STOP_TIMES
+            );
+            return loader
+              .loadMany(keys)
+              .thenApply(stopTimesPerStop -> {
+                Stream<TripTimeOnDate> tripTimeOnDateStream = stopTimesPerStop
+                  .stream()
+                  .flatMap(stopTimesInPatterns ->
+                    getTripTimesForStop(
+                      stopTimesInPatterns,
+                      departuresPerLineAndDestinationDisplay,
+                      whiteListed.authorityIds,
+                      whiteListed.lineIds,
+                      transitModes
+                    )
+                  );
+
+                return limitPerLineAndDestinationDisplay(
+                  tripTimeOnDateStream,
+                  departuresPerLineAndDestinationDisplay
+                )
+                  .sorted(TripTimeOnDate.compareByDeparture())
+                  .distinct()
+                  .limit(numberOfDepartures)
+                  .collect(Collectors.toList());
+              });
           })
           .build()
       )
@@ -408,30 +426,17 @@ public class StopPlaceType {
       .build();
   }
 
+  /**
+   * Filter the departures of one stop, loaded with the {@link TransmodelDataLoaders#STOP_TIMES}
+   * data loader, by mode, authority and line, and limit them per line and destination display.
+   */
   public static Stream<TripTimeOnDate> getTripTimesForStop(
-    StopLocation stop,
-    Instant startTimeSeconds,
-    Duration timeRage,
-    ArrivalDeparture arrivalDeparture,
-    boolean includeCancelledTrips,
-    int numberOfDepartures,
+    List<StopTimesInPattern> stopTimesInPatterns,
     Integer departuresPerLineAndDestinationDisplay,
     Collection<FeedScopedId> authorityIdsWhiteListed,
     Collection<FeedScopedId> lineIdsWhiteListed,
-    Collection<TransitMode> transitModes,
-    DataFetchingEnvironment environment
+    Collection<TransitMode> transitModes
   ) {
-    TransitService transitService = GqlUtil.getTransitService(environment);
-
-    List<StopTimesInPattern> stopTimesInPatterns = transitService.stopTimesForStop(
-      stop,
-      startTimeSeconds,
-      timeRage,
-      numberOfDepartures,
-      arrivalDeparture,
-      includeCancelledTrips
-    );
-
     Stream<StopTimesInPattern> stopTimesStream = stopTimesInPatterns.stream();
 
     if (transitModes != null && !transitModes.isEmpty()) {
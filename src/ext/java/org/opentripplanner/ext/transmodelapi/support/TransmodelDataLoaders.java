@@ -0,0 +1,112 @@
+package org.opentripplanner.ext.transmodelapi.support;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * The data loaders of the Transmodel API. A new registry is created for each GraphQL execution,
+ * so the loaded values are cached for one query only.
+ * <p>
+ * GraphQL collects all keys requested on one level of the query before the loaders are
+ * dispatched, and identical keys, for example the same quay requested by a stop place and by
+ * itself, are only resolved once. The batches are resolved on the thread executing the query, so
+ * a request timeout still interrupts them.
+ */
+public class TransmodelDataLoaders {
+
+  public static final String STOP_TIMES = "stopTimes";
+  public static final String PATTERNS_FOR_STOP = "patternsForStop";
+  public static final String PATTERNS_FOR_ROUTE = "patternsForRoute";
+  public static final String TRIPS_FOR_ROUTE = "tripsForRoute";
+
+  private TransmodelDataLoaders() {}
+
+  public static DataLoaderRegistry createRegistry(TransitService transitService) {
+    var registry = new DataLoaderRegistry();
+    registry.register(
+      STOP_TIMES,
+      newDataLoader((List<StopTimesKey> keys) -> stopTimes(transitService, keys))
+    );
+    registry.register(
+      PATTERNS_FOR_STOP,
+      newDataLoader(mapEach((StopLocation stop) -> transitService.getPatternsForStop(stop, true)))
+    );
+    registry.register(
+      PATTERNS_FOR_ROUTE,
+      newDataLoader(mapEach((Route route) -> transitService.getPatternsForRoute(route)))
+    );
+    registry.register(
+      TRIPS_FOR_ROUTE,
+      newDataLoader(mapEach((Route route) -> tripsForRoute(transitService, route)))
+    );
+    return registry;
+  }
+
+  private static List<List<StopTimesInPattern>> stopTimes(
+    TransitService transitService,
+    List<StopTimesKey> keys
+  ) {
+    // Use the same time for all keys without a start time in the batch
+    Instant now = Instant.now();
+    return keys
+      .stream()
+      .map(key ->
+        transitService.stopTimesForStop(
+          key.stop(),
+          key.startTime() != null ? key.startTime() : now,
+          key.timeRange(),
+          key.numberOfDepartures(),
+          key.arrivalDeparture(),
+          key.includeCancelledTrips()
+        )
+      )
+      .toList();
+  }
+
+  private static List<Trip> tripsForRoute(TransitService transitService, Route route) {
+    return transitService
+      .getPatternsForRoute(route)
+      .stream()
+      .flatMap(TripPattern::scheduledTripsAsStream)
+      .distinct()
+      .toList();
+  }
+
+  private static <K, V> Function<List<K>, List<V>> mapEach(Function<K, V> loader) {
+    return keys -> keys.stream().map(loader).toList();
+  }
+
+  private static <K, V> DataLoader<K, V> newDataLoader(Function<List<K>, List<V>> batchLoader) {
+    BatchLoader<K, V> loader = keys -> CompletableFuture.completedFuture(batchLoader.apply(keys));
+    return DataLoaderFactory.newDataLoader(loader);
+  }
+
+  /**
+   * The arguments of a departure lookup for one stop.
+   *
+   * @param startTime the start time, {@code null} means now
+   */
+  public record StopTimesKey(
+    StopLocation stop,
+    @Nullable Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {}
+}
@@ -122,13 +122,17 @@ public class TravelTimeResource {
     LocalDate endDate = LocalDate.ofInstant(endTime, zoneId);
     startOfTime = ServiceDateUtils.asStartOfService(startDate, zoneId);
 
+    var transitLayer = transitService.getRealtimeTransitLayer();
     requestTransitDataProvider =
       new RaptorRoutingRequestTransitData(
-        transitService.getRealtimeTransitLayer(),
+        transitLayer,
         startOfTime,
         0,
         (int) Period.between(startDate, endDate).get(ChronoUnit.DAYS),
-        new RouteRequestTransitDataProviderFilter(routingRequest),
+        new RouteRequestTransitDataProviderFilter(
+          routingRequest,
+          transitLayer.getTripPatternAttributeIndex()
+        ),
         routingRequest
       );
 
@@ -68,7 +68,8 @@ public class VectorTilesResource {
       Arrays.asList(requestedLayers.split(",")),
       serverContext.vectorTileLayers().layers(),
       VectorTilesResource::crateLayerBuilder,
-      serverContext
+      serverContext,
+      LayerType::isRealtime
     );
   }
 
@@ -136,13 +137,27 @@ public class VectorTilesResource {
   }
 
   public enum LayerType {
-    Stop,
-    Station,
-    VehicleRental,
-    VehicleRentalVehicle,
-    VehicleRentalStation,
-    VehicleParking,
-    VehicleParkingGroup,
+    Stop(false),
+    Station(false),
+    VehicleRental(true),
+    VehicleRentalVehicle(true),
+    VehicleRentalStation(true),
+    VehicleParking(true),
+    VehicleParkingGroup(true);
+
+    private final boolean realtime;
+
+    LayerType(boolean realtime) {
+      this.realtime = realtime;
+    }
+
+    /**
+     * Realtime layers are changed by the vehicle rental and vehicle parking updaters, and cached
+     * tiles are invalidated by the updates. Other layers only change when a new graph is loaded.
+     */
+    public boolean isRealtime() {
+      return realtime;
+    }
   }
 
   public interface LayersParameters<T extends Enum<T>> {
@@ -0,0 +1,82 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the priority queues used in the A* search, see {@link PriorityQueueType}. Both
+ * benchmarks are monotone, so all queue types can be measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinPriorityQueueBenchmark {
+
+  @Param({ "1000", "100000" })
+  private int size;
+
+  @Param({ "BINARY_HEAP", "RADIX_HEAP" })
+  private PriorityQueueType type;
+
+  private Integer[] elements;
+  private double[] keys;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var rnd = new Random(42);
+    elements = new Integer[size];
+    keys = new double[size];
+    for (int i = 0; i < size; i++) {
+      elements[i] = i;
+      keys[i] = rnd.nextDouble() * 10_000;
+    }
+  }
+
+  @Benchmark
+  public int insertAndExtractAll() {
+    MinPriorityQueue<Integer> heap = type.create(size);
+    for (int i = 0; i < size; i++) {
+      heap.insert(elements[i], keys[i]);
+    }
+    int sum = 0;
+    while (!heap.empty()) {
+      sum += heap.extract_min();
+    }
+    return sum;
+  }
+
+  /**
+   * Simulate the search pattern of the A*, where each extracted element is followed by inserting
+   * new elements with a larger key.
+   */
+  @Benchmark
+  public int searchPattern() {
+    MinPriorityQueue<Integer> heap = type.create(1000);
+    heap.insert(elements[0], 0);
+    int next = 1;
+    int sum = 0;
+    while (!heap.empty()) {
+      double minKey = heap.peek_min_key();
+      sum += heap.extract_min();
+      for (int j = 0; j < 3 && next < size; ++j, ++next) {
+        heap.insert(elements[next], minKey + keys[next] / 100);
+      }
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,72 @@
+package org.opentripplanner.framework.geometry;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure packing and unpacking of street edge geometries. The geometry is unpacked every time
+ * a street edge geometry is accessed, for example when mapping itineraries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactLineStringUtilsBenchmark {
+
+  @Param({ "2", "10", "100" })
+  private int nCoordinates;
+
+  private LineString lineString;
+  private byte[] packed;
+  private double xa, ya, xb, yb;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var rnd = new Random(42);
+    var coordinates = new Coordinate[nCoordinates];
+    double x = 10.70;
+    double y = 59.90;
+    for (int i = 0; i < nCoordinates; i++) {
+      coordinates[i] = new Coordinate(x, y);
+      x += rnd.nextDouble() * 0.001;
+      y += rnd.nextDouble() * 0.001;
+    }
+    lineString = GeometryUtils.getGeometryFactory().createLineString(coordinates);
+    xa = coordinates[0].x;
+    ya = coordinates[0].y;
+    xb = coordinates[nCoordinates - 1].x;
+    yb = coordinates[nCoordinates - 1].y;
+    packed = CompactLineStringUtils.compactLineString(xa, ya, xb, yb, lineString, false);
+  }
+
+  @Benchmark
+  public byte[] compactLineString() {
+    return CompactLineStringUtils.compactLineString(xa, ya, xb, yb, lineString, false);
+  }
+
+  @Benchmark
+  public LineString uncompactLineString() {
+    return CompactLineStringUtils.uncompactLineString(xa, ya, xb, yb, packed, false);
+  }
+
+  @Benchmark
+  public LineString uncompactLineStringReverse() {
+    return CompactLineStringUtils.uncompactLineString(xb, yb, xa, ya, packed, true);
+  }
+}
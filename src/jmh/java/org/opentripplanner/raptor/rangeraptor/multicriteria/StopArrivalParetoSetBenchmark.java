@@ -0,0 +1,130 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.RelaxFunction;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.ArrivalParetoSetComparatorFactory;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.c1.StopArrivalFactoryC1;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.ride.c1.PatternRideC1;
+
+/**
+ * Measure adding stop arrivals to the {@link StopArrivalParetoSet}, this is done for every
+ * arrival at every stop in the multi-criteria Range Raptor search. The arrivals is a mix of
+ * access, transit and transfer arrivals over 3 rounds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StopArrivalParetoSetBenchmark {
+
+  private static final int ANY = 3;
+  private static final int START_TIME = 8 * 3600;
+  private static final int STOP = 1;
+  private static final RaptorTripSchedule ANY_TRIP = TestTripSchedule
+    .schedule("10:00 10:30")
+    .build();
+  private static final StopArrivalFactoryC1<RaptorTripSchedule> STOP_ARRIVAL_FACTORY = new StopArrivalFactoryC1<>();
+  private static final ArrivalParetoSetComparatorFactory<McStopArrival<RaptorTripSchedule>> COMPARATOR_FACTORY = ArrivalParetoSetComparatorFactory.factory(
+    RelaxFunction.NORMAL,
+    null
+  );
+
+  @Param({ "100", "1000" })
+  private int nArrivals;
+
+  private List<McStopArrival<RaptorTripSchedule>> arrivals;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var rnd = new Random(42);
+    arrivals = new ArrayList<>(nArrivals);
+
+    var prev = new ArrayList<McStopArrival<RaptorTripSchedule>>();
+    prev.add(
+      STOP_ARRIVAL_FACTORY.createAccessStopArrival(
+        START_TIME,
+        TestAccessEgress.walk(STOP, 300, 600)
+      )
+    );
+
+    for (int i = 0; i < nArrivals; i++) {
+      int arrivalTime = START_TIME + 1800 + rnd.nextInt(1800);
+      int cost = 1000 + rnd.nextInt(50_000);
+      var prevArrival = prev.get(rnd.nextInt(prev.size()));
+
+      McStopArrival<RaptorTripSchedule> arrival;
+      switch (rnd.nextInt(3)) {
+        case 0 -> arrival =
+          STOP_ARRIVAL_FACTORY.createAccessStopArrival(
+            START_TIME,
+            TestAccessEgress.walk(STOP, arrivalTime - START_TIME, cost)
+          );
+        case 1 -> {
+          var ride = new PatternRideC1<>(prevArrival, ANY, ANY, ANY, ANY, ANY, ANY, ANY_TRIP);
+          arrival =
+            STOP_ARRIVAL_FACTORY.createTransitStopArrival(ride, STOP, arrivalTime, cost);
+        }
+        default -> arrival =
+          STOP_ARRIVAL_FACTORY.createTransferStopArrival(
+            prevArrival,
+            TestTransfer.transfer(STOP, ANY, cost),
+            arrivalTime
+          );
+      }
+      arrivals.add(arrival);
+
+      // Build up to 3 rounds of arrivals
+      if (arrival.round() < 3) {
+        prev.add(arrival);
+      }
+    }
+  }
+
+  @Benchmark
+  public int addStopArrivals() {
+    var set = StopArrivalParetoSet.createStopArrivalSet(
+      COMPARATOR_FACTORY.compareArrivalTimeRoundAndCost(),
+      null
+    );
+    for (var it : arrivals) {
+      set.add(it);
+    }
+    return set.size();
+  }
+
+  @Benchmark
+  public int addEgressStopArrivals() {
+    var set = StopArrivalParetoSet.createEgressStopArrivalSet(
+      COMPARATOR_FACTORY.compareArrivalTimeRoundCostAndOnBoardArrival(),
+      List.of(),
+      null,
+      null
+    );
+    for (var it : arrivals) {
+      set.add(it);
+    }
+    return set.size();
+  }
+}
@@ -0,0 +1,73 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure adding vectors to a {@link ParetoSet} using the same kind of criteria as Raptor:
+ * arrival-time, number-of-transfers and generalized-cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParetoSetBenchmark {
+
+  private static final ParetoComparator<Vector> COMPARATOR = (l, r) ->
+    l.v1 < r.v1 || l.v2 < r.v2 || l.v3 < r.v3;
+
+  /**
+   * The range of each criteria, a small range give fewer pareto-optimal elements.
+   */
+  @Param({ "10", "100" })
+  private int range;
+
+  @Param({ "1000" })
+  private int nElements;
+
+  private Vector[] elements;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var rnd = new Random(42);
+    elements = new Vector[nElements];
+    for (int i = 0; i < nElements; i++) {
+      elements[i] = new Vector("V" + i, rnd.nextInt(range), rnd.nextInt(5), rnd.nextInt(range));
+    }
+  }
+
+  @Benchmark
+  public int addElements() {
+    var set = new ParetoSet<>(COMPARATOR);
+    for (Vector it : elements) {
+      set.add(it);
+    }
+    return set.size();
+  }
+
+  @Benchmark
+  public int addElementsWithMarker() {
+    var set = new ParetoSetWithMarker<>(COMPARATOR);
+    for (int i = 0; i < elements.length; i++) {
+      if (i % 100 == 0) {
+        set.markAtEndOfSet();
+      }
+      set.add(elements[i]);
+    }
+    return set.size();
+  }
+}
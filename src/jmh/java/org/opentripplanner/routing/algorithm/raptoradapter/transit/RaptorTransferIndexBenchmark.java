@@ -0,0 +1,87 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+
+/**
+ * Measure the creation of the transfer index used by Raptor. This is done for each new set of
+ * transfer preferences, before the result is cached in the RaptorRequestTransferCache.
+ * <p>
+ * Half of the transfers have a street path, these are traversed to calculate the transfer
+ * duration and cost. The rest only have a distance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaptorTransferIndexBenchmark {
+
+  private static final int TRANSFERS_PER_STOP = 20;
+  private static final int EDGES_PER_TRANSFER = 10;
+
+  @Param({ "1000", "10000" })
+  private int nStops;
+
+  private List<List<Transfer>> transfersByStopIndex;
+  private StreetSearchRequest request;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var rnd = new Random(42);
+    var streetPath = createStreetPath();
+
+    transfersByStopIndex = new ArrayList<>(nStops);
+    for (int fromStop = 0; fromStop < nStops; fromStop++) {
+      var transfers = new ArrayList<Transfer>(TRANSFERS_PER_STOP);
+      for (int i = 0; i < TRANSFERS_PER_STOP; i++) {
+        int toStop = rnd.nextInt(nStops);
+        transfers.add(
+          i % 2 == 0
+            ? new Transfer(toStop, streetPath)
+            : new Transfer(toStop, 50 + rnd.nextInt(1000))
+        );
+      }
+      transfersByStopIndex.add(transfers);
+    }
+    request = StreetSearchRequest.of().withMode(StreetMode.WALK).build();
+  }
+
+  @Benchmark
+  public RaptorTransferIndex create() {
+    return RaptorTransferIndex.create(transfersByStopIndex, request);
+  }
+
+  private static List<Edge> createStreetPath() {
+    List<Edge> edges = new ArrayList<>();
+    StreetVertex prev = intersectionVertex(59.90, 10.70);
+    for (int i = 1; i <= EDGES_PER_TRANSFER; i++) {
+      StreetVertex next = intersectionVertex(59.90 + i * 0.0005, 10.70);
+      edges.add(streetEdge(prev, next));
+      prev = next;
+    }
+    return edges;
+  }
+}
@@ -0,0 +1,86 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * Measure the trip search used by Raptor to find the first trip to board at a given stop. The
+ * number of trips in the pattern decide if a linear or binary search is used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TripScheduleBoardSearchBenchmark {
+
+  private static final int N_SEARCHES = 1024;
+  private static final int N_STOPS = 5;
+  private static final int HEADWAY = 120;
+
+  @Param({ "5", "50", "500" })
+  private int nTrips;
+
+  private RaptorTripScheduleSearch<TestTripSchedule> forwardSearch;
+  private RaptorTripScheduleSearch<TestTripSchedule> reverseSearch;
+  private final int[] times = new int[N_SEARCHES];
+  private final int[] stopPositions = new int[N_SEARCHES];
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var route = TestRoute
+      .route("R1", 1, 2, 3, 4, 5)
+      .withTimetable(schedule("06:00 06:05 06:10 06:15 06:20").repeat(nTrips, HEADWAY));
+
+    forwardSearch = route.tripSearch(SearchDirection.FORWARD);
+    reverseSearch = route.tripSearch(SearchDirection.REVERSE);
+
+    // Use a fixed seed, the same searches should be performed in each run
+    var rnd = new Random(42);
+    int startTime = TimeUtils.time("06:00");
+    int endTime = startTime + nTrips * HEADWAY + 20 * 60;
+
+    for (int i = 0; i < N_SEARCHES; i++) {
+      times[i] = startTime + rnd.nextInt(endTime - startTime);
+      stopPositions[i] = rnd.nextInt(N_STOPS);
+    }
+  }
+
+  @Benchmark
+  public int boardSearch() {
+    int sum = 0;
+    for (int i = 0; i < N_SEARCHES; i++) {
+      sum += forwardSearch.search(times[i], stopPositions[i]).tripIndex();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int alightSearch() {
+    int sum = 0;
+    for (int i = 0; i < N_SEARCHES; i++) {
+      sum += reverseSearch.search(times[i], stopPositions[i]).tripIndex();
+    }
+    return sum;
+  }
+}
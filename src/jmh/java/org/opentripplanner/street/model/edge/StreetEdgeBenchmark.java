@@ -0,0 +1,70 @@
+package org.opentripplanner.street.model.edge;
+
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Measure {@link StreetEdge#traverse(State)}, the most frequently called method in the street
+ * search. A path of edges is traversed, one after the other, like the A* does when it explores
+ * the graph.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreetEdgeBenchmark {
+
+  private static final int N_EDGES = 1000;
+
+  @Param({ "WALK", "BIKE", "CAR" })
+  private StreetMode mode;
+
+  private StreetEdge[] edges;
+  private StreetSearchRequest request;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    edges = new StreetEdge[N_EDGES];
+    StreetVertex prev = intersectionVertex(59.90, 10.70);
+    for (int i = 0; i < N_EDGES; i++) {
+      // Zig-zag to get some turn costs
+      StreetVertex next = intersectionVertex(59.90 + (i + 1) * 0.0005, 10.70 + (i % 2) * 0.0005);
+      edges[i] = streetEdge(prev, next);
+      edges[i].setCarSpeed(13.9f);
+      prev = next;
+    }
+    request = StreetSearchRequest.of().withMode(mode).build();
+  }
+
+  @Benchmark
+  public double traversePath() {
+    var state = new State(edges[0].getFromVertex(), request);
+    for (StreetEdge edge : edges) {
+      var next = edge.traverse(state);
+      if (next == null) {
+        break;
+      }
+      state = next;
+    }
+    return state.getWeight();
+  }
+}
@@ -8,8 +8,9 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
-import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.MinPriorityQueue;
+import org.opentripplanner.astar.model.PriorityQueueType;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
@@ -47,7 +48,7 @@ public class AStar<
   private final Duration timeout;
 
   private final ShortestPathTree<State, Edge, Vertex> spt;
-  private final BinHeap<State> pq;
+  private final MinPriorityQueue<State> pq;
   private final List<State> targetAcceptedStates;
 
   private State u;
@@ -63,7 +64,8 @@ public class AStar<
     SearchTerminationStrategy<State> terminationStrategy,
     DominanceFunction<State> dominanceFunction,
     @Nonnull Duration timeout,
-    Collection<State> initialStates
+    Collection<State> initialStates,
+    PriorityQueueType priorityQueueType
   ) {
     this.heuristic = heuristic;
     this.skipEdgeStrategy = skipEdgeStrategy;
@@ -77,7 +79,7 @@ public class AStar<
     this.spt = new ShortestPathTree<>(dominanceFunction);
 
     // Initialized with a reasonable size, see #4445
-    this.pq = new BinHeap<>(1000);
+    this.pq = priorityQueueType.create(1000);
     this.nVisited = 0;
     this.targetAcceptedStates = new ArrayList<>();
 
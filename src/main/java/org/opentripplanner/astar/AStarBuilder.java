@@ -8,6 +8,7 @@ import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.PriorityQueueType;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
@@ -36,6 +37,7 @@ public abstract class AStarBuilder<
   private DominanceFunction<State> dominanceFunction;
   private Edge originBackEdge;
   private Collection<State> initialStates;
+  private PriorityQueueType priorityQueueType = PriorityQueueType.BINARY_HEAP;
 
   protected AStarBuilder() {}
 
@@ -111,6 +113,15 @@ public abstract class AStarBuilder<
     return builder;
   }
 
+  /**
+   * The priority queue used by the search, the default is {@link PriorityQueueType#BINARY_HEAP}.
+   * Read the documentation of each type before changing it, not all types work for all searches.
+   */
+  public Builder setPriorityQueueType(PriorityQueueType priorityQueueType) {
+    this.priorityQueueType = priorityQueueType;
+    return builder;
+  }
+
   public ShortestPathTree<State, Edge, Vertex> getShortestPathTree() {
     return build().getShortestPathTree();
   }
@@ -150,7 +161,8 @@ public abstract class AStarBuilder<
       terminationStrategy,
       Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
       streetRoutingTimeout(),
-      initialStates
+      initialStates,
+      priorityQueueType
     );
   }
 
@@ -0,0 +1,31 @@
+package org.opentripplanner.astar.model;
+
+/**
+ * A priority queue where the element with the lowest priority is retrieved first. The method
+ * names follow the {@link BinHeap}, which was the only implementation for a long time.
+ *
+ * @see PriorityQueueType
+ */
+public interface MinPriorityQueue<T> {
+  int size();
+
+  boolean empty();
+
+  void insert(T e, double p);
+
+  /**
+   * Remove and return the element with the lowest priority, or {@code null} if the queue is
+   * empty.
+   */
+  T extract_min();
+
+  /**
+   * Return the lowest priority in the queue.
+   *
+   * @throws IllegalStateException if the queue is empty
+   */
+  double peek_min_key();
+
+  /** Empty the queue */
+  void reset();
+}
@@ -0,0 +1,24 @@
+package org.opentripplanner.astar.model;
+
+/**
+ * The priority queue implementations available for the A* search. The queue is a large part of
+ * the cost of a street search, and the best choice depends on the search.
+ */
+public enum PriorityQueueType {
+  /** A binary heap, a good all-round choice. This is the default. */
+  BINARY_HEAP,
+  /**
+   * A radix heap, which only supports <em>monotone</em> searches: a search where an inserted
+   * priority is never lower than the last extracted priority. A Dijkstra search (no heuristic)
+   * with non-negative weights is monotone, like the searches for nearby stops. Insert is O(1) and
+   * extract-min amortized O(log C), where C is the range of the priorities.
+   */
+  RADIX_HEAP;
+
+  public <T> MinPriorityQueue<T> create(int capacity) {
+    return switch (this) {
+      case BINARY_HEAP -> new BinHeap<>(capacity);
+      case RADIX_HEAP -> new RadixHeap<>(capacity);
+    };
+  }
+}
@@ -0,0 +1,145 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Arrays;
+
+/**
+ * A radix heap for monotone searches, see {@link PriorityQueueType#RADIX_HEAP}.
+ * <p>
+ * The raw bits of a non-negative {@code double} have the same order as the double value, so the
+ * priority is used as a 64-bit integer key without losing precision. An element is put in the
+ * bucket given by the highest bit where its key differs from the last extracted key. Bucket 0
+ * holds the elements with a key equal to the last extracted key. When bucket 0 is empty, the
+ * smallest key in the first non-empty bucket becomes the new last key, and the elements of that
+ * bucket are redistributed into lower buckets. Each element can only move down, so it is moved
+ * at most 64 times.
+ * <p>
+ * A priority lower than the last extracted priority breaks the monotone property, inserting it
+ * throws an {@link IllegalArgumentException}. This is also the case for negative priorities.
+ */
+public class RadixHeap<T> implements MinPriorityQueue<T> {
+
+  private static final int N_BUCKETS = Long.SIZE + 1;
+  private static final int MIN_BUCKET_CAPACITY = 4;
+
+  private final long[][] keys = new long[N_BUCKETS][];
+  private final Object[][] elems = new Object[N_BUCKETS][];
+  private final int[] bucketSize = new int[N_BUCKETS];
+  private int size = 0;
+  private long lastKey = 0;
+
+  public RadixHeap(int capacity) {
+    // The buckets grow on demand
+    int bucketCapacity = Math.max(MIN_BUCKET_CAPACITY, capacity / N_BUCKETS);
+    for (int i = 0; i < N_BUCKETS; i++) {
+      keys[i] = new long[bucketCapacity];
+      elems[i] = new Object[bucketCapacity];
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean empty() {
+    return size == 0;
+  }
+
+  @Override
+  public void insert(T e, double p) {
+    // Adding 0.0 turns -0.0 into 0.0, the raw bits of -0.0 are negative
+    long key = Double.doubleToRawLongBits(p + 0.0);
+    if (key < lastKey) {
+      throw new IllegalArgumentException(
+        "The priority " + p + " is lower than the last extracted priority " + lastKeyValue()
+      );
+    }
+    add(bucketIndex(key), key, e);
+    ++size;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T extract_min() {
+    if (size == 0) {
+      return null;
+    }
+    if (bucketSize[0] == 0) {
+      redistribute();
+    }
+    int i = --bucketSize[0];
+    T e = (T) elems[0][i];
+    elems[0][i] = null;
+    --size;
+    return e;
+  }
+
+  @Override
+  public double peek_min_key() {
+    if (size == 0) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    if (bucketSize[0] == 0) {
+      redistribute();
+    }
+    return lastKeyValue();
+  }
+
+  @Override
+  public void reset() {
+    for (int i = 0; i < N_BUCKETS; i++) {
+      Arrays.fill(elems[i], 0, bucketSize[i], null);
+      bucketSize[i] = 0;
+    }
+    size = 0;
+    lastKey = 0;
+  }
+
+  private double lastKeyValue() {
+    return Double.longBitsToDouble(lastKey);
+  }
+
+  private int bucketIndex(long key) {
+    return key == lastKey ? 0 : Long.SIZE - Long.numberOfLeadingZeros(key ^ lastKey);
+  }
+
+  /**
+   * Find the first non-empty bucket, set the last key to the smallest key in it and move the
+   * elements to lower buckets. At least one element ends up in bucket 0.
+   */
+  private void redistribute() {
+    int b = 1;
+    while (bucketSize[b] == 0) {
+      ++b;
+    }
+    long[] bKeys = keys[b];
+    Object[] bElems = elems[b];
+    int n = bucketSize[b];
+
+    long min = bKeys[0];
+    for (int i = 1; i < n; ++i) {
+      if (bKeys[i] < min) {
+        min = bKeys[i];
+      }
+    }
+    lastKey = min;
+    bucketSize[b] = 0;
+
+    for (int i = 0; i < n; ++i) {
+      add(bucketIndex(bKeys[i]), bKeys[i], bElems[i]);
+      bElems[i] = null;
+    }
+  }
+
+  private void add(int bucket, long key, Object e) {
+    int n = bucketSize[bucket];
+    if (n == keys[bucket].length) {
+      keys[bucket] = Arrays.copyOf(keys[bucket], n * 2);
+      elems[bucket] = Arrays.copyOf(elems[bucket], n * 2);
+    }
+    keys[bucket][n] = key;
+    elems[bucket][n] = e;
+    bucketSize[bucket] = n + 1;
+  }
+}
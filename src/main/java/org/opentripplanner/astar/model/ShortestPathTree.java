@@ -7,7 +7,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -33,6 +32,10 @@ import org.slf4j.LoggerFactory;
  * when walking. The turn restriction handling is done in the base dominance function
  * implementation, and applies to all subclasses. It essentially splits each vertex into N vertices
  * depending on the incoming edge being taken.
+ * <p>
+ * Most vertices only have one non-dominated state. To reduce the number of objects allocated
+ * during a search, a single state is stored directly in the vertex map. A list is only created
+ * when a vertex has more than one state.
  */
 public class ShortestPathTree<
   State extends AStarState<State, Edge, Vertex>,
@@ -44,7 +47,8 @@ public class ShortestPathTree<
 
   public final DominanceFunction<State> dominanceFunction;
 
-  private final Map<Vertex, List<State>> stateSets;
+  /** The value is either a single State or a {@link StateList} */
+  private final Map<Vertex, Object> stateSets;
 
   /** Indicates that the search timed out or was otherwise aborted. */
   private boolean aborted = false;
@@ -61,7 +65,7 @@ public class ShortestPathTree<
     if (stateList == null) {
       return Collections.emptyList();
     }
-    List<GraphPath<State, Edge, Vertex>> ret = new LinkedList<>();
+    List<GraphPath<State, Edge, Vertex>> ret = new ArrayList<>();
     for (State s : stateList) {
       if (s.isFinal()) {
         ret.add(new GraphPath<>(s));
@@ -85,9 +89,8 @@ public class ShortestPathTree<
     Multiset<Integer> histogram = HashMultiset.create();
     int statesCount = 0;
     int maxSize = 0;
-    for (Map.Entry<Vertex, List<State>> kv : stateSets.entrySet()) {
-      List<State> states = kv.getValue();
-      int size = states.size();
+    for (Object value : stateSets.values()) {
+      int size = value instanceof StateList<?> list ? list.size() : 1;
       histogram.add(size);
       statesCount += size;
       if (size > maxSize) {
@@ -127,16 +130,32 @@ public class ShortestPathTree<
    */
   public boolean add(State newState) {
     Vertex vertex = newState.getVertex();
-    List<State> states = stateSets.get(vertex);
+    Object value = stateSets.get(vertex);
 
     // if the vertex has no states, add one and return
-    if (states == null) {
-      states = new ArrayList<>();
-      stateSets.put(vertex, states);
+    if (value == null) {
+      stateSets.put(vertex, newState);
+      return true;
+    }
+
+    if (!(value instanceof StateList)) {
+      State oldState = castState(value);
+      if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
+        return false;
+      }
+      if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
+        stateSets.put(vertex, newState);
+        return true;
+      }
+      var states = new StateList<State>();
+      states.add(oldState);
       states.add(newState);
+      stateSets.put(vertex, states);
       return true;
     }
 
+    StateList<State> states = castStateList(value);
+
     // if the vertex has any states that dominate the new state, don't add the state
     // if the new state dominates any old states, remove them
     Iterator<State> it = states.iterator();
@@ -153,7 +172,11 @@ public class ShortestPathTree<
     }
 
     // any states remaining are co-dominant with the new state
-    states.add(newState);
+    if (states.isEmpty()) {
+      stateSets.put(vertex, newState);
+    } else {
+      states.add(newState);
+    }
     return true;
   }
 
@@ -164,7 +187,7 @@ public class ShortestPathTree<
    * @return a 'best' state at that vertex
    */
   public State getState(Vertex dest) {
-    Collection<State> states = stateSets.get(dest);
+    Collection<State> states = getStates(dest);
     if (states == null) {
       return null;
     }
@@ -188,7 +211,11 @@ public class ShortestPathTree<
    * @return a collection of 'interesting' states at that vertex
    */
   public List<State> getStates(Vertex dest) {
-    return stateSets.get(dest);
+    Object value = stateSets.get(dest);
+    if (value == null) {
+      return null;
+    }
+    return value instanceof StateList ? castStateList(value) : List.of(castState(value));
   }
 
   /** @return number of vertices referenced in this SPT */
@@ -221,21 +248,29 @@ public class ShortestPathTree<
    * @return - whether this state is still considered worth visiting.
    */
   public boolean visit(State state) {
-    boolean ret = false;
-    for (State s : stateSets.get(state.getVertex())) {
-      if (s == state) {
-        ret = true;
-        break;
+    Object value = stateSets.get(state.getVertex());
+    if (value == state) {
+      return true;
+    }
+    if (value instanceof StateList) {
+      for (State s : castStateList(value)) {
+        if (s == state) {
+          return true;
+        }
       }
     }
-    return ret;
+    return false;
   }
 
   /** @return every state in this tree */
   public Collection<State> getAllStates() {
-    ArrayList<State> allStates = new ArrayList<>();
-    for (List<State> stateSet : stateSets.values()) {
-      allStates.addAll(stateSet);
+    ArrayList<State> allStates = new ArrayList<>(stateSets.size());
+    for (Object value : stateSets.values()) {
+      if (value instanceof StateList) {
+        allStates.addAll(castStateList(value));
+      } else {
+        allStates.add(castState(value));
+      }
     }
     return allStates;
   }
@@ -251,4 +286,25 @@ public class ShortestPathTree<
   public String toString() {
     return "ShortestPathTree(" + this.stateSets.size() + " vertices)";
   }
+
+  @SuppressWarnings("unchecked")
+  private State castState(Object value) {
+    return (State) value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private StateList<State> castStateList(Object value) {
+    return (StateList<State>) value;
+  }
+
+  /**
+   * The states of a vertex with more than one state. A separate type is used to be able to tell
+   * it apart from a single state stored in the vertex map.
+   */
+  private static final class StateList<S> extends ArrayList<S> {
+
+    private StateList() {
+      super(2);
+    }
+  }
 }
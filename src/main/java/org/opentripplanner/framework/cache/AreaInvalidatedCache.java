@@ -0,0 +1,201 @@
+package org.opentripplanner.framework.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+
+/**
+ * A cache shared by all requests, where each entry may have an area. An entry is removed when a
+ * realtime update changes the graph within its area, see {@link #invalidate(Collection)}. Entries
+ * without an area are not affected by realtime updates.
+ * <p>
+ * The number of hits and misses, and the number of entries, are reported to the meter registry as
+ * {@code <name>.hits}, {@code <name>.misses} and {@code <name>.size}.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class AreaInvalidatedCache<K, V> {
+
+  /**
+   * The area of an entry is expanded with this margin, a change close to the area may affect the
+   * value.
+   */
+  private static final double AREA_MARGIN_METERS = 500;
+
+  private final boolean enabled;
+  private final Cache<K, Entry<V>> cache;
+  private final Counter hits;
+  private final Counter misses;
+
+  /** Incremented each time entries are invalidated by area. */
+  private final AtomicLong areaInvalidations = new AtomicLong();
+
+  private AreaInvalidatedCache(
+    String name,
+    boolean enabled,
+    Cache<K, Entry<V>> cache,
+    MeterRegistry registry
+  ) {
+    this.enabled = enabled;
+    this.cache = cache;
+    this.hits = Counter.builder(name + ".hits").register(registry);
+    this.misses = Counter.builder(name + ".misses").register(registry);
+    Gauge.builder(name + ".size", cache, Cache::size).register(registry);
+  }
+
+  /**
+   * Create a cache limited by the number of entries, the least recently used entries are removed
+   * first. The cache is disabled if {@code maxSize} is {@code 0}.
+   */
+  public static <K, V> AreaInvalidatedCache<K, V> ofMaxSize(
+    String name,
+    long maxSize,
+    Duration timeToLive,
+    MeterRegistry registry
+  ) {
+    Cache<K, Entry<V>> cache = CacheBuilder
+      .newBuilder()
+      .maximumSize(Math.max(maxSize, 0))
+      .expireAfterWrite(timeToLive)
+      .build();
+    return new AreaInvalidatedCache<>(name, maxSize > 0, cache, registry);
+  }
+
+  /**
+   * Create a cache limited by the total weight of the values, the least recently used entries are
+   * removed first. The cache is disabled if {@code maxWeight} is {@code 0}.
+   */
+  public static <K, V> AreaInvalidatedCache<K, V> ofMaxWeight(
+    String name,
+    long maxWeight,
+    ToIntFunction<V> weigher,
+    MeterRegistry registry
+  ) {
+    Cache<K, Entry<V>> cache = CacheBuilder
+      .newBuilder()
+      .maximumWeight(Math.max(maxWeight, 0))
+      .weigher((K key, Entry<V> entry) -> weigher.applyAsInt(entry.value()))
+      .build();
+    return new AreaInvalidatedCache<>(name, maxWeight > 0, cache, registry);
+  }
+
+  /**
+   * Expand the given area with a margin, a change close to the area may affect the value. If the
+   * area is unknown (empty), the whole world is returned, and the entry is invalidated by all
+   * realtime updates.
+   */
+  public static Envelope expandArea(Envelope area) {
+    if (area.isNull()) {
+      return new Envelope(-180, 180, -90, 90);
+    }
+    var expanded = new Envelope(area);
+    double lat = expanded.centre().y;
+    expanded.expandBy(
+      SphericalDistanceLibrary.metersToLonDegrees(AREA_MARGIN_METERS, lat),
+      SphericalDistanceLibrary.metersToDegrees(AREA_MARGIN_METERS)
+    );
+    return expanded;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Return the cached value, or {@code null} if the key is not in the cache. The lookup is counted
+   * as a hit or a miss.
+   */
+  @Nullable
+  public V getIfPresent(K key) {
+    var entry = cache.getIfPresent(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.value();
+  }
+
+  /**
+   * Call this before computing a value which is not in the cache, and pass the returned token to
+   * {@link #put(Object, Object, Envelope, long)}.
+   */
+  public long startComputing() {
+    return areaInvalidations.get();
+  }
+
+  /**
+   * Cache the value, unless it has an area and the graph was updated after
+   * {@link #startComputing()} returned the given token. The update may or may not be part of the
+   * value.
+   *
+   * @param area the area of the value, {@code null} if it is not affected by realtime updates
+   */
+  public void put(K key, V value, @Nullable Envelope area, long token) {
+    if (area == null || token == areaInvalidations.get()) {
+      cache.put(key, new Entry<>(value, area));
+    }
+  }
+
+  /**
+   * Return the cached value, or compute the value and cache it.
+   *
+   * @param area returns the area of the computed value, or {@code null} if it is not affected by
+   *             realtime updates
+   */
+  public V get(K key, Supplier<V> compute, Function<V, Envelope> area) {
+    var value = getIfPresent(key);
+    if (value != null) {
+      return value;
+    }
+    long token = startComputing();
+    value = compute.get();
+    put(key, value, area.apply(value), token);
+    return value;
+  }
+
+  /**
+   * Remove all entries with an area intersecting any of the given envelopes. Each envelope is one
+   * changed place, so an entry lying between places changed in the same update is kept.
+   */
+  public void invalidate(Collection<Envelope> changedAreas) {
+    if (!enabled) {
+      return;
+    }
+    areaInvalidations.incrementAndGet();
+    cache.asMap().values().removeIf(e -> e.area() != null && intersectsAny(e.area(), changedAreas));
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  private static boolean intersectsAny(Envelope area, Collection<Envelope> changedAreas) {
+    for (Envelope it : changedAreas) {
+      if (area.intersects(it)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param area the area of the value, {@code null} if it is not affected by realtime updates
+   */
+  private record Entry<V>(V value, @Nullable Envelope area) {}
+}
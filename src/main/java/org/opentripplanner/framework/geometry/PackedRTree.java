@@ -0,0 +1,277 @@
+package org.opentripplanner.framework.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * An immutable, packed R-tree. The items are sorted along a Hilbert curve and packed bottom-up in
+ * nodes of {@link #NODE_SIZE} entries. All node envelopes are stored in one primitive array, so
+ * the tree is compact and fast to search. The tree is built once with the {@link Builder}, and can
+ * not be modified.
+ * <p>
+ * Unlike the {@link HashGridSpatialIndex}, the envelope of each item is stored, so a query only
+ * returns items with an envelope intersecting the query envelope, and each item is returned once.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE, the tree is read-only after it is built.
+ *
+ * @param <T> Type of objects to be spatial indexed.
+ */
+public final class PackedRTree<T> {
+
+  /** The maximum number of children of each node. */
+  static final int NODE_SIZE = 16;
+
+  /** The maximum Hilbert coordinate, the Hilbert value of an item fits in 30 bits. */
+  private static final int HILBERT_MAX = (1 << 15) - 1;
+
+  /** The items, in the same order as the leaf nodes. */
+  private final Object[] items;
+
+  /**
+   * The envelope of each node as [minX, minY, maxX, maxY]. The leaf nodes come first, one for each
+   * item, then the nodes of each level above. The root node is last.
+   */
+  private final double[] boxes;
+
+  /** The index of the first child of each node above the leaf level, offset by the item count. */
+  private final int[] firstChild;
+
+  /** The index after the last child of each node above the leaf level. */
+  private final int[] endChild;
+
+  private PackedRTree(Object[] items, double[] boxes, int[] firstChild, int[] endChild) {
+    this.items = items;
+    this.boxes = boxes;
+    this.firstChild = firstChild;
+    this.endChild = endChild;
+  }
+
+  public static <T> Builder<T> of() {
+    return new Builder<>();
+  }
+
+  public int size() {
+    return items.length;
+  }
+
+  /**
+   * Return all items with an envelope intersecting the given envelope.
+   */
+  public List<T> query(Envelope envelope) {
+    List<T> result = new ArrayList<>();
+    query(envelope, result::add);
+    return result;
+  }
+
+  /**
+   * Visit all items with an envelope intersecting the given envelope.
+   */
+  @SuppressWarnings("unchecked")
+  public void query(Envelope envelope, Consumer<? super T> visitor) {
+    if (items.length == 0 || envelope.isNull()) {
+      return;
+    }
+    double minX = envelope.getMinX();
+    double minY = envelope.getMinY();
+    double maxX = envelope.getMaxX();
+    double maxY = envelope.getMaxY();
+
+    int n = items.length;
+    int[] stack = new int[64];
+    int stackSize = 0;
+    int node = rootIndex();
+
+    if (!intersects(node, minX, minY, maxX, maxY)) {
+      return;
+    }
+    while (true) {
+      if (node < n) {
+        visitor.accept((T) items[node]);
+      } else {
+        int end = endChild[node - n];
+        for (int child = firstChild[node - n]; child < end; ++child) {
+          if (intersects(child, minX, minY, maxX, maxY)) {
+            if (stackSize == stack.length) {
+              stack = Arrays.copyOf(stack, stackSize * 2);
+            }
+            stack[stackSize++] = child;
+          }
+        }
+      }
+      if (stackSize == 0) {
+        return;
+      }
+      node = stack[--stackSize];
+    }
+  }
+
+  /**
+   * Visit all items with their envelope, in the order they are stored in the tree.
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<Envelope, ? super T> visitor) {
+    for (int i = 0; i < items.length; ++i) {
+      int b = i * 4;
+      visitor.accept(
+        new Envelope(boxes[b], boxes[b + 2], boxes[b + 1], boxes[b + 3]),
+        (T) items[i]
+      );
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+      Locale.ROOT,
+      "PackedRTree %d objs, %d nodes",
+      items.length,
+      boxes.length / 4
+    );
+  }
+
+  private int rootIndex() {
+    return boxes.length / 4 - 1;
+  }
+
+  private boolean intersects(int node, double minX, double minY, double maxX, double maxY) {
+    int b = node * 4;
+    return !(boxes[b] > maxX || boxes[b + 1] > maxY || boxes[b + 2] < minX || boxes[b + 3] < minY);
+  }
+
+  /**
+   * Map a point in the [0, HILBERT_MAX] square to its distance along a Hilbert curve.
+   */
+  static long hilbert(int x, int y) {
+    long d = 0;
+    for (int s = 1 << 14; s > 0; s >>= 1) {
+      int rx = (x & s) > 0 ? 1 : 0;
+      int ry = (y & s) > 0 ? 1 : 0;
+      d += (long) s * s * ((3 * rx) ^ ry);
+      // Rotate the quadrant
+      if (ry == 0) {
+        if (rx == 1) {
+          x = s - 1 - (x & (s - 1));
+          y = s - 1 - (y & (s - 1));
+        } else {
+          x &= s - 1;
+          y &= s - 1;
+        }
+        int t = x;
+        x = y;
+        y = t;
+      } else {
+        x &= s - 1;
+        y &= s - 1;
+      }
+    }
+    return d;
+  }
+
+  public static class Builder<T> {
+
+    private final List<T> items = new ArrayList<>();
+    private double[] boxes = new double[64];
+
+    private Builder() {}
+
+    public Builder<T> add(Envelope envelope, T item) {
+      int b = items.size() * 4;
+      if (b + 4 > boxes.length) {
+        boxes = Arrays.copyOf(boxes, boxes.length * 2);
+      }
+      boxes[b] = envelope.getMinX();
+      boxes[b + 1] = envelope.getMinY();
+      boxes[b + 2] = envelope.getMaxX();
+      boxes[b + 3] = envelope.getMaxY();
+      items.add(item);
+      return this;
+    }
+
+    public PackedRTree<T> build() {
+      int n = items.size();
+      if (n == 0) {
+        return new PackedRTree<>(new Object[0], new double[0], new int[0], new int[0]);
+      }
+
+      // Count the nodes in each level above the leaves
+      int numNodes = n;
+      List<Integer> levelEnds = new ArrayList<>();
+      levelEnds.add(n);
+      int count = n;
+      do {
+        count = (count + NODE_SIZE - 1) / NODE_SIZE;
+        numNodes += count;
+        levelEnds.add(numNodes);
+      } while (count != 1);
+
+      double[] sortedBoxes = new double[numNodes * 4];
+      Object[] sortedItems = new Object[n];
+      int[] firstChild = new int[numNodes - n];
+      int[] endChild = new int[numNodes - n];
+
+      // Sort the items by the Hilbert value of the envelope centre. The index is the tie-breaker,
+      // so the tree is deterministic.
+      Envelope total = new Envelope();
+      for (int i = 0; i < n; ++i) {
+        int b = i * 4;
+        total.expandToInclude(boxes[b], boxes[b + 1]);
+        total.expandToInclude(boxes[b + 2], boxes[b + 3]);
+      }
+      double width = total.getWidth() == 0 ? 1 : total.getWidth();
+      double height = total.getHeight() == 0 ? 1 : total.getHeight();
+
+      long[] keys = new long[n];
+      for (int i = 0; i < n; ++i) {
+        int b = i * 4;
+        double cx = (boxes[b] + boxes[b + 2]) / 2;
+        double cy = (boxes[b + 1] + boxes[b + 3]) / 2;
+        int hx = (int) (HILBERT_MAX * (cx - total.getMinX()) / width);
+        int hy = (int) (HILBERT_MAX * (cy - total.getMinY()) / height);
+        keys[i] = (hilbert(hx, hy) << 31) | i;
+      }
+      Arrays.sort(keys);
+
+      for (int i = 0; i < n; ++i) {
+        int index = (int) (keys[i] & Integer.MAX_VALUE);
+        System.arraycopy(boxes, index * 4, sortedBoxes, i * 4, 4);
+        sortedItems[i] = items.get(index);
+      }
+
+      // Pack each level in nodes of NODE_SIZE children
+      int pos = n;
+      for (int level = 0; level < levelEnds.size() - 1; ++level) {
+        int levelStart = level == 0 ? 0 : levelEnds.get(level - 1);
+        int levelEnd = levelEnds.get(level);
+
+        for (int child = levelStart; child < levelEnd; child += NODE_SIZE) {
+          int end = Math.min(child + NODE_SIZE, levelEnd);
+          double minX = Double.POSITIVE_INFINITY;
+          double minY = Double.POSITIVE_INFINITY;
+          double maxX = Double.NEGATIVE_INFINITY;
+          double maxY = Double.NEGATIVE_INFINITY;
+          for (int c = child; c < end; ++c) {
+            int b = c * 4;
+            minX = Math.min(minX, sortedBoxes[b]);
+            minY = Math.min(minY, sortedBoxes[b + 1]);
+            maxX = Math.max(maxX, sortedBoxes[b + 2]);
+            maxY = Math.max(maxY, sortedBoxes[b + 3]);
+          }
+          int b = pos * 4;
+          sortedBoxes[b] = minX;
+          sortedBoxes[b + 1] = minY;
+          sortedBoxes[b + 2] = maxX;
+          sortedBoxes[b + 3] = maxY;
+          firstChild[pos - n] = child;
+          endChild[pos - n] = end;
+          ++pos;
+        }
+      }
+      return new PackedRTree<>(sortedItems, sortedBoxes, firstChild, endChild);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package org.opentripplanner.graph_builder.issue.service;
 
 import jakarta.inject.Singleton;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssue;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -10,21 +11,26 @@ import org.opentripplanner.graph_builder.issue.api.IssueWithSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Issues may be added from several threads, since transit feeds are mapped in parallel. The source
+ * being processed is kept per thread.
+ */
 @Singleton
 public class DefaultDataImportIssueStore implements DataImportIssueStore {
 
   private static final Logger ISSUE_LOG = LoggerFactory.getLogger(ISSUES_LOG_NAME);
 
-  private final List<DataImportIssue> issues = new ArrayList<>();
-  private String currentSource = null;
+  private final List<DataImportIssue> issues = Collections.synchronizedList(new ArrayList<>());
+  private final ThreadLocal<String> currentSource = new ThreadLocal<>();
 
   public DefaultDataImportIssueStore() {}
 
   @Override
   public void add(DataImportIssue issue) {
     ISSUE_LOG.debug("{} - {}", issue.getType(), issue.getMessage());
-    if (currentSource != null) {
-      this.issues.add(new IssueWithSource(issue, currentSource));
+    String source = currentSource.get();
+    if (source != null) {
+      this.issues.add(new IssueWithSource(issue, source));
     } else {
       this.issues.add(issue);
     }
@@ -42,12 +48,12 @@ public class DefaultDataImportIssueStore implements DataImportIssueStore {
 
   @Override
   public void startProcessingSource(String source) {
-    this.currentSource = source;
+    this.currentSource.set(source);
   }
 
   @Override
   public void stopProcessingSource() {
-    this.currentSource = null;
+    this.currentSource.remove();
   }
 
   @Override
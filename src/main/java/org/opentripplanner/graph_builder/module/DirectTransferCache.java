@@ -0,0 +1,265 @@
+package org.opentripplanner.graph_builder.module;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.issues.Graphwide;
+import org.opentripplanner.model.PathTransfer;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.StopModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The transfers {@link DirectTransferGenerator} found for each stop in an earlier graph build.
+ * <p>
+ * The transfers of a stop are stored with the area the street searches from the stop reached, and
+ * a {@link GraphAreaFingerprint} of that area. If the fingerprint is the same in a later build,
+ * the searches would find the same transfers, so they are reused. Otherwise, for example if the
+ * streets, the stops or the patterns near the stop changed, the transfers are generated again.
+ * <p>
+ * The edges of a transfer are stored as the position of each edge among the outgoing (or
+ * incoming) edges of the previous vertex, starting at the stop. This does not depend on vertex
+ * labels, which are not stable between builds.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE, except for reading and writing the cache file.
+ */
+class DirectTransferCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DirectTransferCache.class);
+
+  /**
+   * Part of the key of the whole cache. Change it if the transfers are found in a different way,
+   * so that a cache written by an earlier version is not used.
+   */
+  private static final int VERSION = 1;
+
+  private final long key;
+  private final GraphAreaFingerprint fingerprint;
+  private final StopModel stopModel;
+
+  private Map<String, CachedStop> previousStops = Map.of();
+  private final Map<String, CachedStop> stops = new ConcurrentHashMap<>();
+  private final AtomicInteger nReused = new AtomicInteger();
+
+  /**
+   * @param key identifies everything the transfers depend on, except the graph near each stop.
+   *            The cache is not used if the key is different from the key of the cache file.
+   */
+  DirectTransferCache(long key, GraphAreaFingerprint fingerprint, StopModel stopModel) {
+    this.key = 31L * key + VERSION;
+    this.fingerprint = fingerprint;
+    this.stopModel = stopModel;
+  }
+
+  void read(File file, DataImportIssueStore issueStore) {
+    try (var in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      var cacheFile = (CacheFile) in.readObject();
+      if (cacheFile.key() == key) {
+        previousStops = cacheFile.stops();
+        LOG.info("Cached transfers for {} stops loaded into memory.", previousStops.size());
+      } else {
+        LOG.info("Not using the cached transfers, they were generated with other parameters.");
+      }
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      issueStore.add(
+        new Graphwide(
+          String.format(
+            "Cached transfers file could not be read in due to error: %s!",
+            e.getMessage()
+          )
+        )
+      );
+    }
+  }
+
+  void write(File file, DataImportIssueStore issueStore) {
+    LOG.info("Writing transfer cache");
+    try (var out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeObject(new CacheFile(key, new HashMap<>(stops)));
+    } catch (IOException e) {
+      issueStore.add(new Graphwide("Failed to write cached transfers file: " + e.getMessage()));
+    }
+  }
+
+  /**
+   * Return the cached transfers of the stop, or {@code null} if there are none, or if the graph
+   * near the stop changed.
+   */
+  @Nullable
+  Collection<PathTransfer> get(TransitStopVertex stopVertex) {
+    String stopId = stopVertex.getStop().getId().toString();
+    CachedStop cached = previousStops.get(stopId);
+    if (cached == null || cached.fingerprint() != fingerprint.fingerprint(cached.searchedArea())) {
+      return null;
+    }
+    List<PathTransfer> transfers = new ArrayList<>(cached.transfers().size());
+    for (CachedTransfer it : cached.transfers()) {
+      PathTransfer transfer = it.toPathTransfer(stopVertex, stopModel);
+      if (transfer == null) {
+        return null;
+      }
+      transfers.add(transfer);
+    }
+    stops.put(stopId, cached);
+    nReused.incrementAndGet();
+    return transfers;
+  }
+
+  /**
+   * Cache the transfers of the stop.
+   *
+   * @param searchedArea the area reached by all the street searches from the stop
+   */
+  void put(
+    TransitStopVertex stopVertex,
+    Envelope searchedArea,
+    Collection<PathTransfer> transfers
+  ) {
+    List<CachedTransfer> cachedTransfers = new ArrayList<>(transfers.size());
+    for (PathTransfer transfer : transfers) {
+      CachedTransfer cached = CachedTransfer.of(stopVertex, transfer);
+      if (cached == null) {
+        return;
+      }
+      cachedTransfers.add(cached);
+    }
+    stops.put(
+      stopVertex.getStop().getId().toString(),
+      new CachedStop(searchedArea, fingerprint.fingerprint(searchedArea), cachedTransfers)
+    );
+  }
+
+  int numberOfReusedStops() {
+    return nReused.get();
+  }
+
+  private record CacheFile(long key, Map<String, CachedStop> stops) implements Serializable {}
+
+  private record CachedStop(
+    Envelope searchedArea,
+    long fingerprint,
+    List<CachedTransfer> transfers
+  )
+    implements Serializable {}
+
+  /**
+   * @param endsAtStop    if the path of the transfer ends at the stop the transfers are cached
+   *                      for, instead of starting at it
+   * @param edgePositions the position of each edge among the outgoing edges of the previous
+   *                      vertex, or, if the path ends at the stop, among the incoming edges of the
+   *                      next vertex, in reverse order
+   */
+  private record CachedTransfer(
+    String fromStopId,
+    String toStopId,
+    double distanceMeters,
+    boolean endsAtStop,
+    int[] edgePositions
+  )
+    implements Serializable {
+    /**
+     * Return {@code null} if the path of the transfer is not a sequence of connected edges starting
+     * or ending at the stop, then the transfers of the stop can not be cached.
+     */
+    @Nullable
+    static CachedTransfer of(TransitStopVertex stopVertex, PathTransfer transfer) {
+      List<Edge> edges = transfer.getEdges();
+      if (edges == null) {
+        return null;
+      }
+      boolean endsAtStop = !edges.isEmpty() && edges.get(0).getFromVertex() != stopVertex;
+      if (endsAtStop) {
+        edges = new ArrayList<>(edges);
+        Collections.reverse(edges);
+      }
+
+      int[] edgePositions = new int[edges.size()];
+      Vertex vertex = stopVertex;
+      for (int i = 0; i < edges.size(); i++) {
+        Edge edge = edges.get(i);
+        if (vertex != (endsAtStop ? edge.getToVertex() : edge.getFromVertex())) {
+          return null;
+        }
+        vertex = endsAtStop ? edge.getFromVertex() : edge.getToVertex();
+        edgePositions[i] =
+          endsAtStop
+            ? position(edge.getToVertex().getIncoming(), edge)
+            : position(edge.getFromVertex().getOutgoing(), edge);
+      }
+      return new CachedTransfer(
+        transfer.from.getId().toString(),
+        transfer.to.getId().toString(),
+        transfer.getDistanceMeters(),
+        endsAtStop,
+        edgePositions
+      );
+    }
+
+    @Nullable
+    PathTransfer toPathTransfer(TransitStopVertex stopVertex, StopModel stopModel) {
+      StopLocation from = stopModel.getStopLocation(FeedScopedId.parseId(fromStopId));
+      StopLocation to = stopModel.getStopLocation(FeedScopedId.parseId(toStopId));
+      if (from == null || to == null) {
+        return null;
+      }
+
+      List<Edge> edges = new ArrayList<>(edgePositions.length);
+      Vertex vertex = stopVertex;
+      for (int position : edgePositions) {
+        Collection<Edge> candidates = endsAtStop ? vertex.getIncoming() : vertex.getOutgoing();
+        if (position >= candidates.size()) {
+          return null;
+        }
+        Edge edge = get(candidates, position);
+        edges.add(edge);
+        vertex = endsAtStop ? edge.getFromVertex() : edge.getToVertex();
+      }
+      if (endsAtStop) {
+        Collections.reverse(edges);
+      }
+      return new PathTransfer(from, to, distanceMeters, edges);
+    }
+
+    private static int position(Collection<Edge> edges, Edge edge) {
+      int i = 0;
+      for (Edge it : edges) {
+        if (it == edge) {
+          return i;
+        }
+        ++i;
+      }
+      throw new IllegalStateException("The edge is not connected to its vertex: " + edge);
+    }
+
+    private static Edge get(Collection<Edge> edges, int position) {
+      Iterator<Edge> it = edges.iterator();
+      for (int i = 0; i < position; i++) {
+        it.next();
+      }
+      return it.next();
+    }
+  }
+}
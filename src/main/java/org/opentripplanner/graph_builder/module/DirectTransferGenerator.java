@@ -1,12 +1,21 @@
 package org.opentripplanner.graph_builder.module;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.opentripplanner.model.projectinfo.OtpProjectInfo.projectInfo;
+
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.File;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -14,6 +23,7 @@ import org.opentripplanner.graph_builder.issues.StopNotLinkedForTransfers;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
 import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
@@ -23,6 +33,7 @@ import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.transit.model.site.RegularStop;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitService;
 import org.opentripplanner.transit.service.TransitModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +45,9 @@ import org.slf4j.LoggerFactory;
  * <p>
  * It will use the street network if OSM data has already been loaded into the graph. Otherwise it
  * will use straight-line distance between stops.
+ * <p>
+ * When using the street network, the transfers of each stop can be cached in a file and reused in
+ * later builds if the graph near the stop is unchanged, see {@link DirectTransferCache}.
  */
 public class DirectTransferGenerator implements GraphBuilderModule {
 
@@ -46,18 +60,44 @@ public class DirectTransferGenerator implements GraphBuilderModule {
   private final TransitModel transitModel;
   private final DataImportIssueStore issueStore;
 
+  /** The file to read and write the cached transfers, not used if null */
+  @Nullable
+  private final File cachedTransfersFile;
+
+  private final boolean readCachedTransfers;
+  private final boolean writeCachedTransfers;
+
+  /** The number of stops with reused cached transfers, set when the graph is built */
+  private int numberOfReusedStops = 0;
+
   public DirectTransferGenerator(
     Graph graph,
     TransitModel transitModel,
     DataImportIssueStore issueStore,
     Duration radiusByDuration,
     List<RouteRequest> transferRequests
+  ) {
+    this(graph, transitModel, issueStore, radiusByDuration, transferRequests, null, false, false);
+  }
+
+  public DirectTransferGenerator(
+    Graph graph,
+    TransitModel transitModel,
+    DataImportIssueStore issueStore,
+    Duration radiusByDuration,
+    List<RouteRequest> transferRequests,
+    @Nullable File cachedTransfersFile,
+    boolean readCachedTransfers,
+    boolean writeCachedTransfers
   ) {
     this.graph = graph;
     this.transitModel = transitModel;
     this.issueStore = issueStore;
     this.radiusByDuration = radiusByDuration;
     this.transferRequests = transferRequests;
+    this.cachedTransfersFile = cachedTransfersFile;
+    this.readCachedTransfers = readCachedTransfers;
+    this.writeCachedTransfers = writeCachedTransfers;
   }
 
   @Override
@@ -68,8 +108,9 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     }
 
     /* The linker will use streets if they are available, or straight-line distance otherwise. */
+    TransitService transitService = new DefaultTransitService(transitModel);
     NearbyStopFinder nearbyStopFinder = new NearbyStopFinder(
-      new DefaultTransitService(transitModel),
+      transitService,
       radiusByDuration,
       null,
       graph.hasStreets
@@ -83,6 +124,7 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     }
 
     List<TransitStopVertex> stops = graph.getVerticesOfType(TransitStopVertex.class);
+    DirectTransferCache transferCache = createTransferCache(nearbyStopFinder, transitService);
 
     ProgressTracker progress = ProgressTracker.track(
       "Create transfer edges for stops",
@@ -102,75 +144,32 @@ public class DirectTransferGenerator implements GraphBuilderModule {
       .stream()
       .parallel()
       .forEach(ts0 -> {
-        /* Make transfers to each nearby stop that has lowest weight on some trip pattern.
-         * Use map based on the list of edges, so that only distinct transfers are stored. */
-        Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
         RegularStop stop = ts0.getStop();
 
         if (stop.transfersNotAllowed()) {
           return;
         }
 
-        LOG.debug("Linking stop '{}' {}", stop, ts0);
-
-        for (RouteRequest transferProfile : transferRequests) {
-          for (NearbyStop sd : findNearbyStops(
-            nearbyStopFinder,
-            ts0,
-            transferProfile,
-            transferProfile.journey().transfer(),
-            false
-          )) {
-            // Skip the origin stop, loop transfers are not needed.
-            if (sd.stop == stop) {
-              continue;
-            }
-            if (sd.stop.transfersNotAllowed()) {
-              continue;
-            }
-            distinctTransfers.put(
-              new TransferKey(stop, sd.stop, sd.edges),
-              new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
-            );
-          }
-          if (OTPFeature.FlexRouting.isOn()) {
-            // This code is for finding transfers from AreaStops to Stops, transfers
-            // from Stops to AreaStops and between Stops are already covered above.
-            for (NearbyStop sd : findNearbyStops(
-              nearbyStopFinder,
-              ts0,
-              transferProfile,
-              transferProfile.journey().transfer(),
-              true
-            )) {
-              // Skip the origin stop, loop transfers are not needed.
-              if (sd.stop == stop) {
-                continue;
-              }
-              if (sd.stop instanceof RegularStop) {
-                continue;
-              }
-              distinctTransfers.put(
-                new TransferKey(sd.stop, stop, sd.edges),
-                new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
-              );
-            }
+        Collection<PathTransfer> transfers = transferCache == null ? null : transferCache.get(ts0);
+        if (transfers == null) {
+          Envelope searchedArea = new Envelope();
+          transfers = findTransfers(nearbyStopFinder, ts0, searchedArea);
+          if (transferCache != null && writeCachedTransfers) {
+            transferCache.put(ts0, searchedArea, transfers);
           }
         }
 
         LOG.debug(
           "Linked stop {} with {} transfers to stops with different patterns.",
           stop,
-          distinctTransfers.size()
+          transfers.size()
         );
-        if (distinctTransfers.isEmpty()) {
+        if (transfers.isEmpty()) {
           issueStore.add(new StopNotLinkedForTransfers(ts0));
         } else {
-          distinctTransfers
-            .values()
-            .forEach(transfer -> transfersByStop.put(transfer.from, transfer));
+          transfers.forEach(transfer -> transfersByStop.put(transfer.from, transfer));
           nLinkedStops.incrementAndGet();
-          nTransfersTotal.addAndGet(distinctTransfers.size());
+          nTransfersTotal.addAndGet(transfers.size());
         }
 
         //Keep lambda! A method-ref would causes incorrect class and line number to be logged
@@ -186,11 +185,158 @@ public class DirectTransferGenerator implements GraphBuilderModule {
       nTransfersTotal,
       nLinkedStops
     );
+
+    if (transferCache != null) {
+      numberOfReusedStops = transferCache.numberOfReusedStops();
+      LOG.info(
+        "Reused the cached transfers of {} of {} stops.",
+        numberOfReusedStops,
+        stops.size()
+      );
+      if (writeCachedTransfers) {
+        transferCache.write(cachedTransfersFile, issueStore);
+      }
+    }
+  }
+
+  int numberOfReusedStops() {
+    return numberOfReusedStops;
   }
 
   @Override
   public void checkInputs() {
-    // No inputs
+    // check for the existence of cached transfers.
+    if (cachedTransfersFile != null && readCachedTransfers) {
+      if (cachedTransfersFile.exists()) {
+        LOG.info("Cached transfers file found!");
+      } else {
+        LOG.warn(
+          "No cached transfers file found at {} or read access not allowed! Unable " +
+          "to load in cached transfers.",
+          cachedTransfersFile.getAbsolutePath()
+        );
+      }
+    }
+  }
+
+  /**
+   * Make transfers to each nearby stop that has lowest weight on some trip pattern.
+   *
+   * @param searchedArea expanded to include the area reached by the street searches
+   */
+  private Collection<PathTransfer> findTransfers(
+    NearbyStopFinder nearbyStopFinder,
+    TransitStopVertex ts0,
+    Envelope searchedArea
+  ) {
+    /* Use map based on the list of edges, so that only distinct transfers are stored. */
+    Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
+    RegularStop stop = ts0.getStop();
+
+    LOG.debug("Linking stop '{}' {}", stop, ts0);
+
+    for (RouteRequest transferProfile : transferRequests) {
+      for (NearbyStop sd : findNearbyStops(
+        nearbyStopFinder,
+        ts0,
+        transferProfile,
+        transferProfile.journey().transfer(),
+        false,
+        searchedArea
+      )) {
+        // Skip the origin stop, loop transfers are not needed.
+        if (sd.stop == stop) {
+          continue;
+        }
+        if (sd.stop.transfersNotAllowed()) {
+          continue;
+        }
+        distinctTransfers.put(
+          new TransferKey(stop, sd.stop, sd.edges),
+          new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
+        );
+      }
+      if (OTPFeature.FlexRouting.isOn()) {
+        // This code is for finding transfers from AreaStops to Stops, transfers
+        // from Stops to AreaStops and between Stops are already covered above.
+        for (NearbyStop sd : findNearbyStops(
+          nearbyStopFinder,
+          ts0,
+          transferProfile,
+          transferProfile.journey().transfer(),
+          true,
+          searchedArea
+        )) {
+          // Skip the origin stop, loop transfers are not needed.
+          if (sd.stop == stop) {
+            continue;
+          }
+          if (sd.stop instanceof RegularStop) {
+            continue;
+          }
+          distinctTransfers.put(
+            new TransferKey(sd.stop, stop, sd.edges),
+            new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
+          );
+        }
+      }
+    }
+    return distinctTransfers.values();
+  }
+
+  /**
+   * Return null if the transfers should not be cached. Straight-line transfers are cheap to
+   * generate, so they are never cached. The cache is not created either if there is no file to
+   * read it from and it should not be written, since creating the fingerprints of the graph is
+   * expensive.
+   */
+  @Nullable
+  private DirectTransferCache createTransferCache(
+    NearbyStopFinder nearbyStopFinder,
+    TransitService transitService
+  ) {
+    if (!nearbyStopFinder.useStreets || cachedTransfersFile == null) {
+      return null;
+    }
+    boolean read = readCachedTransfers && cachedTransfersFile.exists();
+    if (!(read || writeCachedTransfers)) {
+      return null;
+    }
+    var cache = new DirectTransferCache(
+      cacheKey(),
+      new GraphAreaFingerprint(graph, transitService),
+      transitModel.getStopModel()
+    );
+    if (read) {
+      cache.read(cachedTransfersFile, issueStore);
+    }
+    return cache;
+  }
+
+  /**
+   * Identifies the OTP version and the parameters the transfers depend on, for the
+   * {@link DirectTransferCache}.
+   */
+  private long cacheKey() {
+    Hasher hasher = Hashing.farmHashFingerprint64().newHasher();
+    hasher
+      .putString(projectInfo().version.toString(), UTF_8)
+      .putString(projectInfo().getOtpSerializationVersionId(), UTF_8)
+      .putLong(radiusByDuration.toSeconds())
+      .putBoolean(OTPFeature.FlexRouting.isOn())
+      .putBoolean(OTPFeature.ConsiderPatternsForDirectTransfers.isOn());
+    for (RouteRequest request : transferRequests) {
+      RoutingPreferences preferences = request.preferences();
+      hasher
+        .putString(request.journey().transfer().mode().name(), UTF_8)
+        .putBoolean(request.wheelchair())
+        .putString(preferences.walk().toString(), UTF_8)
+        .putString(preferences.bike().toString(), UTF_8)
+        .putString(preferences.car().toString(), UTF_8)
+        .putString(preferences.street().toString(), UTF_8)
+        .putString(preferences.wheelchair().toString(), UTF_8);
+    }
+    return hasher.hash().asLong();
   }
 
   private static Iterable<NearbyStop> findNearbyStops(
@@ -198,16 +344,24 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     Vertex vertex,
     RouteRequest request,
     StreetRequest streetRequest,
-    boolean reverseDirection
+    boolean reverseDirection,
+    Envelope searchedArea
   ) {
     return OTPFeature.ConsiderPatternsForDirectTransfers.isOn()
       ? nearbyStopFinder.findNearbyStopsConsideringPatterns(
         vertex,
         request,
         streetRequest,
-        reverseDirection
+        reverseDirection,
+        searchedArea
       )
-      : nearbyStopFinder.findNearbyStops(vertex, request, streetRequest, reverseDirection);
+      : nearbyStopFinder.findNearbyStops(
+        vertex,
+        request,
+        streetRequest,
+        reverseDirection,
+        searchedArea
+      );
   }
 
   private record TransferKey(StopLocation source, StopLocation target, List<Edge> edges) {}
@@ -0,0 +1,178 @@
+package org.opentripplanner.graph_builder.module;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.util.Comparator;
+import java.util.List;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.TurnRestriction;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.ElevatorHopEdge;
+import org.opentripplanner.street.model.edge.PathwayEdge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * A fingerprint of the part of the graph inside an envelope. A street search that only reached
+ * vertices inside the envelope gives the same result in another graph with the same fingerprint
+ * for the envelope, so the result can be reused in a later graph build.
+ * <p>
+ * Each vertex is hashed with its coordinate, its incoming and outgoing edges and, for stops, the
+ * transit data used when searching for nearby stops. Street, pathway and elevator edges are
+ * hashed with the fields their traversal depends on. Vertex labels are not used, since the
+ * labels of the vertices created when linking depend on the order the stops are linked in. The
+ * fingerprint of an envelope is the sum of the hashes of the vertices inside it.
+ * <p>
+ * The graph must not change after this is created.
+ */
+class GraphAreaFingerprint {
+
+  private final TransitService transitService;
+  private final HashGridSpatialIndex<VertexHash> index = new HashGridSpatialIndex<>();
+
+  GraphAreaFingerprint(Graph graph, TransitService transitService) {
+    this.transitService = transitService;
+    List<VertexHash> hashes = graph
+      .getVertices()
+      .parallelStream()
+      .map(v -> new VertexHash(v.getCoordinate(), hash(v)))
+      .toList();
+    for (VertexHash it : hashes) {
+      index.insert(new Envelope(it.coordinate()), it);
+    }
+  }
+
+  long fingerprint(Envelope envelope) {
+    long sum = 0;
+    int count = 0;
+    for (VertexHash it : index.query(envelope)) {
+      if (envelope.contains(it.coordinate())) {
+        sum += it.hash();
+        ++count;
+      }
+    }
+    return Hashing.farmHashFingerprint64().newHasher().putLong(sum).putInt(count).hash().asLong();
+  }
+
+  private long hash(Vertex vertex) {
+    Hasher hasher = Hashing.farmHashFingerprint64().newHasher();
+    hasher.putString(vertex.getClass().getName(), UTF_8);
+    putCoordinate(hasher, vertex.getCoordinate());
+
+    if (vertex instanceof TransitStopVertex stopVertex) {
+      putStop(hasher, stopVertex.getStop());
+    }
+    if (
+      OTPFeature.FlexRouting.isOn() &&
+      vertex instanceof StreetVertex streetVertex &&
+      streetVertex.areaStops != null
+    ) {
+      streetVertex.areaStops
+        .stream()
+        .map(it -> it.getId().toString())
+        .sorted()
+        .forEach(id -> hasher.putString(id, UTF_8));
+    }
+
+    // The order of the edges decides which of two equally good paths the search finds
+    hasher.putInt(vertex.getDegreeOut());
+    for (Edge edge : vertex.getOutgoing()) {
+      putEdge(hasher, edge, edge.getToVertex());
+    }
+    hasher.putInt(vertex.getDegreeIn());
+    for (Edge edge : vertex.getIncoming()) {
+      putEdge(hasher, edge, edge.getFromVertex());
+    }
+    return hasher.hash().asLong();
+  }
+
+  private void putStop(Hasher hasher, RegularStop stop) {
+    hasher
+      .putString(stop.getId().toString(), UTF_8)
+      .putBoolean(stop.transfersNotAllowed())
+      .putString(stop.getWheelchairAccessibility().name(), UTF_8);
+
+    if (OTPFeature.ConsiderPatternsForDirectTransfers.isOn()) {
+      transitService
+        .getPatternsForStop(stop)
+        .stream()
+        .sorted(Comparator.comparing(it -> it.getId().toString()))
+        .forEach(pattern -> putPattern(hasher, pattern, stop));
+
+      if (OTPFeature.FlexRouting.isOn()) {
+        transitService
+          .getFlexIndex()
+          .getFlexTripsByStop(stop)
+          .stream()
+          .map(it -> it.getId().toString())
+          .sorted()
+          .forEach(id -> hasher.putString(id, UTF_8));
+      }
+    }
+  }
+
+  private static void putPattern(Hasher hasher, TripPattern pattern, RegularStop stop) {
+    hasher
+      .putString(pattern.getId().toString(), UTF_8)
+      .putBoolean(pattern.canBoard(stop))
+      .putBoolean(pattern.canAlight(stop));
+  }
+
+  private static void putEdge(Hasher hasher, Edge edge, Vertex otherVertex) {
+    hasher.putString(edge.getClass().getName(), UTF_8);
+    putCoordinate(hasher, otherVertex.getCoordinate());
+    hasher
+      .putDouble(edge.getDistanceMeters())
+      .putDouble(edge.getEffectiveWalkDistance())
+      .putInt(edge.getDistanceIndependentTime());
+
+    if (edge instanceof StreetEdge streetEdge) {
+      hasher
+        .putString(streetEdge.getPermission().name(), UTF_8)
+        .putFloat(streetEdge.getWalkSafetyFactor())
+        .putFloat(streetEdge.getBicycleSafetyFactor())
+        .putDouble(streetEdge.getEffectiveBikeDistance())
+        .putDouble(streetEdge.getMaxSlope())
+        .putFloat(streetEdge.getCarSpeed())
+        .putBoolean(streetEdge.isWheelchairAccessible())
+        .putBoolean(streetEdge.isStairs())
+        .putBoolean(streetEdge.isWalkNoThruTraffic())
+        .putBoolean(streetEdge.isBicycleNoThruTraffic())
+        .putBoolean(streetEdge.isMotorVehicleNoThruTraffic());
+
+      for (TurnRestriction restriction : streetEdge.getTurnRestrictions()) {
+        hasher.putString(restriction.type.name(), UTF_8);
+        hasher.putString(restriction.modes.toString(), UTF_8);
+        putCoordinate(hasher, restriction.to.getToVertex().getCoordinate());
+      }
+    } else if (edge instanceof PathwayEdge pathwayEdge) {
+      hasher
+        .putInt(pathwayEdge.getSteps())
+        .putDouble(pathwayEdge.getSlope())
+        .putBoolean(pathwayEdge.isWheelchairAccessible());
+    } else if (edge instanceof ElevatorHopEdge elevatorHopEdge) {
+      hasher
+        .putString(String.valueOf(elevatorHopEdge.getPermission()), UTF_8)
+        .putString(String.valueOf(elevatorHopEdge.getWheelchairAccessibility()), UTF_8)
+        .putDouble(elevatorHopEdge.getLevels())
+        .putInt(elevatorHopEdge.getTravelTime());
+    }
+  }
+
+  private static void putCoordinate(Hasher hasher, Coordinate coordinate) {
+    hasher.putDouble(coordinate.x).putDouble(coordinate.y);
+  }
+
+  private record VertexHash(Coordinate coordinate, long hash) {}
+}
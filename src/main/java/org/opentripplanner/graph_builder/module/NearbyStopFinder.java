@@ -7,10 +7,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.astar.model.PriorityQueueType;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.ComposingSkipEdgeStrategy;
@@ -101,6 +106,28 @@ public class NearbyStopFinder {
     RouteRequest routingRequest,
     StreetRequest streetRequest,
     boolean reverseDirection
+  ) {
+    return findNearbyStopsConsideringPatterns(
+      vertex,
+      routingRequest,
+      streetRequest,
+      reverseDirection,
+      null
+    );
+  }
+
+  /**
+   * Same as {@link #findNearbyStopsConsideringPatterns(Vertex, RouteRequest, StreetRequest,
+   * boolean)}, but also report the area searched.
+   *
+   * @param searchedArea if not null, expanded to include every vertex reached by the street search
+   */
+  public Set<NearbyStop> findNearbyStopsConsideringPatterns(
+    Vertex vertex,
+    RouteRequest routingRequest,
+    StreetRequest streetRequest,
+    boolean reverseDirection,
+    @Nullable Envelope searchedArea
   ) {
     /* Track the closest stop on each pattern passing nearby. */
     MinMap<TripPattern, NearbyStop> closestStopForPattern = new MinMap<>();
@@ -113,7 +140,8 @@ public class NearbyStopFinder {
       vertex,
       routingRequest,
       streetRequest,
-      reverseDirection
+      reverseDirection,
+      searchedArea
     )) {
       StopLocation ts1 = nearbyStop.stop;
 
@@ -161,13 +189,33 @@ public class NearbyStopFinder {
     RouteRequest routingRequest,
     StreetRequest streetRequest,
     boolean reverseDirection
+  ) {
+    return findNearbyStops(vertex, routingRequest, streetRequest, reverseDirection, null);
+  }
+
+  /**
+   * Same as {@link #findNearbyStops(Vertex, RouteRequest, StreetRequest, boolean)}, but also report
+   * the area searched. The result only depends on the vertices and edges inside this area, so it
+   * can be used to tell if the result is still valid after the graph is changed or rebuilt.
+   *
+   * @param searchedArea if not null, expanded to include every vertex reached by the street
+   *                     search. It is not changed if the graph has no streets.
+   */
+  public List<NearbyStop> findNearbyStops(
+    Vertex vertex,
+    RouteRequest routingRequest,
+    StreetRequest streetRequest,
+    boolean reverseDirection,
+    @Nullable Envelope searchedArea
   ) {
     if (useStreets) {
       return findNearbyStopsViaStreets(
         Set.of(vertex),
         reverseDirection,
         routingRequest,
-        streetRequest
+        streetRequest,
+        durationLimit,
+        searchedArea
       );
     } else {
       return findNearbyStopsViaDirectTransfers(vertex);
@@ -187,6 +235,62 @@ public class NearbyStopFinder {
     boolean reverseDirection,
     RouteRequest request,
     StreetRequest streetRequest
+  ) {
+    return findNearbyStopsViaStreets(
+      originVertices,
+      reverseDirection,
+      request,
+      streetRequest,
+      durationLimit,
+      null
+    );
+  }
+
+  /**
+   * Find the stops within each of the given duration limits. One street search is run for each
+   * distinct limit, so equal limits share the search. The stops within a shorter limit can not be
+   * taken from the search with a longer limit: the search keeps the path with the lowest weight to
+   * each vertex, and if that path exceeds the shorter limit, a faster path with a higher weight may
+   * still be within it. The duration limit passed in to the constructor is not used.
+   *
+   * @return the nearby stops for each duration limit, in the same order as the limits
+   * @see #findNearbyStopsViaStreets(Set, boolean, RouteRequest, StreetRequest)
+   */
+  public List<List<NearbyStop>> findNearbyStopsViaStreets(
+    Set<Vertex> originVertices,
+    boolean reverseDirection,
+    RouteRequest request,
+    StreetRequest streetRequest,
+    List<Duration> durationLimits
+  ) {
+    Map<Duration, List<NearbyStop>> stopsByLimit = new HashMap<>();
+    List<List<NearbyStop>> result = new ArrayList<>(durationLimits.size());
+    for (Duration limit : durationLimits) {
+      List<NearbyStop> stopsFound = stopsByLimit.get(limit);
+      if (stopsFound == null) {
+        stopsFound =
+          findNearbyStopsViaStreets(
+            originVertices,
+            reverseDirection,
+            request,
+            streetRequest,
+            limit,
+            null
+          );
+        stopsByLimit.put(limit, stopsFound);
+      }
+      result.add(stopsFound);
+    }
+    return result;
+  }
+
+  private List<NearbyStop> findNearbyStopsViaStreets(
+    Set<Vertex> originVertices,
+    boolean reverseDirection,
+    RouteRequest request,
+    StreetRequest streetRequest,
+    Duration durationLimit,
+    @Nullable Envelope searchedArea
   ) {
     List<NearbyStop> stopsFound = createDirectlyConnectedStops(
       originVertices,
@@ -194,6 +298,9 @@ public class NearbyStopFinder {
       request,
       streetRequest
     );
+    if (searchedArea != null) {
+      originVertices.forEach(v -> searchedArea.expandToInclude(v.getCoordinate()));
+    }
 
     // Return only the origin vertices if there are no valid street modes
     if (streetRequest.mode() == StreetMode.NOT_SET) {
@@ -202,8 +309,11 @@ public class NearbyStopFinder {
 
     ShortestPathTree<State, Edge, Vertex> spt = StreetSearchBuilder
       .of()
-      .setSkipEdgeStrategy(getSkipEdgeStrategy(reverseDirection, request))
+      .setSkipEdgeStrategy(getSkipEdgeStrategy(reverseDirection, request, durationLimit))
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      // This is a Dijkstra search (no heuristic), so the priorities in the queue are monotone,
+      // see MinPriorityQueueBenchmark
+      .setPriorityQueueType(PriorityQueueType.RADIX_HEAP)
       .setRequest(request)
       .setArriveBy(reverseDirection)
       .setStreetRequest(streetRequest)
@@ -212,31 +322,46 @@ public class NearbyStopFinder {
       .setDataOverlayContext(dataOverlayContext)
       .getShortestPathTree();
 
+    if (searchedArea != null) {
+      spt.getAllStates().forEach(s -> searchedArea.expandToInclude(s.getVertex().getCoordinate()));
+    }
+    stopsFound.addAll(findStopsInTree(spt, originVertices, reverseDirection));
+    return stopsFound;
+  }
+
+  /**
+   * Return the stops in the shortest path tree.
+   */
+  private List<NearbyStop> findStopsInTree(
+    ShortestPathTree<State, Edge, Vertex> spt,
+    Set<Vertex> originVertices,
+    boolean reverseDirection
+  ) {
+    List<NearbyStop> stopsFound = new ArrayList<>();
+
     // Only used if OTPFeature.FlexRouting.isOn()
     Multimap<AreaStop, State> locationsMap = ArrayListMultimap.create();
 
-    if (spt != null) {
-      // TODO use GenericAStar and a traverseVisitor? Add an earliestArrival switch to genericAStar?
-      for (State state : spt.getAllStates()) {
-        Vertex targetVertex = state.getVertex();
-        if (originVertices.contains(targetVertex)) continue;
-        if (targetVertex instanceof TransitStopVertex && state.isFinal()) {
-          stopsFound.add(
-            NearbyStop.nearbyStopForState(state, ((TransitStopVertex) targetVertex).getStop())
-          );
-        }
-        if (
-          OTPFeature.FlexRouting.isOn() &&
-          targetVertex instanceof StreetVertex &&
-          ((StreetVertex) targetVertex).areaStops != null
-        ) {
-          for (AreaStop areaStop : ((StreetVertex) targetVertex).areaStops) {
-            // This is for a simplification, so that we only return one vertex from each
-            // stop location. All vertices are added to the multimap, which is filtered
-            // below, so that only the closest vertex is added to stopsFound
-            if (canBoardFlex(state, reverseDirection)) {
-              locationsMap.put(areaStop, state);
-            }
+    // TODO use GenericAStar and a traverseVisitor? Add an earliestArrival switch to genericAStar?
+    for (State state : spt.getAllStates()) {
+      Vertex targetVertex = state.getVertex();
+      if (originVertices.contains(targetVertex)) continue;
+      if (targetVertex instanceof TransitStopVertex && state.isFinal()) {
+        stopsFound.add(
+          NearbyStop.nearbyStopForState(state, ((TransitStopVertex) targetVertex).getStop())
+        );
+      }
+      if (
+        OTPFeature.FlexRouting.isOn() &&
+        targetVertex instanceof StreetVertex &&
+        ((StreetVertex) targetVertex).areaStops != null
+      ) {
+        for (AreaStop areaStop : ((StreetVertex) targetVertex).areaStops) {
+          // This is for a simplification, so that we only return one vertex from each
+          // stop location. All vertices are added to the multimap, which is filtered
+          // below, so that only the closest vertex is added to stopsFound
+          if (canBoardFlex(state, reverseDirection)) {
+            locationsMap.put(areaStop, state);
           }
         }
       }
@@ -273,7 +398,8 @@ public class NearbyStopFinder {
 
   private SkipEdgeStrategy<State, Edge> getSkipEdgeStrategy(
     boolean reverseDirection,
-    RouteRequest routingRequest
+    RouteRequest routingRequest,
+    Duration durationLimit
   ) {
     var durationSkipEdgeStrategy = new DurationSkipEdgeStrategy(durationLimit);
 
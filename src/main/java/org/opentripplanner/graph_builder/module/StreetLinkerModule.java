@@ -107,6 +107,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
       );
     }
 
+    List<TransitStopVertex> stopsToLink = new ArrayList<>();
     for (TransitStopVertex tStop : vertices) {
       // Stops with pathways do not need to be connected to the street network, since there are explicit entraces defined for that
       if (tStop.hasPathways()) {
@@ -116,31 +117,31 @@ public class StreetLinkerModule implements GraphBuilderModule {
       if (tStop.getDegreeOut() + tStop.getDegreeIn() > 0) {
         continue;
       }
-      TraverseModeSet modes = new TraverseModeSet(TraverseMode.WALK);
-
-      if (OTPFeature.FlexRouting.isOn()) {
-        // If regular stops are used for flex trips, they also need to be connected to car routable
-        // street edges.
-        if (stopLocationsUsedForFlexTrips.contains(tStop.getStop())) {
-          modes = new TraverseModeSet(TraverseMode.WALK, TraverseMode.CAR);
-        }
-      }
-
-      graph
-        .getLinker()
-        .linkVertexPermanently(
-          tStop,
-          modes,
-          LinkingDirection.BOTH_WAYS,
-          (vertex, streetVertex) ->
-            List.of(
-              new StreetTransitStopLink((TransitStopVertex) vertex, streetVertex),
-              new StreetTransitStopLink(streetVertex, (TransitStopVertex) vertex)
-            )
-        );
-      //noinspection Convert2MethodRef
-      progress.step(m -> LOG.info(m));
+      stopsToLink.add(tStop);
     }
+
+    final Set<StopLocation> flexStopLocations = stopLocationsUsedForFlexTrips;
+    graph
+      .getLinker()
+      .linkVerticesPermanently(
+        stopsToLink,
+        tStop -> {
+          // If regular stops are used for flex trips, they also need to be connected to car
+          // routable street edges.
+          if (OTPFeature.FlexRouting.isOn() && flexStopLocations.contains(tStop.getStop())) {
+            return new TraverseModeSet(TraverseMode.WALK, TraverseMode.CAR);
+          }
+          return new TraverseModeSet(TraverseMode.WALK);
+        },
+        LinkingDirection.BOTH_WAYS,
+        (vertex, streetVertex) ->
+          List.of(
+            new StreetTransitStopLink((TransitStopVertex) vertex, streetVertex),
+            new StreetTransitStopLink(streetVertex, (TransitStopVertex) vertex)
+          ),
+        //noinspection Convert2MethodRef
+        tStop -> progress.step(m -> LOG.info(m))
+      );
     LOG.info(progress.completeMessage());
   }
 
@@ -181,20 +182,19 @@ public class StreetLinkerModule implements GraphBuilderModule {
 
   private void linkTransitEntrances(Graph graph) {
     LOG.info("Linking transit entrances to graph...");
-    for (TransitEntranceVertex tEntrance : graph.getVerticesOfType(TransitEntranceVertex.class)) {
-      graph
-        .getLinker()
-        .linkVertexPermanently(
-          tEntrance,
-          new TraverseModeSet(TraverseMode.WALK),
-          LinkingDirection.BOTH_WAYS,
-          (vertex, streetVertex) ->
-            List.of(
-              new StreetTransitEntranceLink((TransitEntranceVertex) vertex, streetVertex),
-              new StreetTransitEntranceLink(streetVertex, (TransitEntranceVertex) vertex)
-            )
-        );
-    }
+    graph
+      .getLinker()
+      .linkVerticesPermanently(
+        graph.getVerticesOfType(TransitEntranceVertex.class),
+        tEntrance -> new TraverseModeSet(TraverseMode.WALK),
+        LinkingDirection.BOTH_WAYS,
+        (vertex, streetVertex) ->
+          List.of(
+            new StreetTransitEntranceLink((TransitEntranceVertex) vertex, streetVertex),
+            new StreetTransitEntranceLink(streetVertex, (TransitEntranceVertex) vertex)
+          ),
+        tEntrance -> {}
+      );
   }
 
   private void linkVehicleParks(Graph graph, DataImportIssueStore issueStore) {
@@ -204,6 +204,7 @@ public class GraphBuilderModules {
   @Singleton
   static DirectTransferGenerator provideDirectTransferGenerator(
     BuildConfig config,
+    GraphBuilderDataSources dataSources,
     Graph graph,
     TransitModel transitModel,
     DataImportIssueStore issueStore
@@ -213,7 +214,10 @@ public class GraphBuilderModules {
       transitModel,
       issueStore,
       config.maxTransferDuration,
-      config.transferRequests
+      config.transferRequests,
+      new File(dataSources.getCacheDirectory(), "cached_transfers.obj"),
+      config.readCachedTransfers,
+      config.writeCachedTransfers
     );
   }
 
@@ -0,0 +1,55 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free union-find of the elements {@code 0..size-1}. Several threads may call
+ * {@link #union(int, int)} at the same time. A root is always linked below a root with a lower
+ * index, so the sets do not depend on the order of the unions.
+ */
+class ConcurrentDisjointSet {
+
+  private final AtomicIntegerArray parent;
+
+  ConcurrentDisjointSet(int size) {
+    this.parent = new AtomicIntegerArray(size);
+    for (int i = 0; i < size; i++) {
+      parent.set(i, i);
+    }
+  }
+
+  /**
+   * Return the root of the set containing the element. The path is halved on the way up, which
+   * only links an element to one of its ancestors, so this is safe to do concurrently.
+   */
+  int find(int element) {
+    int x = element;
+    while (true) {
+      int p = parent.get(x);
+      if (p == x) {
+        return x;
+      }
+      int gp = parent.get(p);
+      if (p != gp) {
+        parent.compareAndSet(x, p, gp);
+      }
+      x = gp;
+    }
+  }
+
+  void union(int a, int b) {
+    while (true) {
+      int rootA = find(a);
+      int rootB = find(b);
+      if (rootA == rootB) {
+        return;
+      }
+      int high = Math.max(rootA, rootB);
+      int low = Math.min(rootA, rootB);
+      // Only succeeds if high is still a root, otherwise retry with the new roots
+      if (parent.compareAndSet(high, high, low)) {
+        return;
+      }
+    }
+  }
+}
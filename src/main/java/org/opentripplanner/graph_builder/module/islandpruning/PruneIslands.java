@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.stream.IntStream;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.GraphConnectivity;
 import org.opentripplanner.graph_builder.issues.IsolatedStop;
@@ -338,34 +339,22 @@ public class PruneIslands implements GraphBuilderModule {
 
     StreetSearchRequest request = StreetSearchRequest.of().withMode(streetMode).build();
 
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
-        continue;
-      }
-      State s0 = new State(gv, request);
-      for (Edge e : gv.getOutgoing()) {
-        if (
-          !(
-            e instanceof StreetEdge ||
-            e instanceof ElevatorEdge ||
-            e instanceof FreeEdge ||
-            e instanceof StreetTransitEntityLink
-          )
-        ) {
-          continue;
-        }
-        if (
-          e instanceof StreetEdge &&
-          shouldMatchNoThruType != ((StreetEdge) e).isNoThruTraffic(traverseMode)
-        ) {
-          continue;
-        }
-        State s1 = e.traverse(s0);
-        if (s1 == null) {
-          continue;
-        }
-        Vertex out = s1.getVertex();
-
+    List<Vertex> streetVertices = graph
+      .getVertices()
+      .stream()
+      .filter(StreetVertex.class::isInstance)
+      .toList();
+
+    // Traversing the edges is most of the work, so it is done in parallel. The neighbours are
+    // added in the order of the vertices, so the result does not depend on the number of threads.
+    List<List<Vertex>> reachedVertices = streetVertices
+      .parallelStream()
+      .map(gv -> traverseOutgoingEdges(gv, request, traverseMode, shouldMatchNoThruType))
+      .toList();
+
+    for (int i = 0; i < streetVertices.size(); i++) {
+      Vertex gv = streetVertices.get(i);
+      for (Vertex out : reachedVertices.get(i)) {
         var vertexList = neighborsForVertex.computeIfAbsent(gv, k -> new ArrayList<>());
         vertexList.add(out);
 
@@ -376,12 +365,50 @@ public class PruneIslands implements GraphBuilderModule {
     }
   }
 
+  /** Return the vertices reached by traversing the relevant outgoing edges of the vertex. */
+  private static List<Vertex> traverseOutgoingEdges(
+    Vertex gv,
+    StreetSearchRequest request,
+    TraverseMode traverseMode,
+    boolean shouldMatchNoThruType
+  ) {
+    List<Vertex> reached = new ArrayList<>();
+    State s0 = new State(gv, request);
+    for (Edge e : gv.getOutgoing()) {
+      if (
+        !(
+          e instanceof StreetEdge ||
+          e instanceof ElevatorEdge ||
+          e instanceof FreeEdge ||
+          e instanceof StreetTransitEntityLink
+        )
+      ) {
+        continue;
+      }
+      if (
+        e instanceof StreetEdge &&
+        shouldMatchNoThruType != ((StreetEdge) e).isNoThruTraffic(traverseMode)
+      ) {
+        continue;
+      }
+      State s1 = e.traverse(s0);
+      if (s1 == null) {
+        continue;
+      }
+      reached.add(s1.getVertex());
+    }
+    return reached;
+  }
+
   private int collectSubGraphs(
     Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
     Map<Vertex, Subgraph> newgraphs, // put new subgraphs here
     Map<Vertex, Subgraph> subgraphs, // optional isolation map from a previous round
     ArrayList<Subgraph> islands
   ) { // final list of islands or null
+    if (subgraphs == null && newgraphs.isEmpty()) {
+      return collectConnectedComponents(neighborsForVertex, newgraphs, islands);
+    }
     int count = 0;
     for (Vertex gv : graph.getVertices()) {
       if (!(gv instanceof StreetVertex)) {
@@ -411,6 +438,65 @@ public class PruneIslands implements GraphBuilderModule {
     return count;
   }
 
+  /**
+   * Find the connected subgraphs with a concurrent union-find, joining the neighbours in parallel.
+   * Without anchors and previously mapped vertices, the graph expansion in
+   * {@link #computeConnectedSubgraph} finds each connected component from its first street vertex.
+   * This gives the same subgraphs, created in the same order.
+   */
+  private int collectConnectedComponents(
+    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
+    Map<Vertex, Subgraph> newgraphs,
+    ArrayList<Subgraph> islands
+  ) {
+    List<Vertex> vertices = new ArrayList<>(neighborsForVertex.keySet());
+    Map<Vertex, Integer> indexOf = new HashMap<>();
+    for (int i = 0; i < vertices.size(); i++) {
+      indexOf.put(vertices.get(i), i);
+    }
+
+    var components = new ConcurrentDisjointSet(vertices.size());
+    IntStream
+      .range(0, vertices.size())
+      .parallel()
+      .forEach(i -> {
+        for (Vertex neighbor : neighborsForVertex.get(vertices.get(i))) {
+          components.union(i, indexOf.get(neighbor));
+        }
+      });
+
+    // Create the subgraphs in the order the expansion would start them
+    Map<Integer, Subgraph> subgraphForRoot = new HashMap<>();
+    for (Vertex gv : graph.getVertices()) {
+      Integer index = indexOf.get(gv);
+      if (!(gv instanceof StreetVertex) || index == null) {
+        continue;
+      }
+      int root = components.find(index);
+      if (!subgraphForRoot.containsKey(root)) {
+        Subgraph subgraph = new Subgraph();
+        subgraphForRoot.put(root, subgraph);
+        if (islands != null) {
+          islands.add(subgraph);
+        }
+      }
+    }
+
+    for (int i = 0; i < vertices.size(); i++) {
+      Subgraph subgraph = subgraphForRoot.get(components.find(i));
+      if (subgraph == null) {
+        // Components without street vertices are not expanded
+        continue;
+      }
+      Vertex vertex = vertices.get(i);
+      subgraph.addVertex(vertex);
+      if (!(vertex instanceof TransitStopVertex)) {
+        newgraphs.put(vertex, subgraph);
+      }
+    }
+    return subgraphForRoot.size();
+  }
+
   private boolean restrictOrRemove(
     Subgraph island,
     Map<Edge, Boolean> isolated,
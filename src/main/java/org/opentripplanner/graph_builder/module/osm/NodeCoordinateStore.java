@@ -0,0 +1,166 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import java.util.Arrays;
+
+/**
+ * A compact store of the coordinates of OSM nodes, keyed by the node id. Most of the nodes in OSM
+ * are untagged points in the geometry of ways. Keeping these as {@code OSMNode} objects in a hash
+ * map costs around 80 bytes per node, while this store uses 16 bytes per node.
+ * <p>
+ * The coordinates are stored as fixed-point numbers with 7 decimals, which is the precision used
+ * by OSM. The ids are kept sorted, so a node is found with a binary search. The nodes of a PBF file
+ * are sorted by id, so adding the nodes of one file only appends to the store. Nodes added out of
+ * order, for example when several files are loaded, are sorted and merged into the store before
+ * the next lookup. If the same node is added more than once only one is kept, nodes already merged
+ * into the store take precedence.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ */
+class NodeCoordinateStore {
+
+  private static final double PRECISION = 1e7;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private long[] ids = new long[INITIAL_CAPACITY];
+  private int[] lats = new int[INITIAL_CAPACITY];
+  private int[] lons = new int[INITIAL_CAPACITY];
+  private int size = 0;
+
+  /** The nodes before this index are sorted on id, without duplicates */
+  private int sortedSize = 0;
+
+  void add(long id, double lat, double lon) {
+    boolean sorted = sortedSize == size;
+    if (sorted && size > 0 && id == ids[size - 1]) {
+      return;
+    }
+    if (size == ids.length) {
+      int capacity = size + (size >> 1);
+      ids = Arrays.copyOf(ids, capacity);
+      lats = Arrays.copyOf(lats, capacity);
+      lons = Arrays.copyOf(lons, capacity);
+    }
+    ids[size] = id;
+    lats[size] = (int) Math.round(lat * PRECISION);
+    lons[size] = (int) Math.round(lon * PRECISION);
+    ++size;
+    if (sorted && (size == 1 || id > ids[size - 2])) {
+      sortedSize = size;
+    }
+  }
+
+  boolean contains(long id) {
+    return indexOf(id) >= 0;
+  }
+
+  /**
+   * Return the index of the node with the given id, or a negative number if it is not in the
+   * store. The index is valid until the next node is added.
+   */
+  int indexOf(long id) {
+    sort();
+    int index = Arrays.binarySearch(ids, 0, size, id);
+    return index < 0 ? -1 : index;
+  }
+
+  double lat(int index) {
+    return lats[index] / PRECISION;
+  }
+
+  double lon(int index) {
+    return lons[index] / PRECISION;
+  }
+
+  int size() {
+    sort();
+    return size;
+  }
+
+  /**
+   * Sort the nodes added out of order, and merge them into the sorted nodes.
+   */
+  private void sort() {
+    if (sortedSize == size) {
+      return;
+    }
+    quickSort(sortedSize, size - 1);
+
+    int capacity = size;
+    long[] mergedIds = new long[capacity];
+    int[] mergedLats = new int[capacity];
+    int[] mergedLons = new int[capacity];
+    int n = 0;
+    int i = 0;
+    int j = sortedSize;
+    while (i < sortedSize || j < size) {
+      int next;
+      if (j == size || (i < sortedSize && ids[i] <= ids[j])) {
+        next = i++;
+      } else {
+        next = j++;
+      }
+      // Skip duplicates, the sorted nodes come first for equal ids
+      if (n > 0 && mergedIds[n - 1] == ids[next]) {
+        continue;
+      }
+      mergedIds[n] = ids[next];
+      mergedLats[n] = lats[next];
+      mergedLons[n] = lons[next];
+      ++n;
+    }
+    this.ids = mergedIds;
+    this.lats = mergedLats;
+    this.lons = mergedLons;
+    this.size = n;
+    this.sortedSize = n;
+  }
+
+  private void quickSort(int low, int high) {
+    // Recurse into the smaller part only, to limit the depth of the stack
+    while (high - low > 16) {
+      int p = partition(low, high);
+      if (p - low < high - p) {
+        quickSort(low, p - 1);
+        low = p + 1;
+      } else {
+        quickSort(p + 1, high);
+        high = p - 1;
+      }
+    }
+    insertionSort(low, high);
+  }
+
+  private int partition(int low, int high) {
+    // Use the middle element as pivot, the data is often almost sorted
+    swap((low + high) >>> 1, high);
+    long pivot = ids[high];
+    int i = low;
+    for (int j = low; j < high; ++j) {
+      if (ids[j] < pivot) {
+        swap(i++, j);
+      }
+    }
+    swap(i, high);
+    return i;
+  }
+
+  private void insertionSort(int low, int high) {
+    for (int i = low + 1; i <= high; ++i) {
+      for (int j = i; j > low && ids[j - 1] > ids[j]; --j) {
+        swap(j - 1, j);
+      }
+    }
+  }
+
+  private void swap(int i, int j) {
+    long id = ids[i];
+    ids[i] = ids[j];
+    ids[j] = id;
+    int lat = lats[i];
+    lats[i] = lats[j];
+    lats[j] = lat;
+    int lon = lons[i];
+    lons[i] = lons[j];
+    lons[j] = lon;
+  }
+}
@@ -58,9 +58,12 @@ public class OsmDatabase {
 
   private final DataImportIssueStore issueStore;
 
-  /* Map of all nodes used in ways/areas keyed by their OSM ID */
+  /* Map of all tagged nodes and nodes used in areas, keyed by their OSM ID */
   private final TLongObjectMap<OSMNode> nodesById = new TLongObjectHashMap<>();
 
+  /* The coordinates of the untagged nodes used in ways, these are most of the nodes */
+  private final NodeCoordinateStore nodeCoordinates = new NodeCoordinateStore();
+
   /* Map of all bike parking nodes, keyed by their OSM ID */
   private final TLongObjectMap<OSMNode> bikeParkingNodes = new TLongObjectHashMap<>();
 
@@ -135,8 +138,24 @@ public class OsmDatabase {
     this.boardingAreaRefTags = boardingAreaRefTags;
   }
 
+  /**
+   * Return the node with the given id, or {@code null} if the node is not used. Untagged nodes in
+   * ways are not kept as objects, a new node is created for each call.
+   */
   public OSMNode getNode(Long nodeId) {
-    return nodesById.get(nodeId);
+    OSMNode node = nodesById.get(nodeId);
+    if (node != null) {
+      return node;
+    }
+    int index = nodeCoordinates.indexOf(nodeId);
+    if (index < 0) {
+      return null;
+    }
+    node = new OSMNode();
+    node.setId(nodeId);
+    node.lat = nodeCoordinates.lat(index);
+    node.lon = nodeCoordinates.lon(index);
+    return node;
   }
 
   public OSMWay getWay(Long nodeId) {
@@ -152,7 +171,7 @@ public class OsmDatabase {
   }
 
   public int nodeCount() {
-    return nodesById.size();
+    return nodesById.size() + nodeCoordinates.size();
   }
 
   public int wayCount() {
@@ -231,7 +250,22 @@ public class OsmDatabase {
     if (nodesById.containsKey(node.getId())) {
       return;
     }
-    nodesById.put(node.getId(), node);
+    // The coordinate store skips duplicates itself, without sorting the store for each node
+    if (isPlainWayNode(node)) {
+      nodeCoordinates.add(node.getId(), node.lat, node.lon);
+    } else {
+      nodesById.put(node.getId(), node);
+    }
+  }
+
+  /**
+   * Untagged nodes that are only used in the geometry of ways do not need to be kept as objects.
+   * Area nodes are always kept, since the area rings are built from the node objects.
+   */
+  private boolean isPlainWayNode(OSMNode node) {
+    return (
+      (node.getTags() == null || node.getTags().isEmpty()) && !areaNodeIds.contains(node.getId())
+    );
   }
 
   public void addWay(OSMWay way) {
@@ -409,8 +443,8 @@ public class OsmDatabase {
 
       // For each segment of the way
       for (int i = 0; i < way.getNodeRefs().size() - 1; i++) {
-        OSMNode nA = nodesById.get(way.getNodeRefs().get(i));
-        OSMNode nB = nodesById.get(way.getNodeRefs().get(i + 1));
+        OSMNode nA = getNode(way.getNodeRefs().get(i));
+        OSMNode nB = getNode(way.getNodeRefs().get(i + 1));
         if (nA == null || nB == null) {
           continue;
         }
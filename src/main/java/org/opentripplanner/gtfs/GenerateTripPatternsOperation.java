@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.opentripplanner.ext.flex.trip.FlexTrip;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssue;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.TripDegenerate;
 import org.opentripplanner.graph_builder.issues.TripUndefinedService;
@@ -30,6 +31,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class is responsible for generating trip patterns when loading GTFS data.
+ * <p>
+ * The stop pattern and trip times of each trip are created in parallel. The trips are then added
+ * to the trip patterns in the order of the trips, so the generated pattern ids do not depend on
+ * the order the trips are processed in.
  */
 public class GenerateTripPatternsOperation {
 
@@ -71,13 +76,15 @@ public class GenerateTripPatternsOperation {
     final Collection<Trip> trips = transitDaoBuilder.getTripsById().values();
     final int tripsSize = trips.size();
 
+    List<TripData> tripData = trips.parallelStream().map(this::createTripData).toList();
+
     /* Loop over all trips, handling each one as a frequency-based or scheduled trip. */
-    for (Trip trip : trips) {
+    for (TripData it : tripData) {
       if (++tripCount % 100000 == 0) {
         LOG.debug("build trip patterns {}/{}", tripCount, tripsSize);
       }
 
-      buildTripPatternForTrip(trip);
+      buildTripPatternForTrip(it);
     }
 
     LOG.info(
@@ -106,11 +113,14 @@ public class GenerateTripPatternsOperation {
     }
   }
 
-  private void buildTripPatternForTrip(Trip trip) {
+  /**
+   * Validate the trip and create its stop pattern and trip times. This does not change the state
+   * of this class, so it is safe to call from several threads.
+   */
+  private TripData createTripData(Trip trip) {
     // TODO: move to a validator module
     if (!calendarServiceIds.contains(trip.getServiceId())) {
-      issueStore.add(new TripUndefinedService(trip));
-      return; // Invalid trip, skip it, it will break later
+      return TripData.invalid(new TripUndefinedService(trip)); // Invalid trip, it will break later
     }
 
     List<StopTime> stopTimes = transitDaoBuilder.getStopTimesSortedByTrip().get(trip);
@@ -121,19 +131,27 @@ public class GenerateTripPatternsOperation {
     // flex trips are allowed to have a single stop because that can be an area or a group of stops
     var flexTripWithZeroStops = FlexTrip.containsFlexStops(stopTimes) && stopTimes.size() < 1;
     if (staticTripWithFewerThan2Stops || flexTripWithZeroStops) {
-      issueStore.add(new TripDegenerate(trip));
-      return;
+      return TripData.invalid(new TripDegenerate(trip));
     }
 
-    // Get the existing TripPattern for this filtered StopPattern, or create one.
-    StopPattern stopPattern = new StopPattern(stopTimes);
-
-    Direction direction = trip.getDirection();
-    TripPattern tripPattern = findOrCreateTripPattern(stopPattern, trip, direction);
-
     // Create a TripTimes object for this list of stoptimes, which form one trip.
     TripTimes tripTimes = new TripTimes(trip, stopTimes, deduplicator);
 
+    return new TripData(trip, new StopPattern(stopTimes), tripTimes, null);
+  }
+
+  private void buildTripPatternForTrip(TripData tripData) {
+    if (tripData.issue() != null) {
+      issueStore.add(tripData.issue());
+      return; // Invalid trip, skip it
+    }
+    Trip trip = tripData.trip();
+    TripTimes tripTimes = tripData.tripTimes();
+
+    // Get the existing TripPattern for this filtered StopPattern, or create one.
+    Direction direction = trip.getDirection();
+    TripPattern tripPattern = findOrCreateTripPattern(tripData.stopPattern(), trip, direction);
+
     // If this trip is referenced by one or more lines in frequencies.txt, wrap it in a FrequencyEntry.
     List<Frequency> frequencies = frequenciesForTrip.get(trip);
     if (!frequencies.isEmpty()) {
@@ -196,4 +214,18 @@ public class GenerateTripPatternsOperation {
 
     return new FeedScopedId(routeId.getFeedId(), id);
   }
+
+  /**
+   * The stop pattern and trip times of a trip, or the issue if the trip is not valid.
+   */
+  private record TripData(
+    Trip trip,
+    StopPattern stopPattern,
+    TripTimes tripTimes,
+    DataImportIssue issue
+  ) {
+    static TripData invalid(DataImportIssue issue) {
+      return new TripData(null, null, null, issue);
+    }
+  }
 }
@@ -3,12 +3,15 @@ package org.opentripplanner.gtfs.graphbuilder;
 import java.awt.Color;
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 import org.onebusaway.csv_entities.EntityHandler;
 import org.onebusaway.gtfs.impl.GtfsRelationalDaoImpl;
 import org.onebusaway.gtfs.model.Agency;
@@ -31,6 +34,7 @@ import org.onebusaway.gtfs.serialization.GtfsReader;
 import org.onebusaway.gtfs.services.GenericMutableDao;
 import org.onebusaway.gtfs.services.GtfsMutableRelationalDao;
 import org.opentripplanner.ext.fares.impl.DefaultFareServiceFactory;
+import org.opentripplanner.ext.fares.model.FareRulesData;
 import org.opentripplanner.ext.flex.FlexTripsMapper;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -67,7 +71,6 @@ public class GtfsModule implements GraphBuilderModule {
   );
 
   private static final Logger LOG = LoggerFactory.getLogger(GtfsModule.class);
-  private final EntityHandler counter = new EntityCounter();
   private final Set<String> agencyIdsSeen = new HashSet<>();
   /**
    * @see BuildConfig#transitServiceStart
@@ -121,55 +124,62 @@ public class GtfsModule implements GraphBuilderModule {
     boolean hasTransit = false;
 
     try {
+      // The agency ids are made unique in the order of the bundles, so the agencies are read
+      // before the feeds are loaded and mapped in parallel.
+      List<GtfsFeedReader> readers = new ArrayList<>();
       for (GtfsBundle gtfsBundle : gtfsBundles) {
-        GtfsMutableRelationalDao gtfsDao = loadBundle(gtfsBundle);
-        GTFSToOtpTransitServiceMapper mapper = new GTFSToOtpTransitServiceMapper(
-          gtfsBundle.getFeedId().getId(),
-          issueStore,
-          gtfsBundle.discardMinTransferTimes(),
-          gtfsDao,
-          gtfsBundle.stationTransferPreference()
-        );
-        mapper.mapStopTripAndRouteDataIntoBuilder();
-
-        OtpTransitServiceBuilder builder = mapper.getBuilder();
-        var fareRulesService = mapper.getFareRulesService();
-
-        builder.limitServiceDays(transitPeriodLimit);
-
-        calendarServiceData.add(builder.buildCalendarServiceData());
-
-        if (OTPFeature.FlexRouting.isOn()) {
-          builder.getFlexTripsById().addAll(FlexTripsMapper.createFlexTrips(builder, issueStore));
-        }
-
-        validateAndInterpolateStopTimesForEachTrip(
-          builder.getStopTimesSortedByTrip(),
-          issueStore,
-          gtfsBundle.removeRepeatedStops()
-        );
+        readers.add(readAgencies(gtfsBundle));
+      }
 
-        // We need to run this after the cleaning of the data, as stop indices might have changed
-        mapper.mapAndAddTransfersToBuilder();
+      LoadedFeed[] loadedFeeds = readers
+        .parallelStream()
+        .map(this::loadFeed)
+        .toArray(LoadedFeed[]::new);
+      // Only the mappers refer to the GTFS entities from here
+      readers.clear();
+
+      // The stops get their index when they are created, so they are mapped one feed at the time,
+      // in the order of the bundles. This keeps the stop indexes the same between builds.
+      for (LoadedFeed feed : loadedFeeds) {
+        feed.mapper().mapStopDataIntoBuilder();
+      }
 
-        GeometryProcessor geometryProcessor = new GeometryProcessor(
-          builder,
-          gtfsBundle.getMaxStopToShapeSnapDistance(),
-          issueStore
+      // Each feed is released as soon as it is mapped, so the GTFS entities of the mapped feeds
+      // are not kept in memory while the other feeds are mapped.
+      List<MappedFeed> mappedFeeds = IntStream
+        .range(0, loadedFeeds.length)
+        .parallel()
+        .mapToObj(i -> {
+          LoadedFeed feed = loadedFeeds[i];
+          loadedFeeds[i] = null;
+          return mapFeed(feed);
+        })
+        .toList();
+
+      for (MappedFeed feed : mappedFeeds) {
+        calendarServiceData.add(feed.calendarServiceData());
+      }
+      Set<FeedScopedId> calServiceIds = calendarServiceData.getServiceIds();
+
+      // The trip patterns get their index when they are created, so the feeds are done one at the
+      // time, in the order of the bundles. The trips of each feed are still processed in parallel.
+      List<TripPatternFeed> feeds = mappedFeeds
+        .stream()
+        .map(feed -> createTripPatterns(feed, calServiceIds))
+        .toList();
+
+      // Add the feeds to the graph in the order of the bundles
+      for (TripPatternFeed feed : feeds) {
+        GtfsBundle gtfsBundle = feed.mappedFeed().bundle();
+        OtpTransitService otpTransitService = feed.otpTransitService();
+
+        transitModel.setHasFrequencyService(
+          transitModel.hasFrequencyService() || feed.hasFrequencyBasedTrips()
         );
-
-        // NB! The calls below have side effects - the builder state is updated!
-        createTripPatterns(
-          graph,
-          transitModel,
-          builder,
-          calendarServiceData.getServiceIds(),
-          geometryProcessor,
-          issueStore
+        transitModel.setHasScheduledService(
+          transitModel.hasScheduledService() || feed.hasScheduledTrips()
         );
 
-        OtpTransitService otpTransitService = builder.build();
-
         // if this or previously processed gtfs bundle has transit that has not been filtered out
         hasTransit = hasTransit || otpTransitService.hasActiveTransit();
 
@@ -178,14 +188,14 @@ public class GtfsModule implements GraphBuilderModule {
         if (gtfsBundle.blockBasedInterlining()) {
           new InterlineProcessor(
             transitModel.getTransferService(),
-            builder.getStaySeatedNotAllowed(),
+            feed.mappedFeed().builder().getStaySeatedNotAllowed(),
             gtfsBundle.maxInterlineDistance(),
             issueStore
           )
             .run(otpTransitService.getTripPatterns());
         }
 
-        fareServiceFactory.processGtfs(fareRulesService, otpTransitService);
+        fareServiceFactory.processGtfs(feed.mappedFeed().fareRulesService(), otpTransitService);
         graph.setFareService(fareServiceFactory.makeFareService());
       }
     } catch (IOException e) {
@@ -210,6 +220,59 @@ public class GtfsModule implements GraphBuilderModule {
 
   /* Private Methods */
 
+  /**
+   * Load the rest of the feed and create the mapper for it. This does not change any shared state,
+   * so the feeds can be loaded in parallel.
+   */
+  private LoadedFeed loadFeed(GtfsFeedReader reader) {
+    GtfsBundle gtfsBundle = reader.bundle();
+    GtfsMutableRelationalDao gtfsDao;
+    try {
+      gtfsDao = loadBundle(reader);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    GTFSToOtpTransitServiceMapper mapper = new GTFSToOtpTransitServiceMapper(
+      gtfsBundle.getFeedId().getId(),
+      issueStore,
+      gtfsBundle.discardMinTransferTimes(),
+      gtfsDao,
+      gtfsBundle.stationTransferPreference()
+    );
+    return new LoadedFeed(gtfsBundle, mapper);
+  }
+
+  /**
+   * Map the feed into a transit service builder, after the stops are mapped. This does not change
+   * any shared state, so the feeds can be mapped in parallel.
+   */
+  private MappedFeed mapFeed(LoadedFeed feed) {
+    GtfsBundle gtfsBundle = feed.bundle();
+    GTFSToOtpTransitServiceMapper mapper = feed.mapper();
+    mapper.mapTripAndRouteDataIntoBuilder();
+
+    OtpTransitServiceBuilder builder = mapper.getBuilder();
+
+    builder.limitServiceDays(transitPeriodLimit);
+
+    CalendarServiceData calendarServiceData = builder.buildCalendarServiceData();
+
+    if (OTPFeature.FlexRouting.isOn()) {
+      builder.getFlexTripsById().addAll(FlexTripsMapper.createFlexTrips(builder, issueStore));
+    }
+
+    validateAndInterpolateStopTimesForEachTrip(
+      builder.getStopTimesSortedByTrip(),
+      issueStore,
+      gtfsBundle.removeRepeatedStops()
+    );
+
+    // We need to run this after the cleaning of the data, as stop indices might have changed
+    mapper.mapAndAddTransfersToBuilder();
+
+    return new MappedFeed(gtfsBundle, builder, mapper.getFareRulesService(), calendarServiceData);
+  }
+
   /**
    * This method has side effects, the {@code stopTimesByTrip} is updated.
    */
@@ -228,16 +291,17 @@ public class GtfsModule implements GraphBuilderModule {
   }
 
   /**
-   * This method has side effects, the {@code builder} is updated with new TripPatterns.
+   * Create the trip patterns of the feed and build the transit service.
    */
-  private void createTripPatterns(
-    Graph graph,
-    TransitModel transitModel,
-    OtpTransitServiceBuilder builder,
-    Set<FeedScopedId> calServiceIds,
-    GeometryProcessor geometryProcessor,
-    DataImportIssueStore issueStore
-  ) {
+  private TripPatternFeed createTripPatterns(MappedFeed feed, Set<FeedScopedId> calServiceIds) {
+    OtpTransitServiceBuilder builder = feed.builder();
+    GeometryProcessor geometryProcessor = new GeometryProcessor(
+      builder,
+      feed.bundle().getMaxStopToShapeSnapDistance(),
+      issueStore
+    );
+
+    // NB! The call below has side effects - the builder state is updated with new TripPatterns!
     GenerateTripPatternsOperation buildTPOp = new GenerateTripPatternsOperation(
       builder,
       issueStore,
@@ -246,11 +310,12 @@ public class GtfsModule implements GraphBuilderModule {
       geometryProcessor
     );
     buildTPOp.run();
-    transitModel.setHasFrequencyService(
-      transitModel.hasFrequencyService() || buildTPOp.hasFrequencyBasedTrips()
-    );
-    transitModel.setHasScheduledService(
-      transitModel.hasScheduledService() || buildTPOp.hasScheduledTrips()
+
+    return new TripPatternFeed(
+      feed,
+      builder.build(),
+      buildTPOp.hasFrequencyBasedTrips(),
+      buildTPOp.hasScheduledTrips()
     );
   }
 
@@ -268,7 +333,11 @@ public class GtfsModule implements GraphBuilderModule {
     );
   }
 
-  private GtfsMutableRelationalDao loadBundle(GtfsBundle gtfsBundle) throws IOException {
+  /**
+   * Open the bundle and read the agencies. The agency ids are made unique across all bundles, so
+   * this must be done for one bundle at the time, in the order of the bundles.
+   */
+  private GtfsFeedReader readAgencies(GtfsBundle gtfsBundle) throws IOException {
     StoreImpl store = new StoreImpl(new GtfsRelationalDaoImpl());
     store.open();
     LOG.info("reading {}", gtfsBundle.toString());
@@ -281,9 +350,51 @@ public class GtfsModule implements GraphBuilderModule {
     reader.setInternStrings(true);
     reader.setDefaultAgencyId(gtfsFeedId.getId());
 
-    if (LOG.isDebugEnabled()) reader.addEntityHandler(counter);
+    if (LOG.isDebugEnabled()) reader.addEntityHandler(new EntityCounter());
+
+    LOG.info("Reading entity: {}", Agency.class.getName());
+    reader.readEntities(Agency.class);
+    store.flush();
+    // NOTE that agencies are read before all other entity types, so it is effective to set the
+    // agencyId here. Each feed ("bundle") is loaded by a separate reader, so there is no risk of
+    // agency mappings accumulating.
+    for (Agency agency : reader.getAgencies()) {
+      String agencyId = agency.getId();
+      LOG.info("This Agency has the ID {}", agencyId);
+      // Somehow, when the agency's id field is missing, OBA replaces it with the agency's name.
+      // TODO Figure out how and why this is happening.
+      if (agencyId == null || agencyIdsSeen.contains(gtfsFeedId.getId() + agencyId)) {
+        // Loop in case generated name is already in use.
+        String generatedAgencyId = null;
+        while (generatedAgencyId == null || agencyIdsSeen.contains(generatedAgencyId)) {
+          generatedAgencyId = "F" + nextAgencyId;
+          nextAgencyId++;
+        }
+        LOG.warn(
+          "The agency ID '{}' was already seen, or I think it's bad. Replacing with '{}'.",
+          agencyId,
+          generatedAgencyId
+        );
+        reader.addAgencyIdMapping(agencyId, generatedAgencyId); // NULL key should work
+        agency.setId(generatedAgencyId);
+        agencyId = generatedAgencyId;
+      }
+      if (agencyId != null) agencyIdsSeen.add(gtfsFeedId.getId() + agencyId);
+    }
+    return new GtfsFeedReader(gtfsBundle, reader, store);
+  }
+
+  /**
+   * Read the rest of the feed, after the agencies are read by {@link #readAgencies(GtfsBundle)}.
+   */
+  private GtfsMutableRelationalDao loadBundle(GtfsFeedReader feedReader) throws IOException {
+    GtfsReader reader = feedReader.reader();
+    StoreImpl store = feedReader.store();
 
     for (Class<?> entityClass : reader.getEntityClasses()) {
+      if (entityClass == Agency.class) {
+        continue;
+      }
       if (skipEntityClass(entityClass)) {
         LOG.info("Skipping entity: {}", entityClass.getName());
         continue;
@@ -291,34 +402,6 @@ public class GtfsModule implements GraphBuilderModule {
       LOG.info("Reading entity: {}", entityClass.getName());
       reader.readEntities(entityClass);
       store.flush();
-      // NOTE that agencies are first in the list and read before all other entity types, so it is effective to
-      // set the agencyId here. Each feed ("bundle") is loaded by a separate reader, so there is no risk of
-      // agency mappings accumulating.
-      if (entityClass == Agency.class) {
-        for (Agency agency : reader.getAgencies()) {
-          String agencyId = agency.getId();
-          LOG.info("This Agency has the ID {}", agencyId);
-          // Somehow, when the agency's id field is missing, OBA replaces it with the agency's name.
-          // TODO Figure out how and why this is happening.
-          if (agencyId == null || agencyIdsSeen.contains(gtfsFeedId.getId() + agencyId)) {
-            // Loop in case generated name is already in use.
-            String generatedAgencyId = null;
-            while (generatedAgencyId == null || agencyIdsSeen.contains(generatedAgencyId)) {
-              generatedAgencyId = "F" + nextAgencyId;
-              nextAgencyId++;
-            }
-            LOG.warn(
-              "The agency ID '{}' was already seen, or I think it's bad. Replacing with '{}'.",
-              agencyId,
-              generatedAgencyId
-            );
-            reader.addAgencyIdMapping(agencyId, generatedAgencyId); // NULL key should work
-            agency.setId(generatedAgencyId);
-            agencyId = generatedAgencyId;
-          }
-          if (agencyId != null) agencyIdsSeen.add(gtfsFeedId.getId() + agencyId);
-        }
-      }
     }
 
     for (ShapePoint shapePoint : store.getAllEntitiesForType(ShapePoint.class)) {
@@ -468,6 +551,26 @@ public class GtfsModule implements GraphBuilderModule {
     }
   }
 
+  /** A bundle with the agencies read, ready to read the rest of the feed. */
+  private record GtfsFeedReader(GtfsBundle bundle, GtfsReader reader, StoreImpl store) {}
+
+  /** A loaded feed, with the mapper holding its GTFS entities. */
+  private record LoadedFeed(GtfsBundle bundle, GTFSToOtpTransitServiceMapper mapper) {}
+
+  private record MappedFeed(
+    GtfsBundle bundle,
+    OtpTransitServiceBuilder builder,
+    FareRulesData fareRulesService,
+    CalendarServiceData calendarServiceData
+  ) {}
+
+  private record TripPatternFeed(
+    MappedFeed mappedFeed,
+    OtpTransitService otpTransitService,
+    boolean hasFrequencyBasedTrips,
+    boolean hasScheduledTrips
+  ) {}
+
   private static class EntityCounter implements EntityHandler {
 
     private final Map<Class<?>, Integer> count = new HashMap<>();
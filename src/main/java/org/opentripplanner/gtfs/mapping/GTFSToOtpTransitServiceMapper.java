@@ -140,8 +140,31 @@ public class GTFSToOtpTransitServiceMapper {
   }
 
   public void mapStopTripAndRouteDataIntoBuilder() {
+    mapStopDataIntoBuilder();
+    mapTripAndRouteDataIntoBuilder();
+  }
+
+  /**
+   * Map the stops, stations and other stop locations. The stop locations get their index when they
+   * are created, so this is split from {@link #mapTripAndRouteDataIntoBuilder()} to allow mapping
+   * the stops of several feeds in a given order, and the rest of the feeds in parallel.
+   */
+  public void mapStopDataIntoBuilder() {
     translationHelper.importTranslations(data.getAllTranslations(), data.getAllFeedInfos());
 
+    mapGtfsStopsToOtpTypes(data.getAllStops());
+
+    if (OTPFeature.FlexRouting.isOn()) {
+      // Stop areas and Stop groups are only used in FLEX routes
+      builder.getAreaStops().addAll(locationMapper.map(data.getAllLocations()));
+      builder.getGroupStops().addAll(locationGroupMapper.map(data.getAllLocationGroups()));
+    }
+  }
+
+  /**
+   * Map the rest of the feed, after the stops are mapped by {@link #mapStopDataIntoBuilder()}.
+   */
+  public void mapTripAndRouteDataIntoBuilder() {
     builder.getAgenciesById().addAll(agencyMapper.map(data.getAllAgencies()));
     builder.getCalendarDates().addAll(serviceCalendarDateMapper.map(data.getAllCalendarDates()));
     builder.getCalendars().addAll(serviceCalendarMapper.map(data.getAllCalendars()));
@@ -152,14 +175,6 @@ public class GTFSToOtpTransitServiceMapper {
       builder.getShapePoints().put(shapePoint.getShapeId(), shapePoint);
     }
 
-    mapGtfsStopsToOtpTypes(data.getAllStops());
-
-    if (OTPFeature.FlexRouting.isOn()) {
-      // Stop areas and Stop groups are only used in FLEX routes
-      builder.getAreaStops().addAll(locationMapper.map(data.getAllLocations()));
-      builder.getGroupStops().addAll(locationGroupMapper.map(data.getAllLocationGroups()));
-    }
-
     builder.getPathways().addAll(pathwayMapper.map(data.getAllPathways()));
     builder.getStopTimesSortedByTrip().addAll(stopTimeMapper.map(data.getAllStopTimes()));
     builder.getTripsById().addAll(tripMapper.map(data.getAllTrips()));
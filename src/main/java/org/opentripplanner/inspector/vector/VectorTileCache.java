@@ -0,0 +1,89 @@
+package org.opentripplanner.inspector.vector;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.function.Supplier;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.cache.AreaInvalidatedCache;
+
+/**
+ * Cache the encoded vector tile layers, shared by all tile requests.
+ * <p>
+ * Each layer of a tile is cached separately, so tile requests for different sets of layers share
+ * the cached layers. The key is the layer type and name, the tile coordinates and the locale. The
+ * value is a vector tile with only this layer, encoded as bytes. Protocol buffer messages can be
+ * concatenated, so the encoded layers are concatenated into the response without decoding them.
+ * <p>
+ * The cache is limited by the total size of the encoded layers, the least recently used layers
+ * are removed first. Static layers, like stops and stations, are only invalidated when the
+ * server is restarted with a new graph. Realtime layers, like vehicle rental and vehicle parking,
+ * are removed when a realtime update changes the graph within the area of the tile, see
+ * {@link #invalidate(Collection)}.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class VectorTileCache {
+
+  private final AreaInvalidatedCache<Key, byte[]> cache;
+
+  public VectorTileCache(VectorTileCacheParameters parameters, MeterRegistry registry) {
+    this.cache =
+      AreaInvalidatedCache.ofMaxWeight(
+        "vectorTiles.cache",
+        parameters.maxSizeBytes(),
+        bytes -> bytes.length,
+        registry
+      );
+  }
+
+  public boolean isEnabled() {
+    return cache.isEnabled();
+  }
+
+  /**
+   * Return the cached encoded layer, or build the layer and cache it.
+   *
+   * @param layerParameters the layer, the type and name is part of the key
+   * @param realtime        {@code true} if the layer should be invalidated by realtime updates
+   * @param area            the area the layer is built from, including the expansion outside the
+   *                        tile. Used to invalidate realtime layers.
+   * @param builder         builds a vector tile with only this layer, encoded as bytes
+   */
+  public byte[] getOrBuild(
+    LayerParameters<?> layerParameters,
+    boolean realtime,
+    int x,
+    int y,
+    int z,
+    Locale locale,
+    Envelope area,
+    Supplier<byte[]> builder
+  ) {
+    if (!isEnabled()) {
+      return builder.get();
+    }
+    return cache.get(
+      new Key(layerParameters.type(), layerParameters.name(), x, y, z, locale),
+      builder,
+      bytes -> realtime ? area : null
+    );
+  }
+
+  /**
+   * Remove all realtime layers of tiles intersecting any of the given envelopes.
+   */
+  public void invalidate(Collection<Envelope> changedAreas) {
+    cache.invalidate(changedAreas);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  private record Key(Enum<?> type, String name, int x, int y, int z, Locale locale) {}
+}
@@ -0,0 +1,11 @@
+package org.opentripplanner.inspector.vector;
+
+/**
+ * Parameters for the {@link VectorTileCache}.
+ */
+public interface VectorTileCacheParameters {
+  /**
+   * The maximum total size in bytes of the cached layers. Use {@code 0} to disable the cache.
+   */
+  long maxSizeBytes();
+}
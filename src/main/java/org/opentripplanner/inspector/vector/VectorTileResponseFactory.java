@@ -3,9 +3,13 @@ package org.opentripplanner.inspector.vector;
 import edu.colorado.cires.cmg.mvt.VectorTile;
 import jakarta.ws.rs.core.CacheControl;
 import jakarta.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.api.resource.WebMercatorTile;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
@@ -25,7 +29,38 @@ public class VectorTileResponseFactory {
     LayerBuilderFactory<LayerType> layerBuilderFactory,
     OtpServerRequestContext context
   ) {
-    VectorTile.Tile.Builder mvtBuilder = VectorTile.Tile.newBuilder();
+    return create(
+      x,
+      y,
+      z,
+      locale,
+      requestedLayers,
+      availableLayers,
+      layerBuilderFactory,
+      context,
+      null
+    );
+  }
+
+  /**
+   * Create the response, using the {@link VectorTileCache} of the server context.
+   *
+   * @param realtimeLayers returns {@code true} for the layer types which are changed by realtime
+   *                       updates, see {@link VectorTileCache#invalidate(java.util.Collection)}.
+   *                       If {@code null} the layers are not cached.
+   */
+  public static <LayerType extends Enum<LayerType>> Response create(
+    int x,
+    int y,
+    int z,
+    Locale locale,
+    List<String> requestedLayers,
+    List<LayerParameters<LayerType>> availableLayers,
+    LayerBuilderFactory<LayerType> layerBuilderFactory,
+    OtpServerRequestContext context,
+    @Nullable Predicate<LayerType> realtimeLayers
+  ) {
+    var tile = new ByteArrayOutputStream();
     Envelope envelope = WebMercatorTile.tile2Envelope(x, y, z);
 
     int cacheMaxSeconds = Integer.MAX_VALUE;
@@ -53,10 +88,29 @@ public class VectorTileResponseFactory {
         z <= layerParameters.maxZoom()
       ) {
         cacheMaxSeconds = Math.min(cacheMaxSeconds, layerParameters.cacheMaxSeconds());
-        VectorTile.Tile.Layer layer = layerBuilderFactory
-          .createLayerBuilder(layerParameters, locale, context)
-          .build(envelope);
-        mvtBuilder.addLayers(layer);
+        Supplier<byte[]> layerBuilder = () -> {
+          VectorTile.Tile.Layer layer = layerBuilderFactory
+            .createLayerBuilder(layerParameters, locale, context)
+            .build(envelope);
+          return VectorTile.Tile.newBuilder().addLayers(layer).build().toByteArray();
+        };
+        // A tile is a list of layers, so the encoded single layer tiles can be concatenated
+        tile.writeBytes(
+          realtimeLayers == null
+            ? layerBuilder.get()
+            : context
+              .vectorTileCache()
+              .getOrBuild(
+                layerParameters,
+                realtimeLayers.test(layerParameters.type()),
+                x,
+                y,
+                z,
+                locale,
+                expand(envelope, layerParameters.expansionFactor()),
+                layerBuilder
+              )
+        );
       }
     }
 
@@ -67,10 +121,16 @@ public class VectorTileResponseFactory {
     return Response
       .status(Response.Status.OK)
       .cacheControl(cacheControl)
-      .entity(mvtBuilder.build().toByteArray())
+      .entity(tile.toByteArray())
       .build();
   }
 
+  private static Envelope expand(Envelope envelope, double expansionFactor) {
+    Envelope area = new Envelope(envelope);
+    area.expandBy(envelope.getWidth() * expansionFactor, envelope.getHeight() * expansionFactor);
+    return area;
+  }
+
   @FunctionalInterface
   public interface LayerBuilderFactory<LayerType extends Enum<LayerType>> {
     LayerBuilder<?> createLayerBuilder(
@@ -0,0 +1,130 @@
+package org.opentripplanner.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+/**
+ * The trip times of a {@link Timetable} sorted by departure and by arrival time for each stop
+ * position in the pattern. This is used to find the next departures from a stop with a binary
+ * search, instead of looking at all trips of the timetable.
+ * <p>
+ * The index is created from the trip times of the timetable when it is first used, and is
+ * discarded by the timetable when the trip times are changed. The realtime updaters never change
+ * the timetables of a published {@link TimetableSnapshot}, they change copies. So only the index
+ * of the timetables changed by an update is rebuilt.
+ * <p>
+ * The sorted times for each stop position are created on first access, since most queries only
+ * look at one or a few stops of a pattern.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public final class StopTimesIndex {
+
+  private final TripTimes[] tripTimes;
+  private final AtomicReferenceArray<SortedTimes> departures;
+  private final AtomicReferenceArray<SortedTimes> arrivals;
+
+  StopTimesIndex(List<TripTimes> tripTimes, int numberOfStops) {
+    this.tripTimes = tripTimes.toArray(TripTimes[]::new);
+    this.departures = new AtomicReferenceArray<>(numberOfStops);
+    this.arrivals = new AtomicReferenceArray<>(numberOfStops);
+  }
+
+  /**
+   * The trip times sorted by the realtime departure time at the given stop position.
+   */
+  public SortedTimes departures(int stopPosition) {
+    var times = departures.get(stopPosition);
+    if (times == null) {
+      times = new SortedTimes(tripTimes, stopPosition, true);
+      departures.compareAndSet(stopPosition, null, times);
+    }
+    return times;
+  }
+
+  /**
+   * The trip times sorted by the realtime arrival time at the given stop position.
+   */
+  public SortedTimes arrivals(int stopPosition) {
+    var times = arrivals.get(stopPosition);
+    if (times == null) {
+      times = new SortedTimes(tripTimes, stopPosition, false);
+      arrivals.compareAndSet(stopPosition, null, times);
+    }
+    return times;
+  }
+
+  /**
+   * The trip times at one stop position, sorted by time. Trips with the same time are sorted by
+   * their order in the timetable.
+   */
+  public static final class SortedTimes {
+
+    private final int[] times;
+    private final TripTimes[] tripTimes;
+    private final boolean hasCancelledOrNoDataStop;
+
+    private SortedTimes(TripTimes[] source, int stopPosition, boolean departure) {
+      // Sort the time and the trip index together, encoded as one primitive long
+      long[] timeAndIndex = new long[source.length];
+      boolean cancelledOrNoData = false;
+      for (int i = 0; i < source.length; ++i) {
+        cancelledOrNoData |=
+          source[i].isCancelledStop(stopPosition) || source[i].isNoDataStop(stopPosition);
+        int time = departure
+          ? source[i].getDepartureTime(stopPosition)
+          : source[i].getArrivalTime(stopPosition);
+        timeAndIndex[i] = ((long) time << 32) | i;
+      }
+      Arrays.sort(timeAndIndex);
+      this.hasCancelledOrNoDataStop = cancelledOrNoData;
+
+      this.times = new int[source.length];
+      this.tripTimes = new TripTimes[source.length];
+      for (int i = 0; i < timeAndIndex.length; ++i) {
+        times[i] = (int) (timeAndIndex[i] >> 32);
+        tripTimes[i] = source[(int) timeAndIndex[i]];
+      }
+    }
+
+    /**
+     * Return true if the stop is cancelled, or has no realtime data, for at least one of the trips.
+     * The scheduled time is shown to the user for these, not the time used for sorting.
+     */
+    public boolean hasCancelledOrNoDataStop() {
+      return hasCancelledOrNoDataStop;
+    }
+
+    public int size() {
+      return times.length;
+    }
+
+    public int time(int index) {
+      return times[index];
+    }
+
+    public TripTimes tripTimes(int index) {
+      return tripTimes[index];
+    }
+
+    /**
+     * Return the index of the first trip at or after the given time, or {@link #size()} if all
+     * trips are before it.
+     */
+    public int firstIndexAtOrAfter(int time) {
+      int low = 0;
+      int high = times.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (times[mid] < time) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -20,6 +20,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.framework.Result;
@@ -57,6 +58,12 @@ public class Timetable implements Serializable {
 
   private final LocalDate serviceDate;
 
+  /**
+   * Created on first use, and discarded when the trip times are changed. Not serialized, it is
+   * created again after the graph is loaded.
+   */
+  private transient volatile StopTimesIndex stopTimesIndex;
+
   /** Construct an empty Timetable. */
   public Timetable(TripPattern pattern) {
     this.pattern = pattern;
@@ -132,9 +139,28 @@ public class Timetable implements Serializable {
    * @return old trip times of trip
    */
   public TripTimes setTripTimes(int tripIndex, TripTimes tt) {
+    stopTimesIndex = null;
     return tripTimes.set(tripIndex, tt);
   }
 
+  /**
+   * Remove the given trip times from this timetable.
+   *
+   * @return true if the trip times were part of this timetable
+   */
+  public boolean removeTripTimes(TripTimes tt) {
+    stopTimesIndex = null;
+    return tripTimes.remove(tt);
+  }
+
+  /**
+   * Remove all trip times matching the given predicate from this timetable.
+   */
+  public void removeTripTimesIf(Predicate<TripTimes> filter) {
+    stopTimesIndex = null;
+    tripTimes.removeIf(filter);
+  }
+
   /**
    * Apply the TripUpdate to the appropriate TripTimes from this Timetable. The existing TripTimes
    * must not be modified directly because they may be shared with the underlying
@@ -372,6 +398,7 @@ public class Timetable implements Serializable {
    * scheduled trip or a realtime-added trip.
    */
   public void addTripTimes(TripTimes tt) {
+    stopTimesIndex = null;
     tripTimes.add(tt);
   }
 
@@ -410,11 +437,27 @@ public class Timetable implements Serializable {
   /**
    * Contains one TripTimes object for each scheduled trip (even cancelled ones) and possibly
    * additional TripTimes objects for unscheduled trips. Frequency entries are stored separately.
+   * <p>
+   * Do not modify the returned list, use the methods of this class to add, set or remove trip
+   * times. Otherwise, the {@link #getStopTimesIndex()} is not updated.
    */
   public List<TripTimes> getTripTimes() {
     return tripTimes;
   }
 
+  /**
+   * The trip times sorted by time at each stop of the pattern, see {@link StopTimesIndex}.
+   * Frequency entries are not part of the index.
+   */
+  public StopTimesIndex getStopTimesIndex() {
+    var index = stopTimesIndex;
+    if (index == null) {
+      index = new StopTimesIndex(tripTimes, pattern.numberOfStops());
+      stopTimesIndex = index;
+    }
+    return index;
+  }
+
   /**
    * Contains one FrequencyEntry object for each block of frequency-based trips.
    */
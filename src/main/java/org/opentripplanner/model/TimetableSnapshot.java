@@ -53,6 +53,13 @@ public class TimetableSnapshot {
    */
   private final Set<Timetable> dirtyTimetables = new HashSet<>();
 
+  /**
+   * The ids of the trips updated, added or removed in each dirty timetable since the last commit.
+   * This delta is passed on to the {@link TransitLayerUpdater}, so only the changed trips need to
+   * be patched in the transit layer.
+   */
+  private final SetMultimap<Timetable, FeedScopedId> dirtyTripIds = HashMultimap.create();
+
   /**
    * The timetables for different days, for each TripPattern (each sequence of stops on a particular
    * Route) for which we have an updated Timetable. The keys include both TripPatterns from the
@@ -142,9 +149,10 @@ public class TimetableSnapshot {
 
       if (tripTimesToRemove != null) {
         for (Timetable sortedTimetable : sortedTimetables) {
-          boolean isDirty = sortedTimetable.getTripTimes().remove(tripTimesToRemove);
+          boolean isDirty = sortedTimetable.removeTripTimes(tripTimesToRemove);
           if (isDirty) {
             dirtyTimetables.add(sortedTimetable);
+            dirtyTripIds.put(sortedTimetable, tripId);
           }
         }
       }
@@ -224,6 +232,7 @@ public class TimetableSnapshot {
       // Set updated trip times of trip
       tt.setTripTimes(tripIndex, updatedTripTimes);
     }
+    dirtyTripIds.put(tt, updatedTripTimes.getTrip().getId());
 
     if (pattern.isCreatedByRealtimeUpdater()) {
       // Remember this pattern for the added trip id and service date
@@ -269,7 +278,7 @@ public class TimetableSnapshot {
       (HashMap<TripIdAndServiceDate, TripPattern>) this.realtimeAddedTripPattern.clone();
 
     if (transitLayerUpdater != null) {
-      transitLayerUpdater.update(dirtyTimetables, timetables);
+      transitLayerUpdater.update(dirtyTimetables, dirtyTripIds, timetables);
     }
 
     ret.realtimeAddedTripOnServiceDate =
@@ -277,6 +286,7 @@ public class TimetableSnapshot {
     ret.realtimeAddedTripOnServiceDateByTripIdAndServiceDate =
       (HashMap<TripIdAndServiceDate, TripOnServiceDate>) this.realtimeAddedTripOnServiceDateByTripIdAndServiceDate.clone();
     this.dirtyTimetables.clear();
+    this.dirtyTripIds.clear();
     this.dirty = false;
 
     ret.setPatternsForStop(HashMultimap.create(this.patternsForStop));
@@ -46,7 +46,7 @@ public class NetexBundle implements Closeable {
   private final boolean noTransfersOnIsolatedStops;
   private final boolean ignoreFareFrame;
   /** The NeTEx entities loaded from the input files and passed on to the mapper. */
-  private NetexEntityIndex index = new NetexEntityIndex();
+  private NetexEntityIndex index;
   /** Report errors to issue store */
   private DataImportIssueStore issueStore;
   /** maps the NeTEx XML document to OTP transit model. */
@@ -83,7 +83,8 @@ public class NetexBundle implements Closeable {
     // Store result in a mutable OTP Transit Model
     OtpTransitServiceBuilder transitBuilder = new OtpTransitServiceBuilder(issueStore);
 
-    // init parser and mapper
+    // init index, parser and mapper
+    index = new NetexEntityIndex();
     xmlParser = new NetexXmlParser();
     mapper =
       new NetexMapper(
@@ -99,6 +100,11 @@ public class NetexBundle implements Closeable {
     // Load data
     loadFileEntries();
 
+    // Release the NeTEx entities, only the mapped transit model is used from here
+    index = null;
+    mapper = null;
+    xmlParser = null;
+
     return transitBuilder;
   }
 
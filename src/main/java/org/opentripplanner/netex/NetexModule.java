@@ -1,5 +1,6 @@
 package org.opentripplanner.netex;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.opentripplanner.ext.flex.FlexTripsMapper;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -60,28 +61,29 @@ public class NetexModule implements GraphBuilderModule {
       var calendarServiceData = new CalendarServiceData();
       boolean hasActiveTransit = false;
 
+      // The stops and trip patterns get their index when they are created while loading a bundle,
+      // so the bundles are loaded one at the time, in the bundle order. This keeps the indexes the
+      // same between builds.
+      List<OtpTransitServiceBuilder> transitBuilders = new ArrayList<>();
       for (NetexBundle netexBundle : netexBundles) {
-        netexBundle.checkInputs();
+        transitBuilders.add(loadBundle(netexBundle));
+      }
+
+      // The rest of the bundles are mapped in parallel, and added to the transit model in the
+      // bundle order
+      List<MappedBundle> mappedBundles = transitBuilders
+        .parallelStream()
+        .map(this::mapBundle)
+        .toList();
+
+      for (MappedBundle mappedBundle : mappedBundles) {
+        OtpTransitServiceBuilder transitBuilder = mappedBundle.transitBuilder();
+        OtpTransitService otpService = mappedBundle.otpService();
 
-        OtpTransitServiceBuilder transitBuilder = netexBundle.loadBundle(
-          graph.deduplicator,
-          issueStore
-        );
-        transitBuilder.limitServiceDays(transitPeriodLimit);
         for (var tripOnServiceDate : transitBuilder.getTripOnServiceDates().values()) {
           transitModel.getTripOnServiceDates().put(tripOnServiceDate.getId(), tripOnServiceDate);
         }
-        calendarServiceData.add(transitBuilder.buildCalendarServiceData());
-
-        if (OTPFeature.FlexRouting.isOn()) {
-          transitBuilder
-            .getFlexTripsById()
-            .addAll(FlexTripsMapper.createFlexTrips(transitBuilder, issueStore));
-        }
-
-        validateStopTimesForEachTrip(transitBuilder.getStopTimesSortedByTrip());
-
-        OtpTransitService otpService = transitBuilder.build();
+        calendarServiceData.add(mappedBundle.calendarServiceData());
 
         // if this or previously processed netex bundle has transit that has not been filtered out
         hasActiveTransit = hasActiveTransit || otpService.hasActiveTransit();
@@ -108,6 +110,30 @@ public class NetexModule implements GraphBuilderModule {
     }
   }
 
+  private OtpTransitServiceBuilder loadBundle(NetexBundle netexBundle) {
+    netexBundle.checkInputs();
+    return netexBundle.loadBundle(graph.deduplicator, issueStore);
+  }
+
+  /**
+   * Map the loaded bundle. This does not change the graph or transit model, so several bundles
+   * can be mapped in parallel.
+   */
+  private MappedBundle mapBundle(OtpTransitServiceBuilder transitBuilder) {
+    transitBuilder.limitServiceDays(transitPeriodLimit);
+    var calendarServiceData = transitBuilder.buildCalendarServiceData();
+
+    if (OTPFeature.FlexRouting.isOn()) {
+      transitBuilder
+        .getFlexTripsById()
+        .addAll(FlexTripsMapper.createFlexTrips(transitBuilder, issueStore));
+    }
+
+    validateStopTimesForEachTrip(transitBuilder.getStopTimesSortedByTrip());
+
+    return new MappedBundle(transitBuilder, calendarServiceData, transitBuilder.build());
+  }
+
   private void validateStopTimesForEachTrip(TripStopTimes stopTimesByTrip) {
     new ValidateAndInterpolateStopTimesForEachTrip(stopTimesByTrip, false, false, issueStore).run();
   }
@@ -116,4 +142,10 @@ public class NetexModule implements GraphBuilderModule {
   public void checkInputs() {
     netexBundles.forEach(NetexBundle::checkInputs);
   }
+
+  private record MappedBundle(
+    OtpTransitServiceBuilder transitBuilder,
+    CalendarServiceData calendarServiceData,
+    OtpTransitService otpService
+  ) {}
 }
@@ -1,5 +1,6 @@
 package org.opentripplanner.openstreetmap;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,16 +16,23 @@ import org.opentripplanner.openstreetmap.model.OSMWay;
 
 /**
  * Parser for the OpenStreetMap PBF Format.
+ * <p>
+ * The data blocks containing nodes, ways and relations are recorded while parsing the relations
+ * phase, which decodes all blocks. The later phases skip the blocks without entities of the phase.
  *
  * @since 0.4
  */
-class OpenStreetMapParser extends BinaryParser {
+class OpenStreetMapParser extends BinaryParser implements PbfBlockReader.Handler {
 
   private final OsmDatabase osmdb;
   private final Map<String, String> stringTable = new HashMap<>();
   private final OsmProvider provider;
   private OsmParserPhase parsePhase;
 
+  private final BitSet blocksWithNodes = new BitSet();
+  private final BitSet blocksWithWays = new BitSet();
+  private boolean blockContentKnown = false;
+
   public OpenStreetMapParser(OsmDatabase osmdb, OsmProvider provider) {
     this.osmdb = Objects.requireNonNull(osmdb);
     this.provider = Objects.requireNonNull(provider);
@@ -52,9 +60,48 @@ class OpenStreetMapParser extends BinaryParser {
    * Set the phase to be parsed
    */
   public void setPhase(OsmParserPhase phase) {
+    if (this.parsePhase == OsmParserPhase.Relations) {
+      // All blocks are decoded in the relations phase
+      blockContentKnown = true;
+    }
     this.parsePhase = phase;
   }
 
+  /**
+   * Return true if the data block with the given index does not contain any entities of the
+   * current phase. This is only known after the relations phase is parsed.
+   */
+  public boolean skipDataBlock(int index) {
+    if (!blockContentKnown) {
+      return false;
+    }
+    return switch (parsePhase) {
+      case Relations -> false;
+      case Ways -> !blocksWithWays.get(index);
+      case Nodes -> !blocksWithNodes.get(index);
+    };
+  }
+
+  @Override
+  public void header(Osmformat.HeaderBlock block) {
+    parse(block);
+  }
+
+  @Override
+  public void data(int index, Osmformat.PrimitiveBlock block) {
+    if (!blockContentKnown) {
+      for (Osmformat.PrimitiveGroup group : block.getPrimitivegroupList()) {
+        if (group.hasDense() || group.getNodesCount() > 0) {
+          blocksWithNodes.set(index);
+        }
+        if (group.getWaysCount() > 0) {
+          blocksWithWays.set(index);
+        }
+      }
+    }
+    parse(block);
+  }
+
   @Override
   protected void parseRelations(List<Osmformat.Relation> rels) {
     if (parsePhase != OsmParserPhase.Relations) {
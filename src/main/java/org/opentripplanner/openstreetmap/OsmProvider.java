@@ -5,7 +5,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.ZoneId;
-import org.openstreetmap.osmosis.osmbinary.file.BlockInputStream;
+import java.util.concurrent.ForkJoinPool;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.datastore.api.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
@@ -22,6 +22,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Parser for the OpenStreetMap PBF format. Parses files in three passes: First the relations, then
  * the ways, then the nodes are also loaded.
+ * <p>
+ * The blocks of the file are decoded in parallel on the common fork-join pool, and are parsed
+ * into the {@link OsmDatabase} in the order of the file. Only the first pass decodes all blocks,
+ * the next passes skip the blocks without ways or nodes.
  */
 public class OsmProvider {
 
@@ -99,19 +103,10 @@ public class OsmProvider {
 
   private void parsePhase(OpenStreetMapParser parser, OsmParserPhase phase) throws IOException {
     parser.setPhase(phase);
-    BlockInputStream in = null;
-    try {
-      in = new BlockInputStream(createInputStream(phase), parser);
-      in.process();
-    } finally {
-      // Close
-      try {
-        if (in != null) {
-          in.close();
-        }
-      } catch (Exception e) {
-        LOG.error(e.getMessage(), e);
-      }
+    var pool = ForkJoinPool.commonPool();
+    var reader = new PbfBlockReader(pool, 2 * pool.getParallelism() + 1);
+    try (InputStream in = createInputStream(phase)) {
+      reader.read(in, parser::skipDataBlock, parser);
     }
   }
 
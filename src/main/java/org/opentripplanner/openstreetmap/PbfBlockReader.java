@@ -0,0 +1,169 @@
+package org.opentripplanner.openstreetmap;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntPredicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.openstreetmap.osmosis.osmbinary.Fileformat;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+
+/**
+ * Read the blocks of an OSM PBF file. The blocks are inflated and decoded on the given executor,
+ * while the calling thread reads the file and hands the decoded blocks to the {@link Handler} in
+ * the order of the file. Decoding is most of the work of reading a PBF file, the handler only
+ * copies the decoded entities into the OTP model.
+ * <p>
+ * The number of blocks read ahead is bounded, so the memory used does not depend on the size of
+ * the file. The data blocks can be skipped without decoding them, using the index of the data
+ * block in the file.
+ */
+class PbfBlockReader {
+
+  private static final String HEADER_BLOCK = "OSMHeader";
+  private static final String DATA_BLOCK = "OSMData";
+
+  /** The max sizes of the PBF specification */
+  private static final int MAX_BLOB_HEADER_SIZE = 64 * 1024;
+  private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+  private final Executor executor;
+  private final int maxBlocksInFlight;
+
+  PbfBlockReader(Executor executor, int maxBlocksInFlight) {
+    this.executor = executor;
+    this.maxBlocksInFlight = maxBlocksInFlight;
+  }
+
+  /**
+   * Read all blocks of the stream. The stream is not closed.
+   *
+   * @param skipDataBlock return true if the data block with the given index should not be decoded.
+   */
+  void read(InputStream input, IntPredicate skipDataBlock, Handler handler) throws IOException {
+    var in = new DataInputStream(input);
+    var inFlight = new ArrayDeque<CompletableFuture<Runnable>>();
+    int dataBlockIndex = 0;
+
+    try {
+      Fileformat.BlobHeader header;
+      while ((header = readBlobHeader(in)) != null) {
+        byte[] blob = readBytes(in, header.getDatasize(), MAX_BLOB_SIZE);
+
+        if (HEADER_BLOCK.equals(header.getType())) {
+          inFlight.add(
+            CompletableFuture.<Runnable>supplyAsync(
+              () -> {
+                var block = decode(blob, Osmformat.HeaderBlock::parseFrom);
+                return () -> handler.header(block);
+              },
+              executor
+            )
+          );
+        } else if (DATA_BLOCK.equals(header.getType())) {
+          final int index = dataBlockIndex++;
+          if (skipDataBlock.test(index)) {
+            continue;
+          }
+          inFlight.add(
+            CompletableFuture.<Runnable>supplyAsync(
+              () -> {
+                var block = decode(blob, Osmformat.PrimitiveBlock::parseFrom);
+                return () -> handler.data(index, block);
+              },
+              executor
+            )
+          );
+        }
+        // Unknown block types are skipped, as required by the PBF specification
+
+        while (inFlight.size() >= maxBlocksInFlight) {
+          inFlight.poll().join().run();
+        }
+      }
+      while (!inFlight.isEmpty()) {
+        inFlight.poll().join().run();
+      }
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    } finally {
+      inFlight.forEach(it -> it.cancel(false));
+    }
+  }
+
+  /**
+   * Return the next blob header, or {@code null} at the end of the stream.
+   */
+  private static Fileformat.BlobHeader readBlobHeader(DataInputStream in) throws IOException {
+    int size;
+    try {
+      size = in.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    return Fileformat.BlobHeader.parseFrom(readBytes(in, size, MAX_BLOB_HEADER_SIZE));
+  }
+
+  private static byte[] readBytes(DataInputStream in, int size, int maxSize) throws IOException {
+    if (size < 0 || size > maxSize) {
+      throw new IOException("Invalid PBF block size: " + size);
+    }
+    byte[] bytes = new byte[size];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static <T> T decode(byte[] blobBytes, Parser<T> parser) {
+    try {
+      var blob = Fileformat.Blob.parseFrom(blobBytes);
+      return parser.parseFrom(inflate(blob));
+    } catch (InvalidProtocolBufferException | DataFormatException e) {
+      throw new IllegalStateException("Unable to decode PBF block: " + e.getMessage(), e);
+    }
+  }
+
+  private static byte[] inflate(Fileformat.Blob blob) throws DataFormatException {
+    if (blob.hasRaw()) {
+      return blob.getRaw().toByteArray();
+    }
+    if (!blob.hasZlibData()) {
+      throw new IllegalStateException("Unsupported PBF block compression, only zlib is supported");
+    }
+    byte[] result = new byte[blob.getRawSize()];
+    var inflater = new Inflater();
+    try {
+      inflater.setInput(blob.getZlibData().toByteArray());
+      inflater.inflate(result);
+      if (!inflater.finished()) {
+        throw new DataFormatException("PBF block is larger than the given raw size.");
+      }
+    } finally {
+      inflater.end();
+    }
+    return result;
+  }
+
+  interface Handler {
+    void header(Osmformat.HeaderBlock block);
+
+    /**
+     * @param index the index of the data block in the file, including skipped blocks.
+     */
+    void data(int index, Osmformat.PrimitiveBlock block);
+  }
+
+  @FunctionalInterface
+  private interface Parser<T> {
+    T parseFrom(byte[] data) throws InvalidProtocolBufferException;
+  }
+}
@@ -27,6 +27,7 @@ public class SearchParams {
   private final Collection<RaptorAccessEgress> accessPaths;
   private final Collection<RaptorAccessEgress> egressPaths;
   private final boolean allowEmptyAccessEgressPaths;
+  private final int searchWindowThreads;
 
   /**
    * Default values is defined in the default constructor.
@@ -43,6 +44,7 @@ public class SearchParams {
     accessPaths = List.of();
     egressPaths = List.of();
     allowEmptyAccessEgressPaths = false;
+    searchWindowThreads = 1;
   }
 
   SearchParams(SearchParamsBuilder<?> builder) {
@@ -57,6 +59,7 @@ public class SearchParams {
     this.accessPaths = List.copyOf(builder.accessPaths());
     this.egressPaths = List.copyOf(builder.egressPaths());
     this.allowEmptyAccessEgressPaths = builder.allowEmptyAccessEgressPaths();
+    this.searchWindowThreads = builder.searchWindowThreads();
   }
 
   /**
@@ -206,6 +209,17 @@ public class SearchParams {
     return allowEmptyAccessEgressPaths;
   }
 
+  /**
+   * The maximum number of threads used to run the Range Raptor iterations. If more than one, the
+   * search-window is split into sub-windows, the sub-windows are searched in parallel and the
+   * results are merged. This is ignored if Raptor is not configured with a thread pool.
+   * <p/>
+   * The default value is 1, all iterations are run in the calling thread.
+   */
+  public int searchWindowThreads() {
+    return searchWindowThreads;
+  }
+
   /**
    * Get the maximum duration of any access or egress path in seconds.
    */
@@ -258,6 +272,7 @@ public class SearchParams {
       .addDurationSec("searchWindow", searchWindowInSeconds)
       .addBoolIfTrue("departAsLateAsPossible", preferLateArrival)
       .addNum("numberOfAdditionalTransfers", numberOfAdditionalTransfers)
+      .addNum("searchWindowThreads", searchWindowThreads, 1)
       .addCollection("accessPaths", accessPaths, 5)
       .addCollection("egressPaths", egressPaths, 5)
       .toString();
@@ -290,5 +305,6 @@ public class SearchParams {
       !(preferLateArrival && timetable),
       "The 'departAsLateAsPossible' is not allowed together with 'timetableEnabled'."
     );
+    assertProperty(searchWindowThreads > 0, "The 'searchWindowThreads' must be at least 1.");
   }
 }
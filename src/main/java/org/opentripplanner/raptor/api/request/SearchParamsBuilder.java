@@ -30,6 +30,7 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
   private boolean timetable;
   private boolean constrainedTransfers;
   private boolean allowEmptyAccessEgressPaths;
+  private int searchWindowThreads;
 
   public SearchParamsBuilder(RaptorRequestBuilder<T> parent, SearchParams defaults) {
     this.parent = parent;
@@ -44,6 +45,7 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
     this.accessPaths.addAll(defaults.accessPaths());
     this.egressPaths.addAll(defaults.egressPaths());
     this.allowEmptyAccessEgressPaths = defaults.allowEmptyAccessEgressPaths();
+    this.searchWindowThreads = defaults.searchWindowThreads();
   }
 
   public int earliestDepartureTime() {
@@ -171,6 +173,15 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
     return allowEmptyAccessEgressPaths;
   }
 
+  public int searchWindowThreads() {
+    return searchWindowThreads;
+  }
+
+  public SearchParamsBuilder<T> searchWindowThreads(int searchWindowThreads) {
+    this.searchWindowThreads = searchWindowThreads;
+    return this;
+  }
+
   public RaptorRequest<T> build() {
     return parent.build();
   }
@@ -189,6 +200,7 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
       .addDurationSec("searchWindow", searchWindowInSeconds)
       .addBoolIfTrue("departAsLateAsPossible", preferLateArrival)
       .addNum("numberOfAdditionalTransfers", numberOfAdditionalTransfers)
+      .addNum("searchWindowThreads", searchWindowThreads, 1)
       .addCollection("accessPaths", accessPaths, 5)
       .addCollection("egressPaths", egressPaths, 5)
       .toString();
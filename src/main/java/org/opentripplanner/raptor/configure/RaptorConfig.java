@@ -92,6 +92,10 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return threadPool;
   }
 
+  public int iterationDepartureStepInSeconds() {
+    return tuningParameters.iterationDepartureStepInSeconds();
+  }
+
   public void shutdown() {
     if (threadPool != null) {
       threadPool.shutdown();
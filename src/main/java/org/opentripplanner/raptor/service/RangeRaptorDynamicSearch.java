@@ -5,6 +5,7 @@ import static org.opentripplanner.raptor.api.model.SearchDirection.REVERSE;
 import static org.opentripplanner.raptor.api.request.RaptorProfile.MULTI_CRITERIA;
 import static org.opentripplanner.raptor.service.HeuristicToRunResolver.resolveHeuristicToRunBasedOnOptimizationsAndSearchParameters;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -14,6 +15,7 @@ import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.raptor.RaptorService;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.SearchParams;
 import org.opentripplanner.raptor.api.request.SearchParamsBuilder;
@@ -21,8 +23,12 @@ import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.opentripplanner.raptor.rangeraptor.path.PathParetoSetComparators;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,7 +36,9 @@ import org.slf4j.LoggerFactory;
  * This search helps the {@link RaptorService} to configure
  * heuristics and set dynamic search parameters like EDT, LAT and raptor-search-window.
  * <p>
- * If possible the forward and reverse heuristics will be run in parallel.
+ * If possible the forward and reverse heuristics will be run in parallel. The search-window of
+ * the main search is split into sub-windows searched in parallel, if requested, see
+ * {@link SearchParams#searchWindowThreads()}.
  * <p>
  * Depending on which optimization is enabled and which search parameters are set a forward and/or a
  * reverse "single-iteration" raptor search is performed and heuristics are collected. This is used
@@ -130,17 +138,20 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
 
   private RaptorResponse<T> createAndRunDynamicRRWorker(RaptorRequest<T> request) {
     LOG.debug("Main request: {}", request);
-    RaptorWorker<T> raptorWorker;
 
-    // Create worker
-    if (request.profile().is(MULTI_CRITERIA)) {
-      raptorWorker = config.createMcWorker(transitData, request, getDestinationHeuristics());
-    } else {
-      raptorWorker = config.createStdWorker(transitData, request);
+    if (isItPossibleToSplitSearchWindow(request)) {
+      var subRequests = SearchWindowSplitter.split(
+        request,
+        request.searchParams().searchWindowThreads(),
+        config.iterationDepartureStepInSeconds()
+      );
+      if (!subRequests.isEmpty()) {
+        return runSearchWindowInParallel(request, subRequests);
+      }
     }
 
     // Route
-    var result = raptorWorker.route();
+    var result = createMainWorker(request).route();
 
     // create and return response
     return new RaptorResponse<>(
@@ -151,6 +162,99 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     );
   }
 
+  private RaptorWorker<T> createMainWorker(RaptorRequest<T> request) {
+    if (request.profile().is(MULTI_CRITERIA)) {
+      return config.createMcWorker(transitData, request, getDestinationHeuristics());
+    } else {
+      return config.createStdWorker(transitData, request);
+    }
+  }
+
+  /**
+   * The search-window is only split for multi-criteria forward searches. Debugging is not
+   * supported, the debug listeners are not thread-safe.
+   */
+  private boolean isItPossibleToSplitSearchWindow(RaptorRequest<T> request) {
+    return (
+      config.isMultiThreaded() &&
+      request.searchParams().searchWindowThreads() > 1 &&
+      request.profile().is(MULTI_CRITERIA) &&
+      request.searchDirection().isForward() &&
+      !request.searchParams().searchOneIterationOnly() &&
+      request.debug().stops().isEmpty() &&
+      request.debug().path().isEmpty()
+    );
+  }
+
+  /**
+   * Run one worker for each sub-window and merge the paths into one pareto set. The latest
+   * sub-window is searched in the current thread, the rest is submitted to the thread pool. The
+   * paths are merged starting with the latest sub-window, the same order as the iterations in
+   * one Range Raptor search.
+   * <p>
+   * The stop arrivals returned are the ones from the earliest sub-window.
+   */
+  private RaptorResponse<T> runSearchWindowInParallel(
+    RaptorRequest<T> request,
+    List<RaptorRequest<T>> subRequests
+  ) {
+    List<Future<RaptorWorkerResult<T>>> asyncResults = new ArrayList<>();
+    try {
+      for (RaptorRequest<T> it : subRequests.subList(1, subRequests.size())) {
+        var worker = createMainWorker(it);
+        asyncResults.add(config.threadPool().submit(worker::route));
+      }
+      var results = new ArrayList<RaptorWorkerResult<T>>();
+      results.add(createMainWorker(subRequests.get(0)).route());
+      for (Future<RaptorWorkerResult<T>> it : asyncResults) {
+        results.add(it.get());
+      }
+      LOG.debug(
+        "Route using RangeRaptor - search-window split in {} parts searched in parallel.",
+        subRequests.size()
+      );
+
+      var paths = new ParetoSet<>(pathParetoComparator(request));
+      for (RaptorWorkerResult<T> it : results) {
+        paths.addAll(it.extractPaths());
+      }
+      return new RaptorResponse<>(
+        List.copyOf(paths),
+        new DefaultStopArrivals(results.get(results.size() - 1)),
+        originalRequest,
+        request
+      );
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // propagate interruption to the running tasks.
+      asyncResults.forEach(it -> it.cancel(true));
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      asyncResults.forEach(it -> it.cancel(true));
+      if (e.getCause() instanceof OTPRequestTimeoutException timeout) {
+        throw timeout;
+      }
+      LOG.error(e.getMessage() + ". Request: " + originalRequest, e);
+      throw new IllegalStateException(
+        "Failed to run Range Raptor search-window in parallel. Details: " + e.getMessage()
+      );
+    } catch (RuntimeException e) {
+      // The search in the current thread failed or timed out, stop the other searches.
+      asyncResults.forEach(it -> it.cancel(true));
+      throw e;
+    }
+  }
+
+  private ParetoComparator<RaptorPath<T>> pathParetoComparator(RaptorRequest<T> request) {
+    return PathParetoSetComparators.paretoComparator(
+      true,
+      request.searchParams().timetable(),
+      request.searchParams().preferLateArrival(),
+      request.searchDirection(),
+      request.multiCriteria().relaxC1AtDestination()
+    );
+  }
+
   private boolean isItPossibleToRunHeuristicsInParallel() {
     SearchParams s = originalRequest.searchParams();
     return (
@@ -0,0 +1,74 @@
+package org.opentripplanner.raptor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+
+/**
+ * Split the search-window of a forward Range Raptor request into smaller sub-windows, so each
+ * sub-window can be searched in its own thread.
+ * <p>
+ * A forward Range Raptor search iterates over the departure times
+ * {@code edt + sw - step, edt + sw - 2 * step, ...} down to the earliest-departure-time. The
+ * iterations are divided into consecutive groups of (almost) equal size, and one request is
+ * created for each group. The sub-requests perform exactly the same iterations as the original
+ * request, so the union of the sub-results contains all paths found by the original search.
+ */
+class SearchWindowSplitter {
+
+  /**
+   * Do not split the search-window into sub-windows with fewer iterations than this. Each
+   * sub-search have a fixed overhead, and the pruning across iterations is lost between
+   * sub-windows.
+   */
+  static final int MIN_ITERATIONS_PER_SUB_WINDOW = 10;
+
+  /** Prevent this utility class from instantiation. */
+  private SearchWindowSplitter() {}
+
+  /**
+   * Return the sub-requests ordered by departure time, the latest sub-window first. An empty list
+   * is returned if the search-window is too small to be split into the given number of
+   * sub-windows.
+   */
+  static <T extends RaptorTripSchedule> List<RaptorRequest<T>> split(
+    RaptorRequest<T> request,
+    int nThreads,
+    int iterationStep
+  ) {
+    var s = request.searchParams();
+    int edt = s.earliestDepartureTime();
+    int sw = s.searchWindowInSeconds();
+    int nIterations = sw / iterationStep;
+    int nSubWindows = Math.min(nThreads, nIterations / MIN_ITERATIONS_PER_SUB_WINDOW);
+
+    if (nSubWindows < 2) {
+      return List.of();
+    }
+
+    List<RaptorRequest<T>> result = new ArrayList<>(nSubWindows);
+    int end = edt + sw;
+
+    for (int i = 0; i < nSubWindows; ++i) {
+      int firstIteration = (i * nIterations) / nSubWindows;
+      int lastIteration = ((i + 1) * nIterations) / nSubWindows;
+      int subWindowEnd = end - firstIteration * iterationStep;
+      // The last sub-window keeps the original earliest-departure-time, this include the
+      // remainder if the search-window is not a multiple of the iteration step.
+      int subWindowStart = i == nSubWindows - 1
+        ? edt
+        : subWindowEnd - (lastIteration - firstIteration) * iterationStep;
+
+      result.add(
+        request
+          .mutate()
+          .searchParams()
+          .earliestDepartureTime(subWindowStart)
+          .searchWindowInSeconds(subWindowEnd - subWindowStart)
+          .build()
+      );
+    }
+    return result;
+  }
+}
@@ -139,7 +139,9 @@ public class TransitRouter {
             serverContext.transitService().getTransferService(),
             requestTransitDataProvider,
             transitLayer.getStopBoardAlightCosts(),
-            request.preferences().transfer().optimization()
+            request.preferences().transfer().optimization(),
+            // null if Raptor is single-threaded, then the paths are optimized in this thread
+            serverContext.raptorConfig().threadPool()
           )
           .optimize(transitResponse.paths());
     }
@@ -212,27 +214,51 @@ public class TransitRouter {
       accessRequest.journey().rental().setAllowArrivingInRentedVehicleAtDestination(false);
     }
 
-    var nearbyStops = AccessEgressRouter.streetSearch(
-      accessRequest,
-      temporaryVertices,
-      serverContext.transitService(),
-      streetRequest,
-      serverContext.dataOverlayContext(accessRequest),
-      isEgress,
-      accessRequest.preferences().street().maxAccessEgressDuration().valueOf(streetRequest.mode())
-    );
+    var dataOverlayContext = serverContext.dataOverlayContext(accessRequest);
+    var durationLimit = accessRequest
+      .preferences()
+      .street()
+      .maxAccessEgressDuration()
+      .valueOf(streetRequest.mode());
+    boolean flexAccessEgress =
+      OTPFeature.FlexRouting.isOn() && streetRequest.mode() == StreetMode.FLEXIBLE;
+
+    // The flex access/egress walks to the flex stops. Flexible is walking in the street search, so
+    // both sets of stops are found and cached together, with one search if the limits are equal.
+    var durationLimits = flexAccessEgress
+      ? List.of(durationLimit, FlexAccessEgressRouter.maxWalkDuration(serverContext, isEgress))
+      : List.of(durationLimit);
+
+    var nearbyStops = serverContext
+      .accessEgressCache()
+      .streetSearch(
+        accessRequest,
+        streetRequest,
+        dataOverlayContext,
+        isEgress,
+        durationLimits,
+        limits ->
+          AccessEgressRouter.streetSearch(
+            accessRequest,
+            temporaryVertices,
+            serverContext.transitService(),
+            streetRequest,
+            dataOverlayContext,
+            isEgress,
+            limits
+          )
+      );
 
-    var results = new ArrayList<>(accessEgressMapper.mapNearbyStops(nearbyStops, isEgress));
+    var results = new ArrayList<>(accessEgressMapper.mapNearbyStops(nearbyStops.get(0), isEgress));
 
     // Special handling of flex accesses
-    if (OTPFeature.FlexRouting.isOn() && streetRequest.mode() == StreetMode.FLEXIBLE) {
+    if (flexAccessEgress) {
       var flexAccessList = FlexAccessEgressRouter.routeAccessEgress(
         accessRequest,
-        temporaryVertices,
         serverContext,
         additionalSearchDays,
         serverContext.flexConfig(),
-        serverContext.dataOverlayContext(accessRequest),
+        nearbyStops.get(1),
         isEgress
       );
 
@@ -250,7 +276,10 @@ public class TransitRouter {
       transitSearchTimeZero,
       additionalSearchDays.additionalSearchDaysInPast(),
       additionalSearchDays.additionalSearchDaysInFuture(),
-      new RouteRequestTransitDataProviderFilter(request),
+      new RouteRequestTransitDataProviderFilter(
+        request,
+        transitLayer.getTripPatternAttributeIndex()
+      ),
       request
     );
   }
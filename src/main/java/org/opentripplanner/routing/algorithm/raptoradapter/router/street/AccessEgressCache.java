@@ -0,0 +1,232 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.cache.AreaInvalidatedCache;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.TurnRestriction;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.search.state.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache the nearby stops found by the access and egress street search, shared by all requests.
+ * Popular origins and destinations, like stations, airports and city centre places, are searched
+ * over and over again.
+ * <p>
+ * The key is the stop id of the origin/destination, the street mode, the duration limit and the
+ * request parameters which are relevant for the street search, see {@link AccessEgressCacheKey}.
+ * The date-time is not part of the key. The street search depends on it only through the turn
+ * restrictions which are active in a time period (OSM {@code restriction:conditional}). Since
+ * they can apply anywhere in the search, the cache is disabled if the street graph has any of
+ * them, see {@link #hasTimeDependentTurnRestrictions(Graph)}. The realtime vehicle rental and
+ * parking availability is handled by invalidating the entries, see below.
+ * <p>
+ * Only searches starting at a stop are cached. A search from a coordinate starts at the temporary
+ * vertices linked for the request, and the paths of the nearby stops found refer to them, so the
+ * result can not be used by another request. For the same reason, the result is not cached if a
+ * stop search starts at a temporary vertex, as when driving from a stop.
+ * <p>
+ * An entry is invalidated when:
+ * <ul>
+ *   <li>it is older than the time-to-live, or the cache is full (least recently used first),</li>
+ *   <li>
+ *     a realtime update (vehicle rental, vehicle parking) changes the graph within the area of
+ *     the entry, see {@link #invalidate(Collection)}. The area is the bounding box of the location
+ *     and all nearby stops found.
+ *   </li>
+ * </ul>
+ * Searches using a data overlay are not cached.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class AccessEgressCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AccessEgressCache.class);
+
+  private final AreaInvalidatedCache<AccessEgressCacheKey, List<NearbyStop>> cache;
+
+  /**
+   * @param timeDependentStreets {@code true} if the street search depends on the date-time, the
+   *                             cache is then disabled
+   */
+  public AccessEgressCache(
+    AccessEgressCacheParameters parameters,
+    boolean timeDependentStreets,
+    MeterRegistry registry
+  ) {
+    int maxSize = parameters.maxSize();
+    if (timeDependentStreets && maxSize > 0) {
+      LOG.info("Access/egress cache disabled, the graph has time-dependent turn restrictions.");
+      maxSize = 0;
+    }
+    this.cache =
+      AreaInvalidatedCache.ofMaxSize(
+        "routing.accessEgressCache",
+        maxSize,
+        parameters.timeToLive(),
+        registry
+      );
+  }
+
+  /**
+   * Return true if any turn restriction in the graph is only active in a time period, the result
+   * of a street search then depends on the date-time.
+   */
+  public static boolean hasTimeDependentTurnRestrictions(Graph graph) {
+    for (StreetEdge edge : graph.getStreetEdges()) {
+      for (TurnRestriction it : edge.getTurnRestrictions()) {
+        if (it.time != null) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  public boolean isEnabled() {
+    return cache.isEnabled();
+  }
+
+  /**
+   * Return the cached nearby stops for the given access or egress search, or run the search and
+   * cache the result.
+   *
+   * @param request      the request used in the street search
+   * @param streetSearch runs the street search for the given request
+   */
+  public Collection<NearbyStop> streetSearch(
+    RouteRequest request,
+    StreetRequest streetRequest,
+    DataOverlayContext dataOverlayContext,
+    boolean egress,
+    Duration durationLimit,
+    Supplier<Collection<NearbyStop>> streetSearch
+  ) {
+    return streetSearch(
+      request,
+      streetRequest,
+      dataOverlayContext,
+      egress,
+      List.of(durationLimit),
+      limits -> List.of(streetSearch.get())
+    )
+      .get(0);
+  }
+
+  /**
+   * Return the cached nearby stops for each of the given duration limits. The duration limits
+   * which are not in the cache are searched with one call to the street search, and the result is
+   * cached.
+   *
+   * @param request      the request used in the street search
+   * @param streetSearch runs one street search for the given duration limits, and returns the
+   *                     nearby stops for each limit in the same order
+   * @return the nearby stops for each duration limit, in the same order as the limits
+   */
+  public List<Collection<NearbyStop>> streetSearch(
+    RouteRequest request,
+    StreetRequest streetRequest,
+    DataOverlayContext dataOverlayContext,
+    boolean egress,
+    List<Duration> durationLimits,
+    Function<List<Duration>, List<Collection<NearbyStop>>> streetSearch
+  ) {
+    GenericLocation location = egress ? request.to() : request.from();
+
+    if (!isEnabled() || dataOverlayContext != null || location.stopId == null) {
+      return streetSearch.apply(durationLimits);
+    }
+
+    List<Collection<NearbyStop>> result = new ArrayList<>(durationLimits.size());
+    List<AccessEgressCacheKey> missingKeys = new ArrayList<>();
+    List<Duration> missingLimits = new ArrayList<>();
+    List<Integer> missingIndexes = new ArrayList<>();
+
+    for (Duration durationLimit : durationLimits) {
+      var key = AccessEgressCacheKey.of(request, streetRequest.mode(), egress, durationLimit);
+      var nearbyStops = cache.getIfPresent(key);
+
+      if (nearbyStops != null) {
+        result.add(nearbyStops);
+      } else {
+        missingKeys.add(key);
+        missingLimits.add(durationLimit);
+        missingIndexes.add(result.size());
+        result.add(null);
+      }
+    }
+    if (missingLimits.isEmpty()) {
+      return result;
+    }
+
+    long token = cache.startComputing();
+    var searchResult = streetSearch.apply(missingLimits);
+
+    for (int i = 0; i < missingLimits.size(); i++) {
+      var nearbyStops = List.copyOf(searchResult.get(i));
+      result.set(missingIndexes.get(i), nearbyStops);
+      if (!startsAtTemporaryVertex(nearbyStops)) {
+        cache.put(missingKeys.get(i), nearbyStops, area(location, nearbyStops), token);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Remove all entries with an area intersecting any of the given envelopes.
+   */
+  public void invalidate(Collection<Envelope> changedAreas) {
+    cache.invalidate(changedAreas);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  /**
+   * Return true if the path to any of the stops starts at a temporary vertex, which is only
+   * valid for the request it is created for.
+   */
+  private static boolean startsAtTemporaryVertex(Collection<NearbyStop> nearbyStops) {
+    for (NearbyStop it : nearbyStops) {
+      State first = it.state;
+      while (first != null && first.getBackState() != null) {
+        first = first.getBackState();
+      }
+      if (first != null && first.getVertex() instanceof TemporaryVertex) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Envelope area(GenericLocation location, Collection<NearbyStop> nearbyStops) {
+    var area = new Envelope();
+    if (location.lat != null && location.lng != null) {
+      area.expandToInclude(location.lng, location.lat);
+    }
+    for (NearbyStop it : nearbyStops) {
+      var c = it.stop.getCoordinate();
+      area.expandToInclude(c.longitude(), c.latitude());
+    }
+    return AreaInvalidatedCache.expandArea(area);
+  }
+}
@@ -0,0 +1,66 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import java.time.Duration;
+import java.util.List;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.CarPreferences;
+import org.opentripplanner.routing.api.request.preference.StreetPreferences;
+import org.opentripplanner.routing.api.request.preference.VehicleRentalPreferences;
+import org.opentripplanner.routing.api.request.preference.WalkPreferences;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.VehicleParkingRequest;
+import org.opentripplanner.routing.api.request.request.VehicleRentalRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilter;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * The key of an {@link AccessEgressCache} entry. This contains the stop id and an extract of the
+ * request parameters which may influence the access/egress street search. Preferences for modes
+ * not used by the street mode are replaced with the defaults, so they do not prevent sharing an
+ * entry. The transit filters are included, since the vehicle-to-stop heuristics stop the search
+ * based on the patterns matching the filters.
+ */
+record AccessEgressCacheKey(
+  FeedScopedId stopId,
+  boolean egress,
+  StreetMode mode,
+  Duration durationLimit,
+  boolean wheelchair,
+  WalkPreferences walk,
+  BikePreferences bike,
+  CarPreferences car,
+  VehicleRentalPreferences rentalPreferences,
+  StreetPreferences street,
+  WheelchairPreferences wheelchairPreferences,
+  VehicleRentalRequest rental,
+  VehicleParkingRequest parking,
+  List<TransitFilter> filters
+) {
+  static AccessEgressCacheKey of(
+    RouteRequest request,
+    StreetMode mode,
+    boolean egress,
+    Duration durationLimit
+  ) {
+    var preferences = request.preferences();
+
+    return new AccessEgressCacheKey(
+      (egress ? request.to() : request.from()).stopId,
+      egress,
+      mode,
+      durationLimit,
+      request.wheelchair(),
+      preferences.walk(),
+      mode.includesBiking() ? preferences.bike() : BikePreferences.DEFAULT,
+      mode.includesDriving() ? preferences.car() : CarPreferences.DEFAULT,
+      mode.includesRenting() ? preferences.rental() : VehicleRentalPreferences.DEFAULT,
+      preferences.street(),
+      request.wheelchair() ? preferences.wheelchair() : WheelchairPreferences.DEFAULT,
+      mode.includesRenting() ? request.journey().rental().clone() : null,
+      mode.includesParking() ? request.journey().parking().clone() : null,
+      List.copyOf(request.journey().transit().filters())
+    );
+  }
+}
@@ -0,0 +1,19 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import java.time.Duration;
+
+/**
+ * Parameters for the {@link AccessEgressCache}.
+ */
+public interface AccessEgressCacheParameters {
+  /**
+   * The maximum number of access or egress search results to keep in the cache. Use {@code 0} to
+   * disable the cache.
+   */
+  int maxSize();
+
+  /**
+   * How long a search result is kept in the cache after it is computed.
+   */
+  Duration timeToLive();
+}
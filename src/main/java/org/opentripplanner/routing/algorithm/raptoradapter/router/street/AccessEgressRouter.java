@@ -1,7 +1,9 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
 import org.opentripplanner.graph_builder.module.NearbyStopFinder;
@@ -35,22 +37,62 @@ public class AccessEgressRouter {
     DataOverlayContext dataOverlayContext,
     boolean fromTarget,
     Duration durationLimit
+  ) {
+    return streetSearch(
+      request,
+      verticesContainer,
+      transitService,
+      streetRequest,
+      dataOverlayContext,
+      fromTarget,
+      List.of(durationLimit)
+    )
+      .get(0);
+  }
+
+  /**
+   * Search for the access/egress stops within each of the given duration limits. This is used when
+   * the same origin is searched with the same street mode, but different duration limits - like
+   * the flex access/egress, which walks to the flex stops. Equal limits share one street search.
+   *
+   * @param fromTarget whether to route from or towards the point provided in the routing request
+   *                   (access or egress)
+   * @return Transfer objects by access/egress stop, for each duration limit in the same order
+   */
+  public static List<Collection<NearbyStop>> streetSearch(
+    RouteRequest request,
+    TemporaryVerticesContainer verticesContainer,
+    TransitService transitService,
+    StreetRequest streetRequest,
+    DataOverlayContext dataOverlayContext,
+    boolean fromTarget,
+    List<Duration> durationLimits
   ) {
     NearbyStopFinder nearbyStopFinder = new NearbyStopFinder(
       transitService,
-      durationLimit,
+      Collections.max(durationLimits),
       dataOverlayContext,
       true
     );
-    List<NearbyStop> nearbyStopList = nearbyStopFinder.findNearbyStopsViaStreets(
+    List<List<NearbyStop>> nearbyStopLists = nearbyStopFinder.findNearbyStopsViaStreets(
       fromTarget ? verticesContainer.getToVertices() : verticesContainer.getFromVertices(),
       fromTarget,
       request,
-      streetRequest
+      streetRequest,
+      durationLimits
     );
 
-    LOG.debug("Found {} {} stops", nearbyStopList.size(), fromTarget ? "egress" : "access");
+    if (LOG.isDebugEnabled()) {
+      for (int i = 0; i < durationLimits.size(); i++) {
+        LOG.debug(
+          "Found {} {} stops within {}",
+          nearbyStopLists.get(i).size(),
+          fromTarget ? "egress" : "access",
+          durationLimits.get(i)
+        );
+      }
+    }
 
-    return nearbyStopList;
+    return new ArrayList<>(nearbyStopLists);
   }
 }
@@ -1,69 +1,52 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
-import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
 import org.opentripplanner.ext.flex.FlexAccessEgress;
 import org.opentripplanner.ext.flex.FlexRouter;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.AdditionalSearchDays;
 import org.opentripplanner.routing.api.request.RouteRequest;
-import org.opentripplanner.routing.api.request.StreetMode;
-import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.standalone.config.sandbox.FlexConfig;
-import org.opentripplanner.street.search.TemporaryVerticesContainer;
-import org.opentripplanner.transit.service.TransitService;
 
 public class FlexAccessEgressRouter {
 
   private FlexAccessEgressRouter() {}
 
+  /**
+   * The flex access/egress walks to or from the flex stops within this duration. The nearby stops
+   * passed in to {@link #routeAccessEgress} should be found with this duration limit.
+   */
+  public static Duration maxWalkDuration(OtpServerRequestContext serverContext, boolean isEgress) {
+    return isEgress
+      ? serverContext.flexConfig().maxEgressWalkDuration()
+      : serverContext.flexConfig().maxAccessWalkDuration();
+  }
+
+  /**
+   * @param nearbyStops the stops found by walking from the origin, or to the destination for
+   *                    egress, see {@link #maxWalkDuration(OtpServerRequestContext, boolean)}
+   */
   public static Collection<FlexAccessEgress> routeAccessEgress(
     RouteRequest request,
-    TemporaryVerticesContainer verticesContainer,
     OtpServerRequestContext serverContext,
     AdditionalSearchDays searchDays,
     FlexConfig config,
-    DataOverlayContext dataOverlayContext,
+    Collection<NearbyStop> nearbyStops,
     boolean isEgress
   ) {
-    TransitService transitService = serverContext.transitService();
-
-    Collection<NearbyStop> accessStops = !isEgress
-      ? AccessEgressRouter.streetSearch(
-        request,
-        verticesContainer,
-        transitService,
-        new StreetRequest(StreetMode.WALK),
-        dataOverlayContext,
-        false,
-        serverContext.flexConfig().maxAccessWalkDuration()
-      )
-      : List.of();
-
-    Collection<NearbyStop> egressStops = isEgress
-      ? AccessEgressRouter.streetSearch(
-        request,
-        verticesContainer,
-        transitService,
-        new StreetRequest(StreetMode.WALK),
-        dataOverlayContext,
-        true,
-        serverContext.flexConfig().maxEgressWalkDuration()
-      )
-      : List.of();
-
     FlexRouter flexRouter = new FlexRouter(
       serverContext.graph(),
-      transitService,
+      serverContext.transitService(),
       config,
       request.dateTime(),
       request.arriveBy(),
       searchDays.additionalSearchDaysInPast(),
       searchDays.additionalSearchDaysInFuture(),
-      accessStops,
-      egressStops
+      isEgress ? List.of() : nearbyStops,
+      isEgress ? nearbyStops : List.of()
     );
 
     return isEgress ? flexRouter.createFlexEgresses() : flexRouter.createFlexAccesses();
@@ -4,9 +4,13 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.TransferService;
@@ -14,11 +18,18 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtr
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.transit.model.network.TripPatternAttributeIndex;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.StopModel;
 
 public class TransitLayer {
 
+  /**
+   * The number of pre-merged date windows to keep. Normally only a few windows around the current
+   * date is in use, so this is just a safety net to prevent the cache from growing forever.
+   */
+  private static final int MAX_CACHED_DATE_WINDOWS = 16;
+
   /**
    * Transit data required for routing, indexed by each local date(Graph TimeZone) it runs through.
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
@@ -49,9 +60,21 @@ public class TransitLayer {
   private final int[] stopBoardAlightCosts;
 
   /**
-   * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
-   * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * Index of the scheduled patterns used to filter patterns in a request.
+   */
+  private final TripPatternAttributeIndex tripPatternAttributeIndex;
+
+  /**
+   * The trip patterns for a search-date-window pre-merged by pattern, see
+   * {@link TripPatternsForDateWindow}. The windows are created lazily, and patched when the
+   * patterns for a date is replaced.
+   */
+  private final Map<TripPatternsForDateWindow.Key, TripPatternsForDateWindow> tripPatternsForDateWindows;
+
+  /**
+   * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate and the
+   * date-windows, where a shallow copy of the maps are made. This is sufficient, as the
+   * TransitLayerUpdater will replace entire keys and their values in the maps.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
@@ -63,8 +86,10 @@ public class TransitLayer {
       transitLayer.transferCache,
       transitLayer.constrainedTransfers,
       transitLayer.transferIndexGenerator,
-      transitLayer.stopBoardAlightCosts
+      transitLayer.stopBoardAlightCosts,
+      transitLayer.tripPatternAttributeIndex
     );
+    this.tripPatternsForDateWindows.putAll(transitLayer.tripPatternsForDateWindows);
   }
 
   public TransitLayer(
@@ -76,7 +101,8 @@ public class TransitLayer {
     RaptorRequestTransferCache transferCache,
     ConstrainedTransfersForPatterns constrainedTransfers,
     TransferIndexGenerator transferIndexGenerator,
-    int[] stopBoardAlightCosts
+    int[] stopBoardAlightCosts,
+    TripPatternAttributeIndex tripPatternAttributeIndex
   ) {
     this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
     this.transfersByStopIndex = transfersByStopIndex;
@@ -87,6 +113,8 @@ public class TransitLayer {
     this.constrainedTransfers = constrainedTransfers;
     this.transferIndexGenerator = transferIndexGenerator;
     this.stopBoardAlightCosts = stopBoardAlightCosts;
+    this.tripPatternAttributeIndex = tripPatternAttributeIndex;
+    this.tripPatternsForDateWindows = new ConcurrentHashMap<>();
   }
 
   @Nullable
@@ -98,6 +126,40 @@ public class TransitLayer {
     return tripPatternsRunningOnDate.getOrDefault(date, List.of());
   }
 
+  /**
+   * Return the trip patterns active in the given search window, grouped by pattern. The window is
+   * created the first time it is requested and then reused by all subsequent requests with the
+   * same search date and number of additional days.
+   */
+  public TripPatternsForDateWindow getTripPatternsForDateWindow(
+    LocalDate searchDate,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays
+  ) {
+    var key = new TripPatternsForDateWindow.Key(
+      searchDate,
+      additionalPastSearchDays,
+      additionalFutureSearchDays
+    );
+    var window = tripPatternsForDateWindows.get(key);
+    if (window != null) {
+      return window;
+    }
+    if (tripPatternsForDateWindows.size() >= MAX_CACHED_DATE_WINDOWS) {
+      tripPatternsForDateWindows.clear();
+    }
+    return tripPatternsForDateWindows.computeIfAbsent(
+      key,
+      k ->
+        TripPatternsForDateWindow.create(
+          k.searchDate(),
+          k.additionalPastSearchDays(),
+          k.additionalFutureSearchDays(),
+          this::getTripPatternsForDate
+        )
+    );
+  }
+
   /**
    * This is the time zone which is used for interpreting all local "service" times (in transfers,
    * trip schedules and so on). This is the time zone of the internal OTP time - which is used in
@@ -151,14 +213,42 @@ public class TransitLayer {
   }
 
   /**
-   * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * The index only contains the patterns available when the transit layer was created, patterns
+   * added by realtime updates are not included.
    */
-  public void replaceTripPatternsForDate(
+  public TripPatternAttributeIndex getTripPatternAttributeIndex() {
+    return tripPatternAttributeIndex;
+  }
+
+  /**
+   * Remove and add the given TripPatternForDates for a single date, the other patterns running on
+   * the date are kept. The removed patterns are matched by identity. The pre-merged date windows
+   * including the date are patched with the given changes only.
+   */
+  public void updateTripPatternsForDate(
     LocalDate date,
-    List<TripPatternForDate> tripPatternForDates
+    Collection<TripPatternForDate> removed,
+    Collection<TripPatternForDate> added
   ) {
-    this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
+    var old = tripPatternsRunningOnDate.getOrDefault(date, List.of());
+    Set<TripPatternForDate> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+    toRemove.addAll(removed);
+
+    List<TripPatternForDate> result = new ArrayList<>(old.size() + added.size());
+    List<TripPatternForDate> actuallyRemoved = new ArrayList<>();
+    for (TripPatternForDate p : old) {
+      if (toRemove.contains(p)) {
+        actuallyRemoved.add(p);
+      } else {
+        result.add(p);
+      }
+    }
+    result.addAll(added);
+
+    this.tripPatternsRunningOnDate.put(date, result);
+    tripPatternsForDateWindows.replaceAll((key, window) ->
+      window.withReplacedDate(date, actuallyRemoved, added)
+    );
   }
 
   public void setConstrainedTransfers(ConstrainedTransfersForPatterns constrainedTransfers) {
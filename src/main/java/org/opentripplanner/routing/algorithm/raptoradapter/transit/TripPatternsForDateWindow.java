@@ -0,0 +1,200 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+
+/**
+ * All {@link TripPatternForDate}s which are part of a search over a window of consecutive service
+ * dates, grouped by {@link RoutingTripPattern} and sorted by date. The grouping is done once per
+ * window and kept in the {@link TransitLayer}, so a routing request only need to apply its filter
+ * on top of it. This saves the cost of grouping, sorting and allocating the same structure for
+ * every request.
+ * <p>
+ * The window use the same rules as the search: On the search date all patterns running on that
+ * date are included, while on the additional past and future dates only the patterns starting on
+ * the given date are included.
+ * <p>
+ * This class is immutable. When the realtime updater replace the patterns for a date, a patched
+ * copy is created with {@link #withReplacedDate(LocalDate, Collection, Collection)}. Only the
+ * patterns changed are re-grouped, the rest is shared with the original.
+ */
+public class TripPatternsForDateWindow {
+
+  private final LocalDate searchDate;
+  private final int additionalPastSearchDays;
+  private final int additionalFutureSearchDays;
+
+  /**
+   * The TripPatternForDates for each pattern sorted by date. The arrays are never mutated.
+   */
+  private final Map<RoutingTripPattern, TripPatternForDate[]> patternsForDatesByPattern;
+
+  private TripPatternsForDateWindow(
+    LocalDate searchDate,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    Map<RoutingTripPattern, TripPatternForDate[]> patternsForDatesByPattern
+  ) {
+    this.searchDate = searchDate;
+    this.additionalPastSearchDays = additionalPastSearchDays;
+    this.additionalFutureSearchDays = additionalFutureSearchDays;
+    this.patternsForDatesByPattern = patternsForDatesByPattern;
+  }
+
+  /**
+   * Group the patterns for each date in the window, the {@code tripPatternsRunningOnDate} is
+   * used to look up all patterns running on a given date.
+   */
+  public static TripPatternsForDateWindow create(
+    LocalDate searchDate,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    Function<LocalDate, Collection<TripPatternForDate>> tripPatternsRunningOnDate
+  ) {
+    Map<RoutingTripPattern, List<TripPatternForDate>> grouped = new HashMap<>();
+
+    for (int d = -additionalPastSearchDays; d <= additionalFutureSearchDays; ++d) {
+      LocalDate date = searchDate.plusDays(d);
+      for (TripPatternForDate p : tripPatternsRunningOnDate.apply(date)) {
+        if (d == 0 || p.getStartOfRunningPeriod().equals(date)) {
+          grouped.computeIfAbsent(p.getTripPattern(), k -> new ArrayList<>()).add(p);
+        }
+      }
+    }
+
+    Map<RoutingTripPattern, TripPatternForDate[]> result = new HashMap<>();
+    for (var e : grouped.entrySet()) {
+      result.put(e.getKey(), sortByDate(e.getValue()));
+    }
+    return new TripPatternsForDateWindow(
+      searchDate,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      result
+    );
+  }
+
+  public LocalDate searchDate() {
+    return searchDate;
+  }
+
+  public int additionalPastSearchDays() {
+    return additionalPastSearchDays;
+  }
+
+  public int additionalFutureSearchDays() {
+    return additionalFutureSearchDays;
+  }
+
+  /**
+   * The TripPatternForDates grouped by pattern, each array is sorted by date. The caller must
+   * NOT modify the returned arrays.
+   */
+  public Collection<TripPatternForDate[]> patternsForDates() {
+    return patternsForDatesByPattern.values();
+  }
+
+  public int numberOfPatterns() {
+    return patternsForDatesByPattern.size();
+  }
+
+  public boolean includesDate(LocalDate date) {
+    return (
+      !date.isBefore(searchDate.minusDays(additionalPastSearchDays)) &&
+      !date.isAfter(searchDate.plusDays(additionalFutureSearchDays))
+    );
+  }
+
+  /**
+   * Create a copy of this window where the patterns running on the given date is replaced. The
+   * {@code oldPatterns} are removed and the {@code newPatterns} are added for the given date. This
+   * can be all patterns running on the date, or only the changed ones. Patterns not affected by
+   * the change are shared with this instance.
+   */
+  public TripPatternsForDateWindow withReplacedDate(
+    LocalDate date,
+    Collection<TripPatternForDate> oldPatterns,
+    Collection<TripPatternForDate> newPatterns
+  ) {
+    if (!includesDate(date)) {
+      return this;
+    }
+    boolean searchDay = date.equals(searchDate);
+
+    Map<RoutingTripPattern, List<TripPatternForDate>> patched = new HashMap<>();
+
+    for (TripPatternForDate p : oldPatterns) {
+      if (searchDay || p.getStartOfRunningPeriod().equals(date)) {
+        // Only one occurrence is removed, the same instance may be included for more than one date
+        patchedListFor(patched, p.getTripPattern()).remove(p);
+      }
+    }
+    for (TripPatternForDate p : newPatterns) {
+      if (searchDay || p.getStartOfRunningPeriod().equals(date)) {
+        patchedListFor(patched, p.getTripPattern()).add(p);
+      }
+    }
+
+    if (patched.isEmpty()) {
+      return this;
+    }
+
+    var result = new HashMap<>(patternsForDatesByPattern);
+    for (var e : patched.entrySet()) {
+      if (e.getValue().isEmpty()) {
+        result.remove(e.getKey());
+      } else {
+        result.put(e.getKey(), sortByDate(e.getValue()));
+      }
+    }
+    return new TripPatternsForDateWindow(
+      searchDate,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      result
+    );
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(TripPatternsForDateWindow.class)
+      .addDate("searchDate", searchDate)
+      .addNum("additionalPastSearchDays", additionalPastSearchDays)
+      .addNum("additionalFutureSearchDays", additionalFutureSearchDays)
+      .addNum("numberOfPatterns", numberOfPatterns())
+      .toString();
+  }
+
+  private List<TripPatternForDate> patchedListFor(
+    Map<RoutingTripPattern, List<TripPatternForDate>> patched,
+    RoutingTripPattern pattern
+  ) {
+    return patched.computeIfAbsent(
+      pattern,
+      k -> {
+        var existing = patternsForDatesByPattern.get(k);
+        return existing == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(existing));
+      }
+    );
+  }
+
+  private static TripPatternForDate[] sortByDate(List<TripPatternForDate> list) {
+    TripPatternForDate[] array = list.toArray(new TripPatternForDate[0]);
+    Arrays.sort(array);
+    return array;
+  }
+
+  /**
+   * Key used to cache the windows in the {@link TransitLayer}.
+   */
+  record Key(LocalDate searchDate, int additionalPastSearchDays, int additionalFutureSearchDays) {}
+}
@@ -117,6 +117,10 @@ public class RaptorRequestMapper {
       }
     }
 
+    builder
+      .searchParams()
+      .searchWindowThreads(preferences.transit().raptor().searchWindowThreads());
+
     builder.profile(preferences.transit().raptor().profile());
     builder.searchDirection(preferences.transit().raptor().searchDirection());
 
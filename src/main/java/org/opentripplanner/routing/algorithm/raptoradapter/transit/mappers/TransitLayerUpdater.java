@@ -1,13 +1,14 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
 import gnu.trove.set.TIntSet;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
@@ -17,6 +18,7 @@ import org.opentripplanner.model.Timetable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
 import org.opentripplanner.transit.model.timetable.TripTimes;
@@ -30,6 +32,11 @@ import org.slf4j.LoggerFactory;
  * id and replaced by their updated versions. The realtime TransitLayer is then switched out with
  * the updated copy in an atomic operation. This ensures that any TransitLayer that is referenced
  * from the Graph is never changed.
+ * <p>
+ * Each update carries the ids of the trips changed in each timetable. Only these trips are
+ * patched into the existing TripPatternForDates and indexed by trip id, and only the changed
+ * TripPatternForDates are replaced for each date. A timetable is mapped in full only the first
+ * time it is updated, or if its trips are based on frequencies.
  */
 public class TransitLayerUpdater {
 
@@ -46,12 +53,22 @@ public class TransitLayerUpdater {
   private final Map<LocalDate, Map<TripPattern, TripPatternForDate>> tripPatternsStartingOnDateMapCache = new HashMap<>();
 
   /**
-   * Cache the TripPatternForDate currently in use for a trip and service date. Only one TripPatternForDate is allowed
-   * for a trip id and service date. This cache is used to clean up extra tripPatternsForDate.
+   * Cache the TripPattern currently in use for a trip and service date. Only one
+   * TripPatternForDate is allowed for a trip id and service date. This cache is used to clean up
+   * extra tripPatternsForDate, the TripPatternForDate in use is found in the
+   * {@link #tripPatternsStartingOnDateMapCache}. The pattern is cached instead of the
+   * TripPatternForDate, so the trips not changed by an update stay valid when the
+   * TripPatternForDate is patched.
    */
-  private final Map<TripIdAndServiceDate, TripPatternForDate> tripPatternsForTripIdAndServiceDateCache = new HashMap<>();
+  private final Map<TripIdAndServiceDate, TripPattern> tripPatternForTripIdAndServiceDateCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
+  /**
+   * The TripPatternForDates kept after the mapping of an updated timetable failed. These are not
+   * in sync with the timetables, so the delta of the next update can not be applied to them.
+   */
+  private final Set<TripPatternForDate> notInSyncWithTimetable = Collections.newSetFromMap(
+    new IdentityHashMap<>()
+  );
 
   public TransitLayerUpdater(
     TransitModel transitModel,
@@ -61,8 +78,17 @@ public class TransitLayerUpdater {
     this.serviceCodesRunningForDate = serviceCodesRunningForDate;
   }
 
+  /**
+   * Update the realtime transit layer with the given timetables.
+   *
+   * @param updatedTripIds The ids of the trips updated, added or removed in each of the updated
+   *                       timetables since the last update. When the delta for a timetable is
+   *                       known, only the changed trips are patched into the existing
+   *                       TripPatternForDate, instead of mapping all trips in the timetable.
+   */
   public void update(
     Set<Timetable> updatedTimetables,
+    SetMultimap<Timetable, FeedScopedId> updatedTripIds,
     Map<TripPattern, SortedSet<Timetable>> timetables
   ) {
     if (!transitModel.hasRealtimeTransitLayer()) {
@@ -81,14 +107,16 @@ public class TransitLayerUpdater {
     );
 
     Set<LocalDate> datesToBeUpdated = new HashSet<>();
-    SetMultimap<TripPattern, TripPatternForDate> newTripPatternsForDate = HashMultimap.create();
-    SetMultimap<TripPattern, TripPatternForDate> oldTripPatternsForDate = HashMultimap.create();
+    // The TripPatternForDate equals and hashCode include all trips, so identity is used for the
+    // collections of TripPatternForDates below
+    List<TripPatternForDate> newTripPatternsForDate = new ArrayList<>();
+    List<TripPatternForDate> oldTripPatternsForDate = new ArrayList<>();
 
     TransferIndexGenerator transferIndexGenerator = null;
     if (OTPFeature.TransferConstraints.isOn()) {
       transferIndexGenerator = realtimeTransitLayer.getTransferIndexGenerator();
     }
-    Set<TripPatternForDate> previouslyUsedPatterns = new HashSet<>();
+    Map<LocalDate, Set<TripPattern>> previouslyUsedPatterns = new HashMap<>();
     // Map new TriPatternForDate and index for old and new TripPatternsForDate on service date
     for (Timetable timetable : updatedTimetables) {
       LocalDate date = timetable.getServiceDate();
@@ -108,114 +136,124 @@ public class TransitLayerUpdater {
 
       if (oldTripPatternForDate != null) {
         tripPatternsStartingOnDateMapCache.get(date).remove(tripPattern, oldTripPatternForDate);
-        oldTripPatternsForDate.put(tripPattern, oldTripPatternForDate);
+        oldTripPatternsForDate.add(oldTripPatternForDate);
         datesToBeUpdated.addAll(oldTripPatternForDate.getRunningPeriodDates());
       }
 
       TripPatternForDate newTripPatternForDate;
+      Set<FeedScopedId> tripIds = updatedTripIds.get(timetable);
+      boolean patched = false;
 
       try {
-        newTripPatternForDate = tripPatternForDateMapper.map(timetable, timetable.getServiceDate());
+        if (
+          oldTripPatternForDate != null &&
+          !tripIds.isEmpty() &&
+          !notInSyncWithTimetable.contains(oldTripPatternForDate)
+        ) {
+          // Only the changed trips are patched, this is much faster than mapping all trips in
+          // the timetable when a few trips are updated at a time.
+          newTripPatternForDate =
+            tripPatternForDateMapper.patch(oldTripPatternForDate, timetable, tripIds, date);
+          patched = true;
+        } else {
+          newTripPatternForDate = tripPatternForDateMapper.map(timetable, date);
+        }
+        notInSyncWithTimetable.remove(oldTripPatternForDate);
       } catch (IllegalArgumentException exception) {
         // There is some issue with finding the correct running period, using old pattern instead
         newTripPatternForDate = oldTripPatternForDate;
+        if (oldTripPatternForDate != null) {
+          notInSyncWithTimetable.add(oldTripPatternForDate);
+        }
       }
 
       if (newTripPatternForDate != null) {
         tripPatternsStartingOnDateMapCache.get(date).put(tripPattern, newTripPatternForDate);
-        newTripPatternsForDate.put(tripPattern, newTripPatternForDate);
+        newTripPatternsForDate.add(newTripPatternForDate);
         datesToBeUpdated.addAll(newTripPatternForDate.getRunningPeriodDates());
+        // The trips not changed are already indexed if the TripPatternForDate is patched
+        List<TripTimes> changedTripTimes = patched
+          ? changedTripTimes(timetable, tripIds)
+          : timetable.getTripTimes();
+
         if (transferIndexGenerator != null && tripPattern.isCreatedByRealtimeUpdater()) {
           transferIndexGenerator.addRealtimeTrip(
             tripPattern,
-            timetable.getTripTimes().stream().map(TripTimes::getTrip).collect(Collectors.toList())
+            changedTripTimes.stream().map(TripTimes::getTrip).collect(Collectors.toList())
           );
         }
 
-        for (TripTimes triptimes : timetable.getTripTimes()) {
-          var id = new TripIdAndServiceDate(
-            triptimes.getTrip().getId(),
-            timetable.getServiceDate()
-          );
-          TripPatternForDate previousTripPatternForDate = tripPatternsForTripIdAndServiceDateCache.put(
+        for (TripTimes triptimes : changedTripTimes) {
+          var id = new TripIdAndServiceDate(triptimes.getTrip().getId(), date);
+          TripPattern previousTripPattern = tripPatternForTripIdAndServiceDateCache.put(
             id,
-            newTripPatternForDate
+            tripPattern
           );
-          if (previousTripPatternForDate != null) {
-            previouslyUsedPatterns.add(previousTripPatternForDate);
-          } else {
+          if (previousTripPattern == null) {
             LOG.debug(
               "NEW TripPatternForDate: {} - {}",
               newTripPatternForDate.getLocalDate(),
               newTripPatternForDate.getTripPattern().debugInfo()
             );
+          } else if (previousTripPattern != tripPattern) {
+            previouslyUsedPatterns
+              .computeIfAbsent(date, d -> new HashSet<>())
+              .add(previousTripPattern);
           }
         }
       }
     }
 
     // Now loop through all running period dates of old and new TripPatternsForDate and update
-    // the tripPatternsByRunningPeriodDate accordingly
+    // the tripPatternsByRunningPeriodDate accordingly. Only the changed patterns are removed and
+    // added, the rest of the patterns running on the date are kept as is.
     for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(
-        date,
-        p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
-      );
-
-      // Remove old cached tripPatterns where tripTimes are no longer running
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
-
-      for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : oldTripPatternsForDate
-        .asMap()
-        .entrySet()) {
-        for (TripPatternForDate oldTripPatternForDate : entry.getValue()) {
-          // Remove old TripPatternForDate for this date if it was valid on this date
-          if (oldTripPatternForDate != null) {
-            if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.remove(oldTripPatternForDate);
-            }
-          }
+      List<TripPatternForDate> toRemove = new ArrayList<>();
+      List<TripPatternForDate> toAdd = new ArrayList<>();
+
+      // Remove old TripPatternForDate for this date if it was valid on this date
+      for (TripPatternForDate oldTripPatternForDate : oldTripPatternsForDate) {
+        if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
+          toRemove.add(oldTripPatternForDate);
         }
       }
 
-      for (TripPatternForDate tripPatternForDate : previouslyUsedPatterns) {
-        if (tripPatternForDate.getLocalDate().equals(date)) {
-          TripPattern pattern = tripPatternForDate.getTripPattern().getPattern();
-          if (!pattern.isCreatedByRealtimeUpdater()) {
-            continue;
-          }
-          var oldTimeTable = timetables.get(pattern);
-          if (oldTimeTable != null) {
-            var toRemove = oldTimeTable
-              .stream()
-              .filter(tt -> tt.getServiceDate().equals(date))
-              .findFirst()
-              .map(tt -> tt.getTripTimes().isEmpty())
-              .orElse(false);
-
-            if (toRemove) {
-              patternsForDate.remove(tripPatternForDate);
-            }
-          } else {
-            LOG.warn("Could not fetch timetable for {}", pattern);
+      // Remove patterns created by the realtime updater where the trips are no longer running
+      for (TripPattern pattern : previouslyUsedPatterns.getOrDefault(date, Set.of())) {
+        if (!pattern.isCreatedByRealtimeUpdater()) {
+          continue;
+        }
+        TripPatternForDate tripPatternForDate = tripPatternsStartingOnDateMapCache
+          .get(date)
+          .get(pattern);
+        if (tripPatternForDate == null) {
+          continue;
+        }
+        var oldTimeTable = timetables.get(pattern);
+        if (oldTimeTable != null) {
+          var isEmpty = oldTimeTable
+            .stream()
+            .filter(tt -> tt.getServiceDate().equals(date))
+            .findFirst()
+            .map(tt -> tt.getTripTimes().isEmpty())
+            .orElse(false);
+
+          if (isEmpty) {
+            toRemove.add(tripPatternForDate);
           }
+        } else {
+          LOG.warn("Could not fetch timetable for {}", pattern);
         }
       }
 
-      for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : newTripPatternsForDate
-        .asMap()
-        .entrySet()) {
-        for (TripPatternForDate newTripPatternForDate : entry.getValue()) {
-          // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
-          if (newTripPatternForDate != null) {
-            if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.add(newTripPatternForDate);
-            }
-          }
+      // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
+      for (TripPatternForDate newTripPatternForDate : newTripPatternsForDate) {
+        if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
+          toAdd.add(newTripPatternForDate);
         }
       }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+      realtimeTransitLayer.updateTripPatternsForDate(date, toRemove, toAdd);
     }
 
     if (transferIndexGenerator != null) {
@@ -232,4 +270,21 @@ public class TransitLayerUpdater {
       System.currentTimeMillis() - startTime
     );
   }
+
+  /**
+   * The trip times of the changed trips still in the timetable.
+   */
+  private static List<TripTimes> changedTripTimes(
+    Timetable timetable,
+    Set<FeedScopedId> changedTripIds
+  ) {
+    List<TripTimes> changed = new ArrayList<>(changedTripIds.size());
+    for (FeedScopedId tripId : changedTripIds) {
+      TripTimes tripTimes = timetable.getTripTimes(tripId);
+      if (tripTimes != null) {
+        changed.add(tripTimes);
+      }
+    }
+    return changed;
+  }
 }
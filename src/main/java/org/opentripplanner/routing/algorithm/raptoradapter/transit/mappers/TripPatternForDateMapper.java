@@ -7,11 +7,14 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.timetable.FrequencyEntry;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 import org.slf4j.Logger;
@@ -103,4 +106,82 @@ public class TripPatternForDateMapper {
       serviceDate
     );
   }
+
+  /**
+   * Create a copy of an existing TripPatternForDate where only the trips with the given ids are
+   * replaced with the trip times in the updated timetable. Trips not in the timetable, deleted or
+   * not running on the date are removed. The result contains the same trips, sorted by departure
+   * time, as mapping the whole timetable - given that the existing TripPatternForDate is mapped
+   * from the timetable the updated timetable is a copy of. Only patterns without frequencies are
+   * patched, the whole timetable is mapped for frequency based patterns.
+   * <p>
+   * This method is THREAD SAFE.
+   *
+   * @param existing       The TripPatternForDate mapped from the previous version of the timetable
+   * @param timetable      The updated timetable - READ ONLY
+   * @param changedTripIds The ids of the trips updated, added or removed in the timetable
+   * @param serviceDate    The date to map the TripPatternForDate for - READ ONLY
+   * @return TripPatternForDate for this timetable and serviceDate
+   */
+  @Nullable
+  public TripPatternForDate patch(
+    TripPatternForDate existing,
+    Timetable timetable,
+    Set<FeedScopedId> changedTripIds,
+    LocalDate serviceDate
+  ) {
+    if (existing.hasFrequencies() || !timetable.getFrequencyEntries().isEmpty()) {
+      return map(timetable, serviceDate);
+    }
+    TIntSet serviceCodesRunning = serviceCodesRunningForDate.get(serviceDate);
+    List<TripTimes> existingTimes = existing.tripTimes();
+    List<TripTimes> times = new ArrayList<>(existingTimes.size() + changedTripIds.size());
+
+    for (TripTimes tripTimes : existingTimes) {
+      if (!changedTripIds.contains(tripTimes.getTrip().getId())) {
+        times.add(tripTimes);
+      }
+    }
+
+    for (FeedScopedId tripId : changedTripIds) {
+      TripTimes tripTimes = timetable.getTripTimes(tripId);
+      if (
+        tripTimes == null ||
+        tripTimes.isDeleted() ||
+        !serviceCodesRunning.contains(tripTimes.getServiceCode())
+      ) {
+        continue;
+      }
+      // Keep the trips sorted by departure time, equal to the order in the mapped timetable
+      times.add(insertionPoint(times, tripTimes.sortIndex()), tripTimes);
+    }
+
+    if (times.isEmpty()) {
+      return null;
+    }
+
+    return new TripPatternForDate(
+      timetable.getPattern().getRoutingTripPattern(),
+      times,
+      List.of(),
+      serviceDate
+    );
+  }
+
+  /**
+   * Return the index of the first trip with a sort-index greater than the given value.
+   */
+  private static int insertionPoint(List<TripTimes> sortedTimes, int sortIndex) {
+    int low = 0;
+    int high = sortedTimes.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sortedTimes.get(mid).sortIndex() <= sortIndex) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
 }
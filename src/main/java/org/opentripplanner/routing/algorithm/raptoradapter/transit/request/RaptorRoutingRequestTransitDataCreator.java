@@ -9,15 +9,13 @@ import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Predicate;
 import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternsForDateWindow;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 import org.slf4j.Logger;
@@ -84,42 +82,62 @@ class RaptorRoutingRequestTransitDataCreator {
   }
 
   /**
-   * This method merges several list of TripPatterns for several consecutive dates into a single
-   * list of TripPatternsForDates. The purpose of doing this is so that TripSchedules for several
-   * dates are combined by TripPattern instead of having their own TripPattern. This is to improve
-   * performance for searching, as each TripPattern is searched only once per round.
+   * This method merges the TripPatternForDates for several consecutive dates into a single list of
+   * TripPatternsForDates. The purpose of doing this is so that TripSchedules for several dates are
+   * combined by TripPattern instead of having their own TripPattern. This is to improve performance
+   * for searching, as each TripPattern is searched only once per round.
+   * <p>
+   * The grouping by pattern and date is already done in the given {@code window}, which is shared
+   * between requests, so this method only apply the request filter and calculate the date
+   * offsets.
    */
   static List<TripPatternForDates> merge(
     ZonedDateTime transitSearchTimeZero,
-    List<TripPatternForDate> patternForDateList,
+    TripPatternsForDateWindow window,
     TransitDataProviderFilter filter
   ) {
-    // Group TripPatternForDate objects by TripPattern.
-    // This is done in a loop to increase performance.
-    Map<RoutingTripPattern, List<TripPatternForDate>> patternForDateByPattern = new HashMap<>();
-    for (TripPatternForDate patternForDate : patternForDateList) {
-      patternForDateByPattern
-        .computeIfAbsent(patternForDate.getTripPattern(), k -> new ArrayList<>())
-        .add(patternForDate);
-    }
+    long start = System.currentTimeMillis();
+
+    Predicate<TripTimes> tripTimesWithSubmodesPredicate = tripTimes ->
+      filter.tripTimesPredicate(tripTimes, filter.hasSubModeFilters());
+    Predicate<TripTimes> tripTimesWithoutSubmodesPredicate = tripTimes ->
+      filter.tripTimesPredicate(tripTimes, false);
 
-    List<TripPatternForDates> combinedList = new ArrayList<>();
+    List<TripPatternForDates> combinedList = new ArrayList<>(window.numberOfPatterns());
 
     TObjectIntMap<LocalDate> offsetCache = new TObjectIntHashMap<>();
 
-    // For each TripPattern, time expand each TripPatternForDate and merge into a single
-    // TripPatternForDates
-    for (Map.Entry<RoutingTripPattern, List<TripPatternForDate>> patternEntry : patternForDateByPattern.entrySet()) {
-      // Sort by date. We can mutate the array, as it was created above in the grouping.
-      TripPatternForDate[] patternsSorted = patternEntry
-        .getValue()
-        .toArray(new TripPatternForDate[0]);
-      Arrays.sort(patternsSorted);
+    // For each TripPattern, filter and time expand each TripPatternForDate and merge into a
+    // single TripPatternForDates. This was previously a stream, but was unrolled for improved
+    // performance.
+    for (TripPatternForDate[] patternsSorted : window.patternsForDates()) {
+      final RoutingTripPattern tripPattern = patternsSorted[0].getTripPattern();
+      var tripTimesPredicate = tripPattern.getPattern().getContainsMultipleModes()
+        ? tripTimesWithSubmodesPredicate
+        : tripTimesWithoutSubmodesPredicate;
+
+      // The input is sorted by date, so the filtered result is sorted as well
+      TripPatternForDate[] patternsFiltered = new TripPatternForDate[patternsSorted.length];
+      int size = 0;
+      for (TripPatternForDate p : patternsSorted) {
+        if (filter.tripPatternPredicate(p)) {
+          TripPatternForDate tripPatternForDate = p.newWithFilteredTripTimes(tripTimesPredicate);
+          if (tripPatternForDate != null) {
+            patternsFiltered[size++] = tripPatternForDate;
+          }
+        }
+      }
+      if (size == 0) {
+        continue;
+      }
+      if (size < patternsFiltered.length) {
+        patternsFiltered = Arrays.copyOf(patternsFiltered, size);
+      }
 
       // Calculate offsets per date
-      int[] offsets = new int[patternsSorted.length];
-      for (int i = 0; i < patternsSorted.length; i++) {
-        LocalDate serviceDate = patternsSorted[i].getLocalDate();
+      int[] offsets = new int[size];
+      for (int i = 0; i < size; i++) {
+        LocalDate serviceDate = patternsFiltered[i].getLocalDate();
         if (offsetCache.containsKey(serviceDate)) {
           offsets[i] = offsetCache.get(serviceDate);
         } else {
@@ -128,13 +146,10 @@ class RaptorRoutingRequestTransitDataCreator {
         }
       }
 
-      // Combine TripPatternForDate objects
-      final RoutingTripPattern tripPattern = patternEntry.getKey();
-
       combinedList.add(
         new TripPatternForDates(
           tripPattern,
-          patternsSorted,
+          patternsFiltered,
           offsets,
           filter.filterAvailableStops(
             tripPattern,
@@ -150,6 +165,11 @@ class RaptorRoutingRequestTransitDataCreator {
       );
     }
 
+    if (LOG.isDebugEnabled()) {
+      String time = DurationUtils.msToSecondsStr(System.currentTimeMillis() - start);
+      LOG.debug("Prepare Transit model performed in {}, count: {}.", time, combinedList.size());
+    }
+
     return combinedList;
   }
 
@@ -158,69 +178,11 @@ class RaptorRoutingRequestTransitDataCreator {
     int additionalFutureSearchDays,
     TransitDataProviderFilter filter
   ) {
-    List<TripPatternForDate> tripPatternForDates = getTripPatternsForDateRange(
+    var window = transitLayer.getTripPatternsForDateWindow(
+      departureDate,
       additionalPastSearchDays,
-      additionalFutureSearchDays,
-      filter
+      additionalFutureSearchDays
     );
-
-    return merge(transitSearchTimeZero, tripPatternForDates, filter);
-  }
-
-  private static List<TripPatternForDate> filterActiveTripPatterns(
-    TransitLayer transitLayer,
-    LocalDate date,
-    boolean firstDay,
-    TransitDataProviderFilter filter
-  ) {
-    // On the first search day we want to add both TripPatternsForDate objects that start that day
-    // and any previous day, while on subsequent search days we only want to add the
-    // TripPatternForDate objects that start on that particular day. This is to prevent duplicates.
-    // This was previously a stream, but was unrolled for improved performance.
-
-    Predicate<TripTimes> tripTimesWithSubmodesPredicate = tripTimes ->
-      filter.tripTimesPredicate(tripTimes, filter.hasSubModeFilters());
-    Predicate<TripTimes> tripTimesWithoutSubmodesPredicate = tripTimes ->
-      filter.tripTimesPredicate(tripTimes, false);
-    Collection<TripPatternForDate> tripPatternsForDate = transitLayer.getTripPatternsForDate(date);
-    List<TripPatternForDate> result = new ArrayList<>(tripPatternsForDate.size());
-    for (TripPatternForDate p : tripPatternsForDate) {
-      if (firstDay || p.getStartOfRunningPeriod().equals(date)) {
-        if (filter.tripPatternPredicate(p)) {
-          var tripTimesPredicate = p.getTripPattern().getPattern().getContainsMultipleModes()
-            ? tripTimesWithSubmodesPredicate
-            : tripTimesWithoutSubmodesPredicate;
-          TripPatternForDate tripPatternForDate = p.newWithFilteredTripTimes(tripTimesPredicate);
-          if (tripPatternForDate != null) {
-            result.add(tripPatternForDate);
-          }
-        }
-      }
-    }
-    return result;
-  }
-
-  private List<TripPatternForDate> getTripPatternsForDateRange(
-    int additionalPastSearchDays,
-    int additionalFutureSearchDays,
-    TransitDataProviderFilter filter
-  ) {
-    List<TripPatternForDate> tripPatternForDates = new ArrayList<>();
-    long start = System.currentTimeMillis();
-
-    // This filters trips by the search date as well as additional dates before and after
-    for (int d = -additionalPastSearchDays; d <= additionalFutureSearchDays; ++d) {
-      tripPatternForDates.addAll(
-        filterActiveTripPatterns(transitLayer, departureDate.plusDays(d), d == 0, filter)
-      );
-    }
-
-    if (LOG.isDebugEnabled()) {
-      String time = DurationUtils.msToSecondsStr(System.currentTimeMillis() - start);
-      long count = tripPatternForDates.size();
-      LOG.debug("Prepare Transit model performed in {}, count: {}.", time, count);
-    }
-
-    return tripPatternForDates;
+    return merge(transitSearchTimeZero, window, filter);
   }
 }
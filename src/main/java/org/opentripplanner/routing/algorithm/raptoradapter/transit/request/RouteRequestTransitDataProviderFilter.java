@@ -3,6 +3,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.PickDrop;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.routing.api.request.RouteRequest;
@@ -13,6 +14,7 @@ import org.opentripplanner.transit.model.basic.Accessibility;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.BikeAccess;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.model.network.TripPatternAttributeIndex;
 import org.opentripplanner.transit.model.timetable.Trip;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 
@@ -38,7 +40,23 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
 
   private final boolean hasSubModeFilters;
 
+  private final TripPatternAttributeIndex patternIndex;
+
+  /**
+   * The patterns in the {@link #patternIndex} matching the {@link #filters}, or {@code null} if
+   * one or more of the filters does not support the index.
+   */
+  @Nullable
+  private final BitSet matchingPatterns;
+
   public RouteRequestTransitDataProviderFilter(RouteRequest request) {
+    this(request, TripPatternAttributeIndex.EMPTY);
+  }
+
+  public RouteRequestTransitDataProviderFilter(
+    RouteRequest request,
+    TripPatternAttributeIndex patternIndex
+  ) {
     this(
       request.journey().transfer().mode() == StreetMode.BIKE,
       request.wheelchair(),
@@ -46,7 +64,8 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
       request.preferences().transit().includePlannedCancellations(),
       request.preferences().transit().includeRealtimeCancellations(),
       Set.copyOf(request.journey().transit().bannedTrips()),
-      request.journey().transit().filters()
+      request.journey().transit().filters(),
+      patternIndex
     );
   }
 
@@ -59,6 +78,29 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
     boolean includeRealtimeCancellations,
     Set<FeedScopedId> bannedTrips,
     List<TransitFilter> filters
+  ) {
+    this(
+      requireBikesAllowed,
+      wheelchairEnabled,
+      wheelchairPreferences,
+      includePlannedCancellations,
+      includeRealtimeCancellations,
+      bannedTrips,
+      filters,
+      TripPatternAttributeIndex.EMPTY
+    );
+  }
+
+  // This constructor is used only for testing
+  public RouteRequestTransitDataProviderFilter(
+    boolean requireBikesAllowed,
+    boolean wheelchairEnabled,
+    WheelchairPreferences wheelchairPreferences,
+    boolean includePlannedCancellations,
+    boolean includeRealtimeCancellations,
+    Set<FeedScopedId> bannedTrips,
+    List<TransitFilter> filters,
+    TripPatternAttributeIndex patternIndex
   ) {
     this.requireBikesAllowed = requireBikesAllowed;
     this.wheelchairEnabled = wheelchairEnabled;
@@ -68,6 +110,8 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
     this.bannedTrips = bannedTrips;
     this.filters = filters.toArray(TransitFilter[]::new);
     this.hasSubModeFilters = filters.stream().anyMatch(TransitFilter::isSubModePredicate);
+    this.patternIndex = patternIndex;
+    this.matchingPatterns = matchTripPatterns(this.filters, patternIndex);
   }
 
   @Override
@@ -85,6 +129,10 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
 
   @Override
   public boolean tripPatternPredicate(TripPatternForDate tripPatternForDate) {
+    int index = tripPatternForDate.getTripPattern().patternIndex();
+    if (matchingPatterns != null && patternIndex.isIndexed(index)) {
+      return matchingPatterns.get(index);
+    }
     for (TransitFilter filter : filters) {
       if (filter.matchTripPattern(tripPatternForDate.getTripPattern().getPattern())) {
         return true;
@@ -179,4 +227,24 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
     }
     return result;
   }
+
+  /**
+   * Pattern has to match with at least one filter, so the result is the union of the patterns
+   * matching each filter.
+   */
+  @Nullable
+  private static BitSet matchTripPatterns(
+    TransitFilter[] filters,
+    TripPatternAttributeIndex patternIndex
+  ) {
+    BitSet result = new BitSet();
+    for (TransitFilter filter : filters) {
+      BitSet match = filter.matchTripPatterns(patternIndex);
+      if (match == null) {
+        return null;
+      }
+      result.or(match);
+    }
+    return result;
+  }
 }
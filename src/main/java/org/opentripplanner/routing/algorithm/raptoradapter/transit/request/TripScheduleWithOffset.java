@@ -103,6 +103,28 @@ public final class TripScheduleWithOffset implements TripSchedule {
     return secondsOffset;
   }
 
+  /**
+   * Two instances are equal if they represent the same trip in the same pattern. A new instance is
+   * created each time Raptor looks up a trip, so this is used to recognize the same trip in
+   * different paths.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TripScheduleWithOffset that = (TripScheduleWithOffset) o;
+    return pattern == that.pattern && tripIndexForDates == that.tripIndexForDates;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * System.identityHashCode(pattern) + tripIndexForDates;
+  }
+
   @Override
   public String toString() {
     return ToStringBuilder
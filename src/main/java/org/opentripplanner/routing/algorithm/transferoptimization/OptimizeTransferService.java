@@ -1,8 +1,15 @@
 package org.opentripplanner.routing.algorithm.transferoptimization;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.logging.ThrottleLogger;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.path.RaptorPath;
@@ -15,6 +22,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Optimize the transfers of each path found by Raptor.
+ * <p>
+ * The paths are independent of each other, so if a thread pool is given they are optimized in
+ * parallel. The calling thread takes part in the work, and the number of tasks submitted to the
+ * pool is bounded by the number of processors, so one request can not flood a shared pool.
+ *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
 public class OptimizeTransferService<T extends RaptorTripSchedule> {
@@ -26,20 +39,29 @@ public class OptimizeTransferService<T extends RaptorTripSchedule> {
   private final MinSafeTransferTimeCalculator<T> minSafeTransferTimeCalculator;
   private final TransferWaitTimeCostCalculator transferWaitTimeCostCalculator;
 
+  @Nullable
+  private final ExecutorService threadPool;
+
   public OptimizeTransferService(
     OptimizePathDomainService<T> optimizePathDomainService,
     MinSafeTransferTimeCalculator<T> minSafeTransferTimeCalculator,
-    TransferWaitTimeCostCalculator transferWaitTimeCostCalculator
+    TransferWaitTimeCostCalculator transferWaitTimeCostCalculator,
+    @Nullable ExecutorService threadPool
   ) {
     this.optimizePathDomainService = optimizePathDomainService;
     this.minSafeTransferTimeCalculator = minSafeTransferTimeCalculator;
     this.transferWaitTimeCostCalculator = transferWaitTimeCostCalculator;
+    this.threadPool = threadPool;
   }
 
-  public OptimizeTransferService(OptimizePathDomainService<T> optimizePathDomainService) {
+  public OptimizeTransferService(
+    OptimizePathDomainService<T> optimizePathDomainService,
+    @Nullable ExecutorService threadPool
+  ) {
     this.optimizePathDomainService = optimizePathDomainService;
     this.minSafeTransferTimeCalculator = null;
     this.transferWaitTimeCostCalculator = null;
+    this.threadPool = threadPool;
   }
 
   public List<RaptorPath<T>> optimize(Collection<RaptorPath<T>> paths) {
@@ -49,8 +71,14 @@ public class OptimizeTransferService<T extends RaptorTripSchedule> {
 
     List<RaptorPath<T>> results = new ArrayList<>();
 
-    for (var path : paths) {
-      results.addAll(optimize(path));
+    if (threadPool == null || paths.size() < 2) {
+      for (var path : paths) {
+        results.addAll(optimize(path));
+      }
+    } else {
+      for (var optimized : optimizeInParallel(List.copyOf(paths))) {
+        results.addAll(optimized);
+      }
     }
 
     if (LOG.isDebugEnabled()) {
@@ -72,6 +100,52 @@ public class OptimizeTransferService<T extends RaptorTripSchedule> {
     }
   }
 
+  /**
+   * Optimize the paths using the thread pool and the calling thread. Each thread takes the next
+   * path not yet started until all paths are optimized. The results are returned in the order of
+   * the given paths.
+   */
+  private List<Collection<OptimizedPath<T>>> optimizeInParallel(List<RaptorPath<T>> paths) {
+    @SuppressWarnings("unchecked")
+    Collection<OptimizedPath<T>>[] results = new Collection[paths.size()];
+    var nextPath = new AtomicInteger();
+    Runnable worker = () -> {
+      for (int i = nextPath.getAndIncrement(); i < paths.size(); i = nextPath.getAndIncrement()) {
+        results[i] = optimize(paths.get(i));
+      }
+    };
+
+    int numberOfTasks = Math.min(paths.size(), Runtime.getRuntime().availableProcessors()) - 1;
+    List<Future<?>> asyncResults = new ArrayList<>();
+    try {
+      for (int i = 0; i < numberOfTasks; ++i) {
+        asyncResults.add(threadPool.submit(worker));
+      }
+      worker.run();
+      // All paths are taken, so the tasks that have not started yet are not needed
+      for (Future<?> it : asyncResults) {
+        if (!it.cancel(false)) {
+          it.get();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // propagate interruption to the running tasks.
+      asyncResults.forEach(it -> it.cancel(true));
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      asyncResults.forEach(it -> it.cancel(true));
+      if (e.getCause() instanceof OTPRequestTimeoutException timeout) {
+        throw timeout;
+      }
+      throw new IllegalStateException(
+        "Failed to optimize transfers in parallel. Details: " + e.getMessage(),
+        e
+      );
+    }
+    return Arrays.asList(results);
+  }
+
   /**
    * Optimize a single transfer, finding all possible permutations of transfers for the path and
    * filtering the list down one path, or a few equally good paths.
@@ -1,6 +1,8 @@
 package org.opentripplanner.routing.algorithm.transferoptimization.configure;
 
+import java.util.concurrent.ExecutorService;
 import java.util.function.IntFunction;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.path.RaptorStopNameResolver;
@@ -30,13 +32,17 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
   private final int[] stopBoardAlightCosts;
   private final TransferOptimizationParameters config;
 
+  @Nullable
+  private final ExecutorService threadPool;
+
   private TransferOptimizationServiceConfigurator(
     IntFunction<StopLocation> stopLookup,
     RaptorStopNameResolver stopNameResolver,
     TransferService transferService,
     RaptorTransitDataProvider<T> transitDataProvider,
     int[] stopBoardAlightCosts,
-    TransferOptimizationParameters config
+    TransferOptimizationParameters config,
+    @Nullable ExecutorService threadPool
   ) {
     this.stopLookup = stopLookup;
     this.stopNameResolver = stopNameResolver;
@@ -44,10 +50,14 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
     this.transitDataProvider = transitDataProvider;
     this.stopBoardAlightCosts = stopBoardAlightCosts;
     this.config = config;
+    this.threadPool = threadPool;
   }
 
   /**
    * Scope: Request
+   *
+   * @param threadPool used to optimize the paths in parallel, or {@code null} to optimize them in
+   *                   the calling thread.
    */
   public static <
     T extends RaptorTripSchedule
@@ -57,7 +67,8 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
     TransferService transferService,
     RaptorTransitDataProvider<T> transitDataProvider,
     int[] stopBoardAlightCosts,
-    TransferOptimizationParameters config
+    TransferOptimizationParameters config,
+    @Nullable ExecutorService threadPool
   ) {
     return new TransferOptimizationServiceConfigurator<T>(
       stopLookup,
@@ -65,7 +76,8 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
       transferService,
       transitDataProvider,
       stopBoardAlightCosts,
-      config
+      config,
+      threadPool
     )
       .createOptimizeTransferService();
   }
@@ -90,7 +102,8 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
       return new OptimizeTransferService<>(
         transfersPermutationService,
         createMinSafeTxTimeService(),
-        transferWaitTimeCalculator
+        transferWaitTimeCalculator,
+        threadPool
       );
     } else {
       var transfersPermutationService = createOptimizePathService(
@@ -99,7 +112,7 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
         null,
         transitDataProvider.multiCriteriaCostCalculator()
       );
-      return new OptimizeTransferService<>(transfersPermutationService);
+      return new OptimizeTransferService<>(transfersPermutationService, threadPool);
     }
   }
 
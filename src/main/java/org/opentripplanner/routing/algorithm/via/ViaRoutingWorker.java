@@ -1,14 +1,20 @@
 package org.opentripplanner.routing.algorithm.via;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
-import java.util.function.Predicate;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.RouteViaRequest;
@@ -20,13 +26,34 @@ import org.opentripplanner.routing.api.response.RoutingResponse;
 import org.opentripplanner.routing.api.response.ViaRoutingResponse;
 import org.opentripplanner.routing.error.RoutingValidationException;
 
+/**
+ * Route a via request by searching each segment between two via locations, and then combine the
+ * itineraries of consecutive segments that are within the min and max slack of the via location.
+ * <p>
+ * By default, the segments are searched one after the other, each search starting at the first
+ * arrival at the via location in the previous segment. If the request has a
+ * {@link RouteViaRequest#maxSegmentDuration()}, the departure window of each segment is derived
+ * from the request instead, and all segments are searched in parallel. The windows are wider, but
+ * the latency is close to the one of a single search.
+ */
 public class ViaRoutingWorker {
 
+  // TODO: This constant already exists in RoutingRequestToFilterChainMapper, so when POC is done use only constant
+  private static final int MAX_NUMBER_OF_ITINERARIES = 200;
+
+  /**
+   * Runs the segment searches, except the first which is searched in the calling thread. The
+   * segment searches use the {@link org.opentripplanner.framework.concurrent.InterruptibleExecutor}
+   * when routing in parallel, so they can not run on it.
+   */
+  private static final ExecutorService SEGMENT_EXECUTOR = Executors.newFixedThreadPool(
+    Runtime.getRuntime().availableProcessors(),
+    new ThreadFactoryBuilder().setNameFormat("ViaSegmentSearch-%d").setDaemon(true).build()
+  );
+
   private final RouteViaRequest viaRequest;
   private final RouteRequest request;
   private final Function<RouteRequest, RoutingResponse> routingWorker;
-  // TODO: This constant already exists in RoutingRequestToFilterChainMapper, so when POC is done use only constant
-  private static final int MAX_NUMBER_OF_ITINERARIES = 200;
 
   public ViaRoutingWorker(
     RouteViaRequest request,
@@ -40,6 +67,11 @@ public class ViaRoutingWorker {
   }
 
   public ViaRoutingResponse route() {
+    var maxSegmentDuration = viaRequest.maxSegmentDuration();
+    if (maxSegmentDuration != null && viaRequest.viaSegment().size() > 1) {
+      return combineRoutingResponse(routeSegmentsInParallel(maxSegmentDuration));
+    }
+
     //Loop over Via, for each cycle change from/to and JourneyRequest.
     var result = viaRequest
       .viaSegment()
@@ -50,6 +82,91 @@ public class ViaRoutingWorker {
     return combineRoutingResponse(result);
   }
 
+  /**
+   * Search all segments at the same time. The departure window of each segment covers all the
+   * departures which can be combined with an itinerary of the previous segment, given that no
+   * segment takes longer than the {@code maxSegmentDuration} (D):
+   * <pre>
+   * earliest departure(k) = dateTime + sum(minSlack(j), j &lt; k)
+   * latest departure(k)   = dateTime + searchWindow + k * D + sum(maxSlack(j), j &lt; k)
+   * </pre>
+   * Itineraries of a segment arriving at the via location later than this are not combined.
+   */
+  private List<RoutingResponse> routeSegmentsInParallel(Duration maxSegmentDuration) {
+    var segments = viaRequest.viaSegment();
+    var requests = new ArrayList<RouteRequest>();
+    var from = viaRequest.from();
+    var earliestDeparture = viaRequest.dateTime();
+    var searchWindow = viaRequest.searchWindow();
+
+    for (int i = 0; i < segments.size(); i++) {
+      var segment = segments.get(i);
+      var segmentRequest = viaRequest.routeRequest().clone();
+      segmentRequest.setJourney(segment.journeyRequest());
+      segmentRequest.setFrom(from);
+      segmentRequest.setDateTime(earliestDeparture);
+      segmentRequest.setSearchWindow(searchWindow);
+      if (i > 0) {
+        segmentRequest.setNumItineraries(MAX_NUMBER_OF_ITINERARIES);
+      }
+
+      var via = segment.viaLocation();
+      if (via == null) {
+        segmentRequest.setTo(viaRequest.to());
+      } else {
+        segmentRequest.setTo(via.point());
+        from = via.point();
+        earliestDeparture = earliestDeparture.plus(via.minSlack());
+        searchWindow =
+          searchWindow.plus(maxSegmentDuration).plus(via.maxSlack()).minus(via.minSlack());
+      }
+      requests.add(segmentRequest);
+    }
+
+    var responses = searchInParallel(requests);
+
+    // Like the sequential search, fail if it is not possible to continue from a via location
+    for (int i = 0; i < responses.size() - 1; i++) {
+      if (firstArrival(responses.get(i)).isEmpty()) {
+        throw createRoutingException();
+      }
+    }
+    return responses;
+  }
+
+  private List<RoutingResponse> searchInParallel(List<RouteRequest> requests) {
+    var asyncResults = new ArrayList<Future<RoutingResponse>>();
+    try {
+      for (RouteRequest it : requests.subList(1, requests.size())) {
+        asyncResults.add(SEGMENT_EXECUTOR.submit(() -> routingWorker.apply(it)));
+      }
+      var responses = new ArrayList<RoutingResponse>();
+      responses.add(routingWorker.apply(requests.get(0)));
+      for (Future<RoutingResponse> it : asyncResults) {
+        responses.add(it.get());
+      }
+      return responses;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // propagate interruption to the running tasks.
+      asyncResults.forEach(it -> it.cancel(true));
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      asyncResults.forEach(it -> it.cancel(true));
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(
+        "Failed to search via segments in parallel. Details: " + e.getMessage(),
+        e
+      );
+    } catch (RuntimeException e) {
+      // The search in the current thread failed or timed out, stop the other searches.
+      asyncResults.forEach(it -> it.cancel(true));
+      throw e;
+    }
+  }
+
   /**
    * Set to point and search trips. Return result with itineraries and prepare request for next
    * search.
@@ -102,12 +219,11 @@ public class ViaRoutingWorker {
         routingErrors.addAll(errors);
       }
 
+      var departures = new DeparturesIndex(routingResponses.get(i + 1).getTripPlan().itineraries);
+      var viaLocation = this.viaRequest.viaSegment().get(i).viaLocation();
+
       for (Itinerary itinerary : routingResponses.get(i).getTripPlan().itineraries) {
-        var filteredTransits = filterTransits(
-          itinerary,
-          routingResponses.get(i + 1).getTripPlan().itineraries,
-          this.viaRequest.viaSegment().get(i).viaLocation()
-        );
+        var filteredTransits = departures.withinSlack(itinerary, viaLocation);
 
         if (!filteredTransits.isEmpty()) {
           res.put(itinerary, filteredTransits);
@@ -118,26 +234,6 @@ public class ViaRoutingWorker {
     return new ViaRoutingResponse(res, routingResponses, routingErrors);
   }
 
-  private List<Itinerary> filterTransits(
-    Itinerary i,
-    List<Itinerary> itineraries,
-    ViaLocation viaLocation
-  ) {
-    return itineraries.stream().filter(withinSlackTest(i, viaLocation)).toList();
-  }
-
-  /**
-   * Only allow departures within min/max slack time.
-   */
-  private Predicate<Itinerary> withinSlackTest(Itinerary i, ViaLocation v) {
-    var earliestDeparturetime = i.endTime().plus(v.minSlack());
-    var latestDeparturetime = i.endTime().plus(v.maxSlack());
-
-    // Not before earlist and not after latest to include equal time
-    return j ->
-      !j.startTime().isBefore(earliestDeparturetime) && !j.startTime().isAfter(latestDeparturetime);
-  }
-
   private Optional<ZonedDateTime> firstArrival(RoutingResponse response) {
     return Optional
       .ofNullable(response.getTripPlan())
@@ -154,7 +250,7 @@ public class ViaRoutingWorker {
       .map(Itinerary::endTime);
   }
 
-  private RoutingValidationException createRoutingException() {
+  private static RoutingValidationException createRoutingException() {
     return new RoutingValidationException(
       List.of(
         new RoutingError(
@@ -164,4 +260,59 @@ public class ViaRoutingWorker {
       )
     );
   }
+
+  /**
+   * The itineraries of a segment sorted by start time, so the itineraries departing within the
+   * slack of an arrival are found with a binary search instead of testing all of them.
+   */
+  private static class DeparturesIndex {
+
+    private final List<Itinerary> itineraries;
+    private final Integer[] byStartTime;
+
+    private DeparturesIndex(List<Itinerary> itineraries) {
+      this.itineraries = itineraries;
+      this.byStartTime = new Integer[itineraries.size()];
+      Arrays.setAll(byStartTime, i -> i);
+      Arrays.sort(byStartTime, Comparator.comparing(i -> itineraries.get(i).startTime()));
+    }
+
+    /**
+     * Only allow departures within min/max slack time. The itineraries are returned in the
+     * original order.
+     */
+    private List<Itinerary> withinSlack(Itinerary arrival, ViaLocation v) {
+      var earliestDepartureTime = arrival.endTime().plus(v.minSlack());
+      var latestDepartureTime = arrival.endTime().plus(v.maxSlack());
+
+      // Not before earliest and not after latest to include equal time
+      var matches = new ArrayList<Integer>();
+      for (int i = firstNotBefore(earliestDepartureTime); i < byStartTime.length; i++) {
+        if (startTime(i).isAfter(latestDepartureTime)) {
+          break;
+        }
+        matches.add(byStartTime[i]);
+      }
+      matches.sort(Comparator.naturalOrder());
+      return matches.stream().map(itineraries::get).toList();
+    }
+
+    private int firstNotBefore(ZonedDateTime time) {
+      int low = 0;
+      int high = byStartTime.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (startTime(mid).isBefore(time)) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    private ZonedDateTime startTime(int index) {
+      return itineraries.get(byStartTime[index]).startTime();
+    }
+  }
 }
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.GenericLocation;
 import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
 import org.opentripplanner.routing.api.request.request.JourneyRequest;
@@ -26,6 +27,7 @@ public class RouteViaRequest implements Serializable {
   private final RoutingPreferences preferences;
   private final Locale locale;
   private final Integer numItineraries;
+  private final Duration maxSegmentDuration;
 
   private RouteViaRequest(List<ViaLocation> viaLocations, List<JourneyRequest> viaJourneys) {
     if (viaLocations == null || viaLocations.isEmpty()) {
@@ -47,6 +49,7 @@ public class RouteViaRequest implements Serializable {
     this.preferences = new RoutingPreferences();
     this.locale = null;
     this.numItineraries = null;
+    this.maxSegmentDuration = null;
 
     // Last ViaSegment has no ViaLocation
     for (int i = 0; i < viaJourneys.size(); i++) {
@@ -65,6 +68,7 @@ public class RouteViaRequest implements Serializable {
     this.locale = builder.locale;
     this.preferences = Objects.requireNonNull(builder.preferences);
     this.numItineraries = builder.numItineraries;
+    this.maxSegmentDuration = builder.maxSegmentDuration;
   }
 
   public static Builder of(List<ViaLocation> viaLocations, List<JourneyRequest> viaJourneys) {
@@ -123,6 +127,16 @@ public class RouteViaRequest implements Serializable {
     return locale;
   }
 
+  /**
+   * The upper bound of the duration of each segment, used to search all segments in parallel. If
+   * {@code null} the segments are searched one after the other, each starting from the arrivals
+   * of the previous segment.
+   */
+  @Nullable
+  public Duration maxSegmentDuration() {
+    return maxSegmentDuration;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -142,7 +156,8 @@ public class RouteViaRequest implements Serializable {
       wheelchair == other.wheelchair &&
       Objects.equals(locale, other.locale) &&
       preferences.equals(other.preferences) &&
-      Objects.equals(numItineraries, other.numItineraries)
+      Objects.equals(numItineraries, other.numItineraries) &&
+      Objects.equals(maxSegmentDuration, other.maxSegmentDuration)
     );
   }
 
@@ -157,7 +172,8 @@ public class RouteViaRequest implements Serializable {
       wheelchair,
       locale,
       preferences,
-      numItineraries
+      numItineraries,
+      maxSegmentDuration
     );
   }
 
@@ -172,6 +188,7 @@ public class RouteViaRequest implements Serializable {
     private boolean wheelchair;
     private RoutingPreferences preferences;
     private Integer numItineraries;
+    private Duration maxSegmentDuration;
 
     public Builder(RouteViaRequest original) {
       this.from = original.from;
@@ -182,6 +199,7 @@ public class RouteViaRequest implements Serializable {
       this.preferences = original.preferences;
       this.viaSegments = original.viaSegments;
       this.numItineraries = original.numItineraries;
+      this.maxSegmentDuration = original.maxSegmentDuration;
     }
 
     public RouteViaRequest build() {
@@ -227,6 +245,11 @@ public class RouteViaRequest implements Serializable {
       this.numItineraries = numItineraries;
       return this;
     }
+
+    public Builder withMaxSegmentDuration(Duration maxSegmentDuration) {
+      this.maxSegmentDuration = maxSegmentDuration;
+      return this;
+    }
   }
 
   /**
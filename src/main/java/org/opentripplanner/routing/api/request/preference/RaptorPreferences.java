@@ -26,6 +26,7 @@ public final class RaptorPreferences implements Serializable {
   public static final RaptorPreferences DEFAULT = new RaptorPreferences();
   private static final double MIN_RELAX_COST_AT_DESTINATION = 1.0;
   private static final double MAX_RELAX_COST_AT_DESTINATION = 2.0;
+  private static final int MAX_SEARCH_WINDOW_THREADS = 64;
 
   private final Set<Optimization> optimizations;
 
@@ -37,12 +38,15 @@ public final class RaptorPreferences implements Serializable {
 
   private final Double relaxGeneralizedCostAtDestination;
 
+  private final int searchWindowThreads;
+
   private RaptorPreferences() {
     this.optimizations = EnumSet.of(Optimization.PARETO_CHECK_AGAINST_DESTINATION);
     this.profile = RaptorProfile.MULTI_CRITERIA;
     this.searchDirection = SearchDirection.FORWARD;
     this.timeLimit = null;
     this.relaxGeneralizedCostAtDestination = null;
+    this.searchWindowThreads = 1;
   }
 
   private RaptorPreferences(RaptorPreferences.Builder builder) {
@@ -57,6 +61,8 @@ public final class RaptorPreferences implements Serializable {
         MIN_RELAX_COST_AT_DESTINATION,
         MAX_RELAX_COST_AT_DESTINATION
       );
+    this.searchWindowThreads =
+      Math.max(1, Units.count(builder.searchWindowThreads, MAX_SEARCH_WINDOW_THREADS));
   }
 
   public static Builder of() {
@@ -95,6 +101,14 @@ public final class RaptorPreferences implements Serializable {
     return Optional.ofNullable(relaxGeneralizedCostAtDestination);
   }
 
+  /**
+   * See {@link org.opentripplanner.raptor.api.request.SearchParams#searchWindowThreads()} for
+   * documentation.
+   */
+  public int searchWindowThreads() {
+    return searchWindowThreads;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -110,7 +124,8 @@ public final class RaptorPreferences implements Serializable {
       profile == that.profile &&
       searchDirection == that.searchDirection &&
       Objects.equals(timeLimit, that.timeLimit) &&
-      Objects.equals(relaxGeneralizedCostAtDestination, that.relaxGeneralizedCostAtDestination)
+      Objects.equals(relaxGeneralizedCostAtDestination, that.relaxGeneralizedCostAtDestination) &&
+      searchWindowThreads == that.searchWindowThreads
     );
   }
 
@@ -121,7 +136,8 @@ public final class RaptorPreferences implements Serializable {
       profile,
       searchDirection,
       timeLimit,
-      relaxGeneralizedCostAtDestination
+      relaxGeneralizedCostAtDestination,
+      searchWindowThreads
     );
   }
 
@@ -139,6 +155,7 @@ public final class RaptorPreferences implements Serializable {
         relaxGeneralizedCostAtDestination,
         DEFAULT.relaxGeneralizedCostAtDestination
       )
+      .addNum("searchWindowThreads", searchWindowThreads, DEFAULT.searchWindowThreads)
       .toString();
   }
 
@@ -151,6 +168,7 @@ public final class RaptorPreferences implements Serializable {
     private Set<Optimization> optimizations;
     private Instant timeLimit;
     private Double relaxGeneralizedCostAtDestination;
+    private int searchWindowThreads;
 
     public Builder(RaptorPreferences original) {
       this.original = original;
@@ -159,6 +177,7 @@ public final class RaptorPreferences implements Serializable {
       this.optimizations = null;
       this.timeLimit = original.timeLimit;
       this.relaxGeneralizedCostAtDestination = original.relaxGeneralizedCostAtDestination;
+      this.searchWindowThreads = original.searchWindowThreads;
     }
 
     public Builder withOptimizations(Collection<Optimization> optimizations) {
@@ -191,6 +210,11 @@ public final class RaptorPreferences implements Serializable {
       return this;
     }
 
+    public Builder withSearchWindowThreads(int searchWindowThreads) {
+      this.searchWindowThreads = searchWindowThreads;
+      return this;
+    }
+
     public RaptorPreferences build() {
       var value = new RaptorPreferences(this);
       return original.equals(value) ? original : value;
@@ -1,6 +1,7 @@
 package org.opentripplanner.routing.api.request.request;
 
 import java.io.Serializable;
+import java.util.Objects;
 import org.opentripplanner.routing.api.request.RequestModes;
 
 // TODO VIA: Javadoc
@@ -77,4 +78,25 @@ public class JourneyRequest implements Cloneable, Serializable {
       throw new RuntimeException(e);
     }
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    JourneyRequest that = (JourneyRequest) o;
+    return (
+      rental.equals(that.rental) &&
+      parking.equals(that.parking) &&
+      transit.equals(that.transit) &&
+      access.equals(that.access) &&
+      egress.equals(that.egress) &&
+      transfer.equals(that.transfer) &&
+      direct.equals(that.direct)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(rental, parking, transit, access, egress, transfer, direct);
+  }
 }
@@ -1,6 +1,7 @@
 package org.opentripplanner.routing.api.request.request;
 
 import java.io.Serializable;
+import java.util.Objects;
 import org.opentripplanner.routing.api.request.StreetMode;
 
 // TODO VIA: Javadoc
@@ -33,4 +34,17 @@ public class StreetRequest implements Cloneable, Serializable {
       throw new RuntimeException(e);
     }
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    StreetRequest that = (StreetRequest) o;
+    return mode == that.mode;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(mode);
+  }
 }
@@ -3,6 +3,7 @@ package org.opentripplanner.routing.api.request.request;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import org.opentripplanner.model.modes.ExcludeAllTransitFilter;
 import org.opentripplanner.routing.api.request.DebugRaptor;
 import org.opentripplanner.routing.api.request.request.filter.AllowAllTransitFilter;
@@ -170,4 +171,35 @@ public class TransitRequest implements Cloneable, Serializable {
   public void disable() {
     this.filters = List.of(ExcludeAllTransitFilter.of());
   }
+
+  /**
+   * The {@link #raptorDebugging()} is not part of the equality, the debug settings do not change
+   * the result of the search.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    TransitRequest that = (TransitRequest) o;
+    return (
+      bannedTrips.equals(that.bannedTrips) &&
+      filters.equals(that.filters) &&
+      preferredAgencies.equals(that.preferredAgencies) &&
+      unpreferredAgencies.equals(that.unpreferredAgencies) &&
+      preferredRoutes.equals(that.preferredRoutes) &&
+      unpreferredRoutes.equals(that.unpreferredRoutes)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+      bannedTrips,
+      filters,
+      preferredAgencies,
+      unpreferredAgencies,
+      preferredRoutes,
+      unpreferredRoutes
+    );
+  }
 }
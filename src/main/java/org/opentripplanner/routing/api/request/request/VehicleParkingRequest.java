@@ -1,6 +1,7 @@
 package org.opentripplanner.routing.api.request.request;
 
 import java.io.Serializable;
+import java.util.Objects;
 import org.opentripplanner.routing.api.request.request.filter.VehicleParkingFilterRequest;
 
 /**
@@ -65,4 +66,22 @@ public class VehicleParkingRequest implements Cloneable, Serializable {
   public VehicleParkingFilterRequest filter() {
     return filter;
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    VehicleParkingRequest that = (VehicleParkingRequest) o;
+    return (
+      unpreferredTagCost == that.unpreferredTagCost &&
+      useAvailabilityInformation == that.useAvailabilityInformation &&
+      filter.equals(that.filter) &&
+      preferred.equals(that.preferred)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(filter, preferred, unpreferredTagCost, useAvailabilityInformation);
+  }
 }
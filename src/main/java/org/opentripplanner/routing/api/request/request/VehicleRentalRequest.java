@@ -2,6 +2,7 @@ package org.opentripplanner.routing.api.request.request;
 
 import java.io.Serializable;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import org.opentripplanner.routing.api.request.preference.VehicleRentalPreferences;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalStation;
@@ -63,4 +64,21 @@ public class VehicleRentalRequest implements Cloneable, Serializable {
       throw new RuntimeException(e);
     }
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    VehicleRentalRequest that = (VehicleRentalRequest) o;
+    return (
+      allowArrivingInRentedVehicleAtDestination == that.allowArrivingInRentedVehicleAtDestination &&
+      allowedNetworks.equals(that.allowedNetworks) &&
+      bannedNetworks.equals(that.bannedNetworks)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(allowedNetworks, bannedNetworks, allowArrivingInRentedVehicleAtDestination);
+  }
 }
@@ -1,7 +1,9 @@
 package org.opentripplanner.routing.api.request.request.filter;
 
 import java.io.Serializable;
+import java.util.BitSet;
 import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.network.TripPatternAttributeIndex;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 
 /**
@@ -22,6 +24,11 @@ public class AllowAllTransitFilter implements Serializable, TransitFilter {
     return true;
   }
 
+  @Override
+  public BitSet matchTripPatterns(TripPatternAttributeIndex index) {
+    return index.allPatterns();
+  }
+
   @Override
   public boolean matchTripTimes(TripTimes trip) {
     return true;
@@ -2,14 +2,17 @@ package org.opentripplanner.routing.api.request.request.filter;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.model.modes.AllowTransitModeFilter;
 import org.opentripplanner.transit.model.basic.MainAndSubMode;
 import org.opentripplanner.transit.model.framework.AbstractTransitEntity;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.network.TripPatternAttributeIndex;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 
 public class SelectRequest implements Serializable {
@@ -72,6 +75,29 @@ public class SelectRequest implements Serializable {
     return true;
   }
 
+  /**
+   * Same as {@link #matches(TripPattern)}, but match all patterns in the given index at once.
+   */
+  public BitSet matchTripPatterns(TripPatternAttributeIndex index) {
+    BitSet result = transportModeFilter == null
+      ? index.allPatterns()
+      : index.patternsMatchingMode(transportModeFilter::match);
+
+    if (!agencies.isEmpty()) {
+      result.and(index.patternsForAgencies(agencies));
+    }
+
+    if (!routes.isEmpty()) {
+      result.and(index.patternsForRoutes(routes));
+    }
+
+    if (!groupOfRoutes.isEmpty()) {
+      result.and(index.patternsForGroupOfRoutes(groupOfRoutes));
+    }
+
+    return result;
+  }
+
   public boolean matches(TripTimes tripTimes) {
     var trip = tripTimes.getTrip();
 
@@ -127,6 +153,24 @@ public class SelectRequest implements Serializable {
     return MainAndSubMode.toString(transportModes);
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    SelectRequest that = (SelectRequest) o;
+    return (
+      Objects.equals(transportModes, that.transportModes) &&
+      agencies.equals(that.agencies) &&
+      groupOfRoutes.equals(that.groupOfRoutes) &&
+      routes.equals(that.routes)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(transportModes, agencies, groupOfRoutes, routes);
+  }
+
   public static class Builder {
 
     private List<MainAndSubMode> transportModes = new ArrayList<>();
@@ -1,6 +1,9 @@
 package org.opentripplanner.routing.api.request.request.filter;
 
+import java.util.BitSet;
+import javax.annotation.Nullable;
 import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.network.TripPatternAttributeIndex;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 
 public interface TransitFilter {
@@ -9,6 +12,17 @@ public interface TransitFilter {
    */
   boolean matchTripPattern(TripPattern tripPattern);
 
+  /**
+   * Return the set of pattern indexes in the given index matching this filter. This must give the
+   * same result as calling {@link #matchTripPattern(TripPattern)} for each indexed pattern. Return
+   * {@code null} if the filter does not support the index, then the patterns are matched one by
+   * one.
+   */
+  @Nullable
+  default BitSet matchTripPatterns(TripPatternAttributeIndex index) {
+    return null;
+  }
+
   /**
    * Return false is tripTimes are banned, otherwise return true
    */
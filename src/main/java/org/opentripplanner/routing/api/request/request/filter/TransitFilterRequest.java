@@ -3,10 +3,12 @@ package org.opentripplanner.routing.api.request.request.filter;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.network.TripPatternAttributeIndex;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 
 public class TransitFilterRequest implements Serializable, TransitFilter {
@@ -81,6 +83,25 @@ public class TransitFilterRequest implements Serializable, TransitFilter {
     return true;
   }
 
+  @Override
+  public BitSet matchTripPatterns(TripPatternAttributeIndex index) {
+    BitSet result;
+    if (select.length != 0) {
+      result = new BitSet();
+      for (SelectRequest s : select) {
+        result.or(s.matchTripPatterns(index));
+      }
+    } else {
+      result = index.allPatterns();
+    }
+
+    for (SelectRequest s : not) {
+      result.andNot(s.matchTripPatterns(index));
+    }
+
+    return result;
+  }
+
   @Override
   public boolean matchTripTimes(TripTimes tripTimes) {
     if (select.length != 0) {
@@ -114,6 +135,19 @@ public class TransitFilterRequest implements Serializable, TransitFilter {
       .toString();
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    TransitFilterRequest that = (TransitFilterRequest) o;
+    return Arrays.equals(select, that.select) && Arrays.equals(not, that.not);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(select) + Arrays.hashCode(not);
+  }
+
   public static class Builder {
 
     private final List<SelectRequest> select = new ArrayList<>();
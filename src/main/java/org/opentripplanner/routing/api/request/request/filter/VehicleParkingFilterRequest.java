@@ -69,4 +69,17 @@ public class VehicleParkingFilterRequest {
   private static VehicleParkingFilter[] makeFilter(Collection<VehicleParkingFilter> select) {
     return select.stream().filter(f -> !f.isEmpty()).toArray(VehicleParkingFilter[]::new);
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    VehicleParkingFilterRequest that = (VehicleParkingFilterRequest) o;
+    return Arrays.equals(not, that.not) && Arrays.equals(select, that.select);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(not) + Arrays.hashCode(select);
+  }
 }
@@ -10,6 +10,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.prefs.Preferences;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -114,6 +116,13 @@ public class Graph implements Serializable {
   public DataOverlayParameterBindings dataOverlayParameterBindings;
   private LuceneIndex luceneIndex;
 
+  /**
+   * Listeners notified when a realtime updater changes the graph. These are not serialized, they
+   * are registered when the server is constructed.
+   */
+  private final transient List<Consumer<Collection<Envelope>>> realtimeUpdateListeners =
+    new CopyOnWriteArrayList<>();
+
   @Inject
   public Graph(
     Deduplicator deduplicator,
@@ -365,6 +374,38 @@ public class Graph implements Serializable {
     this.luceneIndex = luceneIndex;
   }
 
+  /**
+   * Register a listener which is called with the affected areas each time a realtime updater (like
+   * the vehicle rental or vehicle parking updaters) changes the graph.
+   */
+  public void addRealtimeUpdateListener(Consumer<Collection<Envelope>> listener) {
+    realtimeUpdateListeners.add(listener);
+  }
+
+  /**
+   * Notify the listeners that the graph has changed within the given envelopes, one for each
+   * changed place. This is called by the realtime updaters from the graph writer thread.
+   */
+  public void notifyRealtimeUpdate(Collection<Envelope> affectedAreas) {
+    if (affectedAreas.isEmpty()) {
+      return;
+    }
+    for (var listener : realtimeUpdateListeners) {
+      listener.accept(affectedAreas);
+    }
+  }
+
+  /**
+   * Make the realtime edges linked and removed by a realtime update visible to new requests, as
+   * one new version of the realtime edge index. This is called by the graph writer after each
+   * realtime update.
+   */
+  public void publishRealtimeEdges() {
+    if (streetIndex != null) {
+      streetIndex.getVertexLinker().publishRealtimeChanges();
+    }
+  }
+
   private void indexIfNotIndexed(StopModel stopModel) {
     if (streetIndex == null) {
       index(stopModel);
@@ -1,9 +1,14 @@
 package org.opentripplanner.routing.graph.index;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
+import org.opentripplanner.framework.geometry.PackedRTree;
 import org.opentripplanner.routing.linking.Scope;
 import org.opentripplanner.street.model.edge.Edge;
 
@@ -14,14 +19,15 @@ import org.opentripplanner.street.model.edge.Edge;
  * the permanent index and inserts into the realtime index REQUEST: Looks at both the permanent and
  * realtime indexes and does not insert into any index
  * <p>
- * NOTES ON CONCURRENCY: It is possible that an A Star search would find an edge in the
- * realTimeIndex which is then removed before the actual routing starts. This could result in a
- * NullPointerException on the from/to vertex of the Edge being routed on. This happens seldom
- * enough that we have not accounted for it.
+ * NOTES ON CONCURRENCY: The realtime edges are kept in a versioned {@link RealtimeEdgeIndex}.
+ * Each realtime update is published as one immutable snapshot after the graph writer has applied
+ * it, and a request pins one snapshot while linking its origin and destination, see
+ * {@link #realtimeSnapshot()}. Readers do not need any locks, and an edge found in the pinned
+ * snapshot may already be removed from the graph by a later update. Such edges have no from/to
+ * vertices, and are skipped by the linker.
  * <p>
- * A simple way to solve this, if needed, would be to just rerun the search in case on an exception.
- * A more complete solution would have to take into account concurrency not only for the spatial
- * index, but for the entire street graph, as an edge could be removed in the middle of routing.
+ * Edges could still be removed in the middle of routing. A complete solution would have to take
+ * into account concurrency for the entire street graph, not only for the spatial index.
  * <p>
  * It is also worth noting that the entire reason we have the realTimeIndex in the first place is so
  * that the origin/destination coordinates of a search can connect directly to the edges being split
@@ -29,40 +35,145 @@ import org.opentripplanner.street.model.edge.Edge;
  * edge then back again to where the realtime element was connected.
  * <p>
  * See #3351
+ * <p>
+ * The permanent edges are packed in a read-optimized {@link PackedRTree} when the index is
+ * compacted, after the street graph is indexed. Permanent edges inserted or removed later, while
+ * linking stops and other vertices during the graph build, are kept in a small mutable index until
+ * the next compaction.
  */
 public class EdgeSpatialIndex {
 
-  private final HashGridSpatialIndex<Edge> permanentEdgeIndex = new HashGridSpatialIndex<>();
+  /**
+   * The permanent edges, packed in a read-optimized tree by {@link #compact()}. The tree is
+   * immutable, edges inserted or removed after it is packed are kept in {@link #permanentDelta}
+   * and {@link #permanentRemoved} until the next compaction.
+   */
+  private PackedRTree<Edge> permanentEdgeTree = PackedRTree.<Edge>of().build();
+
+  /** Permanent edges inserted after the tree was packed, indexed for querying. */
+  private HashGridSpatialIndex<Edge> permanentDelta = new HashGridSpatialIndex<>();
+
+  /**
+   * The envelopes of the edges in the {@link #permanentDelta}, used when repacking the tree. Before
+   * the first compaction this holds all permanent edges, so a new empty map is created when the
+   * edges are packed.
+   */
+  private Map<Edge, Envelope> permanentDeltaEnvelopes = new LinkedHashMap<>();
 
-  private final HashGridSpatialIndex<Edge> realTimeEdgeIndex = new HashGridSpatialIndex<>();
+  /** Permanent edges in the tree which are removed after the tree was packed. */
+  private Set<Edge> permanentRemoved = new HashSet<>();
+
+  private final RealtimeEdgeIndex realTimeEdgeIndex = new RealtimeEdgeIndex();
 
   public void insert(LineString lineString, Object obj, Scope scope) {
     switch (scope) {
-      case PERMANENT -> permanentEdgeIndex.insert(lineString, obj);
-      case REALTIME -> realTimeEdgeIndex.insert(lineString, obj);
+      case PERMANENT -> insertPermanent(lineString, (Edge) obj);
+      case REALTIME -> realTimeEdgeIndex.insert(lineString.getEnvelopeInternal(), (Edge) obj);
       case REQUEST -> throw new IllegalArgumentException();
     }
   }
 
   public void remove(Envelope envelope, final Object item, Scope scope) {
     switch (scope) {
-      case PERMANENT -> permanentEdgeIndex.remove(envelope, item);
-      case REALTIME -> realTimeEdgeIndex.remove(envelope, item);
+      case PERMANENT -> removePermanent(envelope, (Edge) item);
+      case REALTIME -> realTimeEdgeIndex.remove((Edge) item);
       case REQUEST -> throw new IllegalArgumentException();
     }
   }
 
   public final Stream<Edge> query(Envelope envelope, Scope scope) {
+    return query(envelope, scope, realtimeSnapshot());
+  }
+
+  /**
+   * Query the index, using the given version of the realtime edges for the REQUEST scope.
+   */
+  public final Stream<Edge> query(
+    Envelope envelope,
+    Scope scope,
+    RealtimeEdgeIndex.Snapshot realtimeSnapshot
+  ) {
     return switch (scope) {
-      case PERMANENT, REALTIME -> permanentEdgeIndex.query(envelope).stream();
-      case REQUEST -> Stream.concat(
-        permanentEdgeIndex.query(envelope).stream(),
-        realTimeEdgeIndex.query(envelope).stream()
-      );
+      case PERMANENT, REALTIME -> queryPermanent(envelope);
+      case REQUEST -> Stream.concat(queryPermanent(envelope), realtimeSnapshot.query(envelope));
     };
   }
 
+  /**
+   * Return the latest published version of the realtime edges.
+   */
+  public RealtimeEdgeIndex.Snapshot realtimeSnapshot() {
+    return realTimeEdgeIndex.snapshot();
+  }
+
+  /**
+   * Make the realtime edges inserted and removed since the last call visible to new readers.
+   */
+  public void publishRealtimeChanges() {
+    realTimeEdgeIndex.publish();
+  }
+
+  /**
+   * Pack all permanent edges, including the edges inserted since the last compaction, in a new
+   * tree.
+   */
   public void compact() {
-    permanentEdgeIndex.compact();
+    if (permanentDeltaEnvelopes.isEmpty() && permanentRemoved.isEmpty()) {
+      return;
+    }
+    var builder = PackedRTree.<Edge>of();
+    permanentEdgeTree.forEach((env, edge) -> {
+      if (!permanentRemoved.contains(edge)) {
+        builder.add(env, edge);
+      }
+    });
+    permanentDeltaEnvelopes.forEach((edge, env) -> builder.add(env, edge));
+    permanentEdgeTree = builder.build();
+
+    // Replace the delta collections, clearing them would keep their allocated capacity
+    permanentDelta = new HashGridSpatialIndex<>();
+    permanentDeltaEnvelopes = new LinkedHashMap<>();
+    permanentRemoved = new HashSet<>();
+  }
+
+  @Override
+  public String toString() {
+    return (
+      getClass().getSimpleName() +
+      "{permanent: " +
+      permanentEdgeTree +
+      ", inserted: " +
+      permanentDeltaEnvelopes.size() +
+      ", removed: " +
+      permanentRemoved.size() +
+      ", realtime: " +
+      realTimeEdgeIndex +
+      "}"
+    );
+  }
+
+  private void insertPermanent(LineString lineString, Edge edge) {
+    permanentDelta.insert(lineString, edge);
+    permanentDeltaEnvelopes.put(edge, lineString.getEnvelopeInternal());
+  }
+
+  private void removePermanent(Envelope envelope, Edge edge) {
+    var deltaEnvelope = permanentDeltaEnvelopes.remove(edge);
+    if (deltaEnvelope != null) {
+      permanentDelta.remove(deltaEnvelope, edge);
+    } else {
+      permanentRemoved.add(edge);
+    }
+  }
+
+  private Stream<Edge> queryPermanent(Envelope envelope) {
+    Stream<Edge> packed = permanentEdgeTree.query(envelope).stream();
+    if (!permanentRemoved.isEmpty()) {
+      packed = packed.filter(e -> !permanentRemoved.contains(e));
+    }
+    if (permanentDeltaEnvelopes.isEmpty()) {
+      return packed;
+    }
+    return Stream.concat(packed, permanentDelta.query(envelope).stream());
   }
 }
@@ -0,0 +1,162 @@
+package org.opentripplanner.routing.graph.index;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.geometry.PackedRTree;
+import org.opentripplanner.street.model.edge.Edge;
+
+/**
+ * A versioned spatial index of the edges added by realtime updates, like the edges linking vehicle
+ * rental stations and vehicle parking to the street graph.
+ * <p>
+ * Updaters insert and remove edges, and then {@link #publish()} the changes as a new immutable
+ * {@link Snapshot}, once for each realtime update. Readers get the latest published snapshot with
+ * {@link #snapshot()}, and may keep using it for as long as they need. A request pins one
+ * snapshot, so all queries done while linking the request see the same set of edges, even if an
+ * updater publishes a new version in the meantime.
+ * <p>
+ * A snapshot consists of a {@link PackedRTree} with all edges, and a small tree of the edges
+ * inserted and a set of the edges removed since the large tree was packed. Publishing packs the
+ * small tree and copies the removed edges only, the large tree is shared between snapshots until
+ * the changes exceed a fraction of its size and it is repacked.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE. Readers do not need any locks, the updates are synchronized.
+ */
+public class RealtimeEdgeIndex {
+
+  /** Repack the tree when the number of changes exceed this, or a fraction of the tree size. */
+  private static final int MIN_CHANGES_BEFORE_REPACK = 256;
+
+  private PackedRTree<Edge> tree = PackedRTree.<Edge>of().build();
+  private final Map<Edge, Envelope> inserted = new LinkedHashMap<>();
+  private final Set<Edge> removed = new HashSet<>();
+  private boolean modified = false;
+
+  private volatile Snapshot snapshot = new Snapshot(0, tree, tree, Set.of());
+
+  /**
+   * Return the latest published version of the index.
+   */
+  public Snapshot snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Insert an edge. The edge is not visible to readers before the change is published.
+   */
+  public synchronized void insert(Envelope envelope, Edge edge) {
+    inserted.put(edge, envelope);
+    modified = true;
+  }
+
+  /**
+   * Remove an edge. The edge is visible to readers until the change is published, and to readers
+   * holding an older snapshot after that.
+   */
+  public synchronized void remove(Edge edge) {
+    if (inserted.remove(edge) == null) {
+      removed.add(edge);
+    }
+    modified = true;
+  }
+
+  /**
+   * Publish all changes since the last call as a new version of the index.
+   */
+  public synchronized void publish() {
+    if (!modified) {
+      return;
+    }
+    if (inserted.size() + removed.size() > Math.max(MIN_CHANGES_BEFORE_REPACK, tree.size() / 8)) {
+      repack();
+    }
+    var insertedTree = PackedRTree.<Edge>of();
+    inserted.forEach((edge, env) -> insertedTree.add(env, edge));
+    snapshot =
+      new Snapshot(snapshot.version() + 1, tree, insertedTree.build(), Set.copyOf(removed));
+    modified = false;
+  }
+
+  @Override
+  public String toString() {
+    return snapshot.toString();
+  }
+
+  private void repack() {
+    var builder = PackedRTree.<Edge>of();
+    tree.forEach((env, edge) -> {
+      if (!removed.contains(edge)) {
+        builder.add(env, edge);
+      }
+    });
+    inserted.forEach((edge, env) -> builder.add(env, edge));
+    tree = builder.build();
+    inserted.clear();
+    removed.clear();
+  }
+
+  /**
+   * An immutable version of the realtime edge index.
+   */
+  public static final class Snapshot {
+
+    private final long version;
+    private final PackedRTree<Edge> tree;
+    private final PackedRTree<Edge> inserted;
+    private final Set<Edge> removed;
+
+    private Snapshot(
+      long version,
+      PackedRTree<Edge> tree,
+      PackedRTree<Edge> inserted,
+      Set<Edge> removed
+    ) {
+      this.version = version;
+      this.tree = tree;
+      this.inserted = inserted;
+      this.removed = removed;
+    }
+
+    /**
+     * The version is incremented each time changes are published.
+     */
+    public long version() {
+      return version;
+    }
+
+    public int size() {
+      return tree.size() - removed.size() + inserted.size();
+    }
+
+    /**
+     * Return all edges with an envelope intersecting the given envelope.
+     */
+    public Stream<Edge> query(Envelope envelope) {
+      Stream<Edge> result = tree.query(envelope).stream();
+      if (!removed.isEmpty()) {
+        result = result.filter(e -> !removed.contains(e));
+      }
+      if (inserted.size() == 0) {
+        return result;
+      }
+      return Stream.concat(result, inserted.query(envelope).stream());
+    }
+
+    @Override
+    public String toString() {
+      return (
+        "RealtimeEdgeIndex.Snapshot{version: " +
+        version +
+        ", edges: " +
+        size() +
+        ", packed: " +
+        tree +
+        "}"
+      );
+    }
+  }
+}
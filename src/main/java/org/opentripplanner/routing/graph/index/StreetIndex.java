@@ -179,6 +179,27 @@ public class StreetIndex {
     StreetMode streetMode,
     boolean endVertex,
     Set<DisposableEdgeCollection> tempEdges
+  ) {
+    return getVerticesForLocation(
+      location,
+      streetMode,
+      endVertex,
+      tempEdges,
+      vertexLinker.realtimeSnapshot()
+    );
+  }
+
+  /**
+   * Same as {@link #getVerticesForLocation(GenericLocation, StreetMode, boolean, Set)}, but link
+   * to the given version of the realtime edges. Use the same version for the origin and the
+   * destination of a request, see {@link VertexLinker#realtimeSnapshot()}.
+   */
+  public Set<Vertex> getVerticesForLocation(
+    GenericLocation location,
+    StreetMode streetMode,
+    boolean endVertex,
+    Set<DisposableEdgeCollection> tempEdges,
+    RealtimeEdgeIndex.Snapshot realtimeSnapshot
   ) {
     // Differentiate between driving and non-driving, as driving is not available from transit stops
     TraverseMode nonTransitMode = getTraverseModeForLinker(streetMode, endVertex);
@@ -209,7 +230,9 @@ public class StreetIndex {
 
     // Check if coordinate is provided and connect it to graph
     if (location.getCoordinate() != null) {
-      return Set.of(createVertexFromLocation(location, streetMode, endVertex, tempEdges));
+      return Set.of(
+        createVertexFromLocation(location, streetMode, endVertex, tempEdges, realtimeSnapshot)
+      );
     }
 
     return null;
@@ -241,7 +264,13 @@ public class StreetIndex {
     if (location.getCoordinate() == null) {
       return null;
     }
-    return createVertexFromLocation(location, streetMode, endVertex, tempEdges);
+    return createVertexFromLocation(
+      location,
+      streetMode,
+      endVertex,
+      tempEdges,
+      vertexLinker.realtimeSnapshot()
+    );
   }
 
   /**
@@ -332,7 +361,8 @@ public class StreetIndex {
     GenericLocation location,
     StreetMode streetMode,
     boolean endVertex,
-    Set<DisposableEdgeCollection> tempEdges
+    Set<DisposableEdgeCollection> tempEdges,
+    RealtimeEdgeIndex.Snapshot realtimeSnapshot
   ) {
     if (endVertex) {
       LOG.debug("Finding end vertex for {}", location);
@@ -369,7 +399,8 @@ public class StreetIndex {
           ? (vertex, streetVertex) ->
             List.of(new TemporaryFreeEdge(streetVertex, (TemporaryStreetLocation) vertex))
           : (vertex, streetVertex) ->
-            List.of(new TemporaryFreeEdge((TemporaryStreetLocation) vertex, streetVertex))
+            List.of(new TemporaryFreeEdge((TemporaryStreetLocation) vertex, streetVertex)),
+        realtimeSnapshot
       )
     );
 
@@ -1,11 +1,14 @@
 package org.opentripplanner.routing.linking;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
@@ -18,9 +21,11 @@ import org.locationtech.jts.linearref.LocationIndexedLine;
 import org.locationtech.jts.operation.distance.DistanceOp;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.index.EdgeSpatialIndex;
+import org.opentripplanner.routing.graph.index.RealtimeEdgeIndex;
 import org.opentripplanner.street.model.edge.AreaEdge;
 import org.opentripplanner.street.model.edge.AreaEdgeList;
 import org.opentripplanner.street.model.edge.Edge;
@@ -76,6 +81,12 @@ public class VertexLinker {
   // TODO Temporary code until we refactor WalkableAreaBuilder  (#3152)
   private Boolean addExtraEdgesToAreas = true;
 
+  /**
+   * The envelopes of the permanent edges split while linking vertices in parallel, see
+   * {@link #linkVerticesPermanently}. This is {@code null} when not linking in parallel.
+   */
+  private HashGridSpatialIndex<Envelope> splitEnvelopes = null;
+
   /**
    * Construct a new VertexLinker. NOTE: Only one VertexLinker should be active on a graph at any
    * given time.
@@ -92,16 +103,70 @@ public class VertexLinker {
     LinkingDirection direction,
     BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
   ) {
-    link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction);
+    link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction, realtimeSnapshot());
+  }
+
+  /**
+   * Link the vertices permanently, with the same result as calling
+   * {@link #linkVertexPermanently} for each vertex in the given order.
+   * <p>
+   * The closest street edges of all vertices are found in parallel, before any edge is split. The
+   * vertices are then linked one at the time, in the given order. Splitting an edge replaces it
+   * with new edges, so a vertex is searched again if an edge within its search envelope was split
+   * when linking an earlier vertex.
+   *
+   * @param linked called after each vertex is linked, for example to track progress
+   */
+  public <T extends Vertex> void linkVerticesPermanently(
+    List<T> vertices,
+    Function<T, TraverseModeSet> traverseModes,
+    LinkingDirection direction,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    Consumer<T> linked
+  ) {
+    var snapshot = realtimeSnapshot();
+
+    // The permanent index is not changed while searching, so the searches can run in parallel
+    List<ClosestEdges> closestEdges = vertices
+      .parallelStream()
+      .map(v -> findClosestEdges(v, traverseModes.apply(v), Scope.PERMANENT, snapshot))
+      .toList();
+
+    splitEnvelopes = new HashGridSpatialIndex<>();
+    try {
+      for (int i = 0; i < vertices.size(); i++) {
+        T vertex = vertices.get(i);
+        ClosestEdges closest = closestEdges.get(i);
+        if (isSplitWithin(closest.searchEnvelope())) {
+          var modes = traverseModes.apply(vertex);
+          closest = findClosestEdges(vertex, modes, Scope.PERMANENT, snapshot);
+        }
+        linkToClosestEdges(vertex, closest, direction, Scope.PERMANENT, edgeFunction, null);
+        linked.accept(vertex);
+      }
+    } finally {
+      splitEnvelopes = null;
+    }
+  }
+
+  private boolean isSplitWithin(Envelope searchEnvelope) {
+    return splitEnvelopes
+      .query(searchEnvelope)
+      .stream()
+      .anyMatch(envelope -> envelope.intersects(searchEnvelope));
   }
 
+  /**
+   * Link the vertex to the street graph. The realtime edges created are not visible to requests
+   * before they are published, see {@link #publishRealtimeChanges()}.
+   */
   public DisposableEdgeCollection linkVertexForRealTime(
     Vertex vertex,
     TraverseModeSet traverseModes,
     LinkingDirection direction,
     BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
   ) {
-    return link(vertex, traverseModes, direction, Scope.REALTIME, edgeFunction);
+    return link(vertex, traverseModes, direction, Scope.REALTIME, edgeFunction, realtimeSnapshot());
   }
 
   public DisposableEdgeCollection linkVertexForRequest(
@@ -110,16 +175,63 @@ public class VertexLinker {
     LinkingDirection direction,
     BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
   ) {
-    return link(vertex, traverseModes, direction, Scope.REQUEST, edgeFunction);
+    return linkVertexForRequest(
+      vertex,
+      traverseModes,
+      direction,
+      edgeFunction,
+      realtimeSnapshot()
+    );
+  }
+
+  /**
+   * Link the vertex to the street graph, using the given version of the realtime edges. Use the
+   * same version for all vertices linked for a request, see {@link #realtimeSnapshot()}.
+   */
+  public DisposableEdgeCollection linkVertexForRequest(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    LinkingDirection direction,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    RealtimeEdgeIndex.Snapshot realtimeSnapshot
+  ) {
+    return link(vertex, traverseModes, direction, Scope.REQUEST, edgeFunction, realtimeSnapshot);
+  }
+
+  /**
+   * Return the latest published version of the realtime edges. A request should pin one version
+   * while linking its origin and destination.
+   */
+  public RealtimeEdgeIndex.Snapshot realtimeSnapshot() {
+    return edgeSpatialIndex.realtimeSnapshot();
   }
 
   public void removeEdgeFromIndex(Edge edge, Scope scope) {
-    // Edges without geometry will not have been added to the index in the first place
-    if (edge.getGeometry() != null) {
-      edgeSpatialIndex.remove(edge.getGeometry().getEnvelopeInternal(), edge, scope);
+    removeEdgesFromIndex(List.of(edge), scope);
+  }
+
+  /**
+   * Remove the edges from the index. Realtime edges are visible to requests until the removal is
+   * published, see {@link #publishRealtimeChanges()}.
+   */
+  public void removeEdgesFromIndex(Collection<Edge> edges, Scope scope) {
+    for (Edge edge : edges) {
+      // Edges without geometry will not have been added to the index in the first place
+      if (edge.getGeometry() != null) {
+        edgeSpatialIndex.remove(edge.getGeometry().getEnvelopeInternal(), edge, scope);
+      }
     }
   }
 
+  /**
+   * Publish the realtime edges linked and removed since the last call as one new version of the
+   * realtime edge index. This is called once after each realtime update, so a request never sees
+   * a partly applied update.
+   */
+  public void publishRealtimeChanges() {
+    edgeSpatialIndex.publishRealtimeChanges();
+  }
+
   public void removePermanentEdgeFromIndex(Edge edge) {
     removeEdgeFromIndex(edge, Scope.PERMANENT);
   }
@@ -144,6 +256,10 @@ public class VertexLinker {
    * returning edges that have been disconnected from the graph.
    */
   private static boolean edgeReachableFromGraph(Edge edge) {
+    // A realtime edge in the pinned snapshot may be removed from the graph by a later update
+    if (edge.getFromVertex() == null || edge.getToVertex() == null) {
+      return false;
+    }
     boolean edgeReachableFromGraph = edge.getToVertex().getIncoming().contains(edge);
     if (!edgeReachableFromGraph) {
       LOG.error(
@@ -191,6 +307,7 @@ public class VertexLinker {
    * @param direction     The direction of the new edges to be created
    * @param scope         The scope of the split
    * @param edgeFunction  How the provided vertex should be linked into the street graph
+   * @param realtimeSnapshot The version of the realtime edges to link to, used in the REQUEST scope
    * @return A DisposableEdgeCollection with edges created by this method. It is the caller's
    * responsibility to call the dispose method on this object when the edges are no longer needed.
    */
@@ -199,41 +316,16 @@ public class VertexLinker {
     TraverseModeSet traverseModes,
     LinkingDirection direction,
     Scope scope,
-    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    RealtimeEdgeIndex.Snapshot realtimeSnapshot
   ) {
     DisposableEdgeCollection tempEdges = (scope != Scope.PERMANENT)
       ? new DisposableEdgeCollection(graph, scope)
       : null;
 
     try {
-      Set<StreetVertex> streetVertices = linkToStreetEdges(
-        vertex,
-        traverseModes,
-        direction,
-        scope,
-        INITIAL_SEARCH_RADIUS_METERS,
-        tempEdges
-      );
-      if (streetVertices.isEmpty()) {
-        streetVertices =
-          linkToStreetEdges(
-            vertex,
-            traverseModes,
-            direction,
-            scope,
-            MAX_SEARCH_RADIUS_METERS,
-            tempEdges
-          );
-      }
-
-      for (StreetVertex streetVertex : streetVertices) {
-        List<Edge> edges = edgeFunction.apply(vertex, streetVertex);
-        if (tempEdges != null) {
-          for (Edge edge : edges) {
-            tempEdges.addEdge(edge);
-          }
-        }
-      }
+      var closestEdges = findClosestEdges(vertex, traverseModes, scope, realtimeSnapshot);
+      linkToClosestEdges(vertex, closestEdges, direction, scope, edgeFunction, tempEdges);
     } catch (Exception e) {
       if (tempEdges != null) {
         tempEdges.disposeEdges();
@@ -244,13 +336,74 @@ public class VertexLinker {
     return tempEdges;
   }
 
-  private Set<StreetVertex> linkToStreetEdges(
+  /**
+   * Find the closest edges within the initial search radius, or within the max search radius if
+   * there are none. This does not change the graph.
+   */
+  private ClosestEdges findClosestEdges(
     Vertex vertex,
     TraverseModeSet traverseModes,
+    Scope scope,
+    RealtimeEdgeIndex.Snapshot realtimeSnapshot
+  ) {
+    var closestEdges = findClosestEdges(
+      vertex,
+      traverseModes,
+      scope,
+      INITIAL_SEARCH_RADIUS_METERS,
+      realtimeSnapshot
+    );
+    if (closestEdges.edges().isEmpty()) {
+      closestEdges =
+        findClosestEdges(
+          vertex,
+          traverseModes,
+          scope,
+          MAX_SEARCH_RADIUS_METERS,
+          realtimeSnapshot
+        );
+    }
+    return closestEdges;
+  }
+
+  /**
+   * Link the vertex to the closest edges, splitting them if necessary, and create the edges
+   * between the vertex and the street vertices.
+   */
+  private void linkToClosestEdges(
+    Vertex vertex,
+    ClosestEdges closestEdges,
     LinkingDirection direction,
     Scope scope,
-    int radiusMeters,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
     DisposableEdgeCollection tempEdges
+  ) {
+    Set<AreaEdgeList> linkedAreas = new HashSet<>();
+    Set<StreetVertex> streetVertices = closestEdges
+      .edges()
+      .stream()
+      .map(ce ->
+        link(vertex, ce.item, closestEdges.xscale(), scope, direction, tempEdges, linkedAreas)
+      )
+      .filter(v -> v != null)
+      .collect(Collectors.toSet());
+
+    for (StreetVertex streetVertex : streetVertices) {
+      List<Edge> edges = edgeFunction.apply(vertex, streetVertex);
+      if (tempEdges != null) {
+        for (Edge edge : edges) {
+          tempEdges.addEdge(edge);
+        }
+      }
+    }
+  }
+
+  private ClosestEdges findClosestEdges(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    Scope scope,
+    int radiusMeters,
+    RealtimeEdgeIndex.Snapshot realtimeSnapshot
   ) {
     final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
 
@@ -267,7 +420,7 @@ public class VertexLinker {
     // graph. Calculate a distance to each of those edges, and keep only the ones within the search
     // radius.
     List<DistanceTo<StreetEdge>> candidateEdges = edgeSpatialIndex
-      .query(env, scope)
+      .query(env, scope, realtimeSnapshot)
       .filter(StreetEdge.class::isInstance)
       .map(StreetEdge.class::cast)
       .filter(e -> e.canTraverse(traverseModes) && edgeReachableFromGraph(e))
@@ -276,19 +429,10 @@ public class VertexLinker {
       .collect(Collectors.toList());
 
     if (candidateEdges.isEmpty()) {
-      return Set.of();
+      return new ClosestEdges(env, xscale, Set.of());
     }
 
-    Set<DistanceTo<StreetEdge>> closestEdges = getClosestEdgesPerMode(
-      traverseModes,
-      candidateEdges
-    );
-    Set<AreaEdgeList> linkedAreas = new HashSet<>();
-    return closestEdges
-      .stream()
-      .map(ce -> link(vertex, ce.item, xscale, scope, direction, tempEdges, linkedAreas))
-      .filter(v -> v != null)
-      .collect(Collectors.toSet());
+    return new ClosestEdges(env, xscale, getClosestEdgesPerMode(traverseModes, candidateEdges));
   }
 
   /**
@@ -466,6 +610,11 @@ public class VertexLinker {
         // It will be inefficient for very long edges, but creating a new remove method mirroring the more efficient
         // insert logic is not trivial and would require additional testing of the spatial index.
         removeEdgeFromIndex(originalEdge, scope);
+        if (splitEnvelopes != null) {
+          // The new edges are within the envelope of the original edge
+          var envelope = originalEdge.getGeometry().getEnvelopeInternal();
+          splitEnvelopes.insert(envelope, envelope);
+        }
         // remove original edge from the graph
         graph.removeEdge(originalEdge);
       }
@@ -535,6 +684,16 @@ public class VertexLinker {
 
   private record StreetEdgePair(StreetEdge e0, StreetEdge e1) {}
 
+  /**
+   * The closest edges found searching the given envelope, and the scale used to project the
+   * longitude.
+   */
+  private record ClosestEdges(
+    Envelope searchEnvelope,
+    double xscale,
+    Set<DistanceTo<StreetEdge>> edges
+  ) {}
+
   /**
    * Link a new vertex permanently with area geometry
    */
@@ -28,8 +28,13 @@ public class DefaultRoutingService implements RoutingService {
 
   @Override
   public RoutingResponse route(RouteRequest request) {
-    RoutingWorker worker = new RoutingWorker(serverContext, request, timeZone);
-    return worker.route();
+    return serverContext
+      .routingResultCache()
+      .route(
+        request,
+        serverContext.transitService().getRealtimeTransitLayer(),
+        req -> new RoutingWorker(serverContext, req, timeZone).route()
+      );
   }
 
   @Override
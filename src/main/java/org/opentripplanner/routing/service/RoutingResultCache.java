@@ -0,0 +1,182 @@
+package org.opentripplanner.routing.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.function.Function;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.cache.AreaInvalidatedCache;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.Leg;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+
+/**
+ * Cache routing responses for repeated requests, like app polling and map redraws.
+ * <p>
+ * The cache key is a normalized copy of the request: the from and to coordinates are snapped to
+ * a grid and the date-time is rounded down to a time bucket, see
+ * {@link RoutingResultCacheParameters}. The request itself is routed unchanged, so the response
+ * matches the request which caused the cache miss. All requests with the same normalized request
+ * get this response.
+ * <p>
+ * An entry is invalidated when:
+ * <ul>
+ *   <li>it is older than the time-to-live, or the cache is full,</li>
+ *   <li>
+ *     a new realtime transit data snapshot is committed - the cache is cleared when the
+ *     transit data version passed in changes,
+ *   </li>
+ *   <li>
+ *     a realtime update (vehicle rental, vehicle parking) changes the graph within the area of
+ *     the entry, see {@link #invalidate(Collection)}. The area is the bounding box of the from/to
+ *     place and all itinerary legs.
+ *   </li>
+ * </ul>
+ * Requests using paging or raptor debugging are not cached.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class RoutingResultCache {
+
+  private final RoutingResultCacheParameters parameters;
+  private final AreaInvalidatedCache<RoutingResultCacheKey, Entry> cache;
+
+  private volatile Object transitDataVersion;
+
+  public RoutingResultCache(RoutingResultCacheParameters parameters, MeterRegistry registry) {
+    this.parameters = parameters;
+    this.cache =
+      AreaInvalidatedCache.ofMaxSize(
+        "routing.resultCache",
+        parameters.maxSize(),
+        parameters.timeToLive(),
+        registry
+      );
+  }
+
+  public boolean isEnabled() {
+    return cache.isEnabled();
+  }
+
+  /**
+   * Return the cached response for the given request, or route the request and cache the
+   * response with the normalized request as key.
+   *
+   * @param transitDataVersion an object which changes each time new transit data is committed,
+   *                           compared by identity.
+   * @param router             routes the given request, the given request may be mutated.
+   */
+  public RoutingResponse route(
+    RouteRequest request,
+    Object transitDataVersion,
+    Function<RouteRequest, RoutingResponse> router
+  ) {
+    if (!isCacheable(request)) {
+      return router.apply(request);
+    }
+    if (this.transitDataVersion != transitDataVersion) {
+      cache.invalidateAll();
+      this.transitDataVersion = transitDataVersion;
+    }
+
+    var key = RoutingResultCacheKey.of(normalize(request));
+    var entry = cache.getIfPresent(key);
+
+    if (entry != null && entry.transitDataVersion() == transitDataVersion) {
+      return entry.response();
+    }
+    long token = cache.startComputing();
+    var response = router.apply(request);
+    cache.put(key, new Entry(response, transitDataVersion), area(request, response), token);
+    return response;
+  }
+
+  /**
+   * Remove all entries with an area intersecting any of the given envelopes.
+   */
+  public void invalidate(Collection<Envelope> changedAreas) {
+    cache.invalidate(changedAreas);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  private boolean isCacheable(RouteRequest request) {
+    return (
+      isEnabled() &&
+      request.pageCursor() == null &&
+      !request.journey().transit().raptorDebugging().isEnabled() &&
+      request.from() != null &&
+      request.from().isSpecified() &&
+      request.to() != null &&
+      request.to().isSpecified()
+    );
+  }
+
+  /**
+   * Create a copy of the request with the from/to coordinates snapped to the grid and the
+   * date-time rounded down to the time bucket.
+   */
+  RouteRequest normalize(RouteRequest request) {
+    var normalized = request.clone();
+    normalized.setFrom(snapToGrid(request.from()));
+    normalized.setTo(snapToGrid(request.to()));
+
+    long bucket = parameters.timeBucket().toSeconds();
+    if (bucket > 0) {
+      long time = request.dateTime().getEpochSecond();
+      normalized.setDateTime(Instant.ofEpochSecond(time - Math.floorMod(time, bucket)));
+    }
+    return normalized;
+  }
+
+  private GenericLocation snapToGrid(GenericLocation location) {
+    if (parameters.gridSize() <= 0 || location.lat == null || location.lng == null) {
+      return location;
+    }
+    double latStep = SphericalDistanceLibrary.metersToDegrees(parameters.gridSize());
+    double lat = Math.round(location.lat / latStep) * latStep;
+    double lngStep = SphericalDistanceLibrary.metersToLonDegrees(parameters.gridSize(), lat);
+    double lng = Math.round(location.lng / lngStep) * lngStep;
+    return new GenericLocation(location.label, location.stopId, lat, lng);
+  }
+
+  private static Envelope area(RouteRequest request, RoutingResponse response) {
+    var area = new Envelope();
+    include(area, request.from());
+    include(area, request.to());
+
+    if (response.getTripPlan() != null) {
+      for (Itinerary it : response.getTripPlan().itineraries) {
+        for (Leg leg : it.getLegs()) {
+          include(area, leg.getFrom().coordinate);
+          include(area, leg.getTo().coordinate);
+        }
+      }
+    }
+    return AreaInvalidatedCache.expandArea(area);
+  }
+
+  private static void include(Envelope area, GenericLocation location) {
+    if (location.lat != null && location.lng != null) {
+      area.expandToInclude(location.lng, location.lat);
+    }
+  }
+
+  private static void include(Envelope area, WgsCoordinate c) {
+    if (c != null) {
+      area.expandToInclude(c.longitude(), c.latitude());
+    }
+  }
+
+  private record Entry(RoutingResponse response, Object transitDataVersion) {}
+}
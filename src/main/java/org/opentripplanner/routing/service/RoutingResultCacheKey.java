@@ -0,0 +1,50 @@
+package org.opentripplanner.routing.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.api.request.request.JourneyRequest;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * The key of a {@link RoutingResultCache} entry. The key is created from a normalized request, so
+ * all fields are compared by value. The preferences are immutable, while the journey is copied.
+ */
+record RoutingResultCacheKey(
+  Location from,
+  Location to,
+  Instant dateTime,
+  boolean arriveBy,
+  Duration searchWindow,
+  boolean timetableView,
+  int numItineraries,
+  Locale locale,
+  boolean wheelchair,
+  RoutingPreferences preferences,
+  JourneyRequest journey
+) {
+  static RoutingResultCacheKey of(RouteRequest request) {
+    return new RoutingResultCacheKey(
+      Location.of(request.from()),
+      Location.of(request.to()),
+      request.dateTime(),
+      request.arriveBy(),
+      request.searchWindow(),
+      request.timetableView(),
+      request.numItineraries(),
+      request.locale(),
+      request.wheelchair(),
+      request.preferences(),
+      request.journey().clone()
+    );
+  }
+
+  record Location(String label, FeedScopedId stopId, Double lat, Double lng) {
+    static Location of(GenericLocation location) {
+      return new Location(location.label, location.stopId, location.lat, location.lng);
+    }
+  }
+}
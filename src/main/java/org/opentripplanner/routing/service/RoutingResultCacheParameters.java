@@ -0,0 +1,30 @@
+package org.opentripplanner.routing.service;
+
+import java.time.Duration;
+
+/**
+ * Parameters for the {@link RoutingResultCache}.
+ */
+public interface RoutingResultCacheParameters {
+  /**
+   * The maximum number of responses to keep in the cache. Use {@code 0} to disable the cache.
+   */
+  int maxSize();
+
+  /**
+   * How long a response is kept in the cache after it is computed.
+   */
+  Duration timeToLive();
+
+  /**
+   * The request date-time is rounded down to a multiple of this duration. Requests within the same
+   * bucket share the same cache entry. Use {@link Duration#ZERO} to use the exact time.
+   */
+  Duration timeBucket();
+
+  /**
+   * The size in meters of the grid the from and to coordinates are snapped to. Use {@code 0} to
+   * use the exact coordinates.
+   */
+  int gridSize();
+}
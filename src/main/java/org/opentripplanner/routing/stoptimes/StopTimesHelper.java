@@ -1,9 +1,11 @@
 package org.opentripplanner.routing.stoptimes;
 
 import static org.opentripplanner.routing.stoptimes.ArrivalDeparture.ARRIVALS;
+import static org.opentripplanner.routing.stoptimes.ArrivalDeparture.BOTH;
 import static org.opentripplanner.routing.stoptimes.ArrivalDeparture.DEPARTURES;
 
 import com.google.common.collect.MinMaxPriorityQueue;
+import gnu.trove.set.TIntSet;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -16,6 +18,7 @@ import java.util.List;
 import java.util.Queue;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.PickDrop;
+import org.opentripplanner.model.StopTimesIndex;
 import org.opentripplanner.model.StopTimesInPattern;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TripTimeOnDate;
@@ -240,37 +243,74 @@ public class StopTimesHelper {
             continue;
           }
 
-          for (TripTimes tripTimes : timetable.getTripTimes()) {
-            if (!servicesRunning.contains(tripTimes.getServiceCode())) {
-              continue;
-            }
-            if (skipByTripCancellation(tripTimes, includeCancellations)) {
-              continue;
-            }
-            if (
-              !includeReplaced &&
-              isReplacedByAnotherPattern(tripTimes.getTrip(), serviceDate, pattern, transitService)
+          StopTimesIndex index = timetable.getStopTimesIndex();
+          long midnightEpochSecond = midnight.toEpochSecond();
+          int endTime = secondsSinceMidnight + timeRangeSeconds;
+          boolean patternStopCancelled = pattern.isBoardAndAlightAt(stopIndex, PickDrop.CANCELLED);
+
+          // ARRIVAL: Arrival time has to be within range
+          // DEPARTURES: Departure time has to be within range
+          // BOTH: Either arrival time or departure time has to be within range
+          if (arrivalDeparture != ARRIVALS) {
+            var departures = index.departures(stopIndex);
+            boolean stopEarly = !patternStopCancelled && !departures.hasCancelledOrNoDataStop();
+            for (
+              int i = departures.firstIndexAtOrAfter(secondsSinceMidnight);
+              i < departures.size() && departures.time(i) <= endTime;
+              ++i
             ) {
-              continue;
+              long epochSecond = midnightEpochSecond + departures.time(i);
+              if (stopEarly && isQueueFullBefore(pq, numberOfDepartures, epochSecond)) {
+                break;
+              }
+              addIfIncluded(
+                pq,
+                departures.tripTimes(i),
+                stopIndex,
+                pattern,
+                serviceDate,
+                midnight,
+                servicesRunning,
+                includeCancellations,
+                includeReplaced,
+                transitService
+              );
             }
-
-            boolean departureTimeInRange =
-              tripTimes.getDepartureTime(stopIndex) >= secondsSinceMidnight &&
-              tripTimes.getDepartureTime(stopIndex) <= secondsSinceMidnight + timeRangeSeconds;
-
-            boolean arrivalTimeInRange =
-              tripTimes.getArrivalTime(stopIndex) >= secondsSinceMidnight &&
-              tripTimes.getArrivalTime(stopIndex) <= secondsSinceMidnight + timeRangeSeconds;
-
-            // ARRIVAL: Arrival time has to be within range
-            // DEPARTURES: Departure time has to be within range
-            // BOTH: Either arrival time or departure time has to be within range
-            if (
-              (arrivalDeparture != ARRIVALS && departureTimeInRange) ||
-              (arrivalDeparture != DEPARTURES && arrivalTimeInRange)
+          }
+          if (arrivalDeparture != DEPARTURES) {
+            var arrivals = index.arrivals(stopIndex);
+            boolean stopEarly = !patternStopCancelled && !arrivals.hasCancelledOrNoDataStop();
+            for (
+              int i = arrivals.firstIndexAtOrAfter(secondsSinceMidnight);
+              i < arrivals.size() && arrivals.time(i) <= endTime;
+              ++i
             ) {
-              pq.add(
-                new TripTimeOnDate(tripTimes, stopIndex, pattern, serviceDate, midnight.toInstant())
+              // The departure is never before the arrival, so the departure of this and all
+              // later trips is also after the last departure in a full queue
+              long epochSecond = midnightEpochSecond + arrivals.time(i);
+              if (stopEarly && isQueueFullBefore(pq, numberOfDepartures, epochSecond)) {
+                break;
+              }
+              TripTimes tripTimes = arrivals.tripTimes(i);
+              int departureTime = tripTimes.getDepartureTime(stopIndex);
+              boolean departureTimeInRange =
+                departureTime >= secondsSinceMidnight && departureTime <= endTime;
+
+              // The trip is already added by the departure time
+              if (arrivalDeparture == BOTH && departureTimeInRange) {
+                continue;
+              }
+              addIfIncluded(
+                pq,
+                tripTimes,
+                stopIndex,
+                pattern,
+                serviceDate,
+                midnight,
+                servicesRunning,
+                includeCancellations,
+                includeReplaced,
+                transitService
               );
             }
           }
@@ -281,6 +321,51 @@ public class StopTimesHelper {
     return pq;
   }
 
+  /**
+   * Return true if the queue is full and all departures in it are before the given time. A trip
+   * departing at the given time, or later, would then be removed from the queue again. This is
+   * only valid if the times shown for the trips are the times the index is sorted by, not the
+   * scheduled times shown for cancelled and no-data stops.
+   */
+  private static boolean isQueueFullBefore(
+    MinMaxPriorityQueue<TripTimeOnDate> pq,
+    int maximumSize,
+    long epochSecond
+  ) {
+    if (pq.size() < maximumSize) {
+      return false;
+    }
+    TripTimeOnDate last = pq.peekLast();
+    return last.getServiceDayMidnight() + last.getRealtimeDeparture() < epochSecond;
+  }
+
+  private static void addIfIncluded(
+    Queue<TripTimeOnDate> pq,
+    TripTimes tripTimes,
+    int stopIndex,
+    TripPattern pattern,
+    LocalDate serviceDate,
+    ZonedDateTime midnight,
+    TIntSet servicesRunning,
+    boolean includeCancellations,
+    boolean includeReplaced,
+    TransitService transitService
+  ) {
+    if (!servicesRunning.contains(tripTimes.getServiceCode())) {
+      return;
+    }
+    if (skipByTripCancellation(tripTimes, includeCancellations)) {
+      return;
+    }
+    if (
+      !includeReplaced &&
+      isReplacedByAnotherPattern(tripTimes.getTrip(), serviceDate, pattern, transitService)
+    ) {
+      return;
+    }
+    pq.add(new TripTimeOnDate(tripTimes, stopIndex, pattern, serviceDate, midnight.toInstant()));
+  }
+
   private static boolean isReplacedByAnotherPattern(
     Trip trip,
     LocalDate serviceDate,
@@ -9,14 +9,17 @@ import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.inspector.raster.TileRendererManager;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.api.RoutingService;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graphfinder.GraphFinder;
+import org.opentripplanner.routing.service.RoutingResultCache;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
@@ -92,6 +95,21 @@ public interface OtpServerRequestContext {
 
   List<RideHailingService> rideHailingServices();
 
+  /**
+   * Cache for the responses of identical routing requests, shared by all requests.
+   */
+  RoutingResultCache routingResultCache();
+
+  /**
+   * Cache for the stops found by the access/egress street search, shared by all requests.
+   */
+  AccessEgressCache accessEgressCache();
+
+  /**
+   * Cache for the encoded vector tile layers, shared by all tile requests.
+   */
+  VectorTileCache vectorTileCache();
+
   MeterRegistry meterRegistry();
 
   /** Inspector/debug services */
@@ -5,6 +5,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V1
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_0;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.MissingNode;
@@ -173,6 +174,8 @@ public class BuildConfig implements OtpDataStoreConfig {
   public double maxElevationPropagationMeters;
   public boolean readCachedElevations;
   public boolean writeCachedElevations;
+  public final boolean readCachedTransfers;
+  public final boolean writeCachedTransfers;
 
   public boolean includeEllipsoidToGeoidDifference;
 
@@ -369,6 +372,19 @@ all of the elevation values in the street edges.
         """
         )
         .asBoolean(true);
+    readCachedTransfers =
+      root
+        .of("readCachedTransfers")
+        .since(V2_4)
+        .summary("Whether to read cached transfers.")
+        .description(
+          """
+        When set to true, the transfer generation will attempt to read the file written with
+        `writeCachedTransfers`, and reuse the transfers of the stops where the street network
+        nearby is unchanged instead of generating them all over again.
+        """
+        )
+        .asBoolean(true);
     staticBikeParkAndRide =
       root
         .of("staticBikeParkAndRide")
@@ -484,6 +500,27 @@ data is changed, or different configuration values for `elevationUnitMultiplier`
 should be recalculated. Over time, various edits to OpenStreetMap will cause this cached data to
 become stale and not include new OSM ways. Therefore, periodic update of this cached data is
 recommended.
+"""
+        )
+        .asBoolean(false);
+    writeCachedTransfers =
+      root
+        .of("writeCachedTransfers")
+        .since(V2_4)
+        .summary("Reusing transfers from previous builds.")
+        .description(
+          """
+When set to true, the transfers generated for each stop are written to a file called
+`cached_transfers.obj` in the cache directory after building the graph. Subsequent graph builds
+read the file if `readCachedTransfers` is `true`, which is the default.
+
+The transfers of a stop are stored together with the area the street searches from the stop
+reached, and a fingerprint of the streets, stops and, if the `ConsiderPatternsForDirectTransfers`
+feature is on, the patterns inside that area. The transfers are reused if the fingerprint is
+unchanged, so when only the transit data changed between two builds, only the transfers of the
+stops near a changed stop or pattern are generated again. All transfers are generated again if
+`maxTransferDuration`, `transferRequests` or the OTP version changed. The transfers are only
+cached if the graph has streets.
 """
         )
         .asBoolean(false);
@@ -0,0 +1,60 @@
+package org.opentripplanner.standalone.config.routerconfig;
+
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+
+import java.time.Duration;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCacheParameters;
+import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+
+public class AccessEgressCacheConfig implements AccessEgressCacheParameters {
+
+  private final int maxSize;
+  private final Duration timeToLive;
+
+  public AccessEgressCacheConfig(String parameterName, NodeAdapter root) {
+    NodeAdapter c = root
+      .of(parameterName)
+      .since(V2_4)
+      .summary("Cache the stops found by the access and egress street search.")
+      .description(
+        """
+Popular origins and destinations, like stations and airports, repeat in many requests. The cache
+keeps the stops and paths found by the access/egress street search from a stop or station given by
+id, and is shared by all requests with the same street mode and street preferences. Searches from a
+coordinate are not cached, the paths found start at vertices linked for that request only. Entries
+are removed when a vehicle rental or vehicle parking update changes the graph in the area of the
+entry. The cache is disabled if the street graph has turn restrictions which only apply at certain
+times, since the search result then depends on the date-time of the request.
+        """
+      )
+      .asObject();
+
+    this.maxSize =
+      c
+        .of("maxSize")
+        .since(V2_4)
+        .summary("The maximum number of access/egress search results to cache.")
+        .description(
+          "The least recently used entries are removed when the cache is full. The default " +
+          "value `0` disables the cache."
+        )
+        .asInt(0);
+
+    this.timeToLive =
+      c
+        .of("timeToLive")
+        .since(V2_4)
+        .summary("How long an access/egress search result is kept in the cache.")
+        .asDuration(Duration.ofMinutes(10));
+  }
+
+  @Override
+  public int maxSize() {
+    return maxSize;
+  }
+
+  @Override
+  public Duration timeToLive() {
+    return timeToLive;
+  }
+}
@@ -0,0 +1,93 @@
+package org.opentripplanner.standalone.config.routerconfig;
+
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+
+import java.time.Duration;
+import org.opentripplanner.routing.service.RoutingResultCacheParameters;
+import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+
+public class RoutingResultCacheConfig implements RoutingResultCacheParameters {
+
+  private final int maxSize;
+  private final Duration timeToLive;
+  private final Duration timeBucket;
+  private final int gridSize;
+
+  public RoutingResultCacheConfig(String parameterName, NodeAdapter root) {
+    NodeAdapter c = root
+      .of(parameterName)
+      .since(V2_4)
+      .summary("Cache the result of identical routing requests.")
+      .description(
+        """
+Many requests are exact repeats, like app polling and map redraws. The cache returns the same
+response for requests with the same parameters, after the from/to coordinates are snapped to a
+grid and the time is rounded down to a time bucket. The cache is cleared each time a new realtime
+transit snapshot is committed, and entries are removed when a vehicle rental or vehicle parking
+update changes the graph in the area of the entry. Requests using paging are not cached.
+        """
+      )
+      .asObject();
+
+    this.maxSize =
+      c
+        .of("maxSize")
+        .since(V2_4)
+        .summary("The maximum number of routing responses to cache.")
+        .description("The default value `0` disables the cache.")
+        .asInt(0);
+
+    this.timeToLive =
+      c
+        .of("timeToLive")
+        .since(V2_4)
+        .summary("How long a routing response is kept in the cache.")
+        .description(
+          "The cache is also cleared on realtime updates, so this mostly limits how long " +
+          "responses are kept for requests planned for now, where the time matters."
+        )
+        .asDuration(Duration.ofMinutes(1));
+
+    this.timeBucket =
+      c
+        .of("timeBucket")
+        .since(V2_4)
+        .summary("The request date-time is rounded down to a multiple of this duration.")
+        .description(
+          "Requests within the same time bucket share a cache entry. Use `0s` to only cache " +
+          "requests with the exact same date-time."
+        )
+        .asDuration(Duration.ofMinutes(1));
+
+    this.gridSize =
+      c
+        .of("gridSize")
+        .since(V2_4)
+        .summary("The size in meters of the grid the from/to coordinates are snapped to.")
+        .description(
+          "Requests with coordinates snapped to the same grid point share a cache entry. Use " +
+          "`0` to only cache requests with the exact same coordinates."
+        )
+        .asInt(50);
+  }
+
+  @Override
+  public int maxSize() {
+    return maxSize;
+  }
+
+  @Override
+  public Duration timeToLive() {
+    return timeToLive;
+  }
+
+  @Override
+  public Duration timeBucket() {
+    return timeBucket;
+  }
+
+  @Override
+  public int gridSize() {
+    return gridSize;
+  }
+}
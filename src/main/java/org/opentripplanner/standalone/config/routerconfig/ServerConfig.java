@@ -9,6 +9,9 @@ import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
 public class ServerConfig {
 
   private final Duration apiProcessingTimeout;
+  private final RoutingResultCacheConfig routingResultCache;
+  private final AccessEgressCacheConfig accessEgressCache;
+  private final VectorTileCacheConfig vectorTileCache;
 
   public ServerConfig(String parameterName, NodeAdapter root) {
     NodeAdapter c = root
@@ -37,12 +40,28 @@ domain, these are set tin the routing request.
         """
         )
         .asDuration(Duration.ofSeconds(-1));
+
+    this.routingResultCache = new RoutingResultCacheConfig("routingResultCache", c);
+    this.accessEgressCache = new AccessEgressCacheConfig("accessEgressCache", c);
+    this.vectorTileCache = new VectorTileCacheConfig("vectorTileCache", c);
   }
 
   public Duration apiProcessingTimeout() {
     return apiProcessingTimeout;
   }
 
+  public RoutingResultCacheConfig routingResultCache() {
+    return routingResultCache;
+  }
+
+  public AccessEgressCacheConfig accessEgressCache() {
+    return accessEgressCache;
+  }
+
+  public VectorTileCacheConfig vectorTileCache() {
+    return vectorTileCache;
+  }
+
   public void validate(Duration streetRoutingTimeout) {
     if (
       !apiProcessingTimeout.isNegative() &&
@@ -0,0 +1,42 @@
+package org.opentripplanner.standalone.config.routerconfig;
+
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+
+import org.opentripplanner.inspector.vector.VectorTileCacheParameters;
+import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+
+public class VectorTileCacheConfig implements VectorTileCacheParameters {
+
+  private final long maxSizeBytes;
+
+  public VectorTileCacheConfig(String parameterName, NodeAdapter root) {
+    NodeAdapter c = root
+      .of(parameterName)
+      .since(V2_4)
+      .summary("Cache the vector tile layers on the server.")
+      .description(
+        """
+The layers of each vector tile are cached, and shared by all tile requests. Stop and station
+layers are kept until the server is restarted. Vehicle rental and vehicle parking layers are
+removed when a realtime update changes the graph within the area of the tile.
+        """
+      )
+      .asObject();
+
+    this.maxSizeBytes =
+      c
+        .of("maxSizeBytes")
+        .since(V2_4)
+        .summary("The maximum total size in bytes of the cached vector tile layers.")
+        .description(
+          "The least recently used layers are removed when the cache is full. The default " +
+          "value `0` disables the cache."
+        )
+        .asLong(0);
+  }
+
+  @Override
+  public long maxSizeBytes() {
+    return maxSizeBytes;
+  }
+}
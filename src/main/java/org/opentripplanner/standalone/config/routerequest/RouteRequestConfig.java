@@ -4,6 +4,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
 import static org.opentripplanner.standalone.config.routerequest.ItineraryFiltersConfig.mapItineraryFilterParams;
 import static org.opentripplanner.standalone.config.routerequest.TransferConfig.mapTransferPreferences;
 import static org.opentripplanner.standalone.config.routerequest.WheelchairConfig.mapWheelchairPreferences;
@@ -362,7 +363,7 @@ ferries, where the check-in process needs to be done in good time before ride.
           )
           .asLinearFunction(dft.unpreferredCost())
       )
-      .withRaptor(it ->
+      .withRaptor(it -> {
         c
           .of("relaxTransitSearchGeneralizedCostAtDestination")
           .since(V2_3)
@@ -380,8 +381,24 @@ ferries, where the check-in process needs to be done in good time before ride.
                 """
           )
           .asDoubleOptional()
-          .ifPresent(it::withRelaxGeneralizedCostAtDestination)
-      );
+          .ifPresent(it::withRelaxGeneralizedCostAtDestination);
+        it.withSearchWindowThreads(
+          c
+            .of("searchWindowThreads")
+            .since(V2_4)
+            .summary("The maximum number of threads used to search the transit search-window.")
+            .description(
+              """
+                If greater than one, the transit search-window is split into smaller sub-windows,
+                which are searched in parallel before the results are merged. This reduces the
+                response time for requests with a long search-window, at the cost of more total
+                work. This is only used if the `transit.searchThreadPoolSize` is set in the
+                router-config. Each sub-window is at least 10 Range Raptor iterations (minutes).
+                """
+            )
+            .asInt(dft.raptor().searchWindowThreads())
+        );
+      });
   }
 
   private static void mapBikePreferences(NodeAdapter c, BikePreferences.Builder builder) {
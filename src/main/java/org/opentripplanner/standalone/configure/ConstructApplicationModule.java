@@ -3,6 +3,7 @@ package org.opentripplanner.standalone.configure;
 import dagger.Module;
 import dagger.Provides;
 import io.micrometer.core.instrument.Metrics;
+import jakarta.inject.Singleton;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
@@ -16,6 +17,7 @@ import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.standalone.config.RouterConfig;
 import org.opentripplanner.standalone.server.DefaultServerRequestContext;
+import org.opentripplanner.standalone.server.ServerCaches;
 import org.opentripplanner.transit.service.TransitService;
 import org.opentripplanner.visualizer.GraphVisualizer;
 
@@ -32,6 +34,7 @@ public class ConstructApplicationModule {
     VehiclePositionService vehiclePositionService,
     VehicleRentalService vehicleRentalService,
     List<RideHailingService> rideHailingServices,
+    ServerCaches caches,
     @Nullable TraverseVisitor<?, ?> traverseVisitor
   ) {
     return DefaultServerRequestContext.create(
@@ -47,10 +50,17 @@ public class ConstructApplicationModule {
       vehicleRentalService,
       routerConfig.flexConfig(),
       rideHailingServices,
+      caches,
       traverseVisitor
     );
   }
 
+  @Provides
+  @Singleton
+  ServerCaches serverCaches(RouterConfig routerConfig, Graph graph) {
+    return ServerCaches.create(routerConfig.server(), graph, Metrics.globalRegistry);
+  }
+
   @Provides
   @Nullable
   TraverseVisitor<?, ?> traverseVisitor(@Nullable GraphVisualizer graphVisualizer) {
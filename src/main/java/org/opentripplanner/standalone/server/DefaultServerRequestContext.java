@@ -8,14 +8,17 @@ import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.inspector.raster.TileRendererManager;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.api.RoutingService;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.service.DefaultRoutingService;
+import org.opentripplanner.routing.service.RoutingResultCache;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
@@ -43,6 +46,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final WorldEnvelopeService worldEnvelopeService;
   private final VehiclePositionService vehiclePositionService;
   private final VehicleRentalService vehicleRentalService;
+  private final ServerCaches caches;
 
   /**
    * Make sure all mutable components are copied/cloned before calling this constructor.
@@ -60,6 +64,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     VehiclePositionService vehiclePositionService,
     VehicleRentalService vehicleRentalService,
     List<RideHailingService> rideHailingServices,
+    ServerCaches caches,
     TraverseVisitor traverseVisitor,
     FlexConfig flexConfig
   ) {
@@ -77,6 +82,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.worldEnvelopeService = worldEnvelopeService;
     this.vehiclePositionService = vehiclePositionService;
     this.rideHailingServices = rideHailingServices;
+    this.caches = caches;
   }
 
   /**
@@ -95,6 +101,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     VehicleRentalService vehicleRentalService,
     FlexConfig flexConfig,
     List<RideHailingService> rideHailingServices,
+    ServerCaches caches,
     @Nullable TraverseVisitor traverseVisitor
   ) {
     return new DefaultServerRequestContext(
@@ -110,6 +117,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       vehiclePositionService,
       vehicleRentalService,
       rideHailingServices,
+      caches,
       traverseVisitor,
       flexConfig
     );
@@ -182,6 +190,21 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     return rideHailingServices;
   }
 
+  @Override
+  public RoutingResultCache routingResultCache() {
+    return caches.routingResultCache();
+  }
+
+  @Override
+  public AccessEgressCache accessEgressCache() {
+    return caches.accessEgressCache();
+  }
+
+  @Override
+  public VectorTileCache vectorTileCache() {
+    return caches.vectorTileCache();
+  }
+
   @Override
   public MeterRegistry meterRegistry() {
     return meterRegistry;
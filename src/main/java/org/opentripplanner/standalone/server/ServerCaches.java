@@ -0,0 +1,43 @@
+package org.opentripplanner.standalone.server;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.inspector.vector.VectorTileCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.service.RoutingResultCache;
+import org.opentripplanner.standalone.config.routerconfig.ServerConfig;
+
+/**
+ * The caches shared by all requests. The caches are disabled unless they are configured in the
+ * {@link ServerConfig}.
+ */
+public record ServerCaches(
+  RoutingResultCache routingResultCache,
+  AccessEgressCache accessEgressCache,
+  VectorTileCache vectorTileCache
+) {
+  /**
+   * Create the caches, and invalidate them when a realtime update changes the graph.
+   */
+  public static ServerCaches create(ServerConfig config, Graph graph, MeterRegistry registry) {
+    var caches = new ServerCaches(
+      new RoutingResultCache(config.routingResultCache(), registry),
+      new AccessEgressCache(
+        config.accessEgressCache(),
+        AccessEgressCache.hasTimeDependentTurnRestrictions(graph),
+        registry
+      ),
+      new VectorTileCache(config.vectorTileCache(), registry)
+    );
+    graph.addRealtimeUpdateListener(caches::invalidate);
+    return caches;
+  }
+
+  private void invalidate(Collection<Envelope> changedAreas) {
+    routingResultCache.invalidate(changedAreas);
+    accessEgressCache.invalidate(changedAreas);
+    vectorTileCache.invalidate(changedAreas);
+  }
+}
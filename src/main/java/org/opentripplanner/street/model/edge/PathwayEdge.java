@@ -167,6 +167,10 @@ public class PathwayEdge extends Edge implements BikeWalkableEdge, WheelchairTra
     return steps;
   }
 
+  public double getSlope() {
+    return slope;
+  }
+
   public FeedScopedId getId() {
     return id;
   }
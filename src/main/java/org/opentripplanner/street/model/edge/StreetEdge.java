@@ -1094,12 +1094,28 @@ public class StreetEdge
       if (this.isReverseOf(backEdge) || backEdge.isReverseOf(this)) {
         return null;
       }
+      // Apply turn restrictions, this is done before the editor is created to avoid creating
+      // new states for turns which are not allowed
+      if (backEdge instanceof StreetEdge backPSE) {
+        if (
+          s0.getRequest().arriveBy()
+            ? !canTurnOnto(backPSE, s0, s0.getBackMode())
+            : !backPSE.canTurnOnto(this, s0, traverseMode)
+        ) {
+          return null;
+        }
+      }
+    }
+
+    if (isTraversalBlockedByNoThruTraffic(traverseMode, s0)) {
+      return null;
     }
 
     var s1 = createEditor(s0, this, traverseMode, walkingBike);
 
-    if (isTraversalBlockedByNoThruTraffic(traverseMode, backEdge, s0, s1)) {
-      return null;
+    // Record transition into no-through-traffic area.
+    if (isEnteringNoThruTrafficArea(traverseMode, backEdge)) {
+      s1.setEnteredNoThroughTrafficArea();
     }
 
     if (s0.getRequest().mode().includesRenting()) {
@@ -1136,15 +1152,6 @@ public class StreetEdge
       TraverseMode backMode = s0.getBackMode();
       final boolean arriveBy = s0.getRequest().arriveBy();
 
-      // Apply turn restrictions
-      if (
-        arriveBy
-          ? !canTurnOnto(backPSE, s0, backMode)
-          : !backPSE.canTurnOnto(this, s0, traverseMode)
-      ) {
-        return null;
-      }
-
       double backSpeed = backPSE.calculateSpeed(preferences, backMode, s0.isBackWalkingBike());
       final double turnDuration; // Units are seconds.
 
@@ -1321,31 +1328,28 @@ public class StreetEdge
     return new TraversalCosts(time, weight);
   }
 
-  /* The no-thru traffic support works by not allowing a transition from a no-thru area out of it.
+  /**
+   * If we transitioned into a no-through-traffic area at some point, check if we are exiting it.
+   * <p>
+   * The no-thru traffic support works by not allowing a transition from a no-thru area out of it.
    * It allows starting in a no-thru area by checking for a transition from a "normal"
-   * (thru-traffic allowed) edge to a no-thru edge. Once a transition is recorded
-   * (State#hasEnteredNoThruTrafficArea), traverseing "normal" edges is blocked.
-   *
+   * (thru-traffic allowed) edge to a no-thru edge, see {@link #isEnteringNoThruTrafficArea}. Once
+   * a transition is recorded (State#hasEnteredNoThruTrafficArea), traversing "normal" edges is
+   * blocked.
+   * <p>
    * Since a Vertex may be arrived at with and without a no-thru restriction, the logic in
    * DominanceFunction#betterOrEqualAndComparable treats the two cases as separate.
    */
-  private boolean isTraversalBlockedByNoThruTraffic(
-    TraverseMode traverseMode,
-    Edge backEdge,
-    State s0,
-    StateEditor s1
-  ) {
-    if (isNoThruTraffic(traverseMode)) {
-      // Record transition into no-through-traffic area.
-      if (backEdge instanceof StreetEdge sbe && !sbe.isNoThruTraffic(traverseMode)) {
-        s1.setEnteredNoThroughTrafficArea();
-      }
-    } else if (s0.hasEnteredNoThruTrafficArea()) {
-      // If we transitioned into a no-through-traffic area at some point, check if we are exiting it.
-      return true;
-    }
+  private boolean isTraversalBlockedByNoThruTraffic(TraverseMode traverseMode, State s0) {
+    return !isNoThruTraffic(traverseMode) && s0.hasEnteredNoThruTrafficArea();
+  }
 
-    return false;
+  private boolean isEnteringNoThruTrafficArea(TraverseMode traverseMode, Edge backEdge) {
+    return (
+      isNoThruTraffic(traverseMode) &&
+      backEdge instanceof StreetEdge sbe &&
+      !sbe.isNoThruTraffic(traverseMode)
+    );
   }
 
   private void writeObject(ObjectOutputStream out) throws IOException {
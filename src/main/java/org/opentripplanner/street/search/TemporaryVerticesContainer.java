@@ -48,8 +48,12 @@ public class TemporaryVerticesContainer implements AutoCloseable {
     this.graph = graph;
     StreetIndex index = this.graph.getStreetIndex();
     this.opt = opt;
-    fromVertices = index.getVerticesForLocation(opt.from(), accessMode, false, tempEdges);
-    toVertices = index.getVerticesForLocation(opt.to(), egressMode, true, tempEdges);
+    // Link the origin and destination to the same version of the realtime edges
+    var realtimeSnapshot = index.getVertexLinker().realtimeSnapshot();
+    fromVertices =
+      index.getVerticesForLocation(opt.from(), accessMode, false, tempEdges, realtimeSnapshot);
+    toVertices =
+      index.getVerticesForLocation(opt.to(), egressMode, true, tempEdges, realtimeSnapshot);
 
     checkIfVerticesFound();
 
@@ -6,10 +6,11 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -19,21 +20,26 @@ import org.opentripplanner.framework.tostring.ToStringBuilder;
 /**
  * Does the same thing as String.intern, but for several different types. Java's String.intern uses
  * perm gen space and is broken anyway.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE. The canonical instances are kept in concurrent maps, so the graph
+ * builder can deduplicate while mapping several feeds in parallel. If two threads deduplicate
+ * equal values at the same time, both get the instance that was put into the map first.
  */
 public class Deduplicator implements Serializable {
 
   private static final String ZERO_COUNT = sizeAndCount(0, 0);
 
-  private final Map<BitSet, BitSet> canonicalBitSets = new HashMap<>();
-  private final Map<IntArray, IntArray> canonicalIntArrays = new HashMap<>();
-  private final Map<String, String> canonicalStrings = new HashMap<>();
-  private final Map<StringArray, StringArray> canonicalStringArrays = new HashMap<>();
-  private final Map<String2DArray, String2DArray> canonicalString2DArrays = new HashMap<>();
-  private final Map<Class<?>, Map<?, ?>> canonicalObjects = new HashMap<>();
-  private final Map<Class<?>, Map<?, ?>> canonicalObjArrays = new HashMap<>();
-  private final Map<Class<?>, Map<List<?>, List<?>>> canonicalLists = new HashMap<>();
+  private final Map<BitSet, BitSet> canonicalBitSets = new ConcurrentHashMap<>();
+  private final Map<IntArray, IntArray> canonicalIntArrays = new ConcurrentHashMap<>();
+  private final Map<String, String> canonicalStrings = new ConcurrentHashMap<>();
+  private final Map<StringArray, StringArray> canonicalStringArrays = new ConcurrentHashMap<>();
+  private final Map<String2DArray, String2DArray> canonicalString2DArrays =
+    new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<?, ?>> canonicalObjects = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<?, ?>> canonicalObjArrays = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<List<?>, List<?>>> canonicalLists = new ConcurrentHashMap<>();
 
-  private final Map<String, Integer> effectCounter = new HashMap<>();
+  private final Map<String, LongAdder> effectCounter = new ConcurrentHashMap<>();
 
   @Inject
   public Deduplicator() {}
@@ -55,11 +61,7 @@ public class Deduplicator implements Serializable {
     if (original == null) {
       return null;
     }
-    BitSet canonical = canonicalBitSets.get(original);
-    if (canonical == null) {
-      canonical = original;
-      canonicalBitSets.put(canonical, canonical);
-    }
+    BitSet canonical = canonicalize(canonicalBitSets, original);
     incrementEffectCounter(BitSet.class);
     return canonical;
   }
@@ -70,12 +72,7 @@ public class Deduplicator implements Serializable {
     if (original == null) {
       return null;
     }
-    IntArray intArray = new IntArray(original);
-    IntArray canonical = canonicalIntArrays.get(intArray);
-    if (canonical == null) {
-      canonical = intArray;
-      canonicalIntArrays.put(canonical, canonical);
-    }
+    IntArray canonical = canonicalize(canonicalIntArrays, new IntArray(original));
     incrementEffectCounter(IntArray.class);
     return canonical.array;
   }
@@ -85,9 +82,9 @@ public class Deduplicator implements Serializable {
     if (original == null) {
       return null;
     }
-    String canonical = canonicalStrings.putIfAbsent(original, original);
+    String canonical = canonicalize(canonicalStrings, original);
     incrementEffectCounter(String.class);
-    return canonical == null ? original : canonical;
+    return canonical;
   }
 
   @Nullable
@@ -97,8 +94,8 @@ public class Deduplicator implements Serializable {
     }
     StringArray canonical = canonicalStringArrays.get(new StringArray(original));
     if (canonical == null) {
-      canonical = StringArray.deepDeduplicateOf(original, this);
-      canonicalStringArrays.put(canonical, canonical);
+      canonical =
+        canonicalize(canonicalStringArrays, StringArray.deepDeduplicateOf(original, this));
     }
     incrementEffectCounter(StringArray.class);
     return canonical.array;
@@ -115,8 +112,8 @@ public class Deduplicator implements Serializable {
     }
     String2DArray canonical = canonicalString2DArrays.get(new String2DArray(original));
     if (canonical == null) {
-      canonical = String2DArray.deepDeduplicateOf(original, this);
-      canonicalString2DArrays.put(canonical, canonical);
+      canonical =
+        canonicalize(canonicalString2DArrays, String2DArray.deepDeduplicateOf(original, this));
     }
     incrementEffectCounter(String2DArray.class);
     return canonical.array;
@@ -131,10 +128,13 @@ public class Deduplicator implements Serializable {
     if (original == null) {
       return null;
     }
-    Map<T, T> objects = (Map<T, T>) canonicalObjects.computeIfAbsent(cl, c -> new HashMap<T, T>());
-    T canonical = objects.putIfAbsent(original, original);
+    Map<T, T> objects = (Map<T, T>) canonicalObjects.computeIfAbsent(
+      cl,
+      c -> new ConcurrentHashMap<T, T>()
+    );
+    T canonical = canonicalize(objects, original);
     incrementEffectCounter(objCounterName(cl));
-    return canonical == null ? original : canonical;
+    return canonical;
   }
 
   @Nullable
@@ -142,24 +142,21 @@ public class Deduplicator implements Serializable {
     if (original == null) {
       return null;
     }
-    Map<ObjArray<T>, ObjArray<T>> map;
-    if (canonicalObjArrays.containsKey(type)) {
-      //noinspection unchecked
-      map = (Map<ObjArray<T>, ObjArray<T>>) canonicalObjArrays.get(type);
-    } else {
-      map = new HashMap<>();
-      canonicalObjArrays.put(type, map);
-    }
+    //noinspection unchecked
+    var map = (Map<ObjArray<T>, ObjArray<T>>) canonicalObjArrays.computeIfAbsent(
+      type,
+      t -> new ConcurrentHashMap<ObjArray<T>, ObjArray<T>>()
+    );
     ObjArray<T> canonical = map.get(new ObjArray<>(original));
 
     if (canonical == null) {
-      canonical = ObjArray.deepDeduplicateOf(type, original, this);
-      map.put(canonical, canonical);
+      canonical = canonicalize(map, ObjArray.deepDeduplicateOf(type, original, this));
     }
     incrementEffectCounter(arrayCounterName(type));
     return canonical.array();
   }
 
+  @SuppressWarnings("unchecked")
   @Nullable
   public <T> List<T> deduplicateImmutableList(Class<T> clazz, List<T> original) {
     if (original == null) {
@@ -167,9 +164,8 @@ public class Deduplicator implements Serializable {
     }
 
     Map<List<?>, List<?>> canonicalLists =
-      this.canonicalLists.computeIfAbsent(clazz, key -> new HashMap<>());
+      this.canonicalLists.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>());
 
-    @SuppressWarnings("unchecked")
     List<T> canonical = (List<T>) canonicalLists.get(original);
     if (canonical == null) {
       // The list may contain nulls, hence the use of the old unmodifiable wrapper
@@ -181,7 +177,7 @@ public class Deduplicator implements Serializable {
         containsNull
           ? Collections.unmodifiableList(stream.collect(Collectors.toList()))
           : stream.collect(Collectors.toUnmodifiableList());
-      canonicalLists.put(canonical, canonical);
+      canonical = (List<T>) canonicalize(canonicalLists, canonical);
     }
 
     incrementEffectCounter(listCounterName(clazz));
@@ -213,6 +209,16 @@ public class Deduplicator implements Serializable {
 
   /* private members */
 
+  /**
+   * Return the canonical instance equal to the given value, the value itself becomes the canonical
+   * instance if no equal value exist. This is atomic, the values are not created inside the map
+   * lock, since creating some of them deduplicate their elements using this deduplicator.
+   */
+  private static <T> T canonicalize(Map<T, T> canonicalValues, T value) {
+    T canonical = canonicalValues.putIfAbsent(value, value);
+    return canonical == null ? value : canonical;
+  }
+
   private static <T> String objCounterName(Class<T> type) {
     return type.getSimpleName();
   }
@@ -247,7 +253,7 @@ public class Deduplicator implements Serializable {
 
   private void incrementEffectCounter(String key) {
     // Count the first element, start at 1
-    effectCounter.compute(key, (k, v) -> v == null ? 1 : ++v);
+    effectCounter.computeIfAbsent(key, k -> new LongAdder()).increment();
   }
 
   private String sizeAndCount(int size, Class<?> clazz) {
@@ -255,8 +261,8 @@ public class Deduplicator implements Serializable {
   }
 
   private String sizeAndCount(int size, String key) {
-    int count = effectCounter.getOrDefault(key, 0);
-    return sizeAndCount(size, count);
+    LongAdder count = effectCounter.get(key);
+    return sizeAndCount(size, count == null ? 0 : count.intValue());
   }
 
   private static String sizeAndCount(int size, int count) {
@@ -0,0 +1,134 @@
+package org.opentripplanner.transit.model.network;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.transit.model.basic.SubMode;
+import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * Index the trip patterns on the attributes used to filter patterns in a routing request: mode,
+ * sub-mode, agency, route and group-of-routes. Each attribute value is mapped to a {@link BitSet}
+ * over the {@link RoutingTripPattern#patternIndex()}. This allows a request filter to be evaluated
+ * for all patterns at once using a few bitwise operations, instead of testing each pattern for
+ * each service date.
+ * <p>
+ * The index is created for a fixed set of patterns. Patterns created later, like patterns added
+ * by the realtime updaters, are not part of the index - use {@link #isIndexed(int)} to check
+ * before looking up a pattern in a result set.
+ * <p>
+ * The index is immutable and thread-safe. All methods return a new {@link BitSet} which the caller
+ * is free to modify.
+ */
+public class TripPatternAttributeIndex {
+
+  public static final TripPatternAttributeIndex EMPTY = new TripPatternAttributeIndex();
+
+  private final BitSet indexedPatterns = new BitSet();
+  private final BitSet patternsWithMultipleModes = new BitSet();
+  private final Map<TransitMode, Map<SubMode, BitSet>> patternsByModeAndSubMode = new HashMap<>();
+  private final Map<FeedScopedId, BitSet> patternsByAgency = new HashMap<>();
+  private final Map<FeedScopedId, BitSet> patternsByRoute = new HashMap<>();
+  private final Map<FeedScopedId, BitSet> patternsByGroupOfRoutes = new HashMap<>();
+
+  private TripPatternAttributeIndex() {}
+
+  public static TripPatternAttributeIndex of(Collection<TripPattern> patterns) {
+    var index = new TripPatternAttributeIndex();
+    for (TripPattern pattern : patterns) {
+      index.add(pattern);
+    }
+    return index;
+  }
+
+  /**
+   * Return {@code true} if the pattern with the given index is part of this index.
+   */
+  public boolean isIndexed(int patternIndex) {
+    return indexedPatterns.get(patternIndex);
+  }
+
+  public BitSet allPatterns() {
+    return (BitSet) indexedPatterns.clone();
+  }
+
+  /**
+   * Return all patterns where the pattern mode and sub-mode match the given predicate. Patterns
+   * containing more than one mode is always included, these need to be filtered on each trip.
+   */
+  public BitSet patternsMatchingMode(BiPredicate<TransitMode, SubMode> modeFilter) {
+    BitSet result = (BitSet) patternsWithMultipleModes.clone();
+    for (var modeEntry : patternsByModeAndSubMode.entrySet()) {
+      for (var subModeEntry : modeEntry.getValue().entrySet()) {
+        if (modeFilter.test(modeEntry.getKey(), subModeEntry.getKey())) {
+          result.or(subModeEntry.getValue());
+        }
+      }
+    }
+    return result;
+  }
+
+  public BitSet patternsForAgencies(Collection<FeedScopedId> agencyIds) {
+    return union(patternsByAgency, agencyIds);
+  }
+
+  public BitSet patternsForRoutes(Collection<FeedScopedId> routeIds) {
+    return union(patternsByRoute, routeIds);
+  }
+
+  public BitSet patternsForGroupOfRoutes(Collection<FeedScopedId> groupOfRoutesIds) {
+    return union(patternsByGroupOfRoutes, groupOfRoutesIds);
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(TripPatternAttributeIndex.class)
+      .addBitSetSize("patterns", indexedPatterns)
+      .addNum("agencies", patternsByAgency.size())
+      .addNum("routes", patternsByRoute.size())
+      .addNum("groupOfRoutes", patternsByGroupOfRoutes.size())
+      .toString();
+  }
+
+  private void add(TripPattern pattern) {
+    int index = pattern.getRoutingTripPattern().patternIndex();
+    var route = pattern.getRoute();
+
+    indexedPatterns.set(index);
+
+    if (pattern.getContainsMultipleModes()) {
+      patternsWithMultipleModes.set(index);
+    } else {
+      patternsByModeAndSubMode
+        .computeIfAbsent(pattern.getMode(), m -> new HashMap<>())
+        .computeIfAbsent(pattern.getNetexSubmode(), m -> new BitSet())
+        .set(index);
+    }
+    set(patternsByAgency, route.getAgency().getId(), index);
+    set(patternsByRoute, route.getId(), index);
+
+    for (GroupOfRoutes groupOfRoutes : route.getGroupsOfRoutes()) {
+      set(patternsByGroupOfRoutes, groupOfRoutes.getId(), index);
+    }
+  }
+
+  private static void set(Map<FeedScopedId, BitSet> map, FeedScopedId key, int index) {
+    map.computeIfAbsent(key, k -> new BitSet()).set(index);
+  }
+
+  private static BitSet union(Map<FeedScopedId, BitSet> map, Collection<FeedScopedId> keys) {
+    BitSet result = new BitSet();
+    for (FeedScopedId key : keys) {
+      BitSet patterns = map.get(key);
+      if (patterns != null) {
+        result.or(patterns);
+      }
+    }
+    return result;
+  }
+}
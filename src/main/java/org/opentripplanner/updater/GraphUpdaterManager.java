@@ -141,6 +141,8 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
         runnable.run(graph, transitModel);
       } catch (Exception e) {
         LOG.error("Error while running graph writer {}:", runnable.getClass().getName(), e);
+      } finally {
+        graph.publishRealtimeEdges();
       }
     });
   }
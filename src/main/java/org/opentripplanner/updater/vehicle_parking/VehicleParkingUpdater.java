@@ -5,9 +5,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.linking.LinkingDirection;
@@ -107,16 +109,27 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
       Set<VehicleParking> toAdd = new HashSet<>();
       Set<VehicleParking> toLink = new HashSet<>();
       Set<VehicleParking> toRemove = new HashSet<>();
+      // The areas affected by this update, one for each changed place, used to notify listeners
+      // like the routing result cache
+      List<Envelope> changedAreas = new ArrayList<>();
 
       for (VehicleParking updatedVehicleParking : updatedVehicleParkings) {
         var operational = updatedVehicleParking.getState().equals(VehicleParkingState.OPERATIONAL);
         var alreadyExists = oldVehicleParkings.contains(updatedVehicleParking);
 
         if (alreadyExists) {
-          oldVehicleParkingsById
-            .get(updatedVehicleParking.getId())
-            .updateAvailability(updatedVehicleParking.getAvailability());
+          var oldVehicleParking = oldVehicleParkingsById.get(updatedVehicleParking.getId());
+          if (
+            !Objects.equals(
+              oldVehicleParking.getAvailability(),
+              updatedVehicleParking.getAvailability()
+            )
+          ) {
+            changedAreas.add(envelope(oldVehicleParking));
+          }
+          oldVehicleParking.updateAvailability(updatedVehicleParking.getAvailability());
         } else {
+          changedAreas.add(envelope(updatedVehicleParking));
           toAdd.add(updatedVehicleParking);
           if (operational) {
             toLink.add(updatedVehicleParking);
@@ -139,6 +152,7 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
         }
 
         toRemove.add(oldVehicleParking);
+        changedAreas.add(envelope(oldVehicleParking));
       }
 
       /* Add new parks, after removing, so that there are no duplicate vertices for removed and re-added parks.*/
@@ -161,6 +175,23 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
 
       oldVehicleParkings.removeAll(toRemove);
       oldVehicleParkings.addAll(toAdd);
+
+      graph.notifyRealtimeUpdate(changedAreas);
+    }
+
+    /**
+     * The area of the vehicle parking and the entrances linked to the street graph. The coordinate
+     * of the vehicle parking is optional.
+     */
+    private Envelope envelope(VehicleParking vehicleParking) {
+      var envelope = new Envelope();
+      if (vehicleParking.getCoordinate() != null) {
+        envelope.expandToInclude(vehicleParking.getCoordinate().asJtsCoordinate());
+      }
+      for (var entrance : vehicleParking.getEntrances()) {
+        envelope.expandToInclude(entrance.getCoordinate().asJtsCoordinate());
+      }
+      return envelope;
     }
 
     private List<DisposableEdgeCollection> linkVehicleParkingVertexToStreets(
@@ -7,9 +7,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.routing.graph.Graph;
@@ -141,6 +144,9 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
     public void run(Graph graph, TransitModel transitModel) {
       // Apply stations to graph
       Set<FeedScopedId> stationSet = new HashSet<>();
+      // The areas affected by this update, one for each changed place, used to notify listeners
+      // like the routing result cache
+      List<Envelope> changedAreas = new ArrayList<>();
 
       /* add any new stations and update vehicle counts for existing stations */
       for (VehicleRentalPlace station : stations) {
@@ -174,7 +180,15 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
           }
           verticesByStation.put(station.getId(), vehicleRentalVertex);
           tempEdgesByStation.put(station.getId(), tempEdges);
+          changedAreas.add(envelope(station));
         } else {
+          var oldStation = vehicleRentalVertex.getStation();
+          if (isChanged(oldStation, station)) {
+            changedAreas.add(envelope(oldStation));
+            if (isMoved(oldStation, station)) {
+              changedAreas.add(envelope(station));
+            }
+          }
           vehicleRentalVertex.setStation(station);
         }
       }
@@ -185,6 +199,7 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         if (stationSet.contains(station)) continue;
         toRemove.add(station);
         service.removeVehicleRentalStation(station);
+        changedAreas.add(envelope(entry.getValue().getStation()));
       }
       for (FeedScopedId station : toRemove) {
         // post-iteration removal to avoid concurrent modification
@@ -200,6 +215,9 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         var start = System.currentTimeMillis();
 
         latestModifiedEdges.forEach(StreetEdge::removeRentalExtension);
+        Stream
+          .concat(latestAppliedGeofencingZones.stream(), geofencingZones.stream())
+          .forEach(zone -> changedAreas.add(zone.geometry().getEnvelopeInternal()));
 
         var updater = new GeofencingVertexUpdater(graph.getStreetIndex()::getEdgesForEnvelope);
         latestModifiedEdges = updater.applyGeofencingZones(geofencingZones);
@@ -213,6 +231,40 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
           latestModifiedEdges.size()
         );
       }
+
+      graph.notifyRealtimeUpdate(changedAreas);
+    }
+
+    /**
+     * Return {@code true} if the properties used in routing, or shown in the vector tiles, have
+     * changed for the given place.
+     */
+    private boolean isChanged(VehicleRentalPlace oldPlace, VehicleRentalPlace newPlace) {
+      return (
+        oldPlace.getVehiclesAvailable() != newPlace.getVehiclesAvailable() ||
+        oldPlace.getSpacesAvailable() != newPlace.getSpacesAvailable() ||
+        oldPlace.isAllowPickup() != newPlace.isAllowPickup() ||
+        oldPlace.isAllowDropoff() != newPlace.isAllowDropoff() ||
+        isMoved(oldPlace, newPlace) ||
+        !Objects.equals(oldPlace.getName(), newPlace.getName()) ||
+        !oldPlace
+          .getAvailablePickupFormFactors(false)
+          .equals(newPlace.getAvailablePickupFormFactors(false)) ||
+        !oldPlace
+          .getAvailableDropoffFormFactors(false)
+          .equals(newPlace.getAvailableDropoffFormFactors(false))
+      );
+    }
+
+    private boolean isMoved(VehicleRentalPlace oldPlace, VehicleRentalPlace newPlace) {
+      return (
+        oldPlace.getLongitude() != newPlace.getLongitude() ||
+        oldPlace.getLatitude() != newPlace.getLatitude()
+      );
+    }
+
+    private Envelope envelope(VehicleRentalPlace place) {
+      return new Envelope(new Coordinate(place.getLongitude(), place.getLatitude()));
     }
   }
 }
@@ -16,6 +16,7 @@ import org.opentripplanner.service.worldenvelope.internal.DefaultWorldEnvelopeSe
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.standalone.config.RouterConfig;
 import org.opentripplanner.standalone.server.DefaultServerRequestContext;
+import org.opentripplanner.standalone.server.ServerCaches;
 import org.opentripplanner.transit.service.DefaultTransitService;
 import org.opentripplanner.transit.service.TransitModel;
 
@@ -43,6 +44,7 @@ public class TestServerContext {
       createVehicleRentalService(),
       routerConfig.flexConfig(),
       List.of(),
+      createServerCaches(graph),
       null
     );
     creatTransitLayerForRaptor(transitModel, routerConfig.transitTuningConfig());
@@ -61,4 +63,9 @@ public class TestServerContext {
   public static VehicleRentalService createVehicleRentalService() {
     return new DefaultVehicleRentalService();
   }
+
+  /** Create the caches, they are disabled by default and each request is routed. */
+  public static ServerCaches createServerCaches(Graph graph) {
+    return ServerCaches.create(RouterConfig.DEFAULT.server(), graph, Metrics.globalRegistry);
+  }
 }
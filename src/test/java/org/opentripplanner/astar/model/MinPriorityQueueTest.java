@@ -0,0 +1,106 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class MinPriorityQueueTest {
+
+  private static final int N = 10_000;
+
+  @ParameterizedTest
+  @EnumSource(PriorityQueueType.class)
+  void insertAllAndExtractInOrder(PriorityQueueType type) {
+    var rnd = new Random(17);
+    var subject = type.<Integer>create(10);
+    var expected = new PriorityQueue<Integer>();
+
+    for (int i = 0; i < N; i++) {
+      int v = rnd.nextInt(100_000);
+      subject.insert(v, v * 0.5);
+      expected.add(v);
+    }
+    assertEquals(N, subject.size());
+
+    while (!expected.isEmpty()) {
+      int v = expected.remove();
+      assertEquals(v * 0.5, subject.peek_min_key());
+      assertEquals(v, subject.extract_min());
+    }
+    assertTrue(subject.empty());
+    assertNull(subject.extract_min());
+    assertThrows(IllegalStateException.class, subject::peek_min_key);
+  }
+
+  /**
+   * Simulate a Dijkstra search, where inserted priorities are never lower than the last
+   * extracted priority. This is the case the radix heap supports.
+   */
+  @ParameterizedTest
+  @EnumSource(PriorityQueueType.class)
+  void monotoneInsertAndExtract(PriorityQueueType type) {
+    var rnd = new Random(42);
+    var subject = type.<Integer>create(10);
+    var result = new ArrayList<Double>();
+
+    subject.insert(0, 0.0);
+    int next = 1;
+    while (!subject.empty()) {
+      double min = subject.peek_min_key();
+      subject.extract_min();
+      result.add(min);
+      for (int j = 0; j < 3 && next < N; ++j, ++next) {
+        subject.insert(next, min + rnd.nextDouble() * 100);
+      }
+    }
+
+    assertEquals(N, result.size());
+    var sorted = new ArrayList<>(result);
+    sorted.sort(Double::compare);
+    assertEquals(sorted, result);
+  }
+
+  @ParameterizedTest
+  @EnumSource(PriorityQueueType.class)
+  void reset(PriorityQueueType type) {
+    var subject = type.<String>create(10);
+    subject.insert("A", 3.0);
+    subject.insert("B", 1.0);
+
+    subject.reset();
+
+    assertTrue(subject.empty());
+    subject.insert("C", 2.0);
+    assertEquals("C", subject.extract_min());
+  }
+
+  @Test
+  void radixHeapRejectsPriorityLowerThanLastExtracted() {
+    var subject = new RadixHeap<String>(10);
+    subject.insert("A", 5.0);
+    subject.insert("B", 7.0);
+    assertEquals("A", subject.extract_min());
+
+    assertThrows(IllegalArgumentException.class, () -> subject.insert("C", 2.0));
+    assertThrows(IllegalArgumentException.class, () -> subject.insert("D", -1.0));
+
+    subject.insert("E", 5.0);
+    assertEquals(List.of("E", "B"), List.of(subject.extract_min(), subject.extract_min()));
+  }
+
+  @Test
+  void radixHeapAcceptsNegativeZero() {
+    var subject = new RadixHeap<String>(10);
+    subject.insert("A", -0.0);
+    assertEquals("A", subject.extract_min());
+  }
+}
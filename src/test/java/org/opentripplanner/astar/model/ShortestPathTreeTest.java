@@ -0,0 +1,109 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+class ShortestPathTreeTest {
+
+  private static final Vertex A = StreetModelForTest.intersectionVertex("A", 60.0, 10.0);
+  private static final Vertex B = StreetModelForTest.intersectionVertex("B", 60.1, 10.1);
+
+  /** A state dominate another if both the weight and walk distance is better or equal */
+  private final ShortestPathTree<State, Edge, Vertex> subject = new ShortestPathTree<>((a, b) ->
+    a.weight <= b.weight && a.walkDistance <= b.walkDistance
+  );
+
+  @Test
+  void addSingleState() {
+    var s1 = state(A, 10, 10);
+
+    assertTrue(subject.add(s1));
+
+    assertEquals(List.of(s1), subject.getStates(A));
+    assertSame(s1, subject.getState(A));
+    assertNull(subject.getStates(B));
+    assertTrue(subject.visit(s1));
+    assertEquals(1, subject.getVertexCount());
+  }
+
+  @Test
+  void addDominatedState() {
+    var s1 = state(A, 10, 10);
+    var s2 = state(A, 11, 10);
+
+    subject.add(s1);
+
+    assertFalse(subject.add(s2));
+    assertEquals(List.of(s1), subject.getStates(A));
+    assertFalse(subject.visit(s2));
+  }
+
+  @Test
+  void addStateWhichDominateExistingState() {
+    var s1 = state(A, 10, 10);
+    var s2 = state(A, 9, 10);
+
+    subject.add(s1);
+
+    assertTrue(subject.add(s2));
+    assertEquals(List.of(s2), subject.getStates(A));
+    assertFalse(subject.visit(s1));
+    assertTrue(subject.visit(s2));
+  }
+
+  @Test
+  void addCoDominantStates() {
+    var s1 = state(A, 10, 10);
+    var s2 = state(A, 9, 11);
+    var s3 = state(A, 11, 9);
+
+    assertTrue(subject.add(s1));
+    assertTrue(subject.add(s2));
+    assertTrue(subject.add(s3));
+
+    assertEquals(List.of(s1, s2, s3), subject.getStates(A));
+    assertSame(s2, subject.getState(A));
+    assertTrue(subject.visit(s1));
+    assertTrue(subject.visit(s3));
+    assertEquals(Set.of(s1, s2, s3), Set.copyOf(subject.getAllStates()));
+
+    // A new state dominating all existing states replace them
+    var s4 = state(A, 1, 1);
+    assertTrue(subject.add(s4));
+    assertEquals(List.of(s4), subject.getStates(A));
+    assertFalse(subject.visit(s2));
+  }
+
+  @Test
+  void getAllStates() {
+    var s1 = state(A, 10, 10);
+    var s2 = state(A, 9, 11);
+    var s3 = state(B, 1, 1);
+
+    subject.add(s1);
+    subject.add(s2);
+    subject.add(s3);
+
+    assertEquals(Set.of(s1, s2, s3), Set.copyOf(subject.getAllStates()));
+    assertEquals(Set.of(A, B), subject.getVertices());
+  }
+
+  private static State state(Vertex vertex, double weight, double walkDistance) {
+    var state = new State(vertex, StreetSearchRequest.of().build());
+    state.weight = weight;
+    state.walkDistance = walkDistance;
+    return state;
+  }
+}
@@ -14,7 +14,9 @@ import org.opentripplanner._support.arch.Package;
 public class FrameworkArchitectureTest {
 
   private static final Package APACHE_HTTP = Package.of("org.apache.http..");
+  private static final Package GUAVA_CACHE = Package.of("com.google.common.cache");
   private static final Package GUAVA_COLLECTIONS = Package.of("com.google.common.collect");
+  private static final Package MICROMETER = Package.of("io.micrometer.core.instrument..");
 
   private static final Module XML_MODULES = Module.of(
     Package.of("com.fasterxml.jackson.."),
@@ -22,6 +24,7 @@ public class FrameworkArchitectureTest {
     Package.of("org.xml.sax")
   );
   private static final Package APPLICATION = FRAMEWORK.subPackage("application");
+  private static final Package CACHE = FRAMEWORK.subPackage("cache");
   private static final Package COLLECTION = FRAMEWORK.subPackage("collection");
   private static final Package GEOMETRY = FRAMEWORK.subPackage("geometry");
   private static final Package I18N = FRAMEWORK.subPackage("i18n");
@@ -39,6 +42,11 @@ public class FrameworkArchitectureTest {
     APPLICATION.verify();
   }
 
+  @Test
+  void enforceCachePackageDependencies() {
+    CACHE.dependsOn(GUAVA_CACHE, MICROMETER, JTS_GEOM, GEOMETRY).verify();
+  }
+
   @Test
   void enforceCollectionPackageDependencies() {
     COLLECTION.dependsOn(GNU_TROVE).verify();
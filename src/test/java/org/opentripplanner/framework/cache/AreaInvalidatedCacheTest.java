@@ -0,0 +1,105 @@
+package org.opentripplanner.framework.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+
+class AreaInvalidatedCacheTest {
+
+  private static final Envelope OSLO = new Envelope(10.70, 10.80, 59.90, 59.95);
+  private static final Envelope BERGEN = new Envelope(5.30, 5.35, 60.38, 60.40);
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final AreaInvalidatedCache<String, String> subject = AreaInvalidatedCache.ofMaxSize(
+    "test",
+    10,
+    Duration.ofMinutes(1),
+    registry
+  );
+
+  @Test
+  void computeOnlyOnMiss() {
+    assertEquals("A", subject.get("a", () -> "A", v -> OSLO));
+    assertEquals("A", subject.get("a", () -> "B", v -> OSLO));
+
+    assertEquals(1.0, registry.counter("test.hits").count());
+    assertEquals(1.0, registry.counter("test.misses").count());
+    assertEquals(1.0, registry.get("test.size").gauge().value());
+  }
+
+  @Test
+  void invalidateEntriesInTheChangedArea() {
+    subject.get("oslo", () -> "Oslo", v -> OSLO);
+    subject.get("bergen", () -> "Bergen", v -> BERGEN);
+    subject.get("static", () -> "Static", v -> null);
+
+    subject.invalidate(List.of(new Envelope(OSLO.centre())));
+
+    assertNull(subject.getIfPresent("oslo"));
+    assertEquals("Bergen", subject.getIfPresent("bergen"));
+    assertEquals("Static", subject.getIfPresent("static"));
+  }
+
+  @Test
+  void keepEntriesBetweenTheChangedAreas() {
+    subject.get("oslo", () -> "Oslo", v -> OSLO);
+
+    // The bounding box of Bergen and Stockholm contains Oslo
+    subject.invalidate(List.of(BERGEN, new Envelope(18.05, 18.10, 59.30, 59.35)));
+
+    assertEquals("Oslo", subject.getIfPresent("oslo"));
+  }
+
+  @Test
+  void doNotCacheValuesComputedWhileTheGraphIsUpdated() {
+    subject.get(
+      "oslo",
+      () -> {
+        subject.invalidate(List.of(BERGEN));
+        return "Oslo";
+      },
+      v -> OSLO
+    );
+    assertEquals(0, subject.size());
+
+    subject.get(
+      "static",
+      () -> {
+        subject.invalidate(List.of(BERGEN));
+        return "Static";
+      },
+      v -> null
+    );
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void expandArea() {
+    var area = AreaInvalidatedCache.expandArea(new Envelope(OSLO.centre()));
+    assertTrue(area.contains(OSLO.centre()));
+    // 500 m is about 0.0045 degrees latitude
+    assertEquals(0.009, area.getHeight(), 0.0001);
+
+    var unknown = AreaInvalidatedCache.expandArea(new Envelope());
+    assertTrue(unknown.contains(OSLO) && unknown.contains(BERGEN));
+  }
+
+  @Test
+  void disabled() {
+    var disabled = AreaInvalidatedCache.<String, byte[]>ofMaxWeight(
+      "disabled",
+      0,
+      v -> v.length,
+      registry
+    );
+    assertFalse(disabled.isEnabled());
+    assertTrue(subject.isEnabled());
+  }
+}
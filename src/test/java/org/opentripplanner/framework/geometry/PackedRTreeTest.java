@@ -0,0 +1,70 @@
+package org.opentripplanner.framework.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+
+class PackedRTreeTest {
+
+  private static final double X0 = -0.05;
+  private static final double Y0 = 44.0;
+  private static final double DX = 0.1;
+  private static final double DY = 0.1;
+  private static final int N_OBJS = 1000;
+
+  private final Random rand = new Random(42);
+
+  /**
+   * Insert many random-envelope objects into both the packed tree and a JTS STRtree, and check
+   * that random queries return the same objects.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  void queryRandom() {
+    var builder = PackedRTree.<Envelope>of();
+    var strTree = new STRtree();
+
+    for (int i = 0; i < N_OBJS; i++) {
+      var env = randomEnvelope();
+      builder.add(env, env);
+      strTree.insert(env, env);
+    }
+    var subject = builder.build();
+    assertEquals(N_OBJS, subject.size());
+
+    for (int i = 0; i < 1000; i++) {
+      var searchEnv = randomEnvelope();
+      List<Envelope> result = subject.query(searchEnv);
+      Set<Envelope> expected = new HashSet<>();
+      for (Envelope env : (List<Envelope>) strTree.query(searchEnv)) {
+        if (env.intersects(searchEnv)) {
+          expected.add(env);
+        }
+      }
+      assertEquals(expected.size(), result.size(), "No duplicates");
+      assertEquals(expected, new HashSet<>(result));
+    }
+  }
+
+  @Test
+  void emptyTree() {
+    var subject = PackedRTree.of().build();
+
+    assertEquals(0, subject.size());
+    assertTrue(subject.query(new Envelope(0, 1, 0, 1)).isEmpty());
+  }
+
+  private Envelope randomEnvelope() {
+    Coordinate a = new Coordinate(rand.nextDouble() * DX + X0, rand.nextDouble() * DY + Y0);
+    Coordinate b = new Coordinate(rand.nextDouble() * DX + X0, rand.nextDouble() * DY + Y0);
+    return new Envelope(a, b);
+  }
+}
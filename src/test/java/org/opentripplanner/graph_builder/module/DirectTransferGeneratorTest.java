@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.File;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
@@ -15,6 +16,7 @@ import java.util.Set;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
 import org.opentripplanner.TestOtpModel;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -49,6 +51,7 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
   private static final Duration MAX_TRANSFER_DURATION = Duration.ofSeconds(3600);
   private TransitStopVertex S0, S11, S12, S13, S21, S22, S23;
   private StreetVertex V0, V11, V12, V13, V21, V22, V23;
+  private int lengthV11V21 = 100;
 
   @Test
   public void testDirectTransfersWithoutPatterns() {
@@ -250,6 +253,76 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
     );
   }
 
+  @Test
+  public void testCachedTransfers(@TempDir File cacheDirectory) {
+    var cachedTransfersFile = new File(cacheDirectory, "cached_transfers.obj");
+    var req = new RouteRequest();
+    req.journey().transfer().setMode(StreetMode.WALK);
+    var transferRequests = List.of(req);
+
+    // Build the same graph twice, the second time reusing the transfers cached the first time
+    for (int i = 0; i < 2; i++) {
+      var otpModel = model(true);
+      var graph = otpModel.graph();
+      graph.hasStreets = true;
+      var transitModel = otpModel.transitModel();
+
+      var generator = new DirectTransferGenerator(
+        graph,
+        transitModel,
+        DataImportIssueStore.NOOP,
+        MAX_TRANSFER_DURATION,
+        transferRequests,
+        cachedTransfersFile,
+        true,
+        true
+      );
+      generator.buildGraph();
+
+      assertTrue(cachedTransfersFile.exists());
+      if (i == 0) {
+        assertEquals(0, generator.numberOfReusedStops());
+      } else {
+        assertTrue(generator.numberOfReusedStops() > 0);
+      }
+      assertTransfers(
+        transitModel.getAllPathTransfers(),
+        tr(S0, 100, List.of(V0, V11), S11),
+        tr(S0, 100, List.of(V0, V21), S21),
+        tr(S11, 100, List.of(V11, V21), S21)
+      );
+    }
+
+    // Change a street, the transfers using it must not be reused. The searches from every stop
+    // reach the changed street, so no stop is reused.
+    lengthV11V21 = 150;
+    var otpModel = model(true);
+    var graph = otpModel.graph();
+    graph.hasStreets = true;
+    var transitModel = otpModel.transitModel();
+
+    var generator = new DirectTransferGenerator(
+      graph,
+      transitModel,
+      DataImportIssueStore.NOOP,
+      MAX_TRANSFER_DURATION,
+      transferRequests,
+      cachedTransfersFile,
+      true,
+      false
+    );
+    generator.buildGraph();
+
+    assertEquals(0, generator.numberOfReusedStops());
+
+    assertTransfers(
+      transitModel.getAllPathTransfers(),
+      tr(S0, 100, List.of(V0, V11), S11),
+      tr(S0, 100, List.of(V0, V21), S21),
+      tr(S11, 110, List.of(V11, V22), S22)
+    );
+  }
+
   @Test
   public void testTransferOnIsolatedStations() {
     var otpModel = model(true, false, true);
@@ -323,7 +396,7 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
           street(V12, V13, 100, StreetTraversalPermission.PEDESTRIAN);
           street(V21, V22, 100, StreetTraversalPermission.PEDESTRIAN);
           street(V22, V23, 100, StreetTraversalPermission.PEDESTRIAN);
-          street(V11, V21, 100, StreetTraversalPermission.PEDESTRIAN);
+          street(V11, V21, lengthV11V21, StreetTraversalPermission.PEDESTRIAN);
           street(V11, V22, 110, StreetTraversalPermission.PEDESTRIAN_AND_BICYCLE);
 
           if (addPatterns) {
@@ -2,6 +2,7 @@ package org.opentripplanner.graph_builder.module;
 
 import static graphql.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.util.List;
@@ -18,6 +19,7 @@ import org.opentripplanner.model.calendar.ServiceDateInterval;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.test.support.VariableSource;
 import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.StopModel;
 import org.opentripplanner.transit.service.TransitModel;
 
@@ -54,6 +56,47 @@ class GtfsModuleTest {
     assertNotNull(pattern.getHopGeometry(0));
   }
 
+  /**
+   * The feeds are loaded in parallel, but the stops and trip patterns must be indexed in the order
+   * of the bundles, so the indexes are the same in each build.
+   */
+  @Test
+  public void indexStopsAndPatternsInBundleOrder() {
+    var model = buildTestModel();
+    var feedIds = List.of("A", "B", "C");
+    var bundles = feedIds.stream().map(Interlining::bundle).toList();
+
+    new GtfsModule(bundles, model.transitModel, model.graph, ServiceDateInterval.unbounded())
+      .buildGraph();
+
+    var stopIndexes = model.transitModel
+      .getStopModel()
+      .listRegularStops()
+      .stream()
+      .collect(
+        Collectors.groupingBy(
+          s -> s.getId().getFeedId(),
+          Collectors.summarizingInt(StopLocation::getIndex)
+        )
+      );
+    var patternIndexes = model.transitModel
+      .getAllTripPatterns()
+      .stream()
+      .collect(
+        Collectors.groupingBy(
+          p -> p.getId().getFeedId(),
+          Collectors.summarizingInt(p -> p.getRoutingTripPattern().patternIndex())
+        )
+      );
+
+    for (int i = 1; i < feedIds.size(); i++) {
+      var prev = feedIds.get(i - 1);
+      var feed = feedIds.get(i);
+      assertTrue(stopIndexes.get(prev).getMax() < stopIndexes.get(feed).getMin());
+      assertTrue(patternIndexes.get(prev).getMax() < patternIndexes.get(feed).getMin());
+    }
+  }
+
   private static TestModels buildTestModel() {
     var deduplicator = new Deduplicator();
     var stopModel = new StopModel();
@@ -0,0 +1,36 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentDisjointSetTest {
+
+  @Test
+  void union() {
+    var subject = new ConcurrentDisjointSet(5);
+    subject.union(3, 1);
+    subject.union(4, 3);
+
+    assertEquals(1, subject.find(4));
+    assertEquals(1, subject.find(3));
+    assertEquals(0, subject.find(0));
+    assertEquals(2, subject.find(2));
+  }
+
+  @Test
+  void unionInParallel() {
+    int size = 100_000;
+    var subject = new ConcurrentDisjointSet(size);
+
+    // Join the even and the odd elements in two chains, in parallel and in no particular order
+    IntStream.range(2, size).parallel().forEach(i -> subject.union(i, i - 2));
+
+    for (int i = 0; i < size; i++) {
+      assertEquals(i % 2, subject.find(i));
+    }
+    assertNotEquals(subject.find(0), subject.find(1));
+  }
+}
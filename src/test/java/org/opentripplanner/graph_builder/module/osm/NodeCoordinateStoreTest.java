@@ -0,0 +1,74 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class NodeCoordinateStoreTest {
+
+  private static final double DELTA = 1e-7;
+
+  @Test
+  void addSortedNodes() {
+    var subject = new NodeCoordinateStore();
+    subject.add(1, 59.9, 10.7);
+    subject.add(3, 60.1, 10.8);
+    subject.add(7, 60.2, 10.9);
+
+    assertEquals(3, subject.size());
+    int index = subject.indexOf(3);
+    assertEquals(60.1, subject.lat(index), DELTA);
+    assertEquals(10.8, subject.lon(index), DELTA);
+    assertFalse(subject.contains(2));
+    assertFalse(subject.contains(8));
+  }
+
+  @Test
+  void addNodesOutOfOrder() {
+    var subject = new NodeCoordinateStore();
+    // More nodes than the initial capacity, added in two interleaved sequences
+    for (long id = 0; id < 5000; id += 2) {
+      subject.add(id, id / 1e4, -id / 1e4);
+    }
+    for (long id = 4999; id > 0; id -= 2) {
+      subject.add(id, id / 1e4, -id / 1e4);
+    }
+
+    assertEquals(5000, subject.size());
+    for (long id = 0; id < 5000; id++) {
+      int index = subject.indexOf(id);
+      assertTrue(index >= 0, "Node " + id);
+      assertEquals(id / 1e4, subject.lat(index), DELTA);
+      assertEquals(-id / 1e4, subject.lon(index), DELTA);
+    }
+    assertFalse(subject.contains(5000));
+  }
+
+  @Test
+  void keepTheFirstOfDuplicateNodes() {
+    var subject = new NodeCoordinateStore();
+    subject.add(1, 1.0, 1.0);
+    subject.add(1, 2.0, 2.0);
+    subject.add(2, 1.0, 1.0);
+    // Added again out of order, for example from a second OSM file
+    subject.add(1, 3.0, 3.0);
+    subject.add(2, 3.0, 3.0);
+    subject.add(0, 1.0, 1.0);
+
+    assertEquals(3, subject.size());
+    assertEquals(1.0, subject.lat(subject.indexOf(1)), DELTA);
+    assertEquals(1.0, subject.lat(subject.indexOf(2)), DELTA);
+  }
+
+  @Test
+  void keepTheOsmPrecision() {
+    var subject = new NodeCoordinateStore();
+    subject.add(1, 59.9123456, -179.9999999);
+
+    int index = subject.indexOf(1);
+    assertEquals(59.9123456, subject.lat(index), 1e-9);
+    assertEquals(-179.9999999, subject.lon(index), 1e-9);
+  }
+}
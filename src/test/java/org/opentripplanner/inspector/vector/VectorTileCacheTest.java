@@ -0,0 +1,96 @@
+package org.opentripplanner.inspector.vector;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.api.resource.WebMercatorTile;
+
+class VectorTileCacheTest {
+
+  private static final LayerParams STOPS = new LayerParams("stops", LayerType.STOP);
+  private static final LayerParams RENTAL = new LayerParams("rental", LayerType.RENTAL);
+  private static final int X = 1100;
+  private static final int Y = 600;
+  private static final int Z = 11;
+  private static final Envelope TILE = WebMercatorTile.tile2Envelope(X, Y, Z);
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final VectorTileCache subject = new VectorTileCache(() -> 1000, registry);
+  private int builds = 0;
+
+  @Test
+  void shareLayerForTheSameTile() {
+    var first = get(STOPS, false, X, Locale.ENGLISH);
+    var second = get(STOPS, false, X, Locale.ENGLISH);
+
+    assertArrayEquals(first, second);
+    assertEquals(1, builds);
+    assertEquals(1.0, registry.counter("vectorTiles.cache.hits").count());
+    assertEquals(1.0, registry.counter("vectorTiles.cache.misses").count());
+  }
+
+  @Test
+  void doNotShareLayerForDifferentTilesOrLocales() {
+    get(STOPS, false, X, Locale.ENGLISH);
+    get(STOPS, false, X + 1, Locale.ENGLISH);
+    get(STOPS, false, X, Locale.GERMAN);
+    get(RENTAL, true, X, Locale.ENGLISH);
+
+    assertEquals(4, builds);
+  }
+
+  @Test
+  void invalidateRealtimeLayersInTheChangedArea() {
+    get(STOPS, false, X, Locale.ENGLISH);
+    get(RENTAL, true, X, Locale.ENGLISH);
+    assertEquals(2, subject.size());
+
+    // Far away from the tile
+    subject.invalidate(List.of(new Envelope(5.0, 5.1, 58.0, 58.1)));
+    assertEquals(2, subject.size());
+
+    // Inside the tile, only the realtime layer is removed
+    subject.invalidate(List.of(new Envelope(TILE.centre())));
+    assertEquals(1, subject.size());
+
+    get(STOPS, false, X, Locale.ENGLISH);
+    get(RENTAL, true, X, Locale.ENGLISH);
+    assertEquals(3, builds);
+  }
+
+  @Test
+  void evictWhenMaxSizeIsReached() {
+    for (int i = 0; i < 20; i++) {
+      get(STOPS, false, X + i, Locale.ENGLISH);
+    }
+    // Each layer is 100 bytes, the cache holds 1000 bytes
+    assertTrue(subject.size() <= 10);
+  }
+
+  private byte[] get(LayerParams layer, boolean realtime, int x, Locale locale) {
+    return subject.getOrBuild(layer, realtime, x, Y, Z, locale, TILE, this::build);
+  }
+
+  private byte[] build() {
+    ++builds;
+    return new byte[100];
+  }
+
+  enum LayerType {
+    STOP,
+    RENTAL,
+  }
+
+  private record LayerParams(String name, LayerType type) implements LayerParameters<LayerType> {
+    @Override
+    public String mapper() {
+      return "Test";
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package org.opentripplanner.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+class StopTimesIndexTest {
+
+  private static final TripPattern PATTERN = TransitModelForTest
+    .tripPattern("P1", TransitModelForTest.route("R1").build())
+    .withStopPattern(TransitModelForTest.stopPattern(2))
+    .build();
+
+  private final Timetable timetable = new Timetable(PATTERN);
+
+  @Test
+  void sortedByTimeAtEachStop() {
+    var t30 = tripTimes("T1", 30, 100);
+    var t10 = tripTimes("T2", 10, 500);
+    var t20 = tripTimes("T3", 20, 50);
+    timetable.addTripTimes(t30);
+    timetable.addTripTimes(t10);
+    timetable.addTripTimes(t20);
+
+    var departures = timetable.getStopTimesIndex().departures(0);
+    assertEquals(3, departures.size());
+    assertEquals(List.of(t10, t20, t30), tripTimes(departures));
+    assertEquals(10, departures.time(0));
+    assertEquals(30, departures.time(2));
+
+    var arrivals = timetable.getStopTimesIndex().arrivals(1);
+    assertEquals(List.of(t20, t30, t10), tripTimes(arrivals));
+    assertFalse(arrivals.hasCancelledOrNoDataStop());
+  }
+
+  @Test
+  void firstIndexAtOrAfter() {
+    timetable.addTripTimes(tripTimes("T1", 10, 100));
+    timetable.addTripTimes(tripTimes("T2", 20, 100));
+    timetable.addTripTimes(tripTimes("T3", 20, 100));
+    timetable.addTripTimes(tripTimes("T4", 30, 100));
+
+    var departures = timetable.getStopTimesIndex().departures(0);
+    assertEquals(0, departures.firstIndexAtOrAfter(0));
+    assertEquals(0, departures.firstIndexAtOrAfter(10));
+    assertEquals(1, departures.firstIndexAtOrAfter(11));
+    assertEquals(1, departures.firstIndexAtOrAfter(20));
+    assertEquals(3, departures.firstIndexAtOrAfter(21));
+    assertEquals(4, departures.firstIndexAtOrAfter(31));
+  }
+
+  @Test
+  void indexIsRecreatedWhenTripTimesChange() {
+    var t1 = tripTimes("T1", 10, 100);
+    timetable.addTripTimes(t1);
+
+    var index = timetable.getStopTimesIndex();
+    assertSame(index, timetable.getStopTimesIndex());
+
+    var delayed = new TripTimes(t1);
+    delayed.updateDepartureTime(0, 40);
+    delayed.setCancelled(1);
+    timetable.setTripTimes(0, delayed);
+
+    var updated = timetable.getStopTimesIndex();
+    assertNotSame(index, updated);
+    assertEquals(40, updated.departures(0).time(0));
+    assertTrue(updated.arrivals(1).hasCancelledOrNoDataStop());
+
+    timetable.removeTripTimes(delayed);
+    assertEquals(0, timetable.getStopTimesIndex().departures(0).size());
+  }
+
+  private static TripTimes tripTimes(String id, int departure, int arrival) {
+    var trip = TransitModelForTest.trip(id).build();
+    var stopTimes = List.of(
+      TransitModelForTest.stopTime(trip, 0, departure),
+      TransitModelForTest.stopTime(trip, 1, arrival)
+    );
+    return new TripTimes(trip, stopTimes, new Deduplicator());
+  }
+
+  private static List<TripTimes> tripTimes(StopTimesIndex.SortedTimes times) {
+    return IntStream.range(0, times.size()).mapToObj(times::tripTimes).toList();
+  }
+}
@@ -0,0 +1,62 @@
+package org.opentripplanner.openstreetmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+
+class PbfBlockReaderTest {
+
+  private static final String FILE = "/org/opentripplanner/graph_builder/module/osm/map.osm.pbf";
+
+  @Test
+  void decodeInParallelAndHandleInFileOrder() throws IOException {
+    var sequential = read(new PbfBlockReader(Runnable::run, 1), false);
+    var pool = Executors.newFixedThreadPool(4);
+    try {
+      var parallel = read(new PbfBlockReader(pool, 3), false);
+      assertEquals(sequential, parallel);
+    } finally {
+      pool.shutdown();
+    }
+
+    // The test file has two data blocks, and no header block
+    assertEquals(2, sequential.size());
+    for (int i = 0; i < sequential.size(); i++) {
+      assertTrue(sequential.get(i).startsWith("data " + i + ":"));
+    }
+  }
+
+  @Test
+  void skipDataBlocks() throws IOException {
+    assertEquals(List.of(), read(new PbfBlockReader(Runnable::run, 2), true));
+  }
+
+  private List<String> read(PbfBlockReader reader, boolean skipData) throws IOException {
+    var result = new ArrayList<String>();
+    try (InputStream in = getClass().getResourceAsStream(FILE)) {
+      reader.read(
+        in,
+        index -> skipData,
+        new PbfBlockReader.Handler() {
+          @Override
+          public void header(Osmformat.HeaderBlock block) {
+            result.add("header");
+          }
+
+          @Override
+          public void data(int index, Osmformat.PrimitiveBlock block) {
+            result.add("data " + index + ": " + block.getPrimitivegroupCount());
+          }
+        }
+      );
+    }
+    return result;
+  }
+}
@@ -0,0 +1,85 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.rangeraptor.transit.ForwardRaptorTransitCalculator;
+import org.opentripplanner.raptor.spi.IntIterator;
+
+class SearchWindowSplitterTest {
+
+  private static final int STEP = 60;
+  private static final int EDT = 3600;
+
+  @Test
+  void doNotSplitSmallSearchWindow() {
+    // 19 iterations is not enough for 2 sub-windows with at least 10 iterations each
+    assertTrue(SearchWindowSplitter.split(request(19 * STEP), 4, STEP).isEmpty());
+    assertTrue(SearchWindowSplitter.split(request(120 * STEP), 1, STEP).isEmpty());
+  }
+
+  @Test
+  void splitSearchWindow() {
+    var result = SearchWindowSplitter.split(request(120 * STEP), 3, STEP);
+
+    assertEquals(3, result.size());
+    // Latest sub-window first
+    assertEquals(EDT + 80 * STEP, result.get(0).searchParams().earliestDepartureTime());
+    assertEquals(40 * STEP, result.get(0).searchParams().searchWindowInSeconds());
+    assertEquals(EDT + 40 * STEP, result.get(1).searchParams().earliestDepartureTime());
+    assertEquals(EDT, result.get(2).searchParams().earliestDepartureTime());
+    assertEquals(40 * STEP, result.get(2).searchParams().searchWindowInSeconds());
+  }
+
+  @Test
+  void numberOfSubWindowsIsLimitedByTheNumberOfIterations() {
+    assertEquals(3, SearchWindowSplitter.split(request(35 * STEP), 32, STEP).size());
+  }
+
+  @Test
+  void subWindowsPerformTheSameIterationsAsTheOriginalSearch() {
+    // A search-window which is not a multiple of the iteration step
+    var original = request(95 * STEP + 17);
+
+    var subRequests = SearchWindowSplitter.split(original, 4, STEP);
+    assertEquals(4, subRequests.size());
+
+    var subIterations = new ArrayList<Integer>();
+    subRequests.forEach(it -> subIterations.addAll(iterations(it)));
+
+    assertEquals(iterations(original), subIterations);
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(int searchWindow) {
+    return new RaptorRequestBuilder<TestTripSchedule>()
+      .searchParams()
+      .earliestDepartureTime(EDT)
+      .searchWindowInSeconds(searchWindow)
+      .addAccessPaths(TestAccessEgress.walk(1, 30))
+      .addEgressPaths(TestAccessEgress.walk(2, 30))
+      .build();
+  }
+
+  private static List<Integer> iterations(RaptorRequest<TestTripSchedule> request) {
+    var s = request.searchParams();
+    var calculator = new ForwardRaptorTransitCalculator<TestTripSchedule>(
+      s.earliestDepartureTime(),
+      s.searchWindowInSeconds(),
+      s.latestArrivalTime(),
+      STEP
+    );
+    var result = new ArrayList<Integer>();
+    IntIterator it = calculator.rangeRaptorMinutes();
+    while (it.hasNext()) {
+      result.add(it.next());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,221 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.api.request.request.filter.SelectRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilterRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.RepeatingTimePeriod;
+import org.opentripplanner.street.model.TurnRestriction;
+import org.opentripplanner.street.model.TurnRestrictionType;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.TraverseModeSet;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+
+class AccessEgressCacheTest {
+
+  private static final Duration DURATION_LIMIT = Duration.ofMinutes(45);
+  private static final StreetRequest WALK = new StreetRequest(StreetMode.WALK);
+  private static final NearbyStop STOP = new NearbyStop(
+    TransitModelForTest.stopForTest("A", 59.901, 10.701),
+    100,
+    List.of(),
+    null
+  );
+
+  private static final AccessEgressCacheParameters PARAMETERS = new AccessEgressCacheParameters() {
+    @Override
+    public int maxSize() {
+      return 10;
+    }
+
+    @Override
+    public Duration timeToLive() {
+      return Duration.ofHours(1);
+    }
+  };
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private AccessEgressCache subject = new AccessEgressCache(PARAMETERS, false, registry);
+  private int searches = 0;
+
+  @Test
+  void shareResultForTheSameLocationAndMode() {
+    var first = access(request("S1"), WALK);
+    var second = access(request("S1"), WALK);
+
+    assertEquals(List.of(STOP), first);
+    assertEquals(first, second);
+    assertEquals(1, searches);
+    assertEquals(1.0, registry.counter("routing.accessEgressCache.hits").count());
+    assertEquals(1.0, registry.counter("routing.accessEgressCache.misses").count());
+  }
+
+  @Test
+  void doNotShareResultForDifferentSearches() {
+    access(request("S1"), WALK);
+    access(request("S2"), WALK);
+    access(request("S1"), new StreetRequest(StreetMode.BIKE));
+
+    var otherPreferences = request("S1");
+    otherPreferences.withPreferences(p -> p.withWalk(w -> w.withSpeed(2.0)));
+    access(otherPreferences, WALK);
+
+    var otherFilters = request("S1");
+    otherFilters
+      .journey()
+      .transit()
+      .setFilters(
+        List.of(
+          TransitFilterRequest
+            .of()
+            .addSelect(SelectRequest.of().withRoutes(List.of(id("R1"))).build())
+            .build()
+        )
+      );
+    access(otherFilters, WALK);
+
+    // The transit preferences are not used in the street search
+    var otherTransitPreferences = request("S1");
+    otherTransitPreferences.withPreferences(p -> p.withTransfer(t -> t.withSlack(300)));
+    access(otherTransitPreferences, WALK);
+
+    assertEquals(5, searches);
+  }
+
+  @Test
+  void doNotCacheIfTheStreetSearchIsTimeDependent() {
+    subject = new AccessEgressCache(PARAMETERS, true, registry);
+
+    access(request("S1"), WALK);
+    access(request("S1"), WALK);
+
+    assertFalse(subject.isEnabled());
+    assertEquals(2, searches);
+  }
+
+  @Test
+  void findTimeDependentTurnRestrictions() {
+    var graph = new Graph();
+    var a = intersectionVertex(59.90, 10.70);
+    var b = intersectionVertex(59.91, 10.71);
+    var c = intersectionVertex(59.92, 10.72);
+    graph.addVertex(a);
+    graph.addVertex(b);
+    graph.addVertex(c);
+    var ab = streetEdge(a, b);
+    var bc = streetEdge(b, c);
+
+    ab.addTurnRestriction(turnRestriction(ab, bc, null));
+    assertFalse(AccessEgressCache.hasTimeDependentTurnRestrictions(graph));
+
+    var rushHour = RepeatingTimePeriod.parseFromOsmTurnRestriction(
+      "Mo",
+      "Fr",
+      "07:00",
+      "09:00",
+      () -> ZoneIds.OSLO
+    );
+    bc.addTurnRestriction(turnRestriction(bc, ab, rushHour));
+    assertTrue(AccessEgressCache.hasTimeDependentTurnRestrictions(graph));
+  }
+
+  @Test
+  void doNotCacheSearchesFromACoordinate() {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(59.9, 10.7));
+    request.setTo(new GenericLocation(60.0, 10.8));
+
+    access(request, WALK);
+    access(request, WALK);
+
+    assertEquals(2, searches);
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void invalidateEntriesInTheChangedArea() {
+    access(request("S1"), WALK);
+    assertEquals(1, subject.size());
+
+    // Far away from the location and the stop
+    subject.invalidate(List.of(new Envelope(5.0, 5.1, 58.0, 58.1)));
+    assertEquals(1, subject.size());
+
+    // Close to the stop
+    subject.invalidate(List.of(new Envelope(10.702, 10.702, 59.902, 59.902)));
+    assertEquals(0, subject.size());
+
+    access(request("S1"), WALK);
+    assertEquals(2, searches);
+  }
+
+  @Test
+  void searchOnlyTheDurationLimitsNotInTheCache() {
+    var request = request("S1");
+    var flexLimit = Duration.ofMinutes(10);
+    List<List<Duration>> searchedLimits = new ArrayList<>();
+    Function<List<Duration>, List<Collection<NearbyStop>>> search = limits -> {
+      searchedLimits.add(limits);
+      return limits.stream().map(it -> (Collection<NearbyStop>) List.of(STOP)).toList();
+    };
+
+    access(request, WALK);
+    var result = subject.streetSearch(
+      request,
+      WALK,
+      null,
+      false,
+      List.of(DURATION_LIMIT, flexLimit),
+      search
+    );
+
+    assertEquals(List.of(List.of(STOP), List.of(STOP)), result);
+    assertEquals(List.of(List.of(flexLimit)), searchedLimits);
+    assertEquals(2, subject.size());
+  }
+
+  private Collection<NearbyStop> access(RouteRequest request, StreetRequest streetRequest) {
+    return subject.streetSearch(request, streetRequest, null, false, DURATION_LIMIT, this::search);
+  }
+
+  private Collection<NearbyStop> search() {
+    ++searches;
+    return List.of(STOP);
+  }
+
+  private static RouteRequest request(String stopId) {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(null, id(stopId), 59.9, 10.7));
+    request.setTo(new GenericLocation(60.0, 10.8));
+    return request;
+  }
+
+  private static TurnRestriction turnRestriction(
+    StreetEdge from,
+    StreetEdge to,
+    RepeatingTimePeriod time
+  ) {
+    var modes = TraverseModeSet.allModes();
+    return new TurnRestriction(from, to, TurnRestrictionType.NO_TURN, modes, time);
+  }
+}
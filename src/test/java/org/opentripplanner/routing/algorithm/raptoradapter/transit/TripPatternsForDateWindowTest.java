@@ -0,0 +1,131 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+class TripPatternsForDateWindowTest {
+
+  private static final Route ROUTE = TransitModelForTest.route("1").build();
+  private static final LocalDate D1 = LocalDate.of(2023, 5, 1);
+  private static final LocalDate D2 = LocalDate.of(2023, 5, 2);
+  private static final LocalDate D3 = LocalDate.of(2023, 5, 3);
+  private static final LocalDate D4 = LocalDate.of(2023, 5, 4);
+
+  private final RoutingTripPattern patternA = createTripPattern("A");
+  private final RoutingTripPattern patternB = createTripPattern("B");
+  private final List<TripTimes> tripTimes = List.of(createTripTimes());
+
+  private final TripPatternForDate a1 = patternForDate(patternA, D1);
+  private final TripPatternForDate a2 = patternForDate(patternA, D2);
+  private final TripPatternForDate a3 = patternForDate(patternA, D3);
+  private final TripPatternForDate b2 = patternForDate(patternB, D2);
+
+  private final Map<LocalDate, List<TripPatternForDate>> patternsByDate = Map.of(
+    D1,
+    List.of(a1),
+    D2,
+    List.of(a2, b2),
+    D3,
+    List.of(a3)
+  );
+
+  @Test
+  void create() {
+    var subject = TripPatternsForDateWindow.create(D2, 1, 1, patternsByDate::get);
+
+    assertEquals(2, subject.numberOfPatterns());
+    assertEquals("[[A 2023-05-01, A 2023-05-02, A 2023-05-03], [B 2023-05-02]]", toStr(subject));
+  }
+
+  @Test
+  void includesDate() {
+    var subject = TripPatternsForDateWindow.create(D2, 1, 0, patternsByDate::get);
+
+    assertFalse(subject.includesDate(D1.minusDays(1)));
+    assertTrue(subject.includesDate(D1));
+    assertTrue(subject.includesDate(D2));
+    assertFalse(subject.includesDate(D3));
+  }
+
+  @Test
+  void withReplacedDate() {
+    var original = TripPatternsForDateWindow.create(D2, 1, 1, patternsByDate::get);
+    var b3 = patternForDate(patternB, D3);
+
+    var subject = original.withReplacedDate(D3, List.of(a3), List.of(b3));
+
+    assertEquals("[[A 2023-05-01, A 2023-05-02], [B 2023-05-02, B 2023-05-03]]", toStr(subject));
+    // The original is not changed
+    assertEquals("[[A 2023-05-01, A 2023-05-02, A 2023-05-03], [B 2023-05-02]]", toStr(original));
+
+    // Remove pattern B on the search date
+    subject = subject.withReplacedDate(D2, List.of(a2, b2), List.of(a2));
+    assertEquals("[[A 2023-05-01, A 2023-05-02], [B 2023-05-03]]", toStr(subject));
+  }
+
+  @Test
+  void withReplacedDateOutsideWindow() {
+    var original = TripPatternsForDateWindow.create(D2, 1, 1, patternsByDate::get);
+    var b4 = patternForDate(patternB, D4);
+
+    assertSame(original, original.withReplacedDate(D4, List.of(), List.of(b4)));
+  }
+
+  private static String toStr(TripPatternsForDateWindow window) {
+    return window
+      .patternsForDates()
+      .stream()
+      .map(it ->
+        Arrays
+          .stream(it)
+          .map(p -> p.getTripPattern().getPattern().getId().getId() + " " + p.getLocalDate())
+          .toList()
+      )
+      .sorted((a, b) -> a.get(0).compareTo(b.get(0)))
+      .toList()
+      .toString();
+  }
+
+  private TripPatternForDate patternForDate(RoutingTripPattern pattern, LocalDate date) {
+    return new TripPatternForDate(pattern, tripTimes, List.of(), date);
+  }
+
+  private static TripTimes createTripTimes() {
+    var st1 = new StopTime();
+    var st2 = new StopTime();
+    st1.setDepartureTime(3600);
+    st2.setArrivalTime(7200);
+    return new TripTimes(
+      TransitModelForTest.trip("T1").withRoute(ROUTE).build(),
+      List.of(st1, st2),
+      new Deduplicator()
+    );
+  }
+
+  private static RoutingTripPattern createTripPattern(String id) {
+    var st = new StopTime();
+    st.setStop(TransitModelForTest.stopForTest("S:" + id, 0.0, 0.0));
+    return TripPattern
+      .of(TransitModelForTest.id(id))
+      .withRoute(ROUTE)
+      .withStopPattern(new StopPattern(List.of(st, st)))
+      .build()
+      .getRoutingTripPattern();
+  }
+}
@@ -0,0 +1,82 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.stopTime;
+
+import gnu.trove.set.hash.TIntHashSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.Timetable;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+class TripPatternForDateMapperTest {
+
+  private static final LocalDate DATE = LocalDate.of(2023, 1, 16);
+
+  private final TripPattern pattern = TransitModelForTest
+    .tripPattern("P1", TransitModelForTest.route("R1").build())
+    .withStopPattern(new StopPattern(List.of(stopTime(null, 0), stopTime(null, 1))))
+    .build();
+
+  private final TripTimes t1 = tripTimes("T1", 100);
+  private final TripTimes t2 = tripTimes("T2", 200);
+  private final TripTimes t3 = tripTimes("T3", 300);
+
+  private final TripPatternForDateMapper subject = new TripPatternForDateMapper(
+    Map.of(DATE, new TIntHashSet(new int[] { 0 }))
+  );
+
+  @Test
+  void patchChangedTripsOnly() {
+    var existing = subject.map(timetable(t1, t2, t3), DATE);
+
+    var delayed = new TripTimes(t1);
+    delayed.updateDepartureDelay(0, 250);
+    delayed.updateArrivalDelay(1, 250);
+    var deleted = new TripTimes(t2);
+    deleted.deleteTrip();
+    var updated = timetable(delayed, deleted, t3);
+
+    var changedTripIds = Set.of(t1.getTrip().getId(), t2.getTrip().getId());
+    var result = subject.patch(existing, updated, changedTripIds, DATE);
+
+    assertEquals(List.of(t3, delayed), result.tripTimes());
+    assertEquals(subject.map(updated, DATE).tripTimes(), result.tripTimes());
+  }
+
+  @Test
+  void patchAllTripsRemoved() {
+    var existing = subject.map(timetable(t1), DATE);
+    var deleted = new TripTimes(t1);
+    deleted.deleteTrip();
+
+    assertNull(subject.patch(existing, timetable(deleted), Set.of(t1.getTrip().getId()), DATE));
+  }
+
+  private Timetable timetable(TripTimes... tripTimes) {
+    var timetable = new Timetable(pattern);
+    for (TripTimes it : tripTimes) {
+      timetable.addTripTimes(it);
+    }
+    return timetable;
+  }
+
+  private static TripTimes tripTimes(String tripId, int departureTime) {
+    var trip = TransitModelForTest.trip(tripId).build();
+    var stopTimes = List.of(
+      stopTime(trip, 0, departureTime),
+      stopTime(trip, 1, departureTime + 60)
+    );
+    var tripTimes = new TripTimes(trip, stopTimes, new Deduplicator());
+    tripTimes.setServiceCode(0);
+    return tripTimes;
+  }
+}
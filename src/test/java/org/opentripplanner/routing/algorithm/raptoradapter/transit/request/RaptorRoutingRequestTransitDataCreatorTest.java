@@ -5,15 +5,17 @@ import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner._support.time.ZoneIds;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.StopTime;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternsForDateWindow;
 import org.opentripplanner.transit.model._data.TransitModelForTest;
 import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.framework.Deduplicator;
@@ -44,25 +46,47 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
     RoutingTripPattern tripPattern2 = createTripPattern(TP_ID_2);
     RoutingTripPattern tripPattern3 = createTripPattern(TP_ID_3);
 
-    List<TripPatternForDate> tripPatternsForDates = new ArrayList<>();
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsForDates = new HashMap<>();
 
     // TripPatterns valid for 1st day in search range
-    tripPatternsForDates.add(new TripPatternForDate(tripPattern1, tripTimes, List.of(), first));
-    tripPatternsForDates.add(new TripPatternForDate(tripPattern2, tripTimes, List.of(), first));
-    tripPatternsForDates.add(new TripPatternForDate(tripPattern3, tripTimes, List.of(), first));
+    tripPatternsForDates.put(
+      first,
+      List.of(
+        new TripPatternForDate(tripPattern1, tripTimes, List.of(), first),
+        new TripPatternForDate(tripPattern2, tripTimes, List.of(), first),
+        new TripPatternForDate(tripPattern3, tripTimes, List.of(), first)
+      )
+    );
 
     // TripPatterns valid for 2nd day in search range
-    tripPatternsForDates.add(new TripPatternForDate(tripPattern2, tripTimes, List.of(), second));
-    tripPatternsForDates.add(new TripPatternForDate(tripPattern3, tripTimes, List.of(), second));
+    tripPatternsForDates.put(
+      second,
+      List.of(
+        new TripPatternForDate(tripPattern2, tripTimes, List.of(), second),
+        new TripPatternForDate(tripPattern3, tripTimes, List.of(), second)
+      )
+    );
 
     // TripPatterns valid for 3rd day in search range
-    tripPatternsForDates.add(new TripPatternForDate(tripPattern1, tripTimes, List.of(), third));
-    tripPatternsForDates.add(new TripPatternForDate(tripPattern3, tripTimes, List.of(), third));
+    tripPatternsForDates.put(
+      third,
+      List.of(
+        new TripPatternForDate(tripPattern1, tripTimes, List.of(), third),
+        new TripPatternForDate(tripPattern3, tripTimes, List.of(), third)
+      )
+    );
+
+    var window = TripPatternsForDateWindow.create(
+      second,
+      1,
+      1,
+      date -> tripPatternsForDates.getOrDefault(date, List.of())
+    );
 
     // Patterns containing trip schedules for all 3 days. Trip schedules for later days are offset in time when requested.
     List<TripPatternForDates> combinedTripPatterns = RaptorRoutingRequestTransitDataCreator.merge(
       startOfTime,
-      tripPatternsForDates,
+      window,
       new TestTransitDataProviderFilter()
     );
 
@@ -129,18 +153,19 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
   }
 
   /**
-   * Utility class that does nothing, used just to avoid null value on filter
+   * Utility class that does nothing, used just to avoid null value on filter. All patterns and
+   * trips are accepted.
    */
   private static class TestTransitDataProviderFilter implements TransitDataProviderFilter {
 
     @Override
     public boolean tripPatternPredicate(TripPatternForDate tripPatternForDate) {
-      return false;
+      return true;
     }
 
     @Override
     public boolean tripTimesPredicate(TripTimes tripTimes, boolean withFilters) {
-      return false;
+      return true;
     }
 
     @Override
@@ -2,6 +2,7 @@ package org.opentripplanner.routing.algorithm.transferoptimization.services;
 
 import static java.time.Duration.ofMinutes;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.opentripplanner.raptor._data.stoparrival.BasicPathTestCase.COST_CALCULATOR;
 import static org.opentripplanner.raptor._data.transit.TestRoute.route;
 import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
@@ -106,6 +107,30 @@ public class TransferGeneratorTest implements RaptorTestConstants {
     );
   }
 
+  @Test
+  void reuseTransfersBetweenTheSameTripsForOtherPaths() {
+    data.withRoutes(
+      route("L1", STOP_A, STOP_B, STOP_C, STOP_D)
+        .withTimetable(schedule("10:02 10:10 10:20 10:30"), schedule("10:04 10:12 10:22 10:32"))
+    );
+    var subject = new TransferGenerator<>(tsAdaptor, data);
+
+    var first = subject.findAllPossibleTransfers(transitLegsSameRoute(STOP_A, STOP_C, STOP_D));
+    assertEquals(2, first.get(0).size());
+
+    // Same trips boarded at the same stop, but the path ends at stop C. Transfers after the
+    // arrival must be removed from the result, without changing the cached transfers.
+    var second = subject.findAllPossibleTransfers(transitLegsSameRoute(STOP_A, STOP_B, STOP_C));
+    assertEquals(
+      "[[TripToTripTransfer{from: [2 10:10 BUS L1], to: [2 10:12 BUS L1]}]]",
+      second.toString()
+    );
+    assertSame(first.get(0).get(0), second.get(0).get(0));
+
+    var third = subject.findAllPossibleTransfers(transitLegsSameRoute(STOP_A, STOP_C, STOP_D));
+    assertEquals(first, third);
+  }
+
   @Test
   void findGuaranteedTransferWithNoSlack() {
     data.withRoutes(
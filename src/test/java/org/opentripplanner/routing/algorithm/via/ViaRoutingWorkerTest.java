@@ -12,6 +12,8 @@ import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.framework.time.TimeUtils;
@@ -109,6 +111,40 @@ public class ViaRoutingWorkerTest {
     );
   }
 
+  @Test
+  public void testViaRoutingWorkerWithSegmentsInParallel() {
+    createItinieraries();
+    var request = createRouteViaRequest()
+      .copyOf()
+      .withMaxSegmentDuration(Duration.ofHours(2))
+      .build();
+    var requests = Collections.synchronizedList(new ArrayList<RouteRequest>());
+
+    var result = new ViaRoutingWorker(
+      request,
+      req -> {
+        requests.add(req);
+        return createRoutingResponse(req);
+      }
+    )
+      .route();
+
+    // Same combinations as the sequential search
+    assertEquals(List.of(s2i1, s2i2), result.plan().get(s1i1));
+    assertEquals(List.of(s2i3), result.plan().get(s1i2));
+
+    // The second segment departs after the earliest departure plus the min slack, and the window
+    // is extended by the max segment duration and the difference between max and min slack
+    assertEquals(2, requests.size());
+    var second = requests
+      .stream()
+      .filter(it -> it.from().lat == C.coordinate.latitude())
+      .findFirst()
+      .orElseThrow();
+    assertEquals(request.dateTime().plus(Duration.ofMinutes(10)), second.dateTime());
+    assertEquals(Duration.ofHours(1).plusHours(2).plusMinutes(35), second.searchWindow());
+  }
+
   /**
    * This function simulates the RoutingWorker for each request
    */
@@ -29,6 +29,7 @@ class RaptorPreferencesTest {
     .toInstant();
 
   private static final double RELAX_GENERALIZED_COST_AT_DESTINATION = 1.2;
+  private static final int SEARCH_WINDOW_THREADS = 4;
 
   private final RaptorPreferences subject = RaptorPreferences
     .of()
@@ -37,6 +38,7 @@ class RaptorPreferencesTest {
     .withOptimizations(OPTIMIZATIONS)
     .withTimeLimit(TIME_LIMIT)
     .withRelaxGeneralizedCostAtDestination(RELAX_GENERALIZED_COST_AT_DESTINATION)
+    .withSearchWindowThreads(SEARCH_WINDOW_THREADS)
     .build();
 
   @Test
@@ -111,6 +113,17 @@ class RaptorPreferencesTest {
     );
   }
 
+  @Test
+  void searchWindowThreads() {
+    assertEquals(1, RaptorPreferences.DEFAULT.searchWindowThreads());
+    assertEquals(SEARCH_WINDOW_THREADS, subject.searchWindowThreads());
+    assertEquals(1, RaptorPreferences.of().withSearchWindowThreads(0).build().searchWindowThreads());
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> RaptorPreferences.of().withSearchWindowThreads(-1).build()
+    );
+  }
+
   @Test
   void testEqualsAndHashCode() {
     // Return same object if no value is set
@@ -132,7 +145,8 @@ class RaptorPreferencesTest {
       "profile: STANDARD, " +
       "searchDirection: REVERSE, " +
       "timeLimit: 2020-06-09T00:00:00Z, " +
-      "relaxGeneralizedCostAtDestination: 1.2" +
+      "relaxGeneralizedCostAtDestination: 1.2, " +
+      "searchWindowThreads: 4" +
       "}",
       subject.toString()
     );
@@ -0,0 +1,61 @@
+package org.opentripplanner.routing.graph.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.routing.linking.Scope;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+
+class EdgeSpatialIndexTest {
+
+  private static final Envelope AREA = new Envelope(9.9, 10.1, 59.9, 60.1);
+
+  private final EdgeSpatialIndex subject = new EdgeSpatialIndex();
+
+  private final StreetEdge e0 = edge(0);
+  private final StreetEdge e1 = edge(1);
+  private final StreetEdge e2 = edge(2);
+  private final StreetEdge e3 = edge(3);
+
+  @Test
+  void queryPackedAndInsertedEdges() {
+    insert(e0);
+    insert(e2);
+    insert(e3);
+    subject.compact();
+
+    // Changed after the tree is packed
+    insert(e1);
+    subject.remove(e2.getGeometry().getEnvelopeInternal(), e2, Scope.PERMANENT);
+
+    assertEquals(Set.of(e0, e1, e3), query(AREA));
+    assertEquals(Set.of(e1), query(new Envelope(10.0, 10.001, 60.01, 60.011)));
+
+    subject.compact();
+    assertEquals(Set.of(e0, e1, e3), query(AREA));
+  }
+
+  @Test
+  void queryEmptyIndex() {
+    assertEquals(Set.of(), query(AREA));
+  }
+
+  private Set<Edge> query(Envelope envelope) {
+    return subject.query(envelope, Scope.PERMANENT).collect(Collectors.toSet());
+  }
+
+  private void insert(Edge edge) {
+    subject.insert(edge.getGeometry(), edge, Scope.PERMANENT);
+  }
+
+  private static StreetEdge edge(int i) {
+    double lat = 60 + i * 0.01;
+    return streetEdge(intersectionVertex(lat, 10.0), intersectionVertex(lat + 0.001, 10.001));
+  }
+}
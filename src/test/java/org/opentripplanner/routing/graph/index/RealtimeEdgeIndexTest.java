@@ -0,0 +1,91 @@
+package org.opentripplanner.routing.graph.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+
+class RealtimeEdgeIndexTest {
+
+  private static final Envelope ALL = new Envelope(-180, 180, -90, 90);
+
+  private final RealtimeEdgeIndex subject = new RealtimeEdgeIndex();
+
+  @Test
+  void changesAreVisibleWhenPublished() {
+    var a = edge(0);
+    var b = edge(1);
+    var initial = subject.snapshot();
+
+    subject.insert(envelope(a), a);
+    subject.insert(envelope(b), b);
+    assertEquals(Set.of(), query(subject.snapshot(), ALL));
+
+    subject.publish();
+    var first = subject.snapshot();
+    assertEquals(Set.of(a, b), query(first, ALL));
+    assertEquals(Set.of(b), query(first, envelope(b)));
+    assertEquals(initial.version() + 1, first.version());
+
+    subject.remove(a);
+    subject.publish();
+    var second = subject.snapshot();
+    assertEquals(Set.of(b), query(second, ALL));
+    assertEquals(first.version() + 1, second.version());
+
+    // A reader holding the first version still sees the removed edge
+    assertEquals(Set.of(a, b), query(first, ALL));
+    assertEquals(Set.of(), query(initial, ALL));
+  }
+
+  @Test
+  void publishWithoutChanges() {
+    var before = subject.snapshot();
+    subject.publish();
+    assertEquals(before, subject.snapshot());
+  }
+
+  @Test
+  void repackManyChanges() {
+    List<StreetEdge> edges = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      var e = edge(i);
+      edges.add(e);
+      subject.insert(envelope(e), e);
+      subject.publish();
+    }
+    for (int i = 0; i < 1000; i += 2) {
+      subject.remove(edges.get(i));
+      subject.publish();
+    }
+    var snapshot = subject.snapshot();
+
+    assertEquals(500, snapshot.size());
+    assertEquals(
+      edges.stream().filter(e -> edges.indexOf(e) % 2 == 1).collect(Collectors.toSet()),
+      query(snapshot, ALL)
+    );
+    assertEquals(Set.of(edges.get(11)), query(snapshot, envelope(edges.get(11))));
+  }
+
+  private static Set<Edge> query(RealtimeEdgeIndex.Snapshot snapshot, Envelope envelope) {
+    return snapshot.query(envelope).collect(Collectors.toSet());
+  }
+
+  private static StreetEdge edge(int i) {
+    double lat = 60 + i * 0.01;
+    return streetEdge(intersectionVertex(lat, 10.0), intersectionVertex(lat + 0.001, 10.001));
+  }
+
+  private static Envelope envelope(Edge edge) {
+    return edge.getGeometry().getEnvelopeInternal();
+  }
+}
@@ -0,0 +1,126 @@
+package org.opentripplanner.routing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+
+class RoutingResultCacheTest {
+
+  private static final Instant TIME = Instant.parse("2023-01-16T12:00:10Z");
+  private static final Object TRANSIT_DATA_VERSION = new Object();
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final RoutingResultCache subject = new RoutingResultCache(
+    new RoutingResultCacheParameters() {
+      @Override
+      public int maxSize() {
+        return 10;
+      }
+
+      @Override
+      public Duration timeToLive() {
+        return Duration.ofHours(1);
+      }
+
+      @Override
+      public Duration timeBucket() {
+        return Duration.ofMinutes(1);
+      }
+
+      @Override
+      public int gridSize() {
+        return 50;
+      }
+    },
+    registry
+  );
+  private final List<RouteRequest> routedRequests = new ArrayList<>();
+
+  @Test
+  void cacheRequestsWithTheSameNormalizedParameters() {
+    var first = route(request(59.9, 10.7, TIME));
+    var second = route(request(59.900001, 10.699999, TIME.plusSeconds(30)));
+
+    assertSame(first, second);
+    assertEquals(1, routedRequests.size());
+    assertEquals(1.0, registry.counter("routing.resultCache.hits").count());
+    assertEquals(1.0, registry.counter("routing.resultCache.misses").count());
+
+    // The request is routed unchanged, only the key is normalized
+    assertEquals(TIME, routedRequests.get(0).dateTime());
+    assertEquals(59.9, routedRequests.get(0).from().lat, 0.0);
+  }
+
+  @Test
+  void doNotShareResponseForDifferentRequests() {
+    route(request(59.9, 10.7, TIME));
+    route(request(59.9, 10.7, TIME.plusSeconds(60)));
+    route(request(59.91, 10.7, TIME));
+
+    var otherPreferences = request(59.9, 10.7, TIME);
+    otherPreferences.withPreferences(p -> p.withWalk(w -> w.withSpeed(2.0)));
+    route(otherPreferences);
+
+    var otherModes = request(59.9, 10.7, TIME);
+    otherModes.journey().transit().disable();
+    route(otherModes);
+
+    assertEquals(5, routedRequests.size());
+  }
+
+  @Test
+  void clearCacheWhenTransitDataChanges() {
+    var first = route(request(59.9, 10.7, TIME));
+    var second = subject.route(request(59.9, 10.7, TIME), new Object(), this::router);
+
+    assertNotSame(first, second);
+    assertEquals(2, routedRequests.size());
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void invalidateEntriesInTheChangedArea() {
+    route(request(59.9, 10.7, TIME));
+    route(request(60.4, 11.2, TIME));
+    assertEquals(2, subject.size());
+
+    // Far away from both requests
+    subject.invalidate(List.of(new Envelope(5.0, 5.1, 58.0, 58.1)));
+    assertEquals(2, subject.size());
+
+    // Close to the first request
+    subject.invalidate(List.of(new Envelope(10.701, 10.701, 59.899, 59.899)));
+    assertEquals(1, subject.size());
+
+    route(request(60.4, 11.2, TIME));
+    assertEquals(2, routedRequests.size());
+  }
+
+  private RoutingResponse route(RouteRequest request) {
+    return subject.route(request, TRANSIT_DATA_VERSION, this::router);
+  }
+
+  private RoutingResponse router(RouteRequest request) {
+    routedRequests.add(request);
+    return new RoutingResponse(null, null, null, null, List.of(), null);
+  }
+
+  private static RouteRequest request(double lat, double lng, Instant time) {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(lat, lng));
+    request.setTo(new GenericLocation(lat + 0.1, lng + 0.1));
+    request.setDateTime(time);
+    return request;
+  }
+}
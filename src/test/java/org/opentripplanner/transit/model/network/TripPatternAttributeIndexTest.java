@@ -0,0 +1,134 @@
+package org.opentripplanner.transit.model.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.opentripplanner.routing.api.request.request.filter.AllowAllTransitFilter;
+import org.opentripplanner.routing.api.request.request.filter.SelectRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilter;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilterRequest;
+import org.opentripplanner.test.support.VariableSource;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.basic.MainAndSubMode;
+import org.opentripplanner.transit.model.basic.SubMode;
+import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.model.organization.Agency;
+
+class TripPatternAttributeIndexTest {
+
+  private static final Agency AGENCY_2 = TransitModelForTest.agency("A2");
+  private static final GroupOfRoutes GROUP = TransitModelForTest.groupOfRoutes("G1").build();
+
+  private static final Route BUS_ROUTE = TransitModelForTest
+    .route("R1")
+    .withGroupOfRoutes(List.of(GROUP))
+    .build();
+  private static final Route LOCAL_BUS_ROUTE = TransitModelForTest
+    .route("R2")
+    .withNetexSubmode("localBus")
+    .build();
+  private static final Route RAIL_ROUTE = TransitModelForTest
+    .route("R3")
+    .withMode(TransitMode.RAIL)
+    .withAgency(AGENCY_2)
+    .build();
+
+  private static final TripPattern BUS = pattern("P1", BUS_ROUTE);
+  private static final TripPattern LOCAL_BUS = pattern("P2", LOCAL_BUS_ROUTE);
+  private static final TripPattern RAIL = pattern("P3", RAIL_ROUTE);
+  private static final TripPattern MULTI_MODE = TransitModelForTest
+    .tripPattern("P4", RAIL_ROUTE)
+    .withStopPattern(TransitModelForTest.stopPattern(2))
+    .withContainsMultipleModes(true)
+    .build();
+
+  private static final List<TripPattern> PATTERNS = List.of(BUS, LOCAL_BUS, RAIL, MULTI_MODE);
+
+  private static final TripPatternAttributeIndex subject = TripPatternAttributeIndex.of(PATTERNS);
+
+  static Stream<Arguments> filterTestCases = Stream
+    .of(
+      AllowAllTransitFilter.of(),
+      select(SelectRequest.of().addTransportMode(new MainAndSubMode(TransitMode.BUS))),
+      select(SelectRequest.of().addTransportMode(new MainAndSubMode(TransitMode.RAIL))),
+      select(
+        SelectRequest
+          .of()
+          .addTransportMode(new MainAndSubMode(TransitMode.BUS, SubMode.of("localBus")))
+      ),
+      select(SelectRequest.of().withAgencies(List.of(AGENCY_2.getId()))),
+      select(SelectRequest.of().withRoutes(List.of(BUS_ROUTE.getId(), RAIL_ROUTE.getId()))),
+      select(SelectRequest.of().withGroupOfRoutes(List.of(GROUP.getId()))),
+      TransitFilterRequest
+        .of()
+        .addNot(SelectRequest.of().withRoutes(List.of(LOCAL_BUS_ROUTE.getId())).build())
+        .build(),
+      TransitFilterRequest
+        .of()
+        .addSelect(
+          SelectRequest.of().addTransportMode(new MainAndSubMode(TransitMode.BUS)).build()
+        )
+        .addSelect(SelectRequest.of().withAgencies(List.of(AGENCY_2.getId())).build())
+        .addNot(SelectRequest.of().withRoutes(List.of(BUS_ROUTE.getId())).build())
+        .build()
+    )
+    .map(Arguments::of);
+
+  @ParameterizedTest
+  @VariableSource("filterTestCases")
+  void matchTripPatternsGiveSameResultAsMatchTripPattern(TransitFilter filter) {
+    var expected = new BitSet();
+    for (TripPattern pattern : PATTERNS) {
+      if (filter.matchTripPattern(pattern)) {
+        expected.set(pattern.getRoutingTripPattern().patternIndex());
+      }
+    }
+    assertEquals(expected, filter.matchTripPatterns(subject));
+  }
+
+  @Test
+  void isIndexed() {
+    var other = pattern("P5", BUS_ROUTE);
+
+    assertTrue(subject.isIndexed(BUS.getRoutingTripPattern().patternIndex()));
+    assertFalse(subject.isIndexed(other.getRoutingTripPattern().patternIndex()));
+    assertFalse(
+      TripPatternAttributeIndex.EMPTY.isIndexed(BUS.getRoutingTripPattern().patternIndex())
+    );
+  }
+
+  @Test
+  void patternsMatchingModeIncludePatternsWithMultipleModes() {
+    var result = subject.patternsMatchingMode((mode, subMode) -> false);
+
+    assertEquals(1, result.cardinality());
+    assertTrue(result.get(MULTI_MODE.getRoutingTripPattern().patternIndex()));
+  }
+
+  @Test
+  void resultCanBeModifiedByCaller() {
+    subject.allPatterns().clear();
+    subject.patternsForRoutes(List.of(BUS_ROUTE.getId())).clear();
+
+    assertEquals(4, subject.allPatterns().cardinality());
+    assertEquals(1, subject.patternsForRoutes(List.of(BUS_ROUTE.getId())).cardinality());
+  }
+
+  private static TransitFilter select(SelectRequest.Builder select) {
+    return TransitFilterRequest.of().addSelect(select.build()).build();
+  }
+
+  private static TripPattern pattern(String id, Route route) {
+    return TransitModelForTest
+      .tripPattern(id, route)
+      .withStopPattern(TransitModelForTest.stopPattern(2))
+      .build();
+  }
+}
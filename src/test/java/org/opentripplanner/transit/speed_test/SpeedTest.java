@@ -115,6 +115,7 @@ public class SpeedTest {
         TestServerContext.createVehicleRentalService(),
         config.flexConfig,
         List.of(),
+        TestServerContext.createServerCaches(graph),
         null
       );
     // Creating transitLayerForRaptor should be integrated into the TransitModel, but for now
@@ -4,10 +4,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
 import com.google.common.util.concurrent.Futures;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.mockito.Mockito;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.vehicle_parking.VehicleParking;
@@ -119,6 +124,35 @@ class VehicleParkingUpdaterTest {
     assertEquals(vehiclePlaces, vehicleParkingInGraph.getCapacity());
   }
 
+  @Test
+  public void notifyTheAreaOfEachChangedVehicleParking() {
+    List<Collection<Envelope>> changedAreas = new ArrayList<>();
+    graph.addRealtimeUpdateListener(changedAreas::add);
+
+    var oneSpace = VehicleParkingSpaces.builder().bicycleSpaces(1).build();
+    var twoSpaces = VehicleParkingSpaces.builder().bicycleSpaces(2).build();
+    var first = VehicleParkingTestUtil.createParkingWithEntrances("1", 0.0001, 0, oneSpace);
+    var second = VehicleParkingTestUtil.createParkingWithEntrances("2", 0.0099, 0, oneSpace);
+
+    when(dataSource.getUpdates()).thenReturn(List.of(first, second));
+    runUpdaterOnce();
+
+    assertEquals(1, changedAreas.size());
+    assertEquals(Set.of(envelope(0.0001, 0), envelope(0.0099, 0)), Set.copyOf(changedAreas.get(0)));
+
+    // Only the first vehicle parking has changed
+    first = VehicleParkingTestUtil.createParkingWithEntrances("1", 0.0001, 0, twoSpaces);
+    when(dataSource.getUpdates()).thenReturn(List.of(first, second));
+    runUpdaterOnce();
+
+    assertEquals(2, changedAreas.size());
+    assertEquals(Set.of(envelope(0.0001, 0)), Set.copyOf(changedAreas.get(1)));
+
+    // Nothing has changed, the listeners are not notified
+    runUpdaterOnce();
+    assertEquals(2, changedAreas.size());
+  }
+
   @Test
   public void deleteVehicleParkingTest() {
     var vehicleParkings = List.of(
@@ -251,6 +285,10 @@ class VehicleParkingUpdaterTest {
     );
   }
 
+  private static Envelope envelope(double x, double y) {
+    return new Envelope(new Coordinate(x, y));
+  }
+
   private void runUpdaterOnce() {
     class GraphUpdaterMock extends GraphUpdaterManager {
 
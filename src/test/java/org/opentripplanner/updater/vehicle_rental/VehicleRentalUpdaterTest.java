@@ -1,16 +1,28 @@
 package org.opentripplanner.updater.vehicle_rental;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.common.util.concurrent.Futures;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Future;
 import javax.annotation.Nonnull;
 import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.i18n.NonLocalizedString;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.vehicle_parking.VehicleParkingTestGraphData;
 import org.opentripplanner.service.vehiclerental.internal.DefaultVehicleRentalService;
+import org.opentripplanner.service.vehiclerental.model.RentalVehicleType;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
+import org.opentripplanner.service.vehiclerental.model.VehicleRentalStation;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.GraphUpdaterManager;
 import org.opentripplanner.updater.GraphWriterRunnable;
@@ -37,6 +49,66 @@ class VehicleRentalUpdaterTest {
     assertTrue(updater.isPrimed());
   }
 
+  @Test
+  void notifyTheAreaOfEachChangedStation() {
+    var graphData = new VehicleParkingTestGraphData();
+    graphData.initGraph();
+    var graph = graphData.getGraph();
+    var transitModel = graphData.getTransitModel();
+    transitModel.index();
+    graph.index(transitModel.getStopModel());
+
+    List<Collection<Envelope>> changedAreas = new ArrayList<>();
+    graph.addRealtimeUpdateListener(changedAreas::add);
+
+    var source = new StaticDatasource();
+    var updater = new VehicleRentalUpdater(
+      new VehicleRentalUpdaterParameters("A", -1, new FakeParams()),
+      source,
+      graph.getLinker(),
+      new DefaultVehicleRentalService()
+    );
+    updater.setGraphUpdaterManager(runnable -> {
+      runnable.run(graph, transitModel);
+      return Futures.immediateVoidFuture();
+    });
+
+    source.stations = List.of(station("1", "One", 0.0001), station("2", "Two", 0.0099));
+    updater.runPolling();
+
+    assertEquals(1, changedAreas.size());
+    assertEquals(Set.of(envelope(0.0001), envelope(0.0099)), Set.copyOf(changedAreas.get(0)));
+
+    // Only the name of the second station has changed, it is shown in the vector tiles
+    source.stations = List.of(station("1", "One", 0.0001), station("2", "Second", 0.0099));
+    updater.runPolling();
+
+    assertEquals(2, changedAreas.size());
+    assertEquals(List.of(envelope(0.0099)), List.copyOf(changedAreas.get(1)));
+
+    // Nothing has changed, the listeners are not notified
+    updater.runPolling();
+    assertEquals(2, changedAreas.size());
+  }
+
+  private static VehicleRentalStation station(String id, String name, double longitude) {
+    var station = new VehicleRentalStation();
+    var vehicleType = RentalVehicleType.getDefaultType("network");
+    station.id = new FeedScopedId("network", id);
+    station.name = new NonLocalizedString(name);
+    station.latitude = 0;
+    station.longitude = longitude;
+    station.vehiclesAvailable = 1;
+    station.spacesAvailable = 1;
+    station.vehicleTypesAvailable = Map.of(vehicleType, 1);
+    station.vehicleSpacesAvailable = Map.of(vehicleType, 1);
+    return station;
+  }
+
+  private static Envelope envelope(double longitude) {
+    return new Envelope(new Coordinate(longitude, 0));
+  }
+
   static class MockManager extends GraphUpdaterManager {
 
     public MockManager(VehicleRentalUpdater updater) {
@@ -62,6 +134,21 @@ class VehicleRentalUpdaterTest {
     }
   }
 
+  static class StaticDatasource implements VehicleRentalDatasource {
+
+    private List<VehicleRentalPlace> stations = List.of();
+
+    @Override
+    public boolean update() {
+      return true;
+    }
+
+    @Override
+    public List<VehicleRentalPlace> getUpdates() {
+      return stations;
+    }
+  }
+
   static class FakeParams implements VehicleRentalDataSourceParameters {
 
     @Nonnull